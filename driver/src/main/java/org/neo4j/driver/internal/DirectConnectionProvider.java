@@ -53,6 +53,18 @@ public class DirectConnectionProvider implements ConnectionProvider
         return acquireConnection( READ ).thenCompose( Connection::release );
     }
 
+    @Override
+    public CompletionStage<Void> drain( BoltServerAddress address )
+    {
+        return connectionPool.drain( address );
+    }
+
+    @Override
+    public void endDrain( BoltServerAddress address )
+    {
+        connectionPool.endDrain( address );
+    }
+
     @Override
     public CompletionStage<Void> close()
     {
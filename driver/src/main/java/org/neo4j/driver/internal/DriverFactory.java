@@ -21,6 +21,7 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.security.GeneralSecurityException;
@@ -30,12 +31,19 @@ import org.neo4j.driver.internal.async.ChannelConnector;
 import org.neo4j.driver.internal.async.ChannelConnectorImpl;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
 import org.neo4j.driver.internal.async.pool.PoolSettings;
+import org.neo4j.driver.internal.async.pool.SharedConnectionPool;
+import org.neo4j.driver.internal.async.pool.SharedConnectionPools;
+import org.neo4j.driver.internal.cluster.FileRoutingTableSnapshot;
 import org.neo4j.driver.internal.cluster.RoutingContext;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
+import org.neo4j.driver.internal.cluster.RoutingTableSnapshot;
 import org.neo4j.driver.internal.cluster.loadbalancing.LeastConnectedLoadBalancingStrategy;
+import org.neo4j.driver.internal.cluster.loadbalancing.LeastResponseTimeLoadBalancingStrategy;
 import org.neo4j.driver.internal.cluster.loadbalancing.LoadBalancer;
 import org.neo4j.driver.internal.cluster.loadbalancing.LoadBalancingStrategy;
+import org.neo4j.driver.internal.cluster.loadbalancing.PowerOfTwoChoicesLoadBalancingStrategy;
 import org.neo4j.driver.internal.cluster.loadbalancing.RoundRobinLoadBalancingStrategy;
+import org.neo4j.driver.internal.cluster.loadbalancing.ZoneAwareLoadBalancingStrategy;
 import org.neo4j.driver.internal.logging.NettyLogging;
 import org.neo4j.driver.internal.metrics.InternalAbstractMetrics;
 import org.neo4j.driver.internal.metrics.InternalMetrics;
@@ -68,22 +76,36 @@ public class DriverFactory
     public static final String BOLT_URI_SCHEME = "bolt";
     public static final String BOLT_ROUTING_URI_SCHEME = "bolt+routing";
 
-    public final Driver newInstance( URI uri, AuthToken authToken, RoutingSettings routingSettings,
+    public final Driver newInstance( URI uri, AuthToken token, RoutingSettings routingSettings,
             RetrySettings retrySettings, Config config )
     {
-        authToken = authToken == null ? AuthTokens.none() : authToken;
+        AuthToken authToken = token == null ? AuthTokens.none() : token;
 
         BoltServerAddress address = new BoltServerAddress( uri );
         RoutingSettings newRoutingSettings = routingSettings.withRoutingContext( new RoutingContext( uri ) );
         SecurityPlan securityPlan = createSecurityPlan( address, config );
 
         InternalLoggerFactory.setDefaultFactory( new NettyLogging( config.logging() ) );
-        Bootstrap bootstrap = createBootstrap();
-        EventExecutorGroup eventExecutorGroup = bootstrap.config().group();
-        RetryLogic retryLogic = createRetryLogic( retrySettings, eventExecutorGroup, config.logging() );
 
-        InternalAbstractMetrics metrics = createDriverMetrics( config );
-        ConnectionPool connectionPool = createConnectionPool( authToken, securityPlan, bootstrap, metrics, config );
+        Bootstrap bootstrap;
+        InternalAbstractMetrics metrics;
+        ConnectionPool connectionPool;
+        if ( config.sharedConnectionPool() )
+        {
+            SharedConnectionPool sharedConnectionPool = attachToSharedConnectionPool( authToken, address, securityPlan, config );
+            bootstrap = sharedConnectionPool.bootstrap();
+            metrics = sharedConnectionPool.metrics();
+            connectionPool = sharedConnectionPool;
+        }
+        else
+        {
+            bootstrap = createBootstrap();
+            metrics = createDriverMetrics( config );
+            connectionPool = createConnectionPool( authToken, securityPlan, bootstrap, metrics, config );
+        }
+
+        EventExecutorGroup eventExecutorGroup = bootstrap.config().group();
+        RetryLogic retryLogic = createRetryLogic( retrySettings, eventExecutorGroup, metrics, config.logging() );
 
         InternalDriver driver = createDriver( uri, securityPlan, address, connectionPool, eventExecutorGroup, newRoutingSettings, retryLogic, metrics, config );
 
@@ -99,9 +121,30 @@ public class DriverFactory
         ChannelConnector connector = createConnector( settings, securityPlan, config, clock );
         PoolSettings poolSettings = new PoolSettings( config.maxConnectionPoolSize(),
                 config.connectionAcquisitionTimeoutMillis(), config.maxConnectionLifetimeMillis(),
-                config.idleTimeBeforeConnectionTest()
+                config.idleTimeBeforeConnectionTest(), config.minConnectionPoolSize(),
+                config.circuitBreakerFailureRateThreshold(), config.circuitBreakerCoolDownMillis(),
+                config.loadBalancingStrategy() == Config.LoadBalancingStrategy.LEAST_RESPONSE_TIME
         );
-        return new ConnectionPoolImpl( connector, bootstrap, poolSettings, metrics, config.logging(), clock );
+        return new ConnectionPoolImpl( connector, bootstrap, poolSettings, metrics, config.logging(), clock,
+                !config.sharedConnectionPool() );
+    }
+
+    private SharedConnectionPool attachToSharedConnectionPool( AuthToken authToken, BoltServerAddress address,
+            SecurityPlan securityPlan, Config config )
+    {
+        return sharedConnectionPools().attach( authToken, address, config, () -> createDriverMetrics( config ),
+                ( bootstrap, metrics ) -> createConnectionPool( authToken, securityPlan, bootstrap, metrics, config ) );
+    }
+
+    /**
+     * Get registry of connection pools shared between drivers created with
+     * {@link Config.ConfigBuilder#withSharedConnectionPool()}.
+     * <p>
+     * <b>This method is protected only for testing</b>
+     */
+    protected SharedConnectionPools sharedConnectionPools()
+    {
+        return SharedConnectionPools.jvmWide();
     }
 
     protected static InternalAbstractMetrics createDriverMetrics( Config config )
@@ -123,7 +166,8 @@ public class DriverFactory
     }
 
     private InternalDriver createDriver( URI uri, SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool,
-            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, Metrics metrics, Config config )
+            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, InternalAbstractMetrics metrics,
+            Config config )
     {
         try
         {
@@ -132,7 +176,7 @@ public class DriverFactory
             {
             case BOLT_URI_SCHEME:
                 assertNoRoutingContext( uri, routingSettings );
-                return createDirectDriver( securityPlan, address, connectionPool, retryLogic, metrics, config );
+                return createDirectDriver( securityPlan, address, connectionPool, eventExecutorGroup, retryLogic, metrics, config );
             case BOLT_ROUTING_URI_SCHEME:
                 return createRoutingDriver( securityPlan, address, connectionPool, eventExecutorGroup, routingSettings, retryLogic, metrics, config );
             default:
@@ -152,11 +196,12 @@ public class DriverFactory
      * <p>
      * <b>This method is protected only for testing</b>
      */
-    protected InternalDriver createDirectDriver( SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool, RetryLogic retryLogic,
-            Metrics metrics, Config config )
+    protected InternalDriver createDirectDriver( SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool,
+            EventExecutorGroup eventExecutorGroup, RetryLogic retryLogic, Metrics metrics, Config config )
     {
         ConnectionProvider connectionProvider = new DirectConnectionProvider( address, connectionPool );
-        SessionFactory sessionFactory = createSessionFactory( connectionProvider, retryLogic, config );
+        SessionFactory sessionFactory =
+                createSessionFactory( connectionProvider, retryLogic, eventExecutorGroup, config );
         InternalDriver driver = createDriver(securityPlan, sessionFactory, metrics, config);
         Logger log = config.logging().getLog( Driver.class.getSimpleName() );
         log.info( "Direct driver instance %s created for server address %s", driver.hashCode(), address );
@@ -169,15 +214,17 @@ public class DriverFactory
      * <b>This method is protected only for testing</b>
      */
     protected InternalDriver createRoutingDriver( SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool,
-            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, Metrics metrics, Config config )
+            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, InternalAbstractMetrics metrics,
+            Config config )
     {
         if ( !securityPlan.isRoutingCompatible() )
         {
             throw new IllegalArgumentException( "The chosen security plan is not compatible with a routing driver" );
         }
         ConnectionProvider connectionProvider = createLoadBalancer( address, connectionPool, eventExecutorGroup,
-                config, routingSettings );
-        SessionFactory sessionFactory = createSessionFactory( connectionProvider, retryLogic, config );
+                config, routingSettings, metrics );
+        SessionFactory sessionFactory =
+                createSessionFactory( connectionProvider, retryLogic, eventExecutorGroup, config );
         InternalDriver driver = createDriver(securityPlan, sessionFactory, metrics, config);
         Logger log = config.logging().getLog( Driver.class.getSimpleName() );
         log.info( "Routing driver instance %s created for server address %s", driver.hashCode(), address );
@@ -200,15 +247,44 @@ public class DriverFactory
      * <b>This method is protected only for testing</b>
      */
     protected LoadBalancer createLoadBalancer( BoltServerAddress address, ConnectionPool connectionPool,
-            EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings )
+            EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings,
+            MetricsListener metricsListener )
     {
         LoadBalancingStrategy loadBalancingStrategy = createLoadBalancingStrategy( config, connectionPool );
-        return new LoadBalancer( address, routingSettings, connectionPool, eventExecutorGroup, createClock(),
-                config.logging(), loadBalancingStrategy );
+        Clock clock = createClock();
+        LoadBalancer loadBalancer = new LoadBalancer( address, routingSettings, connectionPool, eventExecutorGroup,
+                clock, config.logging(), loadBalancingStrategy, metricsListener,
+                createRoutingTableSnapshot( address, config, clock ) );
+        loadBalancer.restoreRoutingTable();
+        return loadBalancer;
+    }
+
+    private static RoutingTableSnapshot createRoutingTableSnapshot( BoltServerAddress address, Config config,
+            Clock clock )
+    {
+        File snapshotFile = config.routingTableSnapshotFile();
+        if ( snapshotFile == null )
+        {
+            return RoutingTableSnapshot.NONE;
+        }
+        return new FileRoutingTableSnapshot( snapshotFile, address, clock,
+                config.logging().getLog( LoadBalancer.class.getSimpleName() ) );
     }
 
     private static LoadBalancingStrategy createLoadBalancingStrategy( Config config,
             ConnectionPool connectionPool )
+    {
+        LoadBalancingStrategy strategy = createBaseLoadBalancingStrategy( config, connectionPool );
+        if ( config.clientZone() == null )
+        {
+            return strategy;
+        }
+        return new ZoneAwareLoadBalancingStrategy( strategy, config.clientZone(), config.serverZones(),
+                connectionPool, config.logging() );
+    }
+
+    private static LoadBalancingStrategy createBaseLoadBalancingStrategy( Config config,
+            ConnectionPool connectionPool )
     {
         switch ( config.loadBalancingStrategy() )
         {
@@ -216,6 +292,10 @@ public class DriverFactory
             return new RoundRobinLoadBalancingStrategy( config.logging() );
         case LEAST_CONNECTED:
             return new LeastConnectedLoadBalancingStrategy( connectionPool, config.logging() );
+        case LEAST_RESPONSE_TIME:
+            return new LeastResponseTimeLoadBalancingStrategy( connectionPool, config.logging() );
+        case POWER_OF_TWO_CHOICES:
+            return new PowerOfTwoChoicesLoadBalancingStrategy( connectionPool, config.logging() );
         default:
             throw new IllegalArgumentException( "Unknown load balancing strategy: " + config.loadBalancingStrategy() );
         }
@@ -237,9 +317,9 @@ public class DriverFactory
      * <b>This method is protected only for testing</b>
      */
     protected SessionFactory createSessionFactory( ConnectionProvider connectionProvider, RetryLogic retryLogic,
-            Config config )
+            EventExecutorGroup eventExecutorGroup, Config config )
     {
-        return new SessionFactoryImpl( connectionProvider, retryLogic, config );
+        return new SessionFactoryImpl( connectionProvider, retryLogic, eventExecutorGroup, config );
     }
 
     /**
@@ -248,9 +328,9 @@ public class DriverFactory
      * <b>This method is protected only for testing</b>
      */
     protected RetryLogic createRetryLogic( RetrySettings settings, EventExecutorGroup eventExecutorGroup,
-            Logging logging )
+            MetricsListener metrics, Logging logging )
     {
-        return new ExponentialBackoffRetryLogic( settings, eventExecutorGroup, createClock(), logging );
+        return new ExponentialBackoffRetryLogic( settings, eventExecutorGroup, createClock(), metrics, logging );
     }
 
     /**
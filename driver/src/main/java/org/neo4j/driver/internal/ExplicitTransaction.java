@@ -195,7 +195,7 @@ public class ExplicitTransaction extends AbstractStatementRunner implements Tran
     @Override
     public StatementResult run( Statement statement )
     {
-        StatementResultCursor cursor = Futures.blockingGet( run( statement, false ),
+        InternalStatementResultCursor cursor = Futures.blockingGet( run( statement, false ),
                 () -> terminateConnectionOnThreadInterrupt( "Thread interrupted while running query in transaction" ) );
         return new InternalStatementResult( connection, cursor );
     }
@@ -211,7 +211,7 @@ public class ExplicitTransaction extends AbstractStatementRunner implements Tran
     {
         ensureCanRunQueries();
         CompletionStage<InternalStatementResultCursor> cursorStage =
-                QueryRunner.runInTransaction( connection, statement, this, waitForRunResponse );
+                QueryRunner.runInTransaction( connection, statement, this, session.fetchSize(), waitForRunResponse );
         resultCursors.add( cursorStage );
         return cursorStage;
     }
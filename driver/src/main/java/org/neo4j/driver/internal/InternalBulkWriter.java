@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.neo4j.driver.internal.summary.InternalBulkWriteSummary;
+import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.v1.BulkWriter;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResultCursor;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.exceptions.BulkWriteException;
+import org.neo4j.driver.v1.summary.BulkWriteSummary;
+
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+
+public class InternalBulkWriter implements BulkWriter
+{
+    static final String ROWS_PARAMETER = "rows";
+    static final int DEFAULT_BATCH_SIZE = 1000;
+    static final int DEFAULT_BATCHES_PER_TRANSACTION = 4;
+    static final int DEFAULT_PARALLELISM = 4;
+
+    // rows come from a user supplied iterator which might block, so it is never advanced on driver IO threads
+    private static final Executor ROWS_EXECUTOR =
+            Executors.newCachedThreadPool( new DefaultThreadFactory( "Neo4jDriverBulkWriter", true ) );
+
+    private final Supplier<Session> sessionSupplier;
+    private final String statementTemplate;
+    private final int batchSize;
+    private final int batchesPerTransaction;
+    private final int parallelism;
+    private final Executor rowsExecutor;
+
+    public InternalBulkWriter( Supplier<Session> sessionSupplier, String statementTemplate )
+    {
+        this( sessionSupplier, statementTemplate, ROWS_EXECUTOR );
+    }
+
+    InternalBulkWriter( Supplier<Session> sessionSupplier, String statementTemplate, Executor rowsExecutor )
+    {
+        this( sessionSupplier, statementTemplate, rowsExecutor, DEFAULT_BATCH_SIZE, DEFAULT_BATCHES_PER_TRANSACTION,
+                DEFAULT_PARALLELISM );
+    }
+
+    private InternalBulkWriter( Supplier<Session> sessionSupplier, String statementTemplate, Executor rowsExecutor,
+            int batchSize, int batchesPerTransaction, int parallelism )
+    {
+        this.sessionSupplier = sessionSupplier;
+        this.statementTemplate = statementTemplate;
+        this.rowsExecutor = rowsExecutor;
+        this.batchSize = batchSize;
+        this.batchesPerTransaction = batchesPerTransaction;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public BulkWriter withBatchSize( int batchSize )
+    {
+        if ( batchSize <= 0 )
+        {
+            throw new IllegalArgumentException( "Batch size is expected to be a positive number but was: " + batchSize );
+        }
+        return new InternalBulkWriter( sessionSupplier, statementTemplate, rowsExecutor, batchSize, batchesPerTransaction,
+                parallelism );
+    }
+
+    @Override
+    public BulkWriter withBatchesPerTransaction( int batchesPerTransaction )
+    {
+        if ( batchesPerTransaction <= 0 )
+        {
+            throw new IllegalArgumentException(
+                    "Batches per transaction is expected to be a positive number but was: " + batchesPerTransaction );
+        }
+        return new InternalBulkWriter( sessionSupplier, statementTemplate, rowsExecutor, batchSize, batchesPerTransaction,
+                parallelism );
+    }
+
+    @Override
+    public BulkWriter withParallelism( int parallelism )
+    {
+        if ( parallelism <= 0 )
+        {
+            throw new IllegalArgumentException( "Parallelism is expected to be a positive number but was: " + parallelism );
+        }
+        return new InternalBulkWriter( sessionSupplier, statementTemplate, rowsExecutor, batchSize, batchesPerTransaction,
+                parallelism );
+    }
+
+    @Override
+    public BulkWriteSummary write( Iterable<? extends Map<String,Object>> rows )
+    {
+        return Futures.blockingGet( writeAsync( rows ) );
+    }
+
+    @Override
+    public CompletionStage<BulkWriteSummary> writeAsync( Iterable<? extends Map<String,Object>> rows )
+    {
+        BulkWrite write = new BulkWrite( rows.iterator() );
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[parallelism];
+        for ( int i = 0; i < parallelism; i++ )
+        {
+            workers[i] = runWorker( write ).toCompletableFuture();
+        }
+        return CompletableFuture.allOf( workers ).handle( ( ignore, error ) ->
+        {
+            BulkWriteSummary summary = write.summary();
+            if ( error != null )
+            {
+                // all workers are done, so the summary covers every committed transaction
+                throw new CompletionException(
+                        new BulkWriteException( summary, Futures.completionExceptionCause( error ) ) );
+            }
+            return summary;
+        } );
+    }
+
+    private CompletionStage<Void> runWorker( BulkWrite write )
+    {
+        Session session = sessionSupplier.get();
+        return completedWithNull()
+                .thenCompose( ignore -> runTransactions( session, write ) )
+                .handle( ( ignore, error ) ->
+                {
+                    if ( error != null )
+                    {
+                        // stop other workers from starting new transactions
+                        write.fail();
+                    }
+                    return error;
+                } )
+                .thenCompose( error -> session.closeAsync().handle( ( ignore, closeError ) ->
+                {
+                    CompletionException combinedError = Futures.combineErrors( error, closeError );
+                    if ( combinedError != null )
+                    {
+                        throw combinedError;
+                    }
+                    return null;
+                } ) );
+    }
+
+    private CompletionStage<Void> runTransactions( Session session, BulkWrite write )
+    {
+        return CompletableFuture.supplyAsync( write::nextBatches, rowsExecutor ).thenCompose( batches ->
+        {
+            if ( batches.isEmpty() )
+            {
+                return completedWithNull();
+            }
+            return session.writeTransactionAsync( tx -> runBatches( tx, batches ) ).thenCompose( latencies ->
+            {
+                write.committed( batches, latencies );
+                return runTransactions( session, write );
+            } );
+        } );
+    }
+
+    private CompletionStage<long[]> runBatches( Transaction tx, List<List<Map<String,Object>>> batches )
+    {
+        String statementText = "UNWIND $" + ROWS_PARAMETER + " AS row " + statementTemplate;
+
+        // all batches are sent without waiting for results of the previous ones, they are pipelined on the connection
+        List<CompletableFuture<Long>> latencies = new ArrayList<>( batches.size() );
+        for ( List<Map<String,Object>> batch : batches )
+        {
+            long start = System.nanoTime();
+            latencies.add( tx.runAsync( statementText, Collections.<String,Object>singletonMap( ROWS_PARAMETER, batch ) )
+                    .thenCompose( StatementResultCursor::consumeAsync )
+                    .thenApply( summary -> System.nanoTime() - start )
+                    .toCompletableFuture() );
+        }
+        return CompletableFuture.allOf( latencies.toArray( new CompletableFuture<?>[0] ) )
+                .thenApply( ignore -> latencies.stream().mapToLong( CompletableFuture::join ).toArray() );
+    }
+
+    private class BulkWrite
+    {
+        final Iterator<? extends Map<String,Object>> rows;
+        final long startNanos = System.nanoTime();
+        // separate locks, so that IO threads recording commits never wait for a worker blocked in the iterator
+        final Lock rowsLock = new ReentrantLock();
+        final Lock statsLock = new ReentrantLock();
+
+        volatile boolean failed;
+        long committedRows;
+        long committedBatches;
+        long committedTransactions;
+        long lastCommitNanos;
+        long totalBatchLatencyNanos;
+        long maxBatchLatencyNanos;
+
+        BulkWrite( Iterator<? extends Map<String,Object>> rows )
+        {
+            this.rows = rows;
+        }
+
+        List<List<Map<String,Object>>> nextBatches()
+        {
+            // workers pull concurrently, the iterator itself is not expected to be thread-safe
+            rowsLock.lock();
+            try
+            {
+                List<List<Map<String,Object>>> batches = new ArrayList<>( batchesPerTransaction );
+                while ( !failed && batches.size() < batchesPerTransaction && rows.hasNext() )
+                {
+                    List<Map<String,Object>> batch = new ArrayList<>( batchSize );
+                    while ( batch.size() < batchSize && rows.hasNext() )
+                    {
+                        batch.add( rows.next() );
+                    }
+                    batches.add( batch );
+                }
+                return batches;
+            }
+            finally
+            {
+                rowsLock.unlock();
+            }
+        }
+
+        void committed( List<List<Map<String,Object>>> batches, long[] latencies )
+        {
+            statsLock.lock();
+            try
+            {
+                for ( List<Map<String,Object>> batch : batches )
+                {
+                    committedRows += batch.size();
+                }
+                for ( long latency : latencies )
+                {
+                    totalBatchLatencyNanos += latency;
+                    maxBatchLatencyNanos = Math.max( maxBatchLatencyNanos, latency );
+                }
+                committedBatches += batches.size();
+                committedTransactions++;
+                lastCommitNanos = System.nanoTime();
+            }
+            finally
+            {
+                statsLock.unlock();
+            }
+        }
+
+        void fail()
+        {
+            // volatile flag, a worker blocked in the iterator should not delay the failure
+            failed = true;
+        }
+
+        BulkWriteSummary summary()
+        {
+            statsLock.lock();
+            try
+            {
+                long elapsedNanos = committedTransactions == 0 ? 0 : lastCommitNanos - startNanos;
+                return new InternalBulkWriteSummary( committedRows, committedBatches, committedTransactions,
+                        elapsedNanos, totalBatchLatencyNanos, maxBatchLatencyNanos );
+            }
+            finally
+            {
+                statsLock.unlock();
+            }
+        }
+    }
+}
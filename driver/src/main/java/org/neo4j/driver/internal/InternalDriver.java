@@ -17,6 +17,8 @@
  */
 package org.neo4j.driver.internal;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -24,7 +26,9 @@ import org.neo4j.driver.internal.metrics.spi.Metrics;
 import org.neo4j.driver.internal.security.SecurityPlan;
 import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.AccessMode;
+import org.neo4j.driver.v1.BulkWriter;
 import org.neo4j.driver.v1.Driver;
+import org.neo4j.driver.v1.FanOut;
 import org.neo4j.driver.v1.Logger;
 import org.neo4j.driver.v1.Logging;
 import org.neo4j.driver.v1.Session;
@@ -91,6 +95,20 @@ public class InternalDriver implements Driver
         return newSession( mode, Bookmark.from( bookmarks ) );
     }
 
+    @Override
+    public BulkWriter bulkWriter( String statementTemplate )
+    {
+        assertOpen();
+        return new InternalBulkWriter( () -> session( AccessMode.WRITE ), statementTemplate );
+    }
+
+    @Override
+    public FanOut fanOut( String statementTemplate, List<? extends Map<String,Object>> partitions )
+    {
+        assertOpen();
+        return new InternalFanOut( () -> session( AccessMode.READ ), statementTemplate, partitions );
+    }
+
     private Session newSession( AccessMode mode, Bookmark bookmark )
     {
         assertOpen();
@@ -125,6 +143,30 @@ public class InternalDriver implements Driver
         return sessionFactory.verifyConnectivity();
     }
 
+    @Override
+    public CompletionStage<Void> drain( String address )
+    {
+        return drain( new BoltServerAddress( address ) );
+    }
+
+    public CompletionStage<Void> drain( BoltServerAddress address )
+    {
+        assertOpen();
+        return sessionFactory.drain( address );
+    }
+
+    @Override
+    public void endDrain( String address )
+    {
+        endDrain( new BoltServerAddress( address ) );
+    }
+
+    public void endDrain( BoltServerAddress address )
+    {
+        assertOpen();
+        sessionFactory.endDrain( address );
+    }
+
     /**
      * Get the underlying session factory.
      * <p>
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.v1.FanOut;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResultCursor;
+
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+
+public class InternalFanOut implements FanOut
+{
+    static final int DEFAULT_PARALLELISM = 4;
+
+    private final Supplier<Session> sessionSupplier;
+    private final String statementTemplate;
+    private final List<? extends Map<String,Object>> partitions;
+    private final int parallelism;
+
+    public InternalFanOut( Supplier<Session> sessionSupplier, String statementTemplate,
+            List<? extends Map<String,Object>> partitions )
+    {
+        this( sessionSupplier, statementTemplate, partitions, DEFAULT_PARALLELISM );
+    }
+
+    private InternalFanOut( Supplier<Session> sessionSupplier, String statementTemplate,
+            List<? extends Map<String,Object>> partitions, int parallelism )
+    {
+        this.sessionSupplier = sessionSupplier;
+        this.statementTemplate = statementTemplate;
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public FanOut withParallelism( int parallelism )
+    {
+        if ( parallelism <= 0 )
+        {
+            throw new IllegalArgumentException( "Parallelism is expected to be a positive number but was: " + parallelism );
+        }
+        return new InternalFanOut( sessionSupplier, statementTemplate, partitions, parallelism );
+    }
+
+    @Override
+    public List<Record> list()
+    {
+        return Futures.blockingGet( listAsync() );
+    }
+
+    @Override
+    public CompletionStage<List<Record>> listAsync()
+    {
+        return runPartitions( StatementResultCursor::listAsync ).thenApply( partitionRecords ->
+        {
+            List<Record> records = new ArrayList<>();
+            for ( List<Record> partition : partitionRecords )
+            {
+                records.addAll( partition );
+            }
+            return records;
+        } );
+    }
+
+    @Override
+    public <T> T reduce( T identity, BiFunction<T,? super Record,T> accumulator, BinaryOperator<T> combiner )
+    {
+        return Futures.blockingGet( reduceAsync( identity, accumulator, combiner ) );
+    }
+
+    @Override
+    public <T> CompletionStage<T> reduceAsync( T identity, BiFunction<T,? super Record,T> accumulator,
+            BinaryOperator<T> combiner )
+    {
+        return runPartitions( cursor ->
+        {
+            // every attempt of a retried partition starts from the identity
+            AtomicReference<T> result = new AtomicReference<>( identity );
+            return cursor.forEachAsync( record -> result.set( accumulator.apply( result.get(), record ) ) )
+                    .thenApply( summary -> result.get() );
+        } ).thenApply( partitionResults -> partitionResults.stream().reduce( identity, combiner ) );
+    }
+
+    private <T> CompletionStage<List<T>> runPartitions( Function<StatementResultCursor,CompletionStage<T>> resultMapper )
+    {
+        Object[] results = new Object[partitions.size()];
+        AtomicInteger nextPartition = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+
+        int workerCount = Math.min( parallelism, partitions.size() );
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+        for ( int i = 0; i < workerCount; i++ )
+        {
+            workers[i] = runWorker( resultMapper, results, nextPartition, failed ).toCompletableFuture();
+        }
+        return CompletableFuture.allOf( workers ).thenApply( ignore ->
+        {
+            @SuppressWarnings( "unchecked" )
+            List<T> partitionResults = (List<T>) Arrays.asList( results );
+            return partitionResults;
+        } );
+    }
+
+    private <T> CompletionStage<Void> runWorker( Function<StatementResultCursor,CompletionStage<T>> resultMapper,
+            Object[] results, AtomicInteger nextPartition, AtomicBoolean failed )
+    {
+        Session session = sessionSupplier.get();
+        return completedWithNull()
+                .thenCompose( ignore -> runPartitions( session, resultMapper, results, nextPartition, failed ) )
+                .handle( ( ignore, error ) ->
+                {
+                    if ( error != null )
+                    {
+                        // stop other workers from starting new partitions
+                        failed.set( true );
+                    }
+                    return error;
+                } )
+                .thenCompose( error -> session.closeAsync().handle( ( ignore, closeError ) ->
+                {
+                    CompletionException combinedError = Futures.combineErrors( error, closeError );
+                    if ( combinedError != null )
+                    {
+                        throw combinedError;
+                    }
+                    return null;
+                } ) );
+    }
+
+    private <T> CompletionStage<Void> runPartitions( Session session,
+            Function<StatementResultCursor,CompletionStage<T>> resultMapper, Object[] results,
+            AtomicInteger nextPartition, AtomicBoolean failed )
+    {
+        int partition = nextPartition.getAndIncrement();
+        if ( failed.get() || partition >= results.length )
+        {
+            return completedWithNull();
+        }
+        Map<String,Object> parameters = partitions.get( partition );
+        return session.readTransactionAsync( tx -> tx.runAsync( statementTemplate, parameters ).thenCompose( resultMapper ) )
+                .thenCompose( result ->
+                {
+                    results[partition] = result;
+                    return runPartitions( session, resultMapper, results, nextPartition, failed );
+                } );
+    }
+}
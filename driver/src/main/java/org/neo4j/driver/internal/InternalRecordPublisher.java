@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.reactive.Publisher;
+import org.neo4j.driver.v1.reactive.Subscriber;
+import org.neo4j.driver.v1.reactive.Subscription;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Publisher that executes a statement when subscribed and streams its records to the single subscriber.
+ */
+public class InternalRecordPublisher implements Publisher<Record>
+{
+    public static final Subscription CANCELLED_SUBSCRIPTION = new Subscription()
+    {
+        @Override
+        public void request( long n )
+        {
+        }
+
+        @Override
+        public void cancel()
+        {
+        }
+    };
+
+    private final Supplier<CompletionStage<InternalStatementResultCursor>> cursorSupplier;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public InternalRecordPublisher( Supplier<CompletionStage<InternalStatementResultCursor>> cursorSupplier )
+    {
+        this.cursorSupplier = cursorSupplier;
+    }
+
+    @Override
+    public void subscribe( Subscriber<? super Record> subscriber )
+    {
+        requireNonNull( subscriber );
+        if ( !subscribed.compareAndSet( false, true ) )
+        {
+            subscriber.onSubscribe( CANCELLED_SUBSCRIPTION );
+            subscriber.onError( new IllegalStateException( "Publisher allows only a single subscriber" ) );
+            return;
+        }
+
+        cursorSupplier.get().whenComplete( ( cursor, completionError ) ->
+        {
+            Throwable error = Futures.completionExceptionCause( completionError );
+            if ( error != null )
+            {
+                subscriber.onSubscribe( CANCELLED_SUBSCRIPTION );
+                subscriber.onError( error );
+            }
+            else
+            {
+                cursor.subscribe( subscriber );
+            }
+        } );
+    }
+}
@@ -24,7 +24,6 @@ import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.StatementResult;
-import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.driver.v1.exceptions.NoSuchRecordException;
 import org.neo4j.driver.v1.summary.ResultSummary;
@@ -33,10 +32,10 @@ import org.neo4j.driver.v1.util.Function;
 public class InternalStatementResult implements StatementResult
 {
     private final Connection connection;
-    private final StatementResultCursor cursor;
+    private final InternalStatementResultCursor cursor;
     private List<String> keys;
 
-    public InternalStatementResult( Connection connection, StatementResultCursor cursor )
+    public InternalStatementResult( Connection connection, InternalStatementResultCursor cursor )
     {
         this.connection = connection;
         this.cursor = cursor;
@@ -47,7 +46,7 @@ public class InternalStatementResult implements StatementResult
     {
         if ( keys == null )
         {
-            blockingGet( cursor.peekAsync() );
+            cursor.peekBlocking( this::terminateConnectionOnThreadInterrupt );
             keys = cursor.keys();
         }
         return keys;
@@ -56,13 +55,13 @@ public class InternalStatementResult implements StatementResult
     @Override
     public boolean hasNext()
     {
-        return blockingGet( cursor.peekAsync() ) != null;
+        return cursor.peekBlocking( this::terminateConnectionOnThreadInterrupt ) != null;
     }
 
     @Override
     public Record next()
     {
-        Record record = blockingGet( cursor.nextAsync() );
+        Record record = cursor.nextBlocking( this::terminateConnectionOnThreadInterrupt );
         if ( record == null )
         {
             throw new NoSuchRecordException( "No more records" );
@@ -79,7 +78,7 @@ public class InternalStatementResult implements StatementResult
     @Override
     public Record peek()
     {
-        Record record = blockingGet( cursor.peekAsync() );
+        Record record = cursor.peekBlocking( this::terminateConnectionOnThreadInterrupt );
         if ( record == null )
         {
             throw new NoSuchRecordException( "Cannot peek past the last record" );
@@ -18,15 +18,14 @@
 package org.neo4j.driver.internal;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import org.neo4j.driver.internal.handlers.PullAllResponseHandler;
 import org.neo4j.driver.internal.handlers.RunResponseHandler;
-import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.exceptions.NoSuchRecordException;
+import org.neo4j.driver.v1.reactive.Subscriber;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.util.Consumer;
 import org.neo4j.driver.v1.util.Function;
@@ -61,6 +60,21 @@ public class InternalStatementResultCursor implements StatementResultCursor
         return pullAllHandler.nextAsync();
     }
 
+    public Record peekBlocking( Runnable interruptHandler )
+    {
+        return pullAllHandler.peekBlocking( interruptHandler );
+    }
+
+    public Record nextBlocking( Runnable interruptHandler )
+    {
+        return pullAllHandler.nextBlocking( interruptHandler );
+    }
+
+    public void subscribe( Subscriber<? super Record> subscriber )
+    {
+        pullAllHandler.subscribe( subscriber );
+    }
+
     @Override
     public CompletionStage<Record> peekAsync()
     {
@@ -100,9 +114,7 @@ public class InternalStatementResultCursor implements StatementResultCursor
     @Override
     public CompletionStage<ResultSummary> forEachAsync( Consumer<Record> action )
     {
-        CompletableFuture<Void> resultFuture = new CompletableFuture<>();
-        internalForEachAsync( action, resultFuture );
-        return resultFuture.thenCompose( ignore -> summaryAsync() );
+        return pullAllHandler.forEachAsync( action ).thenCompose( ignore -> summaryAsync() );
     }
 
     @Override
@@ -121,37 +133,4 @@ public class InternalStatementResultCursor implements StatementResultCursor
     {
         return pullAllHandler.failureAsync();
     }
-
-    private void internalForEachAsync( Consumer<Record> action, CompletableFuture<Void> resultFuture )
-    {
-        CompletionStage<Record> recordFuture = nextAsync();
-
-        // use async completion listener because of recursion, otherwise it is possible for
-        // the caller thread to get StackOverflowError when result is large and buffered
-        recordFuture.whenCompleteAsync( ( record, completionError ) ->
-        {
-            Throwable error = Futures.completionExceptionCause( completionError );
-            if ( error != null )
-            {
-                resultFuture.completeExceptionally( error );
-            }
-            else if ( record != null )
-            {
-                try
-                {
-                    action.accept( record );
-                }
-                catch ( Throwable actionError )
-                {
-                    resultFuture.completeExceptionally( actionError );
-                    return;
-                }
-                internalForEachAsync( action, resultFuture );
-            }
-            else
-            {
-                resultFuture.complete( null );
-            }
-        } );
-    }
 }
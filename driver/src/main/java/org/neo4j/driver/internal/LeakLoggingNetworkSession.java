@@ -17,6 +17,8 @@
  */
 package org.neo4j.driver.internal;
 
+import io.netty.util.concurrent.EventExecutorGroup;
+
 import org.neo4j.driver.internal.retry.RetryLogic;
 import org.neo4j.driver.internal.spi.ConnectionProvider;
 import org.neo4j.driver.internal.util.Futures;
@@ -32,7 +34,20 @@ class LeakLoggingNetworkSession extends NetworkSession
     LeakLoggingNetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
             Logging logging )
     {
-        super( connectionProvider, mode, retryLogic, logging );
+        this( connectionProvider, mode, retryLogic, logging, -1 );
+    }
+
+    LeakLoggingNetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
+            Logging logging, int fetchSize )
+    {
+        this( connectionProvider, mode, retryLogic, logging, fetchSize, null, -1 );
+    }
+
+    LeakLoggingNetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
+            Logging logging, int fetchSize, EventExecutorGroup eventExecutorGroup, long connectionAffinityMillis )
+    {
+        super( connectionProvider, mode, retryLogic, logging, fetchSize, eventExecutorGroup,
+                connectionAffinityMillis );
         this.stackTrace = captureStackTrace();
     }
 
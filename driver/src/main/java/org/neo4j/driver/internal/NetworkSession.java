@@ -17,12 +17,15 @@
  */
 package org.neo4j.driver.internal;
 
+import io.netty.util.concurrent.EventExecutorGroup;
+
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.driver.internal.async.QueryRunner;
+import org.neo4j.driver.internal.async.StickyConnection;
 import org.neo4j.driver.internal.logging.PrefixedLogger;
 import org.neo4j.driver.internal.retry.RetryLogic;
 import org.neo4j.driver.internal.spi.Connection;
@@ -31,6 +34,7 @@ import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.Logger;
 import org.neo4j.driver.v1.Logging;
+import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
@@ -38,6 +42,7 @@ import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.Transaction;
 import org.neo4j.driver.v1.TransactionWork;
 import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.reactive.Publisher;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.neo4j.driver.internal.util.Futures.completedWithNull;
@@ -58,11 +63,29 @@ public class NetworkSession extends AbstractStatementRunner implements Session
     private volatile CompletionStage<InternalStatementResultCursor> resultCursorStage = completedWithNull();
 
     private final AtomicBoolean open = new AtomicBoolean( true );
+    private final int fetchSize;
+    private final EventExecutorGroup eventExecutorGroup;
+    private final long connectionAffinityMillis;
 
     public NetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
             Logging logging )
+    {
+        this( connectionProvider, mode, retryLogic, logging, -1 );
+    }
+
+    public NetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
+            Logging logging, int fetchSize )
+    {
+        this( connectionProvider, mode, retryLogic, logging, fetchSize, null, -1 );
+    }
+
+    public NetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
+            Logging logging, int fetchSize, EventExecutorGroup eventExecutorGroup, long connectionAffinityMillis )
     {
         this.connectionProvider = connectionProvider;
+        this.fetchSize = fetchSize;
+        this.eventExecutorGroup = eventExecutorGroup;
+        this.connectionAffinityMillis = connectionAffinityMillis;
         this.mode = mode;
         this.retryLogic = retryLogic;
         this.logger = new PrefixedLogger( "[" + hashCode() + "]", logging.getLog( LOG_NAME ) );
@@ -71,7 +94,7 @@ public class NetworkSession extends AbstractStatementRunner implements Session
     @Override
     public StatementResult run( Statement statement )
     {
-        StatementResultCursor cursor = Futures.blockingGet( run( statement, false ),
+        InternalStatementResultCursor cursor = Futures.blockingGet( run( statement, false ),
                 () -> terminateConnectionOnThreadInterrupt( "Thread interrupted while running query in session" ) );
 
         // query executed, it is safe to obtain a connection in a blocking way
@@ -86,6 +109,12 @@ public class NetworkSession extends AbstractStatementRunner implements Session
         return (CompletionStage) run( statement, true );
     }
 
+    @Override
+    public Publisher<Record> runRx( Statement statement )
+    {
+        return new InternalRecordPublisher( () -> run( statement, true ) );
+    }
+
     @Override
     public boolean isOpen()
     {
@@ -173,6 +202,11 @@ public class NetworkSession extends AbstractStatementRunner implements Session
         return transactionAsync( AccessMode.WRITE, work );
     }
 
+    int fetchSize()
+    {
+        return fetchSize;
+    }
+
     void setBookmark( Bookmark bookmark )
     {
         if ( bookmark != null && !bookmark.isEmpty() )
@@ -364,7 +398,7 @@ public class NetworkSession extends AbstractStatementRunner implements Session
 
         CompletionStage<InternalStatementResultCursor> newResultCursorStage = ensureNoOpenTxBeforeRunningQuery()
                 .thenCompose( ignore -> acquireConnection( mode ) )
-                .thenCompose( connection -> QueryRunner.runInSession( connection, statement, waitForRunResponse ) );
+                .thenCompose( connection -> QueryRunner.runInSession( connection, statement, fetchSize, waitForRunResponse ) );
 
         resultCursorStage = newResultCursorStage.exceptionally( error -> null );
 
@@ -440,12 +474,18 @@ public class NetworkSession extends AbstractStatementRunner implements Session
             }
         } ).thenCompose( existingConnection ->
         {
+            if ( existingConnection instanceof StickyConnection &&
+                 ((StickyConnection) existingConnection).tryReuse( mode ) )
+            {
+                // connection kept from the previous statement can be used again
+                return completedFuture( existingConnection );
+            }
             if ( existingConnection != null && existingConnection.isOpen() )
             {
                 // there somehow is an existing open connection, this should not happen, just a precondition
                 throw new IllegalStateException( "Existing open connection detected" );
             }
-            return connectionProvider.acquireConnection( mode );
+            return acquireNewConnection( mode );
         } );
 
         connectionStage = newConnectionStage.exceptionally( error -> null );
@@ -453,6 +493,17 @@ public class NetworkSession extends AbstractStatementRunner implements Session
         return newConnectionStage;
     }
 
+    private CompletionStage<Connection> acquireNewConnection( AccessMode mode )
+    {
+        CompletionStage<Connection> newConnectionStage = connectionProvider.acquireConnection( mode );
+        if ( connectionAffinityMillis > 0 )
+        {
+            return newConnectionStage.thenApply( connection ->
+                    new StickyConnection( connection, mode, eventExecutorGroup, connectionAffinityMillis ) );
+        }
+        return newConnectionStage;
+    }
+
     private CompletionStage<Throwable> closeTransactionAndReleaseConnection()
     {
         return existingTransactionOrNull().thenCompose( tx ->
@@ -475,6 +526,11 @@ public class NetworkSession extends AbstractStatementRunner implements Session
     {
         return connectionStage.thenCompose( connection ->
         {
+            if ( connection instanceof StickyConnection )
+            {
+                // session is closing, do not keep the connection any longer
+                return ((StickyConnection) connection).releaseNow();
+            }
             if ( connection != null )
             {
                 // there exists connection, try to release it back to the pool
@@ -28,5 +28,9 @@ public interface SessionFactory
 
     CompletionStage<Void> verifyConnectivity();
 
+    CompletionStage<Void> drain( BoltServerAddress address );
+
+    void endDrain( BoltServerAddress address );
+
     CompletionStage<Void> close();
 }
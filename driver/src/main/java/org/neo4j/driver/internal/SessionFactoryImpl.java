@@ -17,6 +17,8 @@
  */
 package org.neo4j.driver.internal;
 
+import io.netty.util.concurrent.EventExecutorGroup;
+
 import java.util.concurrent.CompletionStage;
 
 import org.neo4j.driver.internal.retry.RetryLogic;
@@ -32,11 +34,24 @@ public class SessionFactoryImpl implements SessionFactory
     private final RetryLogic retryLogic;
     private final Logging logging;
     private final boolean leakedSessionsLoggingEnabled;
+    private final int fetchSize;
+    private final EventExecutorGroup eventExecutorGroup;
+    private final long connectionAffinityMillis;
 
+    // Used only in testing
     SessionFactoryImpl( ConnectionProvider connectionProvider, RetryLogic retryLogic, Config config )
+    {
+        this( connectionProvider, retryLogic, null, config );
+    }
+
+    SessionFactoryImpl( ConnectionProvider connectionProvider, RetryLogic retryLogic,
+            EventExecutorGroup eventExecutorGroup, Config config )
     {
         this.connectionProvider = connectionProvider;
         this.leakedSessionsLoggingEnabled = config.logLeakedSessions();
+        this.fetchSize = config.fetchSize();
+        this.eventExecutorGroup = eventExecutorGroup;
+        this.connectionAffinityMillis = config.sessionConnectionAffinityMillis();
         this.retryLogic = retryLogic;
         this.logging = config.logging();
     }
@@ -55,6 +70,18 @@ public class SessionFactoryImpl implements SessionFactory
         return connectionProvider.verifyConnectivity();
     }
 
+    @Override
+    public CompletionStage<Void> drain( BoltServerAddress address )
+    {
+        return connectionProvider.drain( address );
+    }
+
+    @Override
+    public void endDrain( BoltServerAddress address )
+    {
+        connectionProvider.endDrain( address );
+    }
+
     @Override
     public CompletionStage<Void> close()
     {
@@ -77,7 +104,9 @@ public class SessionFactoryImpl implements SessionFactory
             AccessMode mode, Logging logging )
     {
         return leakedSessionsLoggingEnabled
-               ? new LeakLoggingNetworkSession( connectionProvider, mode, retryLogic, logging )
-               : new NetworkSession( connectionProvider, mode, retryLogic, logging );
+               ? new LeakLoggingNetworkSession( connectionProvider, mode, retryLogic, logging, fetchSize,
+                       eventExecutorGroup, connectionAffinityMillis )
+               : new NetworkSession( connectionProvider, mode, retryLogic, logging, fetchSize,
+                       eventExecutorGroup, connectionAffinityMillis );
     }
 }
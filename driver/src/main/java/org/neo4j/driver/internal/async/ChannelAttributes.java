@@ -22,6 +22,7 @@ import io.netty.util.AttributeKey;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.inbound.InboundMessageDispatcher;
+import org.neo4j.driver.internal.async.pool.ChannelCounts;
 import org.neo4j.driver.internal.util.ServerVersion;
 
 import static io.netty.util.AttributeKey.newInstance;
@@ -34,6 +35,7 @@ public final class ChannelAttributes
     private static final AttributeKey<Long> LAST_USED_TIMESTAMP = newInstance( "lastUsedTimestamp" );
     private static final AttributeKey<InboundMessageDispatcher> MESSAGE_DISPATCHER = newInstance( "messageDispatcher" );
     private static final AttributeKey<String> TERMINATION_REASON = newInstance( "terminationReason" );
+    private static final AttributeKey<ChannelCounts> CHANNEL_COUNTS = newInstance( "channelCounts" );
 
     private ChannelAttributes()
     {
@@ -99,6 +101,16 @@ public final class ChannelAttributes
         setOnce( channel, TERMINATION_REASON, reason );
     }
 
+    public static ChannelCounts channelCounts( Channel channel )
+    {
+        return get( channel, CHANNEL_COUNTS );
+    }
+
+    public static void setChannelCounts( Channel channel, ChannelCounts counts )
+    {
+        setOnce( channel, CHANNEL_COUNTS, counts );
+    }
+
     private static <T> T get( Channel channel, AttributeKey<T> key )
     {
         return channel.attr( key ).get();
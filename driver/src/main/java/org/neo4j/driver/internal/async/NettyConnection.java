@@ -57,8 +57,15 @@ public class NettyConnection implements Connection
     private final AtomicReference<Status> status = new AtomicReference<>( Status.OPEN );
     private final MetricsListener metricsListener;
     private final ListenerEvent inUseEvent;
+    private final ResponseLatencyListener latencyListener;
 
     public NettyConnection( Channel channel, ChannelPool channelPool, Clock clock, MetricsListener metricsListener )
+    {
+        this( channel, channelPool, clock, metricsListener, null );
+    }
+
+    public NettyConnection( Channel channel, ChannelPool channelPool, Clock clock, MetricsListener metricsListener,
+            ResponseLatencyListener latencyListener )
     {
         this.channel = channel;
         this.messageDispatcher = ChannelAttributes.messageDispatcher( channel );
@@ -69,6 +76,7 @@ public class NettyConnection implements Connection
         this.clock = clock;
         this.metricsListener = metricsListener;
         this.inUseEvent = metricsListener.createListenerEvent();
+        this.latencyListener = latencyListener;
         metricsListener.afterConnectionCreated( this.serverAddress, this.inUseEvent );
     }
 
@@ -78,6 +86,12 @@ public class NettyConnection implements Connection
         return status.get() == Status.OPEN;
     }
 
+    @Override
+    public boolean isActive()
+    {
+        return isOpen() && channel.isActive();
+    }
+
     @Override
     public void enableAutoRead()
     {
@@ -167,6 +181,10 @@ public class NettyConnection implements Connection
     private void run( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
             ResponseHandler pullAllHandler, boolean flush )
     {
+        if ( latencyListener != null )
+        {
+            runHandler = new LatencyTrackingResponseHandler( runHandler, serverAddress, latencyListener );
+        }
         writeMessagesInEventLoop( new RunMessage( statement, parameters ), runHandler, PullAllMessage.PULL_ALL,
                 pullAllHandler, flush );
     }
@@ -246,6 +264,41 @@ public class NettyConnection implements Connection
         }
     }
 
+    private static class LatencyTrackingResponseHandler implements ResponseHandler
+    {
+        final ResponseHandler delegate;
+        final BoltServerAddress serverAddress;
+        final ResponseLatencyListener latencyListener;
+        final long startNanos = System.nanoTime();
+
+        LatencyTrackingResponseHandler( ResponseHandler delegate, BoltServerAddress serverAddress,
+                ResponseLatencyListener latencyListener )
+        {
+            this.delegate = delegate;
+            this.serverAddress = serverAddress;
+            this.latencyListener = latencyListener;
+        }
+
+        @Override
+        public void onSuccess( Map<String,Value> metadata )
+        {
+            latencyListener.responseReceived( serverAddress, System.nanoTime() - startNanos );
+            delegate.onSuccess( metadata );
+        }
+
+        @Override
+        public void onFailure( Throwable error )
+        {
+            delegate.onFailure( error );
+        }
+
+        @Override
+        public void onRecord( Value[] fields )
+        {
+            delegate.onRecord( fields );
+        }
+    }
+
     private enum Status
     {
         OPEN,
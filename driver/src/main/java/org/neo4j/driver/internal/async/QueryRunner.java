@@ -48,7 +48,7 @@ public final class QueryRunner
     }
 
     /**
-     * Execute given statement for {@link Session#run(Statement)}.
+     * Execute given statement for {@link Session#run(Statement)} using the default fetch size.
      *
      * @param connection the network connection to use.
      * @param statement the cypher to execute.
@@ -56,11 +56,30 @@ public final class QueryRunner
      * execution. Makes returned cursor stage be chained after the RUN response arrives. Needed to have statement
      * keys populated.
      * @return stage with cursor.
+     * @see #runInSession(Connection, Statement, int, boolean)
      */
     public static CompletionStage<InternalStatementResultCursor> runInSession( Connection connection,
             Statement statement, boolean waitForRunResponse )
     {
-        return run( connection, statement, null, waitForRunResponse );
+        return runInSession( connection, statement, -1, waitForRunResponse );
+    }
+
+    /**
+     * Execute given statement for {@link Session#run(Statement)}.
+     *
+     * @param connection the network connection to use.
+     * @param statement the cypher to execute.
+     * @param defaultFetchSize the fetch size to use when statement does not define one, not positive for the driver
+     * default.
+     * @param waitForRunResponse {@code true} for async query execution and {@code false} for blocking query
+     * execution. Makes returned cursor stage be chained after the RUN response arrives. Needed to have statement
+     * keys populated.
+     * @return stage with cursor.
+     */
+    public static CompletionStage<InternalStatementResultCursor> runInSession( Connection connection,
+            Statement statement, int defaultFetchSize, boolean waitForRunResponse )
+    {
+        return run( connection, statement, null, defaultFetchSize, waitForRunResponse );
     }
 
     /**
@@ -69,26 +88,29 @@ public final class QueryRunner
      * @param connection the network connection to use.
      * @param statement the cypher to execute.
      * @param tx the transaction which executes the query.
+     * @param defaultFetchSize the fetch size to use when statement does not define one, not positive for the driver
+     * default.
      * @param waitForRunResponse {@code true} for async query execution and {@code false} for blocking query
      * execution. Makes returned cursor stage be chained after the RUN response arrives. Needed to have statement
      * keys populated.
      * @return stage with cursor.
      */
     public static CompletionStage<InternalStatementResultCursor> runInTransaction( Connection connection,
-            Statement statement, ExplicitTransaction tx, boolean waitForRunResponse )
+            Statement statement, ExplicitTransaction tx, int defaultFetchSize, boolean waitForRunResponse )
     {
-        return run( connection, statement, tx, waitForRunResponse );
+        return run( connection, statement, tx, defaultFetchSize, waitForRunResponse );
     }
 
     private static CompletionStage<InternalStatementResultCursor> run( Connection connection,
-            Statement statement, ExplicitTransaction tx, boolean waitForRunResponse )
+            Statement statement, ExplicitTransaction tx, int defaultFetchSize, boolean waitForRunResponse )
     {
         String query = statement.text();
         Map<String,Value> params = statement.parameters().asMap( ofValue() );
 
         CompletableFuture<Void> runCompletedFuture = new CompletableFuture<>();
         RunResponseHandler runHandler = new RunResponseHandler( runCompletedFuture );
-        PullAllResponseHandler pullAllHandler = newPullAllHandler( statement, runHandler, connection, tx );
+        int fetchSize = statement.fetchSize() > 0 ? statement.fetchSize() : defaultFetchSize;
+        PullAllResponseHandler pullAllHandler = newPullAllHandler( statement, runHandler, connection, tx, fetchSize );
 
         connection.runAndFlush( query, params, runHandler, pullAllHandler );
 
@@ -105,12 +127,12 @@ public final class QueryRunner
     }
 
     private static PullAllResponseHandler newPullAllHandler( Statement statement, RunResponseHandler runHandler,
-            Connection connection, ExplicitTransaction tx )
+            Connection connection, ExplicitTransaction tx, int fetchSize )
     {
         if ( tx != null )
         {
-            return new TransactionPullAllResponseHandler( statement, runHandler, connection, tx );
+            return new TransactionPullAllResponseHandler( statement, runHandler, connection, tx, fetchSize );
         }
-        return new SessionPullAllResponseHandler( statement, runHandler, connection );
+        return new SessionPullAllResponseHandler( statement, runHandler, connection, fetchSize );
     }
 }
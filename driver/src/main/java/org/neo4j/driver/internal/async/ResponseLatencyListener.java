@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+
+/**
+ * Listener notified about the time it took a server to respond to a query.
+ */
+public interface ResponseLatencyListener
+{
+    /**
+     * Invoked when a server responded to a RUN message.
+     *
+     * @param serverAddress the server that responded.
+     * @param latencyNanos time between sending the message and receiving the response, in nanoseconds.
+     */
+    void responseReceived( BoltServerAddress serverAddress, long latencyNanos );
+}
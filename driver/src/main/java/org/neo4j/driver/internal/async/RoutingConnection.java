@@ -82,6 +82,12 @@ public class RoutingConnection implements Connection
         return delegate.isOpen();
     }
 
+    @Override
+    public boolean isActive()
+    {
+        return delegate.isActive();
+    }
+
     @Override
     public CompletionStage<Void> release()
     {
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async;
+
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.internal.util.ServerVersion;
+import org.neo4j.driver.v1.AccessMode;
+import org.neo4j.driver.v1.Value;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+
+/**
+ * Connection kept by a session between consecutive statements. Releasing it does not return it to the pool
+ * straight away, it stays idle in the session for the configured amount of time and can be
+ * {@link #tryReuse(AccessMode) reused} by the next statement without a RESET and a pool round trip. Connection is
+ * released for real when the idle time expires, when the session is closed or reset and when any of its statements
+ * fails.
+ */
+public class StickyConnection implements Connection
+{
+    private enum State
+    {
+        IN_USE, IDLE, RELEASED
+    }
+
+    private final Connection delegate;
+    private final AccessMode mode;
+    private final EventExecutorGroup eventExecutorGroup;
+    private final long idleTimeoutMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private State state = State.IN_USE;
+    private boolean reusable = true;
+    private ScheduledFuture<?> idleTimeout;
+
+    public StickyConnection( Connection delegate, AccessMode mode, EventExecutorGroup eventExecutorGroup,
+            long idleTimeoutMillis )
+    {
+        this.delegate = delegate;
+        this.mode = mode;
+        this.eventExecutorGroup = eventExecutorGroup;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Take this connection for the next statement.
+     *
+     * @param mode the access mode of the next statement.
+     * @return {@code true} when this idle connection can serve the given mode and is now in use, {@code false}
+     * otherwise. Idle connection that can't be reused is released back to the pool.
+     */
+    public boolean tryReuse( AccessMode mode )
+    {
+        lock.lock();
+        try
+        {
+            if ( state != State.IDLE )
+            {
+                return false;
+            }
+            // idle channel might have been closed by the server or the network, only an active one is reused
+            if ( this.mode == mode && reusable && delegate.isActive() )
+            {
+                state = State.IN_USE;
+                cancelIdleTimeout();
+                return true;
+            }
+            releaseNow();
+            return false;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release this connection back to the pool regardless of the idle timeout.
+     *
+     * @return stage completed when connection is released.
+     */
+    public CompletionStage<Void> releaseNow()
+    {
+        lock.lock();
+        try
+        {
+            state = State.RELEASED;
+            cancelIdleTimeout();
+            return delegate.release();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public boolean isActive()
+    {
+        return delegate.isActive();
+    }
+
+    @Override
+    public void enableAutoRead()
+    {
+        delegate.enableAutoRead();
+    }
+
+    @Override
+    public void disableAutoRead()
+    {
+        delegate.disableAutoRead();
+    }
+
+    @Override
+    public void run( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
+            ResponseHandler pullAllHandler )
+    {
+        delegate.run( statement, parameters, new FailureTrackingResponseHandler( runHandler ),
+                new FailureTrackingResponseHandler( pullAllHandler ) );
+    }
+
+    @Override
+    public void runAndFlush( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
+            ResponseHandler pullAllHandler )
+    {
+        delegate.runAndFlush( statement, parameters, new FailureTrackingResponseHandler( runHandler ),
+                new FailureTrackingResponseHandler( pullAllHandler ) );
+    }
+
+    @Override
+    public CompletionStage<Void> reset()
+    {
+        markNotReusable();
+        return delegate.reset();
+    }
+
+    @Override
+    public CompletionStage<Void> release()
+    {
+        lock.lock();
+        try
+        {
+            if ( state == State.IN_USE && reusable && delegate.isActive() )
+            {
+                // keep connection for the next statement, but not longer than the idle timeout
+                state = State.IDLE;
+                idleTimeout = eventExecutorGroup.schedule( this::releaseIfIdle, idleTimeoutMillis, MILLISECONDS );
+                return completedWithNull();
+            }
+            if ( state == State.IDLE )
+            {
+                return completedWithNull();
+            }
+            return releaseNow();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void terminateAndRelease( String reason )
+    {
+        lock.lock();
+        try
+        {
+            state = State.RELEASED;
+            cancelIdleTimeout();
+            delegate.terminateAndRelease( reason );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public BoltServerAddress serverAddress()
+    {
+        return delegate.serverAddress();
+    }
+
+    @Override
+    public ServerVersion serverVersion()
+    {
+        return delegate.serverVersion();
+    }
+
+    private void releaseIfIdle()
+    {
+        lock.lock();
+        try
+        {
+            if ( state == State.IDLE )
+            {
+                releaseNow();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void cancelIdleTimeout()
+    {
+        // timeout of a connection that is no longer idle should not keep its task in the scheduler
+        if ( idleTimeout != null )
+        {
+            idleTimeout.cancel( false );
+            idleTimeout = null;
+        }
+    }
+
+    private void markNotReusable()
+    {
+        lock.lock();
+        try
+        {
+            reusable = false;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private class FailureTrackingResponseHandler implements ResponseHandler
+    {
+        final ResponseHandler delegate;
+
+        FailureTrackingResponseHandler( ResponseHandler delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSuccess( Map<String,Value> metadata )
+        {
+            delegate.onSuccess( metadata );
+        }
+
+        @Override
+        public void onFailure( Throwable error )
+        {
+            // connection needs a RESET after failure, it should go back to the pool
+            markNotReusable();
+            delegate.onFailure( error );
+        }
+
+        @Override
+        public void onRecord( Value[] fields )
+        {
+            delegate.onRecord( fields );
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.ResponseLatencyListener;
+import org.neo4j.driver.internal.metrics.MetricsListener;
+import org.neo4j.driver.internal.util.Clock;
+import org.neo4j.driver.v1.Logger;
+
+/**
+ * Limits the amount of connections acquired from a single connection pool. The limit is adjusted using additive
+ * increase and multiplicative decrease:
+ * <ul>
+ * <li>it grows when acquisitions had to wait for a free connection while server response latency stayed flat</li>
+ * <li>it shrinks when server response latency climbs above the lowest latency observed so far</li>
+ * </ul>
+ * Decisions are made at most once per {@link #ADJUSTMENT_INTERVAL_MILLIS} and are always within the given minimum
+ * and maximum bounds.
+ */
+public class AdaptiveConnectionLimit implements ResponseLatencyListener
+{
+    static final long ADJUSTMENT_INTERVAL_MILLIS = 500;
+
+    /**
+     * Average latency has to exceed the baseline by this factor for the limit to shrink.
+     */
+    private static final double LATENCY_TOLERANCE = 1.5;
+    private static final double DECREASE_FACTOR = 0.75;
+    /**
+     * Weight of a new average latency in the baseline when latency is above the baseline. Lets the baseline slowly
+     * follow a permanent change in server latency.
+     */
+    private static final double BASELINE_SMOOTHING = 0.1;
+
+    private final BoltServerAddress address;
+    private final int minSize;
+    private final int maxSize;
+    private final Clock clock;
+    private final MetricsListener metricsListener;
+    private final Logger log;
+
+    private final Deque<Promise<Void>> waiters = new ArrayDeque<>();
+    private int limit;
+    private int acquired;
+
+    private long windowStart;
+    private int waitedInWindow;
+    private long latencySumInWindow;
+    private int latencyCountInWindow;
+    private double baselineLatency = -1;
+
+    public AdaptiveConnectionLimit( BoltServerAddress address, int minSize, int maxSize, Clock clock,
+            MetricsListener metricsListener, Logger log )
+    {
+        this.address = address;
+        this.maxSize = maxSize;
+        this.minSize = Math.min( minSize, maxSize );
+        this.clock = clock;
+        this.metricsListener = metricsListener;
+        this.log = log;
+        this.limit = this.minSize;
+        this.windowStart = clock.millis();
+        metricsListener.afterPoolSizeChanged( address, limit );
+    }
+
+    /**
+     * Acquire a permit to take a connection from the pool.
+     *
+     * @param executor the executor to complete the returned future and to schedule the timeout.
+     * @param timeoutMillis maximum time to wait for a permit. Zero means no waiting and negative means no timeout.
+     * @return future completed when permit is acquired or failed with {@link TimeoutException}.
+     */
+    public Future<Void> acquire( EventExecutor executor, long timeoutMillis )
+    {
+        Promise<Void> permit = executor.newPromise();
+        synchronized ( this )
+        {
+            if ( acquired < limit )
+            {
+                acquired++;
+                return permit.setSuccess( null );
+            }
+            if ( timeoutMillis == 0 )
+            {
+                return permit.setFailure( timeoutError( timeoutMillis ) );
+            }
+            waiters.add( permit );
+            waitedInWindow++;
+        }
+
+        if ( timeoutMillis > 0 )
+        {
+            ScheduledFuture<?> timeoutFuture =
+                    executor.schedule( () -> timeout( permit, timeoutMillis ), timeoutMillis, TimeUnit.MILLISECONDS );
+            // do not keep the task in the scheduler once permit is granted
+            permit.addListener( ignore -> timeoutFuture.cancel( false ) );
+        }
+        adjustIfNeeded();
+        return permit;
+    }
+
+    /**
+     * Return a permit previously obtained via {@link #acquire(EventExecutor, long)}.
+     */
+    public void release()
+    {
+        List<Promise<Void>> granted;
+        synchronized ( this )
+        {
+            acquired--;
+            granted = grantWaiters();
+        }
+        complete( granted );
+    }
+
+    /**
+     * Record an acquisition that did not wait for a permit but was sent to a different pool because this limit was
+     * reached. It counts as demand like an acquisition that had to wait, otherwise the limit would never grow when
+     * callers avoid waiting.
+     */
+    public void acquisitionRedirected()
+    {
+        synchronized ( this )
+        {
+            waitedInWindow++;
+        }
+        adjustIfNeeded();
+    }
+
+    @Override
+    public void responseReceived( BoltServerAddress serverAddress, long latencyNanos )
+    {
+        synchronized ( this )
+        {
+            latencySumInWindow += latencyNanos;
+            latencyCountInWindow++;
+        }
+        adjustIfNeeded();
+    }
+
+    public synchronized int limit()
+    {
+        return limit;
+    }
+
+    private void adjustIfNeeded()
+    {
+        List<Promise<Void>> granted;
+        int newLimit;
+        synchronized ( this )
+        {
+            long now = clock.millis();
+            if ( now - windowStart < ADJUSTMENT_INTERVAL_MILLIS )
+            {
+                return;
+            }
+            windowStart = now;
+
+            int oldLimit = limit;
+            adjust();
+            if ( limit == oldLimit )
+            {
+                return;
+            }
+            newLimit = limit;
+            granted = grantWaiters();
+        }
+
+        log.debug( "Changed size of connection pool towards %s to %s", address, newLimit );
+        metricsListener.afterPoolSizeChanged( address, newLimit );
+        complete( granted );
+    }
+
+    private void adjust()
+    {
+        boolean latencyClimbed = false;
+        if ( latencyCountInWindow > 0 )
+        {
+            double averageLatency = (double) latencySumInWindow / latencyCountInWindow;
+            if ( baselineLatency < 0 || averageLatency < baselineLatency )
+            {
+                baselineLatency = averageLatency;
+            }
+            else
+            {
+                latencyClimbed = averageLatency > baselineLatency * LATENCY_TOLERANCE;
+                baselineLatency += (averageLatency - baselineLatency) * BASELINE_SMOOTHING;
+            }
+        }
+
+        if ( latencyClimbed )
+        {
+            limit = Math.max( minSize, (int) (limit * DECREASE_FACTOR) );
+        }
+        else if ( waitedInWindow > 0 )
+        {
+            // grow by one for every acquisition that waited or was redirected, but never more than double at once
+            limit = (int) Math.min( maxSize, (long) limit + Math.min( waitedInWindow, limit ) );
+        }
+
+        waitedInWindow = 0;
+        latencySumInWindow = 0;
+        latencyCountInWindow = 0;
+    }
+
+    private List<Promise<Void>> grantWaiters()
+    {
+        List<Promise<Void>> granted = new ArrayList<>();
+        while ( acquired < limit && !waiters.isEmpty() )
+        {
+            acquired++;
+            granted.add( waiters.poll() );
+        }
+        return granted;
+    }
+
+    private void complete( List<Promise<Void>> granted )
+    {
+        for ( Promise<Void> permit : granted )
+        {
+            if ( !permit.trySuccess( null ) )
+            {
+                // waiter is already completed, most likely cancelled, give the permit back
+                release();
+            }
+        }
+    }
+
+    private void timeout( Promise<Void> permit, long timeoutMillis )
+    {
+        boolean removed;
+        synchronized ( this )
+        {
+            removed = waiters.remove( permit );
+        }
+        if ( removed )
+        {
+            permit.tryFailure( timeoutError( timeoutMillis ) );
+        }
+    }
+
+    private static TimeoutException timeoutError( long timeoutMillis )
+    {
+        return new TimeoutException( "Acquire operation took longer than " + timeoutMillis + "ms" );
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-use and idle channel counts towards a single server address. Counters are striped so that threads concurrently
+ * acquiring and releasing channels towards the same address do not contend on a single memory location.
+ */
+public final class ChannelCounts
+{
+    private final LongAdder inUse = new LongAdder();
+    private final LongAdder idle = new LongAdder();
+
+    void channelCreated()
+    {
+        inUse.increment();
+    }
+
+    void channelAcquired()
+    {
+        inUse.increment();
+        idle.decrement();
+    }
+
+    void channelReleased()
+    {
+        inUse.decrement();
+        idle.increment();
+    }
+
+    void channelClosed()
+    {
+        idle.decrement();
+    }
+
+    int inUse()
+    {
+        return (int) inUse.sum();
+    }
+
+    int idle()
+    {
+        return (int) idle.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ChannelCounts{" + "inUse=" + inUse() + ", idle=" + idle() + '}';
+    }
+}
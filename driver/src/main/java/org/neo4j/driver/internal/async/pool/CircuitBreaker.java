@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.neo4j.driver.internal.util.Clock;
+
+/**
+ * Circuit breaker guarding connection acquisition towards a single server address.
+ * <p>
+ * Breaker starts closed and records outcomes of the last {@link #WINDOW_SIZE} acquisitions. It opens when at least
+ * {@link #MINIMUM_ATTEMPTS} outcomes are recorded and the fraction of failures reaches the configured threshold. Open
+ * breaker rejects all acquisitions until the cool-down period passes. After that it becomes half-open and lets a single
+ * trial acquisition through. Successful trial closes the breaker, failed trial opens it again for another cool-down.
+ */
+public class CircuitBreaker
+{
+    static final int WINDOW_SIZE = 10;
+    static final int MINIMUM_ATTEMPTS = 5;
+
+    private final double failureRateThreshold;
+    private final long coolDownMillis;
+    private final Clock clock;
+
+    private final boolean[] failures = new boolean[WINDOW_SIZE];
+    private int nextIndex;
+    private int recordedCount;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedTimestamp;
+    private boolean trialInProgress;
+
+    public CircuitBreaker( double failureRateThreshold, long coolDownMillis, Clock clock )
+    {
+        this.failureRateThreshold = failureRateThreshold;
+        this.coolDownMillis = coolDownMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Check if an acquisition is allowed. Every allowed acquisition should be followed by a call to
+     * {@link #succeeded()}, {@link #failed()} or {@link #ignored()}.
+     *
+     * @return {@code true} if acquisition can proceed, {@code false} if it should fail immediately.
+     */
+    public synchronized boolean allowAcquisition()
+    {
+        switch ( state )
+        {
+        case CLOSED:
+            return true;
+        case OPEN:
+            if ( coolDownPassed() )
+            {
+                state = State.HALF_OPEN;
+                trialInProgress = true;
+                return true;
+            }
+            return false;
+        case HALF_OPEN:
+            if ( !trialInProgress )
+            {
+                trialInProgress = true;
+                return true;
+            }
+            return false;
+        default:
+            throw new IllegalStateException( "Unknown state: " + state );
+        }
+    }
+
+    /**
+     * Check if this breaker rejects acquisitions. Half-open breaker is only considered open while its trial
+     * acquisition is in progress, otherwise it is ready to let a trial acquisition through.
+     *
+     * @return {@code true} if open and in cool-down period or half-open with a trial in progress, {@code false}
+     * otherwise.
+     */
+    public synchronized boolean isOpen()
+    {
+        return state == State.OPEN && !coolDownPassed() || state == State.HALF_OPEN && trialInProgress;
+    }
+
+    public synchronized void succeeded()
+    {
+        if ( state == State.HALF_OPEN )
+        {
+            close();
+        }
+        else
+        {
+            record( false );
+        }
+    }
+
+    public synchronized void failed()
+    {
+        if ( state == State.HALF_OPEN )
+        {
+            open();
+        }
+        else
+        {
+            record( true );
+            if ( state == State.CLOSED && recordedCount >= MINIMUM_ATTEMPTS &&
+                 failureCount >= failureRateThreshold * recordedCount )
+            {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Acquisition completed with an outcome that says nothing about the server, like an acquisition timeout.
+     */
+    public synchronized void ignored()
+    {
+        trialInProgress = false;
+    }
+
+    private void record( boolean failure )
+    {
+        if ( recordedCount == WINDOW_SIZE )
+        {
+            if ( failures[nextIndex] )
+            {
+                failureCount--;
+            }
+        }
+        else
+        {
+            recordedCount++;
+        }
+
+        failures[nextIndex] = failure;
+        if ( failure )
+        {
+            failureCount++;
+        }
+        nextIndex = (nextIndex + 1) % WINDOW_SIZE;
+    }
+
+    private void open()
+    {
+        state = State.OPEN;
+        openedTimestamp = clock.millis();
+        trialInProgress = false;
+    }
+
+    private void close()
+    {
+        state = State.CLOSED;
+        trialInProgress = false;
+        nextIndex = 0;
+        recordedCount = 0;
+        failureCount = 0;
+    }
+
+    private boolean coolDownPassed()
+    {
+        return clock.millis() - openedTimestamp >= coolDownMillis;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "CircuitBreaker{" + "state=" + state + ", failures=" + failureCount + "/" + recordedCount + '}';
+    }
+
+    private enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+
+/**
+ * Thrown when an acquisition is rejected by an open {@link CircuitBreaker} without contacting the server. It does not
+ * tell anything new about the server, unlike other {@link ServiceUnavailableException}s from connection acquisition.
+ */
+public class CircuitBreakerOpenException extends ServiceUnavailableException
+{
+    public CircuitBreakerOpenException( String message )
+    {
+        super( message );
+    }
+}
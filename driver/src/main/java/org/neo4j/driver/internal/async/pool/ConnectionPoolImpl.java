@@ -25,6 +25,7 @@ import io.netty.util.concurrent.Future;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,6 +36,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.ChannelConnector;
 import org.neo4j.driver.internal.async.NettyConnection;
+import org.neo4j.driver.internal.async.ResponseLatencyListener;
 import org.neo4j.driver.internal.metrics.ListenerEvent;
 import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.spi.Connection;
@@ -44,6 +46,9 @@ import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.Logger;
 import org.neo4j.driver.v1.Logging;
 import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
 
 public class ConnectionPoolImpl implements ConnectionPool
 {
@@ -54,19 +59,38 @@ public class ConnectionPoolImpl implements ConnectionPool
     private final PoolSettings settings;
     private final Clock clock;
     private final Logger log;
+    private final boolean ownsEventLoopGroup;
     private MetricsListener metricsListener;
 
     private final ConcurrentMap<BoltServerAddress,ChannelPool> pools = new ConcurrentHashMap<>();
+    // breakers outlive pools so that an address removed from and then re-added to the routing table stays blocked
+    private final ConcurrentMap<BoltServerAddress,CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BoltServerAddress,PeakEwmaResponseTime> responseTimes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BoltServerAddress,CompletableFuture<Void>> drains = new ConcurrentHashMap<>();
     private final AtomicBoolean closed = new AtomicBoolean();
 
     public ConnectionPoolImpl( ChannelConnector connector, Bootstrap bootstrap, PoolSettings settings,
             MetricsListener metricsListener, Logging logging, Clock clock )
     {
-        this( connector, bootstrap, new NettyChannelTracker( metricsListener, logging ), settings, metricsListener, logging, clock );
+        this( connector, bootstrap, settings, metricsListener, logging, clock, true );
+    }
+
+    public ConnectionPoolImpl( ChannelConnector connector, Bootstrap bootstrap, PoolSettings settings,
+            MetricsListener metricsListener, Logging logging, Clock clock, boolean ownsEventLoopGroup )
+    {
+        this( connector, bootstrap, new NettyChannelTracker( metricsListener, logging ), settings, metricsListener,
+                logging, clock, ownsEventLoopGroup );
     }
 
     ConnectionPoolImpl( ChannelConnector connector, Bootstrap bootstrap, NettyChannelTracker nettyChannelTracker,
             PoolSettings settings, MetricsListener metricsListener, Logging logging, Clock clock )
+    {
+        this( connector, bootstrap, nettyChannelTracker, settings, metricsListener, logging, clock, true );
+    }
+
+    private ConnectionPoolImpl( ChannelConnector connector, Bootstrap bootstrap,
+            NettyChannelTracker nettyChannelTracker, PoolSettings settings, MetricsListener metricsListener,
+            Logging logging, Clock clock, boolean ownsEventLoopGroup )
     {
         this.connector = connector;
         this.bootstrap = bootstrap;
@@ -75,6 +99,7 @@ public class ConnectionPoolImpl implements ConnectionPool
         this.settings = settings;
         this.metricsListener = metricsListener;
         this.clock = clock;
+        this.ownsEventLoopGroup = ownsEventLoopGroup;
         this.log = logging.getLog( ConnectionPool.class.getSimpleName() );
     }
 
@@ -85,6 +110,11 @@ public class ConnectionPoolImpl implements ConnectionPool
 
         assertNotClosed();
         ChannelPool pool = getOrCreatePool( address );
+        if ( pool == null )
+        {
+            return Futures.failedFuture( new ServiceUnavailableException(
+                    "Unable to acquire connection towards " + address + ", it is being drained" ) );
+        }
 
         ListenerEvent acquireEvent = metricsListener.createListenerEvent();
         metricsListener.beforeAcquiringOrCreating( address, acquireEvent );
@@ -96,7 +126,8 @@ public class ConnectionPoolImpl implements ConnectionPool
             {
                 processAcquisitionError( address, error );
                 assertNotClosed( address, channel, pool );
-                NettyConnection nettyConnection = new NettyConnection( channel, pool, clock, metricsListener );
+                NettyConnection nettyConnection = new NettyConnection( channel, pool, clock, metricsListener,
+                        latencyListener( pool ) );
 
                 metricsListener.afterAcquiredOrCreated( address, acquireEvent );
                 return nettyConnection;
@@ -129,6 +160,19 @@ public class ConnectionPoolImpl implements ConnectionPool
                         pool.close();
                     }
                 }
+                else
+                {
+                    // address is not present in updated routing table but has active connections
+                    // stop handing out its idle connections and close active ones when they are released,
+                    // unlike an explicit drain it does not block a new pool when address comes back
+                    ChannelPool pool = pools.remove( address );
+                    if ( pool != null )
+                    {
+                        log.info( "Closing connection pool towards %s, it has %s active connections that are " +
+                                  "closed when released and is not in the routing table", address, activeChannels );
+                        pool.close();
+                    }
+                }
             }
         }
     }
@@ -136,13 +180,83 @@ public class ConnectionPoolImpl implements ConnectionPool
     @Override
     public int inUseConnections( BoltServerAddress address )
     {
-        return nettyChannelTracker.inUseChannelCount( address );
+        ChannelPool pool = pools.get( address );
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).inUseChannelCount()
+                                                : nettyChannelTracker.inUseChannelCount( address );
     }
 
     @Override
     public int idleConnections( BoltServerAddress address )
     {
-        return nettyChannelTracker.idleChannelCount( address );
+        ChannelPool pool = pools.get( address );
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).idleChannelCount()
+                                                : nettyChannelTracker.idleChannelCount( address );
+    }
+
+    @Override
+    public int connectionLimit( BoltServerAddress address )
+    {
+        ChannelPool pool = pools.get( address );
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).maxConnections()
+                                                : settings.maxConnectionPoolSize();
+    }
+
+    @Override
+    public void connectionLimitReached( BoltServerAddress address )
+    {
+        ChannelPool pool = pools.get( address );
+        if ( pool instanceof NettyChannelPool )
+        {
+            ((NettyChannelPool) pool).connectionLimitReached();
+        }
+    }
+
+    @Override
+    public long responseTime( BoltServerAddress address )
+    {
+        PeakEwmaResponseTime responseTime = responseTimes.get( address );
+        return responseTime == null ? 0 : responseTime.averageNanos();
+    }
+
+    @Override
+    public CompletionStage<Void> drain( BoltServerAddress address )
+    {
+        CompletableFuture<Void> drainFuture = new CompletableFuture<>();
+        ChannelPool pool;
+        synchronized ( this )
+        {
+            CompletableFuture<Void> existingDrainFuture = drains.putIfAbsent( address, drainFuture );
+            if ( existingDrainFuture != null )
+            {
+                return existingDrainFuture;
+            }
+            pool = pools.remove( address );
+        }
+
+        CompletionStage<Void> inUseChannelsReleased;
+        if ( pool instanceof NettyChannelPool )
+        {
+            // only wait for channels of the drained pool, a new pool is created if the address is used again
+            inUseChannelsReleased = ((NettyChannelPool) pool).inUseChannelsReleased();
+        }
+        else
+        {
+            inUseChannelsReleased = nettyChannelTracker.inUseChannelsReleased( address );
+        }
+
+        if ( pool != null )
+        {
+            // closed pool closes idle channels right away and in-use channels when they are released
+            pool.close();
+        }
+
+        inUseChannelsReleased.whenComplete( ( ignore, error ) ->
+        {
+            drains.remove( address, drainFuture );
+            log.info( "Drained connection pool towards %s", address );
+            drainFuture.complete( null );
+        } );
+        return drainFuture;
     }
 
     @Override
@@ -165,9 +279,17 @@ public class ConnectionPoolImpl implements ConnectionPool
             }
             finally
             {
-                eventLoopGroup().shutdownGracefully();
+                if ( ownsEventLoopGroup )
+                {
+                    eventLoopGroup().shutdownGracefully();
+                }
             }
         }
+        if ( !ownsEventLoopGroup )
+        {
+            // event loop group is shared with other pools and will be terminated by its owner
+            return completedWithNull();
+        }
         return Futures.asCompletionStage( eventLoopGroup().terminationFuture() )
                 .thenApply( ignore -> null );
     }
@@ -178,6 +300,13 @@ public class ConnectionPoolImpl implements ConnectionPool
         return pools.containsKey( address );
     }
 
+    @Override
+    public boolean isCircuitOpen( BoltServerAddress address )
+    {
+        CircuitBreaker circuitBreaker = circuitBreakers.get( address );
+        return circuitBreaker != null && circuitBreaker.isOpen();
+    }
+
     private ChannelPool getOrCreatePool( BoltServerAddress address )
     {
         ChannelPool pool = pools.get( address );
@@ -193,6 +322,11 @@ public class ConnectionPoolImpl implements ConnectionPool
             {
                 return pool;
             }
+            if ( drains.containsKey( address ) )
+            {
+                // address is being drained, do not create a new pool until drain completes or is ended
+                return null;
+            }
 
             metricsListener.addMetrics( address, this );
             pool = newPool( address );
@@ -201,10 +335,44 @@ public class ConnectionPoolImpl implements ConnectionPool
         return pool;
     }
 
+    @Override
+    public void endDrain( BoltServerAddress address )
+    {
+        if ( drains.remove( address ) != null )
+        {
+            // drained pool is closed and only closes its own channels when they are released, new acquisitions get
+            // channels from a new pool
+            log.info( "Ended drain of connection pool towards %s, new connections can be acquired", address );
+        }
+    }
+
     ChannelPool newPool( BoltServerAddress address )
     {
+        AdaptiveConnectionLimit connectionLimit = null;
+        if ( settings.adaptiveConnectionPoolSizeEnabled() )
+        {
+            connectionLimit = new AdaptiveConnectionLimit( address, settings.minConnectionPoolSize(),
+                    settings.maxConnectionPoolSize(), clock, metricsListener, log );
+        }
+        CircuitBreaker circuitBreaker = null;
+        if ( settings.circuitBreakerEnabled() )
+        {
+            circuitBreaker = circuitBreakers.computeIfAbsent( address, ignore -> new CircuitBreaker(
+                    settings.circuitBreakerFailureRateThreshold(), settings.circuitBreakerCoolDown(), clock ) );
+        }
+        PeakEwmaResponseTime responseTime = null;
+        if ( settings.responseTimeTrackingEnabled() )
+        {
+            responseTime = responseTimes.computeIfAbsent( address, ignore -> new PeakEwmaResponseTime( clock ) );
+        }
         return new NettyChannelPool( address, connector, bootstrap, nettyChannelTracker, channelHealthChecker,
-                settings.connectionAcquisitionTimeout(), settings.maxConnectionPoolSize() );
+                settings.connectionAcquisitionTimeout(), settings.maxConnectionPoolSize(), connectionLimit,
+                circuitBreaker, responseTime );
+    }
+
+    private static ResponseLatencyListener latencyListener( ChannelPool pool )
+    {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).latencyListener() : null;
     }
 
     private EventLoopGroup eventLoopGroup()
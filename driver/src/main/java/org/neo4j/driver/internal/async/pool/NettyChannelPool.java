@@ -20,12 +20,21 @@ package org.neo4j.driver.internal.async.pool;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.pool.ChannelHealthChecker;
 import io.netty.channel.pool.FixedChannelPool;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.ChannelConnector;
+import org.neo4j.driver.internal.async.ResponseLatencyListener;
 import org.neo4j.driver.internal.metrics.ListenerEvent;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 
 import static java.util.Objects.requireNonNull;
 
@@ -43,17 +52,230 @@ public class NettyChannelPool extends FixedChannelPool
     private final BoltServerAddress address;
     private final ChannelConnector connector;
     private final NettyChannelTracker handler;
+    private final EventLoopGroup eventLoopGroup;
+    private final long acquireTimeoutMillis;
+    private final int maxConnections;
+    private final AdaptiveConnectionLimit connectionLimit;
+    private final CircuitBreaker circuitBreaker;
+    private final ResponseLatencyListener latencyListener;
+    private final ChannelCounts channelCounts;
+    private final AtomicInteger inUseChannels = new AtomicInteger();
+    private final CompletableFuture<Void> inUseChannelsReleased = new CompletableFuture<>();
+    private volatile boolean inUseChannelsReleaseAwaited;
 
     public NettyChannelPool( BoltServerAddress address, ChannelConnector connector, Bootstrap bootstrap,
             NettyChannelTracker handler, ChannelHealthChecker healthCheck, long acquireTimeoutMillis,
             int maxConnections )
     {
-        super( bootstrap, handler, healthCheck, AcquireTimeoutAction.FAIL, acquireTimeoutMillis, maxConnections,
-                MAX_PENDING_ACQUIRES, RELEASE_HEALTH_CHECK );
+        this( address, connector, bootstrap, handler, healthCheck, acquireTimeoutMillis, maxConnections, null,
+                null );
+    }
+
+    public NettyChannelPool( BoltServerAddress address, ChannelConnector connector, Bootstrap bootstrap,
+            NettyChannelTracker handler, ChannelHealthChecker healthCheck, long acquireTimeoutMillis,
+            int maxConnections, AdaptiveConnectionLimit connectionLimit, CircuitBreaker circuitBreaker )
+    {
+        this( address, connector, bootstrap, handler, healthCheck, acquireTimeoutMillis, maxConnections,
+                connectionLimit, circuitBreaker, null );
+    }
+
+    public NettyChannelPool( BoltServerAddress address, ChannelConnector connector, Bootstrap bootstrap,
+            NettyChannelTracker handler, ChannelHealthChecker healthCheck, long acquireTimeoutMillis,
+            int maxConnections, AdaptiveConnectionLimit connectionLimit, CircuitBreaker circuitBreaker,
+            PeakEwmaResponseTime responseTime )
+    {
+        // adaptive limit never hands out more permits than there are connections, so waiting for a permit replaces
+        // waiting in the pool and acquisition timeout is only applied once
+        super( bootstrap, handler, healthCheck, connectionLimit == null ? AcquireTimeoutAction.FAIL : null,
+                connectionLimit == null ? acquireTimeoutMillis : -1, maxConnections, MAX_PENDING_ACQUIRES,
+                RELEASE_HEALTH_CHECK );
 
         this.address = requireNonNull( address );
         this.connector = requireNonNull( connector );
         this.handler = requireNonNull( handler );
+        this.eventLoopGroup = bootstrap.config().group();
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.maxConnections = maxConnections;
+        this.connectionLimit = connectionLimit;
+        this.circuitBreaker = circuitBreaker;
+        this.latencyListener = latencyListener( connectionLimit, responseTime );
+        this.channelCounts = handler.channelCounts( address );
+    }
+
+    @Override
+    public Future<Channel> acquire( Promise<Channel> promise )
+    {
+        promise.addListener( acquired ->
+        {
+            if ( acquired.isSuccess() )
+            {
+                inUseChannels.incrementAndGet();
+            }
+        } );
+
+        if ( circuitBreaker != null )
+        {
+            if ( !circuitBreaker.allowAcquisition() )
+            {
+                return promise.setFailure( new CircuitBreakerOpenException(
+                        "Unable to acquire connection towards " + address + ", circuit breaker is open after " +
+                        "repeated connection failures" ) );
+            }
+            promise.addListener( this::recordAcquisitionOutcome );
+        }
+
+        if ( connectionLimit == null )
+        {
+            return super.acquire( promise );
+        }
+
+        connectionLimit.acquire( eventLoopGroup.next(), acquireTimeoutMillis ).addListener( permit ->
+        {
+            if ( permit.isSuccess() )
+            {
+                super.acquire( promise ).addListener( acquired ->
+                {
+                    if ( !acquired.isSuccess() )
+                    {
+                        connectionLimit.release();
+                    }
+                } );
+            }
+            else
+            {
+                promise.tryFailure( permit.cause() );
+            }
+        } );
+        return promise;
+    }
+
+    @Override
+    public Future<Void> release( Channel channel, Promise<Void> promise )
+    {
+        return super.release( channel, promise ).addListener( released ->
+        {
+            // failure with IllegalArgumentException means channel does not belong to this pool
+            if ( released.isSuccess() || !(released.cause() instanceof IllegalArgumentException) )
+            {
+                if ( connectionLimit != null )
+                {
+                    connectionLimit.release();
+                }
+                inUseChannels.decrementAndGet();
+                completeInUseChannelsReleasedIfNeeded();
+            }
+        } );
+    }
+
+    /**
+     * Get the maximum number of channels that can currently be acquired from this pool.
+     *
+     * @return the adaptive connection limit, when this pool is sized adaptively, or the fixed maximum otherwise.
+     */
+    public int maxConnections()
+    {
+        return connectionLimit == null ? maxConnections : connectionLimit.limit();
+    }
+
+    /**
+     * Get the number of in-use channels towards the address of this pool, including channels of other pools towards
+     * the same address.
+     *
+     * @return the number of in-use channels.
+     */
+    public int inUseChannelCount()
+    {
+        return channelCounts.inUse();
+    }
+
+    /**
+     * Get the number of idle channels towards the address of this pool, including channels of other pools towards
+     * the same address.
+     *
+     * @return the number of idle channels.
+     */
+    public int idleChannelCount()
+    {
+        return channelCounts.idle();
+    }
+
+    /**
+     * Record an acquisition that was sent to a different pool because this one reached its connection limit.
+     */
+    public void connectionLimitReached()
+    {
+        if ( connectionLimit != null )
+        {
+            connectionLimit.acquisitionRedirected();
+        }
+    }
+
+    /**
+     * Get a stage that completes when there are no in-use channels acquired from this pool. Unlike
+     * {@link NettyChannelTracker#inUseChannelsReleased(BoltServerAddress)} it does not wait for channels of other
+     * pools towards the same address. Caller is responsible for making sure no new channels are acquired, usually by
+     * closing the pool, otherwise stage might never complete.
+     *
+     * @return stage completed when all in-use channels of this pool are released.
+     */
+    public CompletionStage<Void> inUseChannelsReleased()
+    {
+        inUseChannelsReleaseAwaited = true;
+        completeInUseChannelsReleasedIfNeeded();
+        return inUseChannelsReleased;
+    }
+
+    private void completeInUseChannelsReleasedIfNeeded()
+    {
+        if ( inUseChannelsReleaseAwaited && inUseChannels.get() == 0 )
+        {
+            inUseChannelsReleased.complete( null );
+        }
+    }
+
+    private void recordAcquisitionOutcome( Future<?> acquisition )
+    {
+        if ( acquisition.isSuccess() )
+        {
+            circuitBreaker.succeeded();
+        }
+        else if ( acquisition.cause() instanceof ServiceUnavailableException )
+        {
+            // server could not be reached or did not complete the handshake
+            circuitBreaker.failed();
+        }
+        else
+        {
+            circuitBreaker.ignored();
+        }
+    }
+
+    /**
+     * Get the listener interested in server response latency of connections from this pool.
+     *
+     * @return the listener or {@code null} when this pool is neither sized adaptively nor tracks response times.
+     */
+    public ResponseLatencyListener latencyListener()
+    {
+        return latencyListener;
+    }
+
+    private static ResponseLatencyListener latencyListener( AdaptiveConnectionLimit connectionLimit,
+            PeakEwmaResponseTime responseTime )
+    {
+        if ( connectionLimit == null )
+        {
+            return responseTime;
+        }
+        if ( responseTime == null )
+        {
+            return connectionLimit;
+        }
+        return ( address, latencyNanos ) ->
+        {
+            responseTime.responseReceived( address, latencyNanos );
+            connectionLimit.responseReceived( address, latencyNanos );
+        };
     }
 
     @Override
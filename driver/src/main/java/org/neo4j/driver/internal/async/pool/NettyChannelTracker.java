@@ -22,21 +22,24 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.pool.ChannelPoolHandler;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.ChannelAttributes;
 import org.neo4j.driver.internal.metrics.ListenerEvent;
 import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.v1.Logger;
 import org.neo4j.driver.v1.Logging;
 
 import static org.neo4j.driver.internal.async.ChannelAttributes.serverAddress;
+import static org.neo4j.driver.internal.async.ChannelAttributes.setChannelCounts;
 
 public class NettyChannelTracker implements ChannelPoolHandler
 {
-    private final Map<BoltServerAddress,AtomicInteger> addressToInUseChannelCount = new ConcurrentHashMap<>();
-    private final Map<BoltServerAddress,AtomicInteger> addressToIdleChannelCount = new ConcurrentHashMap<>();
+    private final Map<BoltServerAddress,ChannelCounts> addressToChannelCounts = new ConcurrentHashMap<>();
+    private final Map<BoltServerAddress,CompletableFuture<Void>> addressToReleaseFuture = new ConcurrentHashMap<>();
     private final Logger log;
     private final MetricsListener metricsListener;
     private final ChannelFutureListener closeListener = future -> channelClosed( future.channel() );
@@ -51,17 +54,19 @@ public class NettyChannelTracker implements ChannelPoolHandler
     public void channelReleased( Channel channel )
     {
         log.debug( "Channel %s released back to the pool", channel );
-        decrementInUse( channel );
-        incrementIdle( channel );
+        countsOf( channel ).channelReleased();
         channel.closeFuture().addListener( closeListener );
+        if ( !addressToReleaseFuture.isEmpty() )
+        {
+            completeReleaseFutureIfNeeded( serverAddress( channel ) );
+        }
     }
 
     @Override
     public void channelAcquired( Channel channel )
     {
         log.debug( "Channel %s acquired from the pool", channel );
-        incrementInUse( channel );
-        decrementIdle( channel );
+        countsOf( channel ).channelAcquired();
         channel.closeFuture().removeListener( closeListener );
     }
 
@@ -74,8 +79,12 @@ public class NettyChannelTracker implements ChannelPoolHandler
     public void channelCreated( Channel channel, ListenerEvent creatingEvent )
     {
         log.debug( "Channel %s created", channel );
-        incrementInUse( channel );
-        metricsListener.afterCreated( serverAddress( channel ), creatingEvent );
+        BoltServerAddress address = serverAddress( channel );
+        ChannelCounts counts = channelCounts( address );
+        // remember counts in the channel itself so that acquire and release do not need to look them up
+        setChannelCounts( channel, counts );
+        counts.channelCreated();
+        metricsListener.afterCreated( address, creatingEvent );
     }
 
     public ListenerEvent channelCreating( BoltServerAddress address )
@@ -92,57 +101,68 @@ public class NettyChannelTracker implements ChannelPoolHandler
 
     public void channelClosed( Channel channel )
     {
-        decrementIdle( channel );
+        countsOf( channel ).channelClosed();
         metricsListener.afterClosed( serverAddress( channel ) );
     }
 
-    public int inUseChannelCount( BoltServerAddress address )
+    /**
+     * Get counts of channels towards the given address. Returned instance is the same for all calls with the same
+     * address, so callers can resolve it once and keep it.
+     *
+     * @param address the server address.
+     * @return in-use and idle channel counts, never {@code null}.
+     */
+    public ChannelCounts channelCounts( BoltServerAddress address )
     {
-        AtomicInteger count = addressToInUseChannelCount.get( address );
-        return count == null ? 0 : count.get();
+        return addressToChannelCounts.computeIfAbsent( address, ignore -> new ChannelCounts() );
     }
 
-    public int idleChannelCount( BoltServerAddress address )
-    {
-        AtomicInteger count = addressToIdleChannelCount.get( address );
-        return count == null ? 0 : count.get();
-    }
-
-    private void incrementInUse( Channel channel )
-    {
-        increment( channel, addressToInUseChannelCount );
-    }
-
-    private void decrementInUse( Channel channel )
+    public int inUseChannelCount( BoltServerAddress address )
     {
-        decrement( channel, addressToInUseChannelCount );
+        ChannelCounts counts = addressToChannelCounts.get( address );
+        return counts == null ? 0 : counts.inUse();
     }
 
-    private void incrementIdle( Channel channel )
+    public int idleChannelCount( BoltServerAddress address )
     {
-        increment( channel, addressToIdleChannelCount );
+        ChannelCounts counts = addressToChannelCounts.get( address );
+        return counts == null ? 0 : counts.idle();
     }
 
-    private void decrementIdle( Channel channel )
+    /**
+     * Get a stage that completes when there are no in-use channels towards the given address. Caller is responsible
+     * for making sure no new channels are acquired, otherwise stage might never complete.
+     *
+     * @param address the server address.
+     * @return stage completed when all in-use channels are released.
+     */
+    public CompletionStage<Void> inUseChannelsReleased( BoltServerAddress address )
     {
-        decrement( channel, addressToIdleChannelCount );
+        CompletableFuture<Void> releaseFuture =
+                addressToReleaseFuture.computeIfAbsent( address, ignore -> new CompletableFuture<>() );
+        completeReleaseFutureIfNeeded( address );
+        return releaseFuture;
     }
 
-    private void increment( Channel channel, Map<BoltServerAddress,AtomicInteger> countMap )
+    private void completeReleaseFutureIfNeeded( BoltServerAddress address )
     {
-        BoltServerAddress address = serverAddress( channel );
-        AtomicInteger count = countMap.computeIfAbsent( address, k -> new AtomicInteger() );
-        count.incrementAndGet();
+        if ( inUseChannelCount( address ) == 0 )
+        {
+            CompletableFuture<Void> releaseFuture = addressToReleaseFuture.remove( address );
+            if ( releaseFuture != null )
+            {
+                releaseFuture.complete( null );
+            }
+        }
     }
 
-    private void decrement( Channel channel, Map<BoltServerAddress,AtomicInteger> countMap )
+    private static ChannelCounts countsOf( Channel channel )
     {
-        BoltServerAddress address = serverAddress( channel );
-        AtomicInteger count = countMap.get( address );
-        if ( count == null )
+        ChannelCounts counts = ChannelAttributes.channelCounts( channel );
+        if ( counts == null )
         {
-            throw new IllegalStateException( "No count exist for address '" + address + "'" );
+            throw new IllegalStateException( "No count exist for address '" + serverAddress( channel ) + "'" );
         }
-        count.decrementAndGet();
+        return counts;
     }
 }
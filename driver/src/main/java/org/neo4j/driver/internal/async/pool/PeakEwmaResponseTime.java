@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.ResponseLatencyListener;
+import org.neo4j.driver.internal.util.Clock;
+
+/**
+ * Peak exponentially weighted moving average of server response times. Average jumps to a latency sample that is
+ * higher than the current average and decays towards lower samples with time. Without new samples average decays
+ * towards zero, so that a server which was slow at some point is eventually tried again.
+ */
+class PeakEwmaResponseTime implements ResponseLatencyListener
+{
+    static final long DECAY_TIME_MILLIS = 10_000;
+
+    private final Clock clock;
+
+    private double averageNanos;
+    private long lastUpdateMillis;
+
+    PeakEwmaResponseTime( Clock clock )
+    {
+        this.clock = clock;
+        this.lastUpdateMillis = clock.millis();
+    }
+
+    @Override
+    public synchronized void responseReceived( BoltServerAddress serverAddress, long latencyNanos )
+    {
+        long now = clock.millis();
+        if ( latencyNanos > averageNanos )
+        {
+            averageNanos = latencyNanos;
+        }
+        else
+        {
+            double weight = decayWeight( now );
+            averageNanos = averageNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastUpdateMillis = Math.max( lastUpdateMillis, now );
+    }
+
+    /**
+     * Get the current average response time.
+     *
+     * @return the average in nanoseconds, zero when no responses were received.
+     */
+    synchronized long averageNanos()
+    {
+        return (long) (averageNanos * decayWeight( clock.millis() ));
+    }
+
+    private double decayWeight( long now )
+    {
+        long elapsed = Math.max( now - lastUpdateMillis, 0 );
+        return Math.exp( -(double) elapsed / DECAY_TIME_MILLIS );
+    }
+}
@@ -29,14 +29,46 @@ public class PoolSettings
     public static final long DEFAULT_CONNECTION_ACQUISITION_TIMEOUT = TimeUnit.SECONDS.toMillis( 60 );
 
     private final int maxConnectionPoolSize;
+    private final int minConnectionPoolSize;
+    private final double circuitBreakerFailureRateThreshold;
+    private final long circuitBreakerCoolDown;
+    private final boolean responseTimeTrackingEnabled;
     private final long connectionAcquisitionTimeout;
     private final long maxConnectionLifetime;
     private final long idleTimeBeforeConnectionTest;
 
     public PoolSettings( int maxConnectionPoolSize, long connectionAcquisitionTimeout,
             long maxConnectionLifetime, long idleTimeBeforeConnectionTest )
+    {
+        this( maxConnectionPoolSize, connectionAcquisitionTimeout, maxConnectionLifetime, idleTimeBeforeConnectionTest,
+                NOT_CONFIGURED );
+    }
+
+    public PoolSettings( int maxConnectionPoolSize, long connectionAcquisitionTimeout,
+            long maxConnectionLifetime, long idleTimeBeforeConnectionTest, int minConnectionPoolSize )
+    {
+        this( maxConnectionPoolSize, connectionAcquisitionTimeout, maxConnectionLifetime, idleTimeBeforeConnectionTest,
+                minConnectionPoolSize, NOT_CONFIGURED, NOT_CONFIGURED );
+    }
+
+    public PoolSettings( int maxConnectionPoolSize, long connectionAcquisitionTimeout,
+            long maxConnectionLifetime, long idleTimeBeforeConnectionTest, int minConnectionPoolSize,
+            double circuitBreakerFailureRateThreshold, long circuitBreakerCoolDown )
+    {
+        this( maxConnectionPoolSize, connectionAcquisitionTimeout, maxConnectionLifetime, idleTimeBeforeConnectionTest,
+                minConnectionPoolSize, circuitBreakerFailureRateThreshold, circuitBreakerCoolDown, false );
+    }
+
+    public PoolSettings( int maxConnectionPoolSize, long connectionAcquisitionTimeout,
+            long maxConnectionLifetime, long idleTimeBeforeConnectionTest, int minConnectionPoolSize,
+            double circuitBreakerFailureRateThreshold, long circuitBreakerCoolDown,
+            boolean responseTimeTrackingEnabled )
     {
         this.maxConnectionPoolSize = maxConnectionPoolSize;
+        this.minConnectionPoolSize = minConnectionPoolSize;
+        this.circuitBreakerFailureRateThreshold = circuitBreakerFailureRateThreshold;
+        this.circuitBreakerCoolDown = circuitBreakerCoolDown;
+        this.responseTimeTrackingEnabled = responseTimeTrackingEnabled;
         this.connectionAcquisitionTimeout = connectionAcquisitionTimeout;
         this.maxConnectionLifetime = maxConnectionLifetime;
         this.idleTimeBeforeConnectionTest = idleTimeBeforeConnectionTest;
@@ -67,6 +99,36 @@ public class PoolSettings
         return maxConnectionPoolSize;
     }
 
+    public int minConnectionPoolSize()
+    {
+        return minConnectionPoolSize;
+    }
+
+    public boolean adaptiveConnectionPoolSizeEnabled()
+    {
+        return minConnectionPoolSize > 0;
+    }
+
+    public boolean circuitBreakerEnabled()
+    {
+        return circuitBreakerFailureRateThreshold > 0;
+    }
+
+    public double circuitBreakerFailureRateThreshold()
+    {
+        return circuitBreakerFailureRateThreshold;
+    }
+
+    public long circuitBreakerCoolDown()
+    {
+        return circuitBreakerCoolDown;
+    }
+
+    public boolean responseTimeTrackingEnabled()
+    {
+        return responseTimeTrackingEnabled;
+    }
+
     public long connectionAcquisitionTimeout()
     {
         return connectionAcquisitionTimeout;
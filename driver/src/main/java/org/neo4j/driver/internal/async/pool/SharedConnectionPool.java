@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.bootstrap.Bootstrap;
+
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.metrics.InternalAbstractMetrics;
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+
+/**
+ * Connection pool used by a single driver attached to a pool from {@link SharedConnectionPools}. Delegates to the
+ * shared pool and detaches the driver instead of closing the shared pool on {@link #close()}.
+ */
+public class SharedConnectionPool implements ConnectionPool
+{
+    private final SharedConnectionPools sharedPools;
+    private final ConnectionPool delegate;
+    private final Bootstrap bootstrap;
+    private final InternalAbstractMetrics metrics;
+
+    SharedConnectionPool( SharedConnectionPools sharedPools, ConnectionPool delegate, Bootstrap bootstrap,
+            InternalAbstractMetrics metrics )
+    {
+        this.sharedPools = sharedPools;
+        this.delegate = delegate;
+        this.bootstrap = bootstrap;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletionStage<Connection> acquire( BoltServerAddress address )
+    {
+        return delegate.acquire( address );
+    }
+
+    @Override
+    public void retainAll( Set<BoltServerAddress> addressesToRetain )
+    {
+        sharedPools.retainAll( this, addressesToRetain );
+    }
+
+    @Override
+    public int inUseConnections( BoltServerAddress address )
+    {
+        return delegate.inUseConnections( address );
+    }
+
+    @Override
+    public int connectionLimit( BoltServerAddress address )
+    {
+        return delegate.connectionLimit( address );
+    }
+
+    @Override
+    public void connectionLimitReached( BoltServerAddress address )
+    {
+        delegate.connectionLimitReached( address );
+    }
+
+    @Override
+    public int idleConnections( BoltServerAddress address )
+    {
+        return delegate.idleConnections( address );
+    }
+
+    @Override
+    public long responseTime( BoltServerAddress address )
+    {
+        return delegate.responseTime( address );
+    }
+
+    @Override
+    public CompletionStage<Void> close()
+    {
+        return sharedPools.detach( this );
+    }
+
+    @Override
+    public boolean isOpen( BoltServerAddress address )
+    {
+        return delegate.isOpen( address );
+    }
+
+    @Override
+    public boolean isCircuitOpen( BoltServerAddress address )
+    {
+        return delegate.isCircuitOpen( address );
+    }
+
+    @Override
+    public CompletionStage<Void> drain( BoltServerAddress address )
+    {
+        // connections are shared, so draining affects all attached drivers
+        return delegate.drain( address );
+    }
+
+    @Override
+    public void endDrain( BoltServerAddress address )
+    {
+        delegate.endDrain( address );
+    }
+
+    /**
+     * @return bootstrap with the event loop group shared by all attached drivers.
+     */
+    public Bootstrap bootstrap()
+    {
+        return bootstrap;
+    }
+
+    /**
+     * @return metrics of the shared pool.
+     */
+    public InternalAbstractMetrics metrics()
+    {
+        return metrics;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SharedConnectionPool{" + "delegate=" + delegate + '}';
+    }
+}
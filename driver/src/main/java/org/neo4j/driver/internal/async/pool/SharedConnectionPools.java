@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.EventLoopGroup;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.BootstrapFactory;
+import org.neo4j.driver.internal.metrics.InternalAbstractMetrics;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.v1.AuthToken;
+import org.neo4j.driver.v1.Config;
+
+import static java.util.Collections.singleton;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+
+/**
+ * Registry of connection pools shared between driver instances, see {@link Config.ConfigBuilder#withSharedConnectionPool()}.
+ * <p>
+ * All attached drivers use a single {@link EventLoopGroup}. Drivers with equal auth tokens and equal connection,
+ * encryption and pool settings also use a single {@link ConnectionPool}, so connections are effectively pooled per
+ * server address and auth token. Logging and metrics of a shared pool are the ones of the first driver that created it.
+ * <p>
+ * Both the event loop group and pools are reference counted and closed when the last driver detaches.
+ */
+public class SharedConnectionPools
+{
+    private static final SharedConnectionPools JVM_WIDE = new SharedConnectionPools( BootstrapFactory::newBootstrap );
+
+    private final Supplier<Bootstrap> bootstrapFactory;
+    private final Map<PoolKey,Entry> entries = new HashMap<>();
+
+    private Bootstrap bootstrap;
+    private int bootstrapUsers;
+
+    public SharedConnectionPools( Supplier<Bootstrap> bootstrapFactory )
+    {
+        this.bootstrapFactory = bootstrapFactory;
+    }
+
+    public static SharedConnectionPools jvmWide()
+    {
+        return JVM_WIDE;
+    }
+
+    /**
+     * Attach a new driver to a shared connection pool. Pool is created if this is the first driver with the given
+     * auth token and config.
+     *
+     * @param authToken the auth token of the driver.
+     * @param address the address the driver connects to, i.e. the server of a direct driver or the initial router of
+     * a routing driver. It is retained in the pool until the driver specifies addresses to retain itself.
+     * @param config the config of the driver.
+     * @param metricsFactory creates metrics for a new pool.
+     * @param poolFactory creates a new pool that uses the given bootstrap and metrics. Created pool should not own
+     * the event loop group of the bootstrap.
+     * @return pool to be used by a single driver. Closing it detaches the driver.
+     */
+    public synchronized SharedConnectionPool attach( AuthToken authToken, BoltServerAddress address, Config config,
+            Supplier<InternalAbstractMetrics> metricsFactory,
+            BiFunction<Bootstrap,InternalAbstractMetrics,ConnectionPool> poolFactory )
+    {
+        PoolKey key = new PoolKey( authToken, config );
+        Entry entry = entries.get( key );
+        if ( entry == null )
+        {
+            Bootstrap sharedBootstrap = retainBootstrap();
+            try
+            {
+                InternalAbstractMetrics metrics = metricsFactory.get();
+                entry = new Entry( key, sharedBootstrap, metrics, poolFactory.apply( sharedBootstrap, metrics ) );
+            }
+            catch ( Throwable error )
+            {
+                releaseBootstrap();
+                throw error;
+            }
+            entries.put( key, entry );
+        }
+
+        SharedConnectionPool attachment = new SharedConnectionPool( this, entry.pool, entry.bootstrap, entry.metrics );
+        entry.attachments.put( attachment, singleton( address ) );
+        return attachment;
+    }
+
+    synchronized int attachedDriverCount()
+    {
+        int count = 0;
+        for ( Entry entry : entries.values() )
+        {
+            count += entry.attachments.size();
+        }
+        return count;
+    }
+
+    synchronized void retainAll( SharedConnectionPool attachment, Set<BoltServerAddress> addressesToRetain )
+    {
+        Entry entry = entryOf( attachment );
+        if ( entry == null )
+        {
+            return;
+        }
+
+        entry.attachments.put( attachment, addressesToRetain );
+        retainAddressesOfAttachedDrivers( entry );
+    }
+
+    synchronized CompletionStage<Void> detach( SharedConnectionPool attachment )
+    {
+        Entry entry = entryOf( attachment );
+        if ( entry == null )
+        {
+            // already detached
+            return completedWithNull();
+        }
+
+        entry.attachments.remove( attachment );
+        if ( !entry.attachments.isEmpty() )
+        {
+            // other drivers still use the pool, close only pools towards addresses the detached driver used alone
+            retainAddressesOfAttachedDrivers( entry );
+            return completedWithNull();
+        }
+
+        entries.remove( entry.key );
+        CompletionStage<Void> poolClosed = entry.pool.close();
+        CompletionStage<Void> eventLoopGroupTerminated = releaseBootstrap();
+        return poolClosed.thenCompose( ignore -> eventLoopGroupTerminated );
+    }
+
+    private static void retainAddressesOfAttachedDrivers( Entry entry )
+    {
+        // pool is shared so only close pools towards addresses none of the attached drivers wants to retain
+        Set<BoltServerAddress> union = new HashSet<>();
+        for ( Set<BoltServerAddress> addresses : entry.attachments.values() )
+        {
+            union.addAll( addresses );
+        }
+        entry.pool.retainAll( union );
+    }
+
+    private Entry entryOf( SharedConnectionPool attachment )
+    {
+        for ( Entry entry : entries.values() )
+        {
+            if ( entry.attachments.containsKey( attachment ) )
+            {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private Bootstrap retainBootstrap()
+    {
+        if ( bootstrap == null )
+        {
+            bootstrap = bootstrapFactory.get();
+        }
+        bootstrapUsers++;
+        return bootstrap;
+    }
+
+    private CompletionStage<Void> releaseBootstrap()
+    {
+        bootstrapUsers--;
+        if ( bootstrapUsers > 0 )
+        {
+            return completedWithNull();
+        }
+
+        EventLoopGroup eventLoopGroup = bootstrap.config().group();
+        bootstrap = null;
+        eventLoopGroup.shutdownGracefully();
+        return Futures.asCompletionStage( eventLoopGroup.terminationFuture() ).thenApply( ignore -> null );
+    }
+
+    private static class Entry
+    {
+        final PoolKey key;
+        final Bootstrap bootstrap;
+        final InternalAbstractMetrics metrics;
+        final ConnectionPool pool;
+        // attached drivers and addresses they want to retain in the pool
+        final Map<SharedConnectionPool,Set<BoltServerAddress>> attachments = new IdentityHashMap<>();
+
+        Entry( PoolKey key, Bootstrap bootstrap, InternalAbstractMetrics metrics, ConnectionPool pool )
+        {
+            this.key = key;
+            this.bootstrap = bootstrap;
+            this.metrics = metrics;
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * Identifies settings that make connections interchangeable between drivers.
+     */
+    private static class PoolKey
+    {
+        final AuthToken authToken;
+        final boolean encrypted;
+        final Config.TrustStrategy.Strategy trustStrategy;
+        final File certFile;
+        final int connectionTimeoutMillis;
+        final int maxConnectionPoolSize;
+        final int minConnectionPoolSize;
+        final double circuitBreakerFailureRateThreshold;
+        final long circuitBreakerCoolDownMillis;
+        final boolean responseTimeTrackingEnabled;
+        final long connectionAcquisitionTimeoutMillis;
+        final long maxConnectionLifetimeMillis;
+        final long idleTimeBeforeConnectionTest;
+
+        PoolKey( AuthToken authToken, Config config )
+        {
+            this.authToken = authToken;
+            this.encrypted = config.encrypted();
+            this.trustStrategy = config.trustStrategy().strategy();
+            this.certFile = config.trustStrategy().certFile();
+            this.connectionTimeoutMillis = config.connectionTimeoutMillis();
+            this.maxConnectionPoolSize = config.maxConnectionPoolSize();
+            this.minConnectionPoolSize = config.minConnectionPoolSize();
+            this.circuitBreakerFailureRateThreshold = config.circuitBreakerFailureRateThreshold();
+            this.circuitBreakerCoolDownMillis = config.circuitBreakerCoolDownMillis();
+            this.responseTimeTrackingEnabled =
+                    config.loadBalancingStrategy() == Config.LoadBalancingStrategy.LEAST_RESPONSE_TIME;
+            this.connectionAcquisitionTimeoutMillis = config.connectionAcquisitionTimeoutMillis();
+            this.maxConnectionLifetimeMillis = config.maxConnectionLifetimeMillis();
+            this.idleTimeBeforeConnectionTest = config.idleTimeBeforeConnectionTest();
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            PoolKey that = (PoolKey) o;
+            return encrypted == that.encrypted &&
+                   connectionTimeoutMillis == that.connectionTimeoutMillis &&
+                   maxConnectionPoolSize == that.maxConnectionPoolSize &&
+                   minConnectionPoolSize == that.minConnectionPoolSize &&
+                   Double.compare( circuitBreakerFailureRateThreshold, that.circuitBreakerFailureRateThreshold ) == 0 &&
+                   circuitBreakerCoolDownMillis == that.circuitBreakerCoolDownMillis &&
+                   responseTimeTrackingEnabled == that.responseTimeTrackingEnabled &&
+                   connectionAcquisitionTimeoutMillis == that.connectionAcquisitionTimeoutMillis &&
+                   maxConnectionLifetimeMillis == that.maxConnectionLifetimeMillis &&
+                   idleTimeBeforeConnectionTest == that.idleTimeBeforeConnectionTest &&
+                   Objects.equals( authToken, that.authToken ) &&
+                   trustStrategy == that.trustStrategy &&
+                   Objects.equals( certFile, that.certFile );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( authToken, encrypted, trustStrategy, certFile, connectionTimeoutMillis,
+                    maxConnectionPoolSize, minConnectionPoolSize, connectionAcquisitionTimeoutMillis,
+                    maxConnectionLifetimeMillis, idleTimeBeforeConnectionTest, circuitBreakerFailureRateThreshold,
+                    circuitBreakerCoolDownMillis, responseTimeTrackingEnabled );
+        }
+    }
+}
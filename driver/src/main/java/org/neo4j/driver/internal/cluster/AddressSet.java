@@ -40,7 +40,10 @@ public class AddressSet
 
     public synchronized void update( Set<BoltServerAddress> addresses )
     {
-        this.addresses = addresses.toArray( NONE );
+        if ( !containsSame( addresses ) )
+        {
+            this.addresses = addresses.toArray( NONE );
+        }
     }
 
     public synchronized void remove( BoltServerAddress address )
@@ -67,6 +70,25 @@ public class AddressSet
         }
     }
 
+    private boolean containsSame( Set<BoltServerAddress> newAddresses )
+    {
+        // keep the existing array when routing table did not change, most updates do not change anything
+        BoltServerAddress[] addresses = this.addresses;
+        if ( addresses.length != newAddresses.size() )
+        {
+            return false;
+        }
+        int i = 0;
+        for ( BoltServerAddress address : newAddresses )
+        {
+            if ( !address.equals( addresses[i++] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String toString()
     {
@@ -67,10 +67,11 @@ public class ClusterRoutingTable implements RoutingTable
     @Override
     public synchronized void update( ClusterComposition cluster )
     {
-        expirationTimeout = cluster.expirationTimestamp();
         readers.update( cluster.readers() );
         writers.update( cluster.writers() );
         routers.update( cluster.routers() );
+        // staleness is checked without a lock, table should not appear fresh before its addresses are updated
+        expirationTimeout = cluster.expirationTimestamp();
     }
 
     @Override
@@ -17,44 +17,200 @@
  */
 package org.neo4j.driver.internal.cluster;
 
+import io.netty.util.concurrent.DefaultThreadFactory;
+
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.security.Security;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.metrics.ListenerEvent;
+import org.neo4j.driver.internal.metrics.MetricsListener;
+import org.neo4j.driver.internal.util.Clock;
 import org.neo4j.driver.v1.Logger;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
+
+/**
+ * Resolves host names using {@link InetAddress#getAllByName(String)}. Blocking resolution is performed on a dedicated
+ * thread, so that event loop threads never wait for a DNS server. Resolved addresses are cached for the time
+ * configured with {@code networkaddress.cache.ttl} security property and failures are cached for the time configured
+ * with {@code networkaddress.cache.negative.ttl}, same as JVM caches them.
+ */
 public class DnsResolver implements HostNameResolver
 {
+    private static final long DEFAULT_TTL = SECONDS.toMillis( 30 );
+    private static final long DEFAULT_NEGATIVE_TTL = SECONDS.toMillis( 10 );
+
+    private static final Executor BLOCKING_EXECUTOR =
+            Executors.newCachedThreadPool( new DefaultThreadFactory( "Neo4jDriverDnsResolver", true ) );
+
+    private final Executor executor;
+    private final Clock clock;
+    private final MetricsListener metricsListener;
     private final Logger logger;
+    private final long ttl;
+    private final long negativeTtl;
+
+    private final ConcurrentMap<BoltServerAddress,CachedResolution> cache = new ConcurrentHashMap<>();
 
     public DnsResolver( Logger logger )
     {
+        this( Clock.SYSTEM, DEV_NULL_METRICS, logger );
+    }
+
+    public DnsResolver( Clock clock, MetricsListener metricsListener, Logger logger )
+    {
+        this( BLOCKING_EXECUTOR, clock, metricsListener, logger,
+                ttlFromSecurityProperty( "networkaddress.cache.ttl", DEFAULT_TTL ),
+                ttlFromSecurityProperty( "networkaddress.cache.negative.ttl", DEFAULT_NEGATIVE_TTL ) );
+    }
+
+    DnsResolver( Executor executor, Clock clock, MetricsListener metricsListener, Logger logger, long ttl,
+            long negativeTtl )
+    {
+        this.executor = executor;
+        this.clock = clock;
+        this.metricsListener = metricsListener;
         this.logger = logger;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
     }
 
     @Override
-    public Set<BoltServerAddress> resolve( BoltServerAddress initialRouter )
+    public CompletionStage<Set<BoltServerAddress>> resolve( BoltServerAddress initialRouter )
+    {
+        long now = clock.millis();
+        CachedResolution resolution = cache.compute( initialRouter, ( address, cached ) ->
+                cached == null || cached.isExpired( now ) ? new CachedResolution() : cached );
+
+        if ( resolution.start() )
+        {
+            executor.execute( () ->
+            {
+                try
+                {
+                    resolution.complete( resolveBlocking( initialRouter ) );
+                }
+                catch ( Throwable error )
+                {
+                    resolution.fail( error );
+                }
+            } );
+        }
+        return resolution.addresses;
+    }
+
+    private Resolved resolveBlocking( BoltServerAddress initialRouter )
     {
-        Set<BoltServerAddress> addresses = new HashSet<>();
+        ListenerEvent resolveEvent = metricsListener.createListenerEvent();
+        metricsListener.beforeResolving( initialRouter, resolveEvent );
         try
         {
             InetAddress[] ipAddresses = InetAddress.getAllByName( initialRouter.host() );
 
+            Set<BoltServerAddress> addresses = new HashSet<>();
             for ( InetAddress ipAddress : ipAddresses )
             {
                 addresses.add( new BoltServerAddress( ipAddress.getHostAddress(), initialRouter.port() ) );
             }
-
-            return addresses;
+            return new Resolved( addresses, ttl );
         }
         catch ( UnknownHostException e )
         {
             logger.error( "Failed to resolve URI `" + initialRouter + "` to IPs due to error: " + e.getMessage(), e );
 
-            addresses.add( initialRouter );
-            return addresses;
+            return new Resolved( Collections.singleton( initialRouter ), negativeTtl );
+        }
+        finally
+        {
+            metricsListener.afterResolved( initialRouter, resolveEvent );
+        }
+    }
+
+    private long expirationTimestamp( long timeToLive )
+    {
+        if ( timeToLive < 0 )
+        {
+            // negative value means cache forever
+            return Long.MAX_VALUE;
+        }
+        return clock.millis() + timeToLive;
+    }
+
+    private static long ttlFromSecurityProperty( String name, long defaultValue )
+    {
+        String value = Security.getProperty( name );
+        if ( value == null )
+        {
+            return defaultValue;
+        }
+        try
+        {
+            long seconds = Long.parseLong( value.trim() );
+            return seconds < 0 ? -1 : SECONDS.toMillis( seconds );
+        }
+        catch ( NumberFormatException e )
+        {
+            return defaultValue;
+        }
+    }
+
+    private static class Resolved
+    {
+        final Set<BoltServerAddress> addresses;
+        final long timeToLive;
+
+        Resolved( Set<BoltServerAddress> addresses, long timeToLive )
+        {
+            this.addresses = Collections.unmodifiableSet( addresses );
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    private class CachedResolution
+    {
+        final CompletableFuture<Set<BoltServerAddress>> addresses = new CompletableFuture<>();
+        // resolution in progress never expires
+        volatile long expirationTimestamp = Long.MAX_VALUE;
+        boolean started;
+
+        synchronized boolean start()
+        {
+            if ( started )
+            {
+                return false;
+            }
+            started = true;
+            return true;
+        }
+
+        void complete( Resolved resolved )
+        {
+            expirationTimestamp = expirationTimestamp( resolved.timeToLive );
+            addresses.complete( resolved.addresses );
+        }
+
+        void fail( Throwable error )
+        {
+            // do not cache unexpected errors, next resolution attempt will retry
+            expirationTimestamp = Long.MIN_VALUE;
+            addresses.completeExceptionally( error );
+        }
+
+        boolean isExpired( long now )
+        {
+            return expirationTimestamp <= now;
         }
     }
 }
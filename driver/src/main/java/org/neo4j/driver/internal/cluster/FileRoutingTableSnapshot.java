@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.util.Clock;
+import org.neo4j.driver.v1.Logger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps the last known cluster composition in a properties file. Only the time-to-live of the composition is stored,
+ * so a loaded composition expires relative to the time it was loaded. File is written only when the set of known
+ * servers changes and the write is performed on a dedicated thread, so that event loop threads never wait for the
+ * disk. Snapshot also records the initial router of the driver that saved it and is ignored by drivers created for
+ * a different one.
+ */
+public class FileRoutingTableSnapshot implements RoutingTableSnapshot
+{
+    private static final Executor BLOCKING_EXECUTOR =
+            Executors.newSingleThreadExecutor( new DefaultThreadFactory( "Neo4jDriverRoutingTableSnapshot", true ) );
+
+    private static final String INITIAL_ROUTER = "initialRouter";
+    private static final String TTL = "ttl";
+    private static final String READERS = "readers";
+    private static final String WRITERS = "writers";
+    private static final String ROUTERS = "routers";
+    private static final String SEPARATOR = ",";
+
+    private final Path file;
+    private final BoltServerAddress initialRouter;
+    private final Executor executor;
+    private final Clock clock;
+    private final Logger log;
+
+    // composition with the servers that are in the file or are about to be written to it
+    private final AtomicReference<ClusterComposition> lastSaved = new AtomicReference<>();
+
+    public FileRoutingTableSnapshot( File file, BoltServerAddress initialRouter, Clock clock, Logger log )
+    {
+        this( file, initialRouter, BLOCKING_EXECUTOR, clock, log );
+    }
+
+    FileRoutingTableSnapshot( File file, BoltServerAddress initialRouter, Executor executor, Clock clock, Logger log )
+    {
+        this.file = file.toPath().toAbsolutePath();
+        this.initialRouter = initialRouter;
+        this.executor = executor;
+        this.clock = clock;
+        this.log = log;
+    }
+
+    @Override
+    public ClusterComposition load()
+    {
+        if ( !Files.isRegularFile( file ) )
+        {
+            return null;
+        }
+
+        try ( Reader reader = Files.newBufferedReader( file, UTF_8 ) )
+        {
+            Properties properties = new Properties();
+            properties.load( reader );
+
+            String savedInitialRouter = properties.getProperty( INITIAL_ROUTER );
+            if ( savedInitialRouter == null || !initialRouter.equals( new BoltServerAddress( savedInitialRouter ) ) )
+            {
+                log.warn( "Ignoring routing table snapshot %s saved for initial router %s, driver uses %s", file,
+                        savedInitialRouter, initialRouter );
+                return null;
+            }
+
+            long ttl = Long.parseLong( properties.getProperty( TTL ) );
+            long expirationTimestamp = ttl < 0 ? Long.MAX_VALUE : clock.millis() + ttl;
+            ClusterComposition composition = new ClusterComposition( expirationTimestamp,
+                    addresses( properties, READERS ), addresses( properties, WRITERS ),
+                    addresses( properties, ROUTERS ) );
+
+            if ( !composition.hasRoutersAndReaders() )
+            {
+                log.warn( "Ignoring routing table snapshot %s without routers or readers", file );
+                return null;
+            }
+            // composition in the file does not need to be written again until servers change
+            lastSaved.set( composition );
+            return composition;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            log.warn( "Unable to load routing table snapshot from " + file, e );
+            return null;
+        }
+    }
+
+    @Override
+    public void save( ClusterComposition composition )
+    {
+        ClusterComposition previous = lastSaved.get();
+        if ( previous != null && sameServers( previous, composition ) )
+        {
+            return;
+        }
+        lastSaved.set( composition );
+
+        Properties properties = new Properties();
+        long expirationTimestamp = composition.expirationTimestamp();
+        long ttl = expirationTimestamp == Long.MAX_VALUE ? -1 : Math.max( 0, expirationTimestamp - clock.millis() );
+        properties.setProperty( INITIAL_ROUTER, initialRouter.toString() );
+        properties.setProperty( TTL, String.valueOf( ttl ) );
+        properties.setProperty( READERS, join( composition.readers() ) );
+        properties.setProperty( WRITERS, join( composition.writers() ) );
+        properties.setProperty( ROUTERS, join( composition.routers() ) );
+
+        executor.execute( () ->
+        {
+            if ( !write( properties ) )
+            {
+                // make the next save write the file again
+                lastSaved.compareAndSet( composition, null );
+            }
+        } );
+    }
+
+    private boolean write( Properties properties )
+    {
+        Path tempFile = null;
+        try
+        {
+            // write to a temporary file first, so that concurrently starting drivers never read a partial snapshot
+            tempFile = Files.createTempFile( file.getParent(), file.getFileName().toString(), ".tmp" );
+            try ( Writer writer = Files.newBufferedWriter( tempFile, UTF_8 ) )
+            {
+                properties.store( writer, "Neo4j driver routing table snapshot" );
+            }
+            moveReplacing( tempFile, file );
+            return true;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            log.warn( "Unable to save routing table snapshot to " + file, e );
+            deleteQuietly( tempFile );
+            return false;
+        }
+    }
+
+    private static Set<BoltServerAddress> addresses( Properties properties, String key )
+    {
+        Set<BoltServerAddress> addresses = new LinkedHashSet<>();
+        String value = properties.getProperty( key, "" ).trim();
+        if ( !value.isEmpty() )
+        {
+            for ( String address : value.split( SEPARATOR ) )
+            {
+                addresses.add( new BoltServerAddress( address.trim() ) );
+            }
+        }
+        return addresses;
+    }
+
+    private static String join( Set<BoltServerAddress> addresses )
+    {
+        StringBuilder result = new StringBuilder();
+        for ( BoltServerAddress address : addresses )
+        {
+            if ( result.length() > 0 )
+            {
+                result.append( SEPARATOR );
+            }
+            result.append( address );
+        }
+        return result.toString();
+    }
+
+    private static boolean sameServers( ClusterComposition first, ClusterComposition second )
+    {
+        return first.readers().equals( second.readers() ) &&
+               first.writers().equals( second.writers() ) &&
+               first.routers().equals( second.routers() );
+    }
+
+    private static void moveReplacing( Path source, Path target ) throws IOException
+    {
+        try
+        {
+            Files.move( source, target, ATOMIC_MOVE, REPLACE_EXISTING );
+        }
+        catch ( AtomicMoveNotSupportedException e )
+        {
+            Files.move( source, target, REPLACE_EXISTING );
+        }
+    }
+
+    private static void deleteQuietly( Path path )
+    {
+        if ( path != null )
+        {
+            try
+            {
+                Files.deleteIfExists( path );
+            }
+            catch ( IOException ignore )
+            {
+            }
+        }
+    }
+}
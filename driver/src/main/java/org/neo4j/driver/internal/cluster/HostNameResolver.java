@@ -18,10 +18,11 @@
 package org.neo4j.driver.internal.cluster;
 
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 
 public interface HostNameResolver
 {
-    Set<BoltServerAddress> resolve( BoltServerAddress initialRouter );
+    CompletionStage<Set<BoltServerAddress>> resolve( BoltServerAddress initialRouter );
 }
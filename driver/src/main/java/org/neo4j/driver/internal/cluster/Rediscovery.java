@@ -18,16 +18,20 @@
 package org.neo4j.driver.internal.cluster;
 
 import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.ScheduledFuture;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.pool.CircuitBreakerOpenException;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 import org.neo4j.driver.internal.util.Futures;
@@ -148,7 +152,7 @@ public class Rediscovery
     private CompletionStage<ClusterComposition> lookupOnKnownRoutersThenOnInitialRouter( RoutingTable routingTable,
             ConnectionPool connectionPool )
     {
-        Set<BoltServerAddress> seenServers = new HashSet<>();
+        Set<BoltServerAddress> seenServers = ConcurrentHashMap.newKeySet();
         return lookupOnKnownRouters( routingTable, connectionPool, seenServers ).thenCompose( composition ->
         {
             if ( composition != null )
@@ -169,7 +173,7 @@ public class Rediscovery
             {
                 return completedFuture( composition );
             }
-            return lookupOnKnownRouters( routingTable, connectionPool, new HashSet<>() );
+            return lookupOnKnownRouters( routingTable, connectionPool, ConcurrentHashMap.newKeySet() );
         } );
     }
 
@@ -177,6 +181,10 @@ public class Rediscovery
             ConnectionPool connectionPool, Set<BoltServerAddress> seenServers )
     {
         BoltServerAddress[] addresses = routingTable.routers().toArray();
+        if ( settings.routingLookupHedgingEnabled() )
+        {
+            return new HedgedLookup( addresses, routingTable, connectionPool, seenServers ).start();
+        }
 
         CompletableFuture<ClusterComposition> result = completedWithNull();
         for ( BoltServerAddress address : addresses )
@@ -200,26 +208,41 @@ public class Rediscovery
     private CompletionStage<ClusterComposition> lookupOnInitialRouter( RoutingTable routingTable,
             ConnectionPool connectionPool, Set<BoltServerAddress> seenServers )
     {
-        Set<BoltServerAddress> addresses = hostNameResolver.resolve( initialRouter );
-        addresses.removeAll( seenServers );
-
-        CompletableFuture<ClusterComposition> result = completedWithNull();
-        for ( BoltServerAddress address : addresses )
+        return hostNameResolver.resolve( initialRouter ).thenCompose( resolvedAddresses ->
         {
-            result = result.thenCompose( composition ->
+            // resolved addresses might be cached by the resolver, do not modify them
+            Set<BoltServerAddress> addresses = new LinkedHashSet<>( resolvedAddresses );
+            addresses.removeAll( seenServers );
+            if ( settings.routingLookupHedgingEnabled() )
             {
-                if ( composition != null )
+                return new HedgedLookup( addresses.toArray( new BoltServerAddress[0] ), routingTable, connectionPool,
+                        null ).start();
+            }
+
+            CompletableFuture<ClusterComposition> result = completedWithNull();
+            for ( BoltServerAddress address : addresses )
+            {
+                result = result.thenCompose( composition ->
                 {
-                    return completedFuture( composition );
-                }
-                return lookupOnRouter( address, routingTable, connectionPool );
-            } );
-        }
-        return result;
+                    if ( composition != null )
+                    {
+                        return completedFuture( composition );
+                    }
+                    return lookupOnRouter( address, routingTable, connectionPool );
+                } );
+            }
+            return result;
+        } );
     }
 
     private CompletionStage<ClusterComposition> lookupOnRouter( BoltServerAddress routerAddress,
             RoutingTable routingTable, ConnectionPool connectionPool )
+    {
+        return lookupOnRouter( routerAddress, routingTable, connectionPool, () -> false );
+    }
+
+    private CompletionStage<ClusterComposition> lookupOnRouter( BoltServerAddress routerAddress,
+            RoutingTable routingTable, ConnectionPool connectionPool, BooleanSupplier lookupCompletedElsewhere )
     {
         CompletionStage<Connection> connectionStage = connectionPool.acquire( routerAddress );
 
@@ -228,6 +251,13 @@ public class Rediscovery
             Throwable cause = Futures.completionExceptionCause( error );
             if ( cause != null )
             {
+                if ( lookupCompletedElsewhere.getAsBoolean() )
+                {
+                    // hedged lookup on another router already won, routing table might already contain a fresh
+                    // composition where this router is healthy, so it should not be forgotten
+                    logger.debug( "Ignoring failure of hedged lookup on routing server '%s'", routerAddress );
+                    return null;
+                }
                 return handleRoutingProcedureError( cause, routingTable, routerAddress );
             }
             else
@@ -245,6 +275,12 @@ public class Rediscovery
             // auth error happened, terminate the discovery procedure immediately
             throw new CompletionException( error );
         }
+        else if ( error instanceof CircuitBreakerOpenException )
+        {
+            // router was not contacted, it stays in the routing table so that a half-open trial can run later
+            logger.debug( "Skipping routing server '%s', circuit breaker rejected the acquisition", routerAddress );
+            return null;
+        }
         else
         {
             // connection turned out to be broken
@@ -254,4 +290,109 @@ public class Rediscovery
         }
     }
 
+    /**
+     * Lookup on multiple routers that queries the first router right away and every next router when the hedge
+     * delay passes or when the previous lookup fails. First fetched composition is used, results of lookups that are
+     * still in progress are ignored.
+     */
+    private class HedgedLookup
+    {
+        final BoltServerAddress[] addresses;
+        final RoutingTable routingTable;
+        final ConnectionPool connectionPool;
+        final Set<BoltServerAddress> seenServers;
+        final CompletableFuture<ClusterComposition> result = new CompletableFuture<>();
+
+        // guarded by this
+        int started;
+        int completed;
+        ScheduledFuture<?> nextLookup;
+
+        HedgedLookup( BoltServerAddress[] addresses, RoutingTable routingTable, ConnectionPool connectionPool,
+                Set<BoltServerAddress> seenServers )
+        {
+            this.addresses = addresses;
+            this.routingTable = routingTable;
+            this.connectionPool = connectionPool;
+            this.seenServers = seenServers;
+        }
+
+        CompletionStage<ClusterComposition> start()
+        {
+            if ( addresses.length == 0 )
+            {
+                return completedWithNull();
+            }
+            startNextLookup();
+            return result;
+        }
+
+        void startNextLookup()
+        {
+            BoltServerAddress address;
+            synchronized ( this )
+            {
+                if ( result.isDone() || started == addresses.length )
+                {
+                    return;
+                }
+                address = addresses[started++];
+                cancelNextLookup();
+                if ( started < addresses.length )
+                {
+                    nextLookup = eventExecutorGroup.schedule( this::startNextLookup,
+                            settings.routingLookupHedgeDelay(), TimeUnit.MILLISECONDS );
+                }
+            }
+
+            lookupOnRouter( address, routingTable, connectionPool, result::isDone )
+                    .whenComplete( ( composition, error ) -> lookupCompleted( address, composition, error ) );
+        }
+
+        void lookupCompleted( BoltServerAddress address, ClusterComposition composition, Throwable error )
+        {
+            if ( seenServers != null )
+            {
+                seenServers.add( address );
+            }
+
+            boolean allCompleted;
+            synchronized ( this )
+            {
+                completed++;
+                allCompleted = completed == addresses.length;
+                if ( error != null || composition != null || allCompleted )
+                {
+                    cancelNextLookup();
+                }
+            }
+
+            if ( error != null )
+            {
+                result.completeExceptionally( error );
+            }
+            else if ( composition != null )
+            {
+                result.complete( composition );
+            }
+            else if ( allCompleted )
+            {
+                result.complete( null );
+            }
+            else
+            {
+                // lookup failed, do not wait for the hedge delay to query the next router
+                startNextLookup();
+            }
+        }
+
+        void cancelNextLookup()
+        {
+            if ( nextLookup != null )
+            {
+                nextLookup.cancel( false );
+                nextLookup = null;
+            }
+        }
+    }
 }
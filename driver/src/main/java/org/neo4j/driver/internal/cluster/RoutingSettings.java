@@ -21,11 +21,15 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class RoutingSettings
 {
+    public static final int NOT_CONFIGURED = -1;
     public static final RoutingSettings DEFAULT = new RoutingSettings( 1, SECONDS.toMillis( 5 ) );
 
     private final int maxRoutingFailures;
     private final long retryTimeoutDelay;
     private final RoutingContext routingContext;
+    private final double routingTableRefreshRatio;
+    private final long routingLookupHedgeDelay;
+    private final int routingWarmUpConnections;
 
     public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay )
     {
@@ -33,15 +37,38 @@ public class RoutingSettings
     }
 
     public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext )
+    {
+        this( maxRoutingFailures, retryTimeoutDelay, routingContext, NOT_CONFIGURED );
+    }
+
+    public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext,
+            double routingTableRefreshRatio )
+    {
+        this( maxRoutingFailures, retryTimeoutDelay, routingContext, routingTableRefreshRatio, NOT_CONFIGURED );
+    }
+
+    public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext,
+            double routingTableRefreshRatio, long routingLookupHedgeDelay )
+    {
+        this( maxRoutingFailures, retryTimeoutDelay, routingContext, routingTableRefreshRatio, routingLookupHedgeDelay,
+                NOT_CONFIGURED );
+    }
+
+    public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext,
+            double routingTableRefreshRatio, long routingLookupHedgeDelay, int routingWarmUpConnections )
     {
         this.maxRoutingFailures = maxRoutingFailures;
         this.retryTimeoutDelay = retryTimeoutDelay;
         this.routingContext = routingContext;
+        this.routingTableRefreshRatio = routingTableRefreshRatio;
+        this.routingLookupHedgeDelay = routingLookupHedgeDelay;
+        this.routingWarmUpConnections = routingWarmUpConnections;
     }
 
     public RoutingSettings withRoutingContext( RoutingContext newRoutingContext )
     {
-        return new RoutingSettings( maxRoutingFailures, retryTimeoutDelay, newRoutingContext );
+        return new RoutingSettings( maxRoutingFailures, retryTimeoutDelay, newRoutingContext,
+                routingTableRefreshRatio, routingLookupHedgeDelay, routingWarmUpConnections );
     }
 
     public int maxRoutingFailures()
@@ -58,4 +85,34 @@ public class RoutingSettings
     {
         return routingContext;
     }
+
+    public double routingTableRefreshRatio()
+    {
+        return routingTableRefreshRatio;
+    }
+
+    public boolean routingTableRefreshEnabled()
+    {
+        return routingTableRefreshRatio > 0;
+    }
+
+    public long routingLookupHedgeDelay()
+    {
+        return routingLookupHedgeDelay;
+    }
+
+    public boolean routingLookupHedgingEnabled()
+    {
+        return routingLookupHedgeDelay >= 0;
+    }
+
+    public int routingWarmUpConnections()
+    {
+        return routingWarmUpConnections;
+    }
+
+    public boolean routingWarmUpEnabled()
+    {
+        return routingWarmUpConnections > 0;
+    }
 }
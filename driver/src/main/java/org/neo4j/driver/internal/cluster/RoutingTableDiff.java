@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+
+/**
+ * Difference between two consecutive cluster compositions. Servers that are present in both compositions but serve
+ * different roles, e.g. the writer that became a reader after a leader election, are reported as role-changed.
+ */
+public final class RoutingTableDiff
+{
+    private final Set<BoltServerAddress> addedServers;
+    private final Set<BoltServerAddress> removedServers;
+    private final Set<BoltServerAddress> roleChangedServers;
+
+    private RoutingTableDiff( Set<BoltServerAddress> addedServers, Set<BoltServerAddress> removedServers,
+            Set<BoltServerAddress> roleChangedServers )
+    {
+        this.addedServers = Collections.unmodifiableSet( addedServers );
+        this.removedServers = Collections.unmodifiableSet( removedServers );
+        this.roleChangedServers = Collections.unmodifiableSet( roleChangedServers );
+    }
+
+    /**
+     * Compute the difference between compositions.
+     *
+     * @param previous the previous composition or {@code null} when there is none, all servers are then added.
+     * @param current the new composition.
+     * @return the difference.
+     */
+    public static RoutingTableDiff between( ClusterComposition previous, ClusterComposition current )
+    {
+        Set<BoltServerAddress> currentServers = servers( current );
+        if ( previous == null )
+        {
+            return new RoutingTableDiff( currentServers, Collections.emptySet(), Collections.emptySet() );
+        }
+
+        Set<BoltServerAddress> previousServers = servers( previous );
+        // composition returns copies of its address sets, take them once
+        Roles previousRoles = new Roles( previous );
+        Roles currentRoles = new Roles( current );
+        Set<BoltServerAddress> added = new LinkedHashSet<>();
+        Set<BoltServerAddress> roleChanged = new LinkedHashSet<>();
+        for ( BoltServerAddress address : currentServers )
+        {
+            if ( !previousServers.remove( address ) )
+            {
+                added.add( address );
+            }
+            else if ( !previousRoles.sameFor( address, currentRoles ) )
+            {
+                roleChanged.add( address );
+            }
+        }
+        // servers left in the previous set are not present in the current composition
+        return new RoutingTableDiff( added, previousServers, roleChanged );
+    }
+
+    public Set<BoltServerAddress> addedServers()
+    {
+        return addedServers;
+    }
+
+    public Set<BoltServerAddress> removedServers()
+    {
+        return removedServers;
+    }
+
+    public Set<BoltServerAddress> roleChangedServers()
+    {
+        return roleChangedServers;
+    }
+
+    public boolean isEmpty()
+    {
+        return addedServers.isEmpty() && removedServers.isEmpty() && roleChangedServers.isEmpty();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RoutingTableDiff{" +
+               "added=" + addedServers +
+               ", removed=" + removedServers +
+               ", roleChanged=" + roleChangedServers +
+               '}';
+    }
+
+    private static Set<BoltServerAddress> servers( ClusterComposition composition )
+    {
+        Set<BoltServerAddress> servers = composition.readers();
+        servers.addAll( composition.writers() );
+        servers.addAll( composition.routers() );
+        return servers;
+    }
+
+    private static class Roles
+    {
+        final Set<BoltServerAddress> readers;
+        final Set<BoltServerAddress> writers;
+        final Set<BoltServerAddress> routers;
+
+        Roles( ClusterComposition composition )
+        {
+            this.readers = composition.readers();
+            this.writers = composition.writers();
+            this.routers = composition.routers();
+        }
+
+        boolean sameFor( BoltServerAddress address, Roles other )
+        {
+            return readers.contains( address ) == other.readers.contains( address ) &&
+                   writers.contains( address ) == other.writers.contains( address ) &&
+                   routers.contains( address ) == other.routers.contains( address );
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster;
+
+public interface RoutingTableSnapshot
+{
+    RoutingTableSnapshot NONE = new RoutingTableSnapshot()
+    {
+        @Override
+        public ClusterComposition load()
+        {
+            return null;
+        }
+
+        @Override
+        public void save( ClusterComposition composition )
+        {
+        }
+    };
+
+    /**
+     * Load the saved cluster composition. Its expiration timestamp is recalculated relative to the current time.
+     *
+     * @return the saved composition or {@code null} when there is no usable snapshot.
+     */
+    ClusterComposition load();
+
+    /**
+     * Save the given cluster composition. Invoked by event loop threads after every routing table refresh, so it
+     * should neither block nor write a composition with the same servers again.
+     *
+     * @param composition the composition to save.
+     */
+    void save( ClusterComposition composition );
+}
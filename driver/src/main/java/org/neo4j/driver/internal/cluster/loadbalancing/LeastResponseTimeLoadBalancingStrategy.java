@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.v1.Logger;
+import org.neo4j.driver.v1.Logging;
+
+/**
+ * Load balancing strategy that finds server with the lowest expected response time from given readers or writers.
+ * Expected response time of a server is its average response time multiplied by the number of queries it has to
+ * process, i.e. active (checked out of the pool) connections plus the new one. Servers with equal scores are
+ * compared by the amount of active connections. Start index for iteration is chosen in a round-robin fashion to
+ * prevent choosing same first address over and over when all addresses have same score.
+ */
+public class LeastResponseTimeLoadBalancingStrategy implements LoadBalancingStrategy
+{
+    private static final String LOGGER_NAME = LeastResponseTimeLoadBalancingStrategy.class.getSimpleName();
+
+    private final RoundRobinArrayIndex readersIndex = new RoundRobinArrayIndex();
+    private final RoundRobinArrayIndex writersIndex = new RoundRobinArrayIndex();
+
+    private final ConnectionPool connectionPool;
+    private final Logger log;
+
+    public LeastResponseTimeLoadBalancingStrategy( ConnectionPool connectionPool, Logging logging )
+    {
+        this.connectionPool = connectionPool;
+        this.log = logging.getLog( LOGGER_NAME );
+    }
+
+    @Override
+    public BoltServerAddress selectReader( BoltServerAddress[] knownReaders )
+    {
+        return select( knownReaders, readersIndex, "reader" );
+    }
+
+    @Override
+    public BoltServerAddress selectWriter( BoltServerAddress[] knownWriters )
+    {
+        return select( knownWriters, writersIndex, "writer" );
+    }
+
+    private BoltServerAddress select( BoltServerAddress[] addresses, RoundRobinArrayIndex addressesIndex,
+            String addressType )
+    {
+        int size = addresses.length;
+        if ( size == 0 )
+        {
+            log.trace( "Unable to select %s, no known addresses given", addressType );
+            return null;
+        }
+
+        // choose start index for iteration in round-robin fashion
+        int startIndex = addressesIndex.next( size );
+        int index = startIndex;
+
+        BoltServerAddress fastestAddress = null;
+        long lowestScore = Long.MAX_VALUE;
+        int fastestActiveConnections = Integer.MAX_VALUE;
+
+        // iterate over the array to find address with the lowest score
+        do
+        {
+            BoltServerAddress address = addresses[index];
+            int activeConnections = connectionPool.inUseConnections( address );
+            long score = connectionPool.responseTime( address ) * (activeConnections + 1);
+
+            if ( score < lowestScore || (score == lowestScore && activeConnections < fastestActiveConnections) )
+            {
+                fastestAddress = address;
+                lowestScore = score;
+                fastestActiveConnections = activeConnections;
+            }
+
+            // loop over to the start of the array when end is reached
+            if ( index == size - 1 )
+            {
+                index = 0;
+            }
+            else
+            {
+                index++;
+            }
+        }
+        while ( index != startIndex );
+
+        log.trace( "Selected %s with address: '%s', score: %sns and active connections: %s",
+                addressType, fastestAddress, lowestScore, fastestActiveConnections );
+
+        return fastestAddress;
+    }
+}
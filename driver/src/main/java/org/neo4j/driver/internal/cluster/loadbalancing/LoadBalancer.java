@@ -18,13 +18,21 @@
 package org.neo4j.driver.internal.cluster.loadbalancing;
 
 import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.ScheduledFuture;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.RoutingErrorHandler;
 import org.neo4j.driver.internal.async.RoutingConnection;
+import org.neo4j.driver.internal.async.pool.CircuitBreakerOpenException;
 import org.neo4j.driver.internal.cluster.AddressSet;
 import org.neo4j.driver.internal.cluster.ClusterComposition;
 import org.neo4j.driver.internal.cluster.ClusterCompositionProvider;
@@ -34,6 +42,9 @@ import org.neo4j.driver.internal.cluster.Rediscovery;
 import org.neo4j.driver.internal.cluster.RoutingProcedureClusterCompositionProvider;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.cluster.RoutingTable;
+import org.neo4j.driver.internal.cluster.RoutingTableDiff;
+import org.neo4j.driver.internal.cluster.RoutingTableSnapshot;
+import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 import org.neo4j.driver.internal.spi.ConnectionProvider;
@@ -46,6 +57,9 @@ import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
 
 public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
 {
@@ -56,39 +70,105 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
     private final Rediscovery rediscovery;
     private final LoadBalancingStrategy loadBalancingStrategy;
     private final EventExecutorGroup eventExecutorGroup;
+    private final Clock clock;
+    private final double routingTableRefreshRatio;
+    private final RoutingTableSnapshot routingTableSnapshot;
+    private final int routingWarmUpConnections;
+    private final MetricsListener metricsListener;
     private final Logger log;
 
-    private CompletableFuture<RoutingTable> refreshRoutingTableFuture;
+    private final AtomicReference<CompletableFuture<RoutingTable>> refreshRoutingTableFuture = new AtomicReference<>();
+    private volatile boolean routingTableRestored;
+    private volatile ClusterComposition currentComposition;
+    private volatile ScheduledFuture<?> backgroundRefresh;
+    private volatile boolean closed;
 
     public LoadBalancer( BoltServerAddress initialRouter, RoutingSettings settings, ConnectionPool connectionPool,
             EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging,
-            LoadBalancingStrategy loadBalancingStrategy )
+            LoadBalancingStrategy loadBalancingStrategy, MetricsListener metricsListener,
+            RoutingTableSnapshot routingTableSnapshot )
     {
         this( connectionPool, new ClusterRoutingTable( clock, initialRouter ),
-                createRediscovery( initialRouter, settings, eventExecutorGroup, clock, logging ),
-                loadBalancerLogger( logging ), loadBalancingStrategy, eventExecutorGroup );
+                createRediscovery( initialRouter, settings, eventExecutorGroup, clock, logging, metricsListener ),
+                loadBalancerLogger( logging ), loadBalancingStrategy, eventExecutorGroup, clock,
+                settings.routingTableRefreshRatio(), routingTableSnapshot, settings.routingWarmUpConnections(),
+                metricsListener );
     }
 
     // Used only in testing
     public LoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable, Rediscovery rediscovery,
             EventExecutorGroup eventExecutorGroup, Logging logging )
+    {
+        this( connectionPool, routingTable, rediscovery, eventExecutorGroup, Clock.SYSTEM, logging,
+                RoutingSettings.NOT_CONFIGURED );
+    }
+
+    // Used only in testing
+    public LoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable, Rediscovery rediscovery,
+            EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging, double routingTableRefreshRatio )
+    {
+        this( connectionPool, routingTable, rediscovery, eventExecutorGroup, clock, logging, routingTableRefreshRatio,
+                RoutingTableSnapshot.NONE );
+    }
+
+    // Used only in testing
+    public LoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable, Rediscovery rediscovery,
+            EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging, double routingTableRefreshRatio,
+            RoutingTableSnapshot routingTableSnapshot )
+    {
+        this( connectionPool, routingTable, rediscovery, eventExecutorGroup, clock, logging, routingTableRefreshRatio,
+                routingTableSnapshot, RoutingSettings.NOT_CONFIGURED, DEV_NULL_METRICS );
+    }
+
+    // Used only in testing
+    public LoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable, Rediscovery rediscovery,
+            EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging, double routingTableRefreshRatio,
+            RoutingTableSnapshot routingTableSnapshot, int routingWarmUpConnections, MetricsListener metricsListener )
     {
         this( connectionPool, routingTable, rediscovery, loadBalancerLogger( logging ),
                 new LeastConnectedLoadBalancingStrategy( connectionPool, logging ),
-                eventExecutorGroup );
+                eventExecutorGroup, clock, routingTableRefreshRatio, routingTableSnapshot, routingWarmUpConnections,
+                metricsListener );
     }
 
     private LoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable, Rediscovery rediscovery,
-            Logger log, LoadBalancingStrategy loadBalancingStrategy, EventExecutorGroup eventExecutorGroup )
+            Logger log, LoadBalancingStrategy loadBalancingStrategy, EventExecutorGroup eventExecutorGroup,
+            Clock clock, double routingTableRefreshRatio, RoutingTableSnapshot routingTableSnapshot,
+            int routingWarmUpConnections, MetricsListener metricsListener )
     {
         this.connectionPool = connectionPool;
         this.routingTable = routingTable;
         this.rediscovery = rediscovery;
         this.loadBalancingStrategy = loadBalancingStrategy;
         this.eventExecutorGroup = eventExecutorGroup;
+        this.clock = clock;
+        this.routingTableRefreshRatio = routingTableRefreshRatio;
+        this.routingTableSnapshot = routingTableSnapshot;
+        this.routingWarmUpConnections = routingWarmUpConnections;
+        this.metricsListener = metricsListener;
         this.log = log;
     }
 
+    /**
+     * Populate the routing table from the saved snapshot, if there is one, and refresh it in background. Snapshot is
+     * used optimistically, neither requests nor connectivity verification wait for a router while the refresh
+     * validates it.
+     */
+    public void restoreRoutingTable()
+    {
+        ClusterComposition composition = routingTableSnapshot.load();
+        if ( composition == null )
+        {
+            return;
+        }
+
+        // drivers started together restore the same snapshot, spread their lookups over all saved routers
+        routingTable.update( withShuffledRouters( composition ) );
+        routingTableRestored = true;
+        log.info( "Restored routing table from snapshot. %s", routingTable );
+        refreshRoutingTableInBackground();
+    }
+
     @Override
     public CompletionStage<Connection> acquireConnection( AccessMode mode )
     {
@@ -100,7 +180,46 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
     @Override
     public CompletionStage<Void> verifyConnectivity()
     {
-        return freshRoutingTable( AccessMode.READ ).thenApply( routingTable -> null );
+        if ( routingTableRestored )
+        {
+            // restored routing table is validated by the background refresh started on restore, failing servers are
+            // forgotten by it or by the first requests
+            return completedWithNull();
+        }
+
+        CompletableFuture<RoutingTable> existingRefreshFuture = refreshRoutingTableFuture.get();
+        if ( existingRefreshFuture != null )
+        {
+            return existingRefreshFuture.thenApply( routingTable -> null );
+        }
+
+        CompletableFuture<RoutingTable> resultFuture = new CompletableFuture<>();
+        if ( !refreshRoutingTableFuture.compareAndSet( null, resultFuture ) )
+        {
+            // other thread started a refresh concurrently, use it's result
+            return verifyConnectivity();
+        }
+
+        log.debug( "Verifying connectivity. %s", routingTable );
+        lookupClusterComposition( resultFuture );
+        return resultFuture.thenApply( routingTable -> null );
+    }
+
+    @Override
+    public CompletionStage<Void> drain( BoltServerAddress address )
+    {
+        log.info( "Draining connections towards %s", address );
+        // address comes back when it is present in one of the following cluster compositions, but acquisitions
+        // towards it fail and forget it again until the drain completes or is ended
+        forget( address );
+        return connectionPool.drain( address );
+    }
+
+    @Override
+    public void endDrain( BoltServerAddress address )
+    {
+        log.info( "Ending drain of connections towards %s", address );
+        connectionPool.endDrain( address );
     }
 
     @Override
@@ -118,76 +237,178 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
     @Override
     public CompletionStage<Void> close()
     {
+        closed = true;
+        ScheduledFuture<?> refresh = backgroundRefresh;
+        if ( refresh != null )
+        {
+            refresh.cancel( false );
+        }
         return connectionPool.close();
     }
 
-    private synchronized void forget( BoltServerAddress address )
+    private void forget( BoltServerAddress address )
     {
         // remove from the routing table, to prevent concurrent threads from making connections to this address
         routingTable.forget( address );
     }
 
-    private synchronized CompletionStage<RoutingTable> freshRoutingTable( AccessMode mode )
+    private CompletionStage<RoutingTable> freshRoutingTable( AccessMode mode )
     {
-        if ( refreshRoutingTableFuture != null )
+        if ( !routingTable.isStaleFor( mode ) )
         {
-            // refresh is already happening concurrently, just use it's result
-            return refreshRoutingTableFuture;
+            // existing routing table is fresh for the given mode, use it even when it is being refreshed in
+            // background or because it is stale for the other mode, e.g. reads keep flowing during leader election
+            return completedFuture( routingTable );
         }
-        else if ( routingTable.isStaleFor( mode ) )
+
+        CompletableFuture<RoutingTable> existingRefreshFuture = refreshRoutingTableFuture.get();
+        if ( existingRefreshFuture != null )
         {
-            // existing routing table is not fresh and should be updated
-            log.info( "Routing table is stale. %s", routingTable );
+            // refresh is already happening concurrently, just use it's result
+            return existingRefreshFuture;
+        }
 
-            CompletableFuture<RoutingTable> resultFuture = new CompletableFuture<>();
-            refreshRoutingTableFuture = resultFuture;
+        // existing routing table is not fresh and should be updated
+        CompletableFuture<RoutingTable> resultFuture = new CompletableFuture<>();
+        if ( !refreshRoutingTableFuture.compareAndSet( null, resultFuture ) )
+        {
+            // other thread started a refresh concurrently, use it's result or recheck if it has already completed
+            return freshRoutingTable( mode );
+        }
+        // refresh completed by other thread after our staleness check results in one redundant, but harmless, lookup
 
-            rediscovery.lookupClusterComposition( routingTable, connectionPool )
-                    .whenComplete( ( composition, completionError ) ->
-                    {
-                        Throwable error = Futures.completionExceptionCause( completionError );
-                        if ( error != null )
-                        {
-                            clusterCompositionLookupFailed( error );
-                        }
-                        else
-                        {
-                            freshClusterCompositionFetched( composition );
-                        }
-                    } );
+        log.info( "Routing table is stale. %s", routingTable );
+        lookupClusterComposition( resultFuture );
+        return resultFuture;
+    }
 
-            return resultFuture;
-        }
-        else
+    private void refreshRoutingTableInBackground()
+    {
+        CompletableFuture<RoutingTable> resultFuture = new CompletableFuture<>();
+        if ( closed || !refreshRoutingTableFuture.compareAndSet( null, resultFuture ) )
         {
-            // existing routing table is fresh, use it
-            return completedFuture( routingTable );
+            // driver is closed or refresh is already happening
+            return;
         }
+
+        log.debug( "Refreshing routing table in background. %s", routingTable );
+        lookupClusterComposition( resultFuture );
+        resultFuture.whenComplete( ( ignore, error ) ->
+        {
+            if ( error != null )
+            {
+                log.warn( "Failed to refresh routing table in background, it will be refreshed when stale", error );
+            }
+        } );
+    }
+
+    private void lookupClusterComposition( CompletableFuture<RoutingTable> resultFuture )
+    {
+        rediscovery.lookupClusterComposition( routingTable, connectionPool )
+                .whenComplete( ( composition, completionError ) ->
+                {
+                    Throwable error = Futures.completionExceptionCause( completionError );
+                    if ( error != null )
+                    {
+                        clusterCompositionLookupFailed( resultFuture, error );
+                    }
+                    else
+                    {
+                        freshClusterCompositionFetched( resultFuture, composition );
+                    }
+                } );
     }
 
-    private synchronized void freshClusterCompositionFetched( ClusterComposition composition )
+    private void freshClusterCompositionFetched( CompletableFuture<RoutingTable> routingTableFuture,
+            ClusterComposition composition )
     {
         try
         {
+            ClusterComposition previousComposition = currentComposition;
+            RoutingTableDiff diff = RoutingTableDiff.between( previousComposition, composition );
             routingTable.update( composition );
+            currentComposition = composition;
+            // pools towards addresses that are not in the routing table, like initial routers, are closed after every
+            // update, not only when the diff reports removed servers
             connectionPool.retainAll( routingTable.servers() );
+            applyRoutingTableDiff( diff, composition );
+            routingTableSnapshot.save( composition );
 
             log.info( "Updated routing table. %s", routingTable );
 
-            CompletableFuture<RoutingTable> routingTableFuture = refreshRoutingTableFuture;
-            refreshRoutingTableFuture = null;
+            scheduleBackgroundRefresh( composition.expirationTimestamp() );
+            refreshRoutingTableFuture.set( null );
             routingTableFuture.complete( routingTable );
         }
         catch ( Throwable error )
         {
-            clusterCompositionLookupFailed( error );
+            clusterCompositionLookupFailed( routingTableFuture, error );
         }
     }
 
-    private synchronized void clusterCompositionLookupFailed( Throwable error )
+    private void applyRoutingTableDiff( RoutingTableDiff diff, ClusterComposition composition )
     {
-        CompletableFuture<RoutingTable> routingTableFuture = refreshRoutingTableFuture;
-        refreshRoutingTableFuture = null;
+        if ( !diff.isEmpty() )
+        {
+            log.info( "Routing table changed. %s", diff );
+        }
+        metricsListener.afterRoutingTableUpdated( diff );
+
+        if ( routingWarmUpConnections > 0 )
+        {
+            // role-changed servers already have pooled connections, connections are not bound to a role
+            Set<BoltServerAddress> readersAndWriters = composition.readers();
+            readersAndWriters.addAll( composition.writers() );
+            for ( BoltServerAddress address : diff.addedServers() )
+            {
+                if ( readersAndWriters.contains( address ) )
+                {
+                    warmUp( address );
+                }
+            }
+        }
+    }
+
+    private void warmUp( BoltServerAddress address )
+    {
+        log.debug( "Opening %s connections towards %s", routingWarmUpConnections, address );
+        // acquisitions are started at once, so each of them opens a new connection instead of reusing a released one
+        for ( int i = 0; i < routingWarmUpConnections; i++ )
+        {
+            connectionPool.acquire( address )
+                    .thenCompose( Connection::release )
+                    .whenComplete( ( ignore, error ) ->
+                    {
+                        if ( error != null )
+                        {
+                            log.debug( "Failed to open a warm-up connection towards " + address, error );
+                        }
+                    } );
+        }
+    }
+
+    private void scheduleBackgroundRefresh( long expirationTimestamp )
+    {
+        long timeToLive = expirationTimestamp - clock.millis();
+        if ( routingTableRefreshRatio <= 0 || timeToLive <= 0 || closed )
+        {
+            return;
+        }
+
+        ScheduledFuture<?> previousRefresh = backgroundRefresh;
+        if ( previousRefresh != null )
+        {
+            // table got refreshed before the scheduled refresh, it is not needed anymore
+            previousRefresh.cancel( false );
+        }
+        long delay = (long) (timeToLive * routingTableRefreshRatio);
+        backgroundRefresh = eventExecutorGroup.schedule( this::refreshRoutingTableInBackground, delay, MILLISECONDS );
+    }
+
+    private void clusterCompositionLookupFailed( CompletableFuture<RoutingTable> routingTableFuture,
+            Throwable error )
+    {
+        refreshRoutingTableFuture.set( null );
         routingTableFuture.completeExceptionally( error );
     }
 
@@ -216,7 +437,14 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
             Throwable error = Futures.completionExceptionCause( completionError );
             if ( error != null )
             {
-                if ( error instanceof ServiceUnavailableException )
+                if ( error instanceof CircuitBreakerOpenException )
+                {
+                    // server was not contacted, address stays in the routing table and is skipped while the
+                    // circuit is open
+                    log.debug( "Skipping address %s, circuit breaker rejected the acquisition", address );
+                    eventExecutorGroup.next().execute( () -> acquire( mode, addresses, result ) );
+                }
+                else if ( error instanceof ServiceUnavailableException )
                 {
                     log.error( "Failed to obtain a connection towards address " + address, error );
                     forget( address );
@@ -249,7 +477,7 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
 
     private BoltServerAddress selectAddress( AccessMode mode, AddressSet servers )
     {
-        BoltServerAddress[] addresses = servers.toArray();
+        BoltServerAddress[] addresses = withoutOpenCircuits( servers.toArray() );
 
         switch ( mode )
         {
@@ -262,14 +490,41 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
         }
     }
 
+    private BoltServerAddress[] withoutOpenCircuits( BoltServerAddress[] addresses )
+    {
+        List<BoltServerAddress> available = null;
+        for ( int i = 0; i < addresses.length; i++ )
+        {
+            BoltServerAddress address = addresses[i];
+            if ( connectionPool.isCircuitOpen( address ) )
+            {
+                if ( available == null )
+                {
+                    // copy addresses seen so far, array is only copied when some circuit is open
+                    available = new ArrayList<>( addresses.length );
+                    for ( int j = 0; j < i; j++ )
+                    {
+                        available.add( addresses[j] );
+                    }
+                }
+                log.debug( "Skipping address %s, circuit breaker is open", address );
+            }
+            else if ( available != null )
+            {
+                available.add( address );
+            }
+        }
+        return available == null ? addresses : available.toArray( new BoltServerAddress[0] );
+    }
+
     private static Rediscovery createRediscovery( BoltServerAddress initialRouter, RoutingSettings settings,
-            EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging )
+            EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging, MetricsListener metricsListener )
     {
         Logger log = loadBalancerLogger( logging );
         ClusterCompositionProvider clusterCompositionProvider =
                 new RoutingProcedureClusterCompositionProvider( clock, settings );
         return new Rediscovery( initialRouter, settings, clusterCompositionProvider, eventExecutorGroup,
-                new DnsResolver( log ), log );
+                new DnsResolver( clock, metricsListener, log ), log );
     }
 
     private static Logger loadBalancerLogger( Logging logging )
@@ -281,4 +536,12 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
     {
         return new IllegalArgumentException( "Mode '" + mode + "' is not supported" );
     }
+
+    private static ClusterComposition withShuffledRouters( ClusterComposition composition )
+    {
+        List<BoltServerAddress> routers = new ArrayList<>( composition.routers() );
+        Collections.shuffle( routers );
+        return new ClusterComposition( composition.expirationTimestamp(), composition.readers(),
+                composition.writers(), new LinkedHashSet<>( routers ) );
+    }
 }
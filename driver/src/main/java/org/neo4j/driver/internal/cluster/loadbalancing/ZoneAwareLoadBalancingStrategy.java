@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.v1.Logger;
+import org.neo4j.driver.v1.Logging;
+
+/**
+ * Load balancing strategy that prefers readers located in the same zone as the client. Readers from the client zone
+ * are given to the delegate strategy, all known readers are given to it only when none of the same-zone readers can
+ * accept more work, i.e. all of them have reached the current limit of their connection pools, which is lower than
+ * the configured maximum while pools are sized adaptively. Saturated same-zone pools are then told about the
+ * redirected demand, so that their adaptive limits grow instead of work moving to other zones. Readers that are
+ * failing are already excluded from the given addresses, either forgotten by the routing table or skipped because of
+ * an open circuit.
+ * Writers are always selected by the delegate, there is only a single writer in a cluster most of the time.
+ */
+public class ZoneAwareLoadBalancingStrategy implements LoadBalancingStrategy
+{
+    private static final String LOGGER_NAME = ZoneAwareLoadBalancingStrategy.class.getSimpleName();
+
+    private final LoadBalancingStrategy delegate;
+    private final String clientZone;
+    private final Map<BoltServerAddress,String> serverZones;
+    private final ConnectionPool connectionPool;
+    private final Logger log;
+
+    public ZoneAwareLoadBalancingStrategy( LoadBalancingStrategy delegate, String clientZone,
+            Map<String,String> serverZones, ConnectionPool connectionPool, Logging logging )
+    {
+        this.delegate = delegate;
+        this.clientZone = clientZone;
+        this.serverZones = parseAddresses( serverZones );
+        this.connectionPool = connectionPool;
+        this.log = logging.getLog( LOGGER_NAME );
+    }
+
+    @Override
+    public BoltServerAddress selectReader( BoltServerAddress[] knownReaders )
+    {
+        BoltServerAddress[] localReaders = availableLocalAddresses( knownReaders );
+        if ( localReaders.length == 0 )
+        {
+            if ( knownReaders.length > 0 )
+            {
+                log.debug( "No available readers in zone '%s', selecting among readers from all zones", clientZone );
+                // same-zone pools never make callers wait, tell them about the demand so that their adaptive limits
+                // can grow, otherwise they would stay at the minimum and work would keep moving to other zones
+                localConnectionLimitsReached( knownReaders );
+            }
+            return delegate.selectReader( knownReaders );
+        }
+        return delegate.selectReader( localReaders );
+    }
+
+    @Override
+    public BoltServerAddress selectWriter( BoltServerAddress[] knownWriters )
+    {
+        return delegate.selectWriter( knownWriters );
+    }
+
+    private BoltServerAddress[] availableLocalAddresses( BoltServerAddress[] addresses )
+    {
+        int count = 0;
+        boolean[] available = new boolean[addresses.length];
+        for ( int i = 0; i < addresses.length; i++ )
+        {
+            BoltServerAddress address = addresses[i];
+            if ( clientZone.equals( serverZones.get( address ) ) && !isSaturated( address ) )
+            {
+                available[i] = true;
+                count++;
+            }
+        }
+
+        if ( count == addresses.length )
+        {
+            return addresses;
+        }
+        BoltServerAddress[] result = new BoltServerAddress[count];
+        for ( int i = 0, j = 0; i < addresses.length; i++ )
+        {
+            if ( available[i] )
+            {
+                result[j++] = addresses[i];
+            }
+        }
+        return result;
+    }
+
+    private void localConnectionLimitsReached( BoltServerAddress[] addresses )
+    {
+        for ( BoltServerAddress address : addresses )
+        {
+            if ( clientZone.equals( serverZones.get( address ) ) )
+            {
+                connectionPool.connectionLimitReached( address );
+            }
+        }
+    }
+
+    private boolean isSaturated( BoltServerAddress address )
+    {
+        return connectionPool.inUseConnections( address ) >= connectionPool.connectionLimit( address );
+    }
+
+    private static Map<BoltServerAddress,String> parseAddresses( Map<String,String> serverZones )
+    {
+        Map<BoltServerAddress,String> result = new HashMap<>();
+        for ( Map.Entry<String,String> entry : serverZones.entrySet() )
+        {
+            result.put( new BoltServerAddress( entry.getKey() ), entry.getValue() );
+        }
+        return result;
+    }
+}
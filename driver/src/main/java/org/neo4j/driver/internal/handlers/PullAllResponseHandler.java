@@ -17,6 +17,8 @@
  */
 package org.neo4j.driver.internal.handlers;
 
+import io.netty.util.internal.PlatformDependent;
+
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,8 +26,14 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRecordPublisher;
+import org.neo4j.driver.internal.async.EventLoopGroupFactory;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.Futures;
@@ -34,7 +42,10 @@ import org.neo4j.driver.internal.util.MetadataUtil;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.reactive.Subscriber;
+import org.neo4j.driver.v1.reactive.Subscription;
 import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.util.Consumer;
 import org.neo4j.driver.v1.util.Function;
 
 import static java.util.Collections.emptyMap;
@@ -53,6 +64,12 @@ public abstract class PullAllResponseHandler implements ResponseHandler
     private final Statement statement;
     private final RunResponseHandler runResponseHandler;
     protected final Connection connection;
+    private final int highWatermark;
+    private final int lowWatermark;
+
+    // explicit lock instead of a monitor, so that blocked readers do not pin virtual threads to their carriers
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recordAvailable = lock.newCondition();
 
     // initialized lazily when first record arrives
     private Queue<Record> records = UNINITIALIZED_RECORDS;
@@ -64,154 +81,343 @@ public abstract class PullAllResponseHandler implements ResponseHandler
     private boolean ignoreRecords;
     private CompletableFuture<Record> recordFuture;
     private CompletableFuture<Throwable> failureFuture;
+    private RecordSubscription subscription;
+    private Throwable streamFailure;
+    private int blockedReaders;
 
     public PullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection )
+    {
+        this( statement, runResponseHandler, connection, -1 );
+    }
+
+    /**
+     * @param fetchSize the amount of records to buffer before reading from the network is paused, driver defaults
+     * are used when not positive.
+     */
+    public PullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection,
+            int fetchSize )
     {
         this.statement = requireNonNull( statement );
         this.runResponseHandler = requireNonNull( runResponseHandler );
         this.connection = requireNonNull( connection );
+        // protocol only supports PULL_ALL, records are fetched in batches of the given size by pausing auto-read
+        // when the buffer is full and resuming it when the buffer drains below the low watermark
+        this.highWatermark = fetchSize > 0 ? fetchSize : RECORD_BUFFER_HIGH_WATERMARK;
+        this.lowWatermark = fetchSize > 0 ? lowWatermark( fetchSize ) : RECORD_BUFFER_LOW_WATERMARK;
     }
 
     @Override
-    public synchronized void onSuccess( Map<String,Value> metadata )
+    public void onSuccess( Map<String,Value> metadata )
     {
-        finished = true;
-        summary = extractResultSummary( metadata );
+        lock.lock();
+        try
+        {
+            finished = true;
+            summary = extractResultSummary( metadata );
 
-        afterSuccess();
+            afterSuccess();
 
-        completeRecordFuture( null );
-        completeFailureFuture( null );
+            completeRecordFuture( null );
+            completeFailureFuture( null );
+            wakeUpBlockedReaders();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        drainToSubscriber();
     }
 
     protected abstract void afterSuccess();
 
     @Override
-    public synchronized void onFailure( Throwable error )
+    public void onFailure( Throwable error )
     {
-        finished = true;
-        summary = extractResultSummary( emptyMap() );
+        lock.lock();
+        try
+        {
+            finished = true;
+            streamFailure = error;
+            summary = extractResultSummary( emptyMap() );
 
-        afterFailure( error );
+            afterFailure( error );
 
-        boolean failedRecordFuture = failRecordFuture( error );
-        if ( failedRecordFuture )
-        {
-            // error propagated through the record future
-            completeFailureFuture( null );
-        }
-        else
-        {
-            boolean completedFailureFuture = completeFailureFuture( error );
-            if ( !completedFailureFuture )
+            boolean failedRecordFuture = failRecordFuture( error );
+            if ( failedRecordFuture )
             {
-                // error has not been propagated to the user, remember it
-                failure = error;
+                // error propagated through the record future
+                completeFailureFuture( null );
             }
+            else
+            {
+                boolean completedFailureFuture = completeFailureFuture( error );
+                if ( !completedFailureFuture )
+                {
+                    // error has not been propagated to the user, remember it
+                    failure = error;
+                }
+            }
+            wakeUpBlockedReaders();
+        }
+        finally
+        {
+            lock.unlock();
         }
+        drainToSubscriber();
     }
 
     protected abstract void afterFailure( Throwable error );
 
     @Override
-    public synchronized void onRecord( Value[] fields )
+    public void onRecord( Value[] fields )
     {
-        if ( ignoreRecords )
+        lock.lock();
+        try
         {
-            completeRecordFuture( null );
+            if ( ignoreRecords )
+            {
+                completeRecordFuture( null );
+            }
+            else
+            {
+                Record record = new InternalRecord( runResponseHandler.statementKeys(), fields );
+                enqueueRecord( record );
+                completeRecordFuture( record );
+                wakeUpBlockedReaders();
+            }
         }
-        else
+        finally
         {
-            Record record = new InternalRecord( runResponseHandler.statementKeys(), fields );
-            enqueueRecord( record );
-            completeRecordFuture( record );
+            lock.unlock();
         }
+        drainToSubscriber();
     }
 
-    public synchronized CompletionStage<Record> peekAsync()
+    public CompletionStage<Record> peekAsync()
     {
-        Record record = records.peek();
-        if ( record == null )
+        lock.lock();
+        try
         {
-            if ( failure != null )
+            Record record = records.peek();
+            if ( record == null )
             {
-                return failedFuture( extractFailure() );
+                if ( failure != null )
+                {
+                    return failedFuture( extractFailure() );
+                }
+
+                if ( ignoreRecords || finished )
+                {
+                    return completedWithNull();
+                }
+
+                if ( recordFuture == null )
+                {
+                    recordFuture = new CompletableFuture<>();
+                }
+                return recordFuture;
             }
-
-            if ( ignoreRecords || finished )
+            else
             {
-                return completedWithNull();
+                return completedFuture( record );
             }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
 
-            if ( recordFuture == null )
-            {
-                recordFuture = new CompletableFuture<>();
-            }
-            return recordFuture;
+    public CompletionStage<Record> nextAsync()
+    {
+        lock.lock();
+        try
+        {
+            return peekAsync().thenApply( ignore -> dequeueRecord() );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocking counterpart of {@link #peekAsync()}. Reads directly from the record buffer and waits on this handler's
+     * lock only when the buffer is empty, no futures are created per record.
+     *
+     * @param interruptHandler invoked when the waiting thread is interrupted, waiting continues afterwards.
+     * @return next record or {@code null} when there are no more records.
+     */
+    public Record peekBlocking( Runnable interruptHandler )
+    {
+        lock.lock();
+        try
+        {
+            return awaitRecord( interruptHandler );
         }
-        else
+        finally
         {
-            return completedFuture( record );
+            lock.unlock();
         }
     }
 
-    public synchronized CompletionStage<Record> nextAsync()
+    /**
+     * Blocking counterpart of {@link #nextAsync()}.
+     *
+     * @param interruptHandler invoked when the waiting thread is interrupted, waiting continues afterwards.
+     * @return next record or {@code null} when there are no more records.
+     * @see #peekBlocking(Runnable)
+     */
+    public Record nextBlocking( Runnable interruptHandler )
     {
-        return peekAsync().thenApply( ignore -> dequeueRecord() );
+        lock.lock();
+        try
+        {
+            return awaitRecord( interruptHandler ) == null ? null : dequeueRecord();
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
-    public synchronized CompletionStage<ResultSummary> summaryAsync()
+    public CompletionStage<ResultSummary> summaryAsync()
     {
-        return failureAsync().thenApply( error ->
+        lock.lock();
+        try
         {
-            if ( error != null )
+            return failureAsync().thenApply( error ->
             {
-                throw Futures.asCompletionException( error );
-            }
-            return summary;
-        } );
+                if ( error != null )
+                {
+                    throw Futures.asCompletionException( error );
+                }
+                return summary;
+            } );
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
-    public synchronized CompletionStage<ResultSummary> consumeAsync()
+    public CompletionStage<ResultSummary> consumeAsync()
     {
-        ignoreRecords = true;
-        records.clear();
-        return summaryAsync();
+        lock.lock();
+        try
+        {
+            ignoreRecords = true;
+            records.clear();
+            return summaryAsync();
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
-    public synchronized <T> CompletionStage<List<T>> listAsync( Function<Record,T> mapFunction )
+    public <T> CompletionStage<List<T>> listAsync( Function<Record,T> mapFunction )
     {
-        return failureAsync().thenApply( error ->
+        lock.lock();
+        try
         {
-            if ( error != null )
+            return failureAsync().thenApply( error ->
             {
-                throw Futures.asCompletionException( error );
-            }
-            return recordsAsList( mapFunction );
-        } );
+                if ( error != null )
+                {
+                    throw Futures.asCompletionException( error );
+                }
+                return recordsAsList( mapFunction );
+            } );
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
-    public synchronized CompletionStage<Throwable> failureAsync()
+    /**
+     * Stream remaining records to the given subscriber. Records are handed out only as the subscriber signals demand,
+     * network reads are paused and resumed using the same buffer watermarks as {@link #nextAsync()}.
+     * Only a single subscriber is allowed.
+     *
+     * @param subscriber the subscriber to receive records and the terminal signal.
+     */
+    public void subscribe( Subscriber<? super Record> subscriber )
     {
-        if ( failure != null )
+        requireNonNull( subscriber );
+        RecordSubscription newSubscription = null;
+        lock.lock();
+        try
         {
-            return completedFuture( extractFailure() );
+            if ( subscription == null || subscription.done )
+            {
+                newSubscription = new RecordSubscription( subscriber );
+                subscription = newSubscription;
+            }
+        }
+        finally
+        {
+            lock.unlock();
         }
-        else if ( finished )
+
+        if ( newSubscription == null )
         {
-            return completedWithNull();
+            subscriber.onSubscribe( InternalRecordPublisher.CANCELLED_SUBSCRIPTION );
+            subscriber.onError( new IllegalStateException( "Records can only be streamed to a single subscriber" ) );
+            return;
         }
-        else
+
+        subscriber.onSubscribe( newSubscription );
+        // result might already be fully received, terminal signals do not require demand
+        newSubscription.drain();
+    }
+
+    /**
+     * Apply the given action to every remaining record. Records are requested in batches of the fetch size, without
+     * allocating a future per record, and handed to the action on the default async executor of
+     * {@link CompletableFuture}, so the action never runs on an IO thread.
+     *
+     * @param action the action to apply.
+     * @return stage completed when all records have been processed, completed exceptionally if query execution or the
+     * action fails.
+     */
+    public CompletionStage<Void> forEachAsync( Consumer<Record> action )
+    {
+        CompletableFuture<Void> resultFuture = new CompletableFuture<>();
+        subscribe( new ForEachSubscriber( action, highWatermark, resultFuture ) );
+        return resultFuture;
+    }
+
+    public CompletionStage<Throwable> failureAsync()
+    {
+        lock.lock();
+        try
         {
-            if ( failureFuture == null )
+            if ( failure != null )
+            {
+                return completedFuture( extractFailure() );
+            }
+            else if ( finished )
+            {
+                return completedWithNull();
+            }
+            else
             {
-                // neither SUCCESS nor FAILURE message has arrived, register future to be notified when it arrives
-                // future will be completed with null on SUCCESS and completed with Throwable on FAILURE
-                // enable auto-read, otherwise we might not read SUCCESS/FAILURE if records are not consumed
-                connection.enableAutoRead();
-                failureFuture = new CompletableFuture<>();
+                if ( failureFuture == null )
+                {
+                    // neither SUCCESS nor FAILURE message has arrived, register future to be notified when it arrives
+                    // future will be completed with null on SUCCESS and completed with Throwable on FAILURE
+                    // enable auto-read, otherwise we might not read SUCCESS/FAILURE if records are not consumed
+                    connection.enableAutoRead();
+                    failureFuture = new CompletableFuture<>();
+                }
+                return failureFuture;
             }
-            return failureFuture;
+        }
+        finally
+        {
+            lock.unlock();
         }
     }
 
@@ -228,7 +434,7 @@ public abstract class PullAllResponseHandler implements ResponseHandler
         // when failure is requested we have to buffer all remaining records and then return the error
         // do not disable auto-read in this case, otherwise records will not be consumed and trailing
         // SUCCESS or FAILURE message will not arrive as well, so callers will get stuck waiting for the error
-        if ( !shouldBufferAllRecords && records.size() > RECORD_BUFFER_HIGH_WATERMARK )
+        if ( !shouldBufferAllRecords && records.size() > highWatermark )
         {
             // more than high watermark records are already queued, tell connection to stop auto-reading from network
             // this is needed to deal with slow consumers, we do not want to buffer all records in memory if they are
@@ -241,7 +447,7 @@ public abstract class PullAllResponseHandler implements ResponseHandler
     {
         Record record = records.poll();
 
-        if ( records.size() < RECORD_BUFFER_LOW_WATERMARK )
+        if ( records.size() < lowWatermark )
         {
             // less than low watermark records are now available in the buffer, tell connection to pre-fetch more
             // and populate queue with new records from network
@@ -267,6 +473,101 @@ public abstract class PullAllResponseHandler implements ResponseHandler
         return result;
     }
 
+    private Record awaitRecord( Runnable interruptHandler )
+    {
+        EventLoopGroupFactory.assertNotInEventLoopThread();
+
+        boolean interrupted = false;
+        try
+        {
+            while ( true )
+            {
+                Record record = records.peek();
+                if ( record != null )
+                {
+                    return record;
+                }
+                if ( failure != null )
+                {
+                    PlatformDependent.throwException( extractFailure() );
+                }
+                if ( ignoreRecords || finished )
+                {
+                    return null;
+                }
+
+                blockedReaders++;
+                try
+                {
+                    recordAvailable.await();
+                }
+                catch ( InterruptedException e )
+                {
+                    // query might still be running, terminate it and keep waiting for the IO thread to finish
+                    interrupted = true;
+                    runInterruptHandler( interruptHandler );
+                }
+                finally
+                {
+                    blockedReaders--;
+                }
+            }
+        }
+        finally
+        {
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void wakeUpBlockedReaders()
+    {
+        if ( blockedReaders > 0 )
+        {
+            recordAvailable.signalAll();
+        }
+    }
+
+    private static void runInterruptHandler( Runnable interruptHandler )
+    {
+        try
+        {
+            interruptHandler.run();
+        }
+        catch ( Throwable ignore )
+        {
+        }
+    }
+
+    private void drainToSubscriber()
+    {
+        RecordSubscription currentSubscription;
+        lock.lock();
+        try
+        {
+            currentSubscription = subscription;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if ( currentSubscription != null )
+        {
+            currentSubscription.drain();
+        }
+    }
+
+    private void discardRecords()
+    {
+        ignoreRecords = true;
+        records.clear();
+        // records are no longer needed, let the connection read the remaining stream and the trailing SUCCESS/FAILURE
+        connection.enableAutoRead();
+    }
+
     private Throwable extractFailure()
     {
         if ( failure == null )
@@ -313,9 +614,305 @@ public abstract class PullAllResponseHandler implements ResponseHandler
         return false;
     }
 
+    private static int lowWatermark( int fetchSize )
+    {
+        // keep the default ratio between watermarks, but always refill an empty buffer
+        long lowWatermark = (long) fetchSize * RECORD_BUFFER_LOW_WATERMARK / RECORD_BUFFER_HIGH_WATERMARK;
+        return (int) Math.max( 1, lowWatermark );
+    }
+
     private ResultSummary extractResultSummary( Map<String,Value> metadata )
     {
         long resultAvailableAfter = runResponseHandler.resultAvailableAfter();
         return MetadataUtil.extractSummary( statement, connection, resultAvailableAfter, metadata );
     }
+
+    /**
+     * Subscription signals the subscriber without holding the handler lock. A single thread at a time drains records
+     * to the subscriber, other threads only change the state under the lock and leave the delivery to it.
+     */
+    private class RecordSubscription implements Subscription
+    {
+        final Subscriber<? super Record> subscriber;
+        long demand;
+        boolean draining;
+        boolean done;
+        Throwable terminationError;
+
+        RecordSubscription( Subscriber<? super Record> subscriber )
+        {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request( long n )
+        {
+            if ( n <= 0 )
+            {
+                terminate( new IllegalArgumentException( "Requested number of records should be positive: " + n ) );
+                return;
+            }
+
+            lock.lock();
+            try
+            {
+                if ( done )
+                {
+                    return;
+                }
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel()
+        {
+            lock.lock();
+            try
+            {
+                if ( !done )
+                {
+                    done = true;
+                    discardRecords();
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        void drain()
+        {
+            lock.lock();
+            try
+            {
+                if ( draining )
+                {
+                    // another thread signals the subscriber, it will pick up the new state
+                    return;
+                }
+                draining = true;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            while ( true )
+            {
+                Record record = null;
+                Throwable error = null;
+
+                lock.lock();
+                try
+                {
+                    if ( done )
+                    {
+                        draining = false;
+                        return;
+                    }
+                    else if ( terminationError != null )
+                    {
+                        done = true;
+                        error = terminationError;
+                    }
+                    else if ( demand > 0 && !records.isEmpty() )
+                    {
+                        if ( demand != Long.MAX_VALUE )
+                        {
+                            demand--;
+                        }
+                        record = dequeueRecord();
+                    }
+                    else if ( records.isEmpty() && finished )
+                    {
+                        done = true;
+                        if ( streamFailure != null )
+                        {
+                            if ( failure != null )
+                            {
+                                // failure is propagated to the subscriber and should not be reported again
+                                extractFailure();
+                            }
+                            error = streamFailure;
+                        }
+                    }
+                    else
+                    {
+                        draining = false;
+                        return;
+                    }
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+
+                if ( record != null )
+                {
+                    try
+                    {
+                        subscriber.onNext( record );
+                    }
+                    catch ( Throwable onNextError )
+                    {
+                        terminate( onNextError );
+                    }
+                }
+                else if ( error != null )
+                {
+                    subscriber.onError( error );
+                }
+                else
+                {
+                    subscriber.onComplete();
+                }
+            }
+        }
+
+        void terminate( Throwable error )
+        {
+            lock.lock();
+            try
+            {
+                if ( done || terminationError != null )
+                {
+                    return;
+                }
+                terminationError = error;
+                discardRecords();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            drain();
+        }
+    }
+
+    /**
+     * Hands records over to the action on the default async executor of {@link CompletableFuture}, which is where the
+     * action used to run when records were consumed through {@link #nextAsync()}. Records are requested in batches,
+     * so a slow action stops reading from the network once the handler's buffer fills up.
+     */
+    private static class ForEachSubscriber implements Subscriber<Record>
+    {
+        final Consumer<Record> action;
+        final int requestSize;
+        final CompletableFuture<Void> resultFuture;
+        final Queue<Record> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger scheduled = new AtomicInteger();
+
+        volatile Subscription subscription;
+        volatile boolean terminated;
+        volatile Throwable error;
+
+        // only accessed by the single scheduled task
+        int consumed;
+        boolean stopped;
+
+        ForEachSubscriber( Consumer<Record> action, int batchSize, CompletableFuture<Void> resultFuture )
+        {
+            this.action = action;
+            this.requestSize = Math.max( 1, batchSize / 2 );
+            this.resultFuture = resultFuture;
+        }
+
+        @Override
+        public void onSubscribe( Subscription subscription )
+        {
+            this.subscription = subscription;
+            subscription.request( requestSize * 2L );
+        }
+
+        @Override
+        public void onNext( Record record )
+        {
+            queue.offer( record );
+            schedule();
+        }
+
+        @Override
+        public void onError( Throwable error )
+        {
+            this.error = error;
+            terminated = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete()
+        {
+            terminated = true;
+            schedule();
+        }
+
+        void schedule()
+        {
+            if ( scheduled.getAndIncrement() == 0 )
+            {
+                CompletableFuture.runAsync( this::processRecords );
+            }
+        }
+
+        void processRecords()
+        {
+            int missed = 1;
+            while ( true )
+            {
+                while ( !stopped )
+                {
+                    boolean streamTerminated = terminated;
+                    Record record = queue.poll();
+                    if ( record == null )
+                    {
+                        if ( streamTerminated )
+                        {
+                            stopped = true;
+                            if ( error == null )
+                            {
+                                resultFuture.complete( null );
+                            }
+                            else
+                            {
+                                resultFuture.completeExceptionally( error );
+                            }
+                        }
+                        break;
+                    }
+
+                    try
+                    {
+                        action.accept( record );
+                    }
+                    catch ( Throwable actionError )
+                    {
+                        stopped = true;
+                        queue.clear();
+                        subscription.cancel();
+                        resultFuture.completeExceptionally( actionError );
+                        break;
+                    }
+
+                    if ( ++consumed == requestSize )
+                    {
+                        consumed = 0;
+                        subscription.request( requestSize );
+                    }
+                }
+
+                missed = scheduled.addAndGet( -missed );
+                if ( missed == 0 )
+                {
+                    return;
+                }
+            }
+        }
+    }
 }
@@ -28,6 +28,12 @@ public class SessionPullAllResponseHandler extends PullAllResponseHandler
         super( statement, runResponseHandler, connection );
     }
 
+    public SessionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
+            Connection connection, int fetchSize )
+    {
+        super( statement, runResponseHandler, connection, fetchSize );
+    }
+
     @Override
     protected void afterSuccess()
     {
@@ -31,7 +31,13 @@ public class TransactionPullAllResponseHandler extends PullAllResponseHandler
     public TransactionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
             Connection connection, ExplicitTransaction tx )
     {
-        super( statement, runResponseHandler, connection );
+        this( statement, runResponseHandler, connection, tx, -1 );
+    }
+
+    public TransactionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
+            Connection connection, ExplicitTransaction tx, int fetchSize )
+    {
+        super( statement, runResponseHandler, connection, fetchSize );
         this.tx = requireNonNull( tx );
     }
 
@@ -34,5 +34,7 @@ public interface ConnectionPoolMetricsListener
     void afterAcquiredOrCreated( ListenerEvent listenerEvent );
 
     void afterTimedOutToAcquireOrCreate();
+
+    void afterPoolSizeChanged( int size );
 }
 
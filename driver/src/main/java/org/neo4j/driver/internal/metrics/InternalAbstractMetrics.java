@@ -19,12 +19,17 @@ package org.neo4j.driver.internal.metrics;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.DoubleSupplier;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
+import org.neo4j.driver.internal.cluster.RoutingTableDiff;
 import org.neo4j.driver.internal.metrics.spi.ConnectionMetrics;
 import org.neo4j.driver.internal.metrics.spi.ConnectionPoolMetrics;
+import org.neo4j.driver.internal.metrics.spi.Histogram;
 import org.neo4j.driver.internal.metrics.spi.Metrics;
+import org.neo4j.driver.internal.metrics.spi.RetryMetrics;
+import org.neo4j.driver.internal.metrics.spi.RoutingTableMetrics;
 
 public abstract class InternalAbstractMetrics implements Metrics, MetricsListener
 {
@@ -91,6 +96,54 @@ public abstract class InternalAbstractMetrics implements Metrics, MetricsListene
 
         }
 
+        @Override
+        public void afterPoolSizeChanged( BoltServerAddress serverAddress, int size )
+        {
+
+        }
+
+        @Override
+        public void beforeResolving( BoltServerAddress serverAddress, ListenerEvent resolveEvent )
+        {
+
+        }
+
+        @Override
+        public void afterResolved( BoltServerAddress serverAddress, ListenerEvent resolveEvent )
+        {
+
+        }
+
+        @Override
+        public void afterRoutingTableUpdated( RoutingTableDiff diff )
+        {
+
+        }
+
+        @Override
+        public void afterRetryScheduled()
+        {
+
+        }
+
+        @Override
+        public void afterRetryThrottled()
+        {
+
+        }
+
+        @Override
+        public void afterRetriesExhausted()
+        {
+
+        }
+
+        @Override
+        public void addRetryBudget( DoubleSupplier retryBudgetTokens )
+        {
+
+        }
+
         @Override
         public ListenerEvent createListenerEvent()
         {
@@ -115,6 +168,24 @@ public abstract class InternalAbstractMetrics implements Metrics, MetricsListene
             return Collections.emptyMap();
         }
 
+        @Override
+        public Histogram hostNameResolutionTimeHistogram()
+        {
+            return new InternalHistogram().snapshot();
+        }
+
+        @Override
+        public RoutingTableMetrics routingTableMetrics()
+        {
+            return new InternalRoutingTableMetrics();
+        }
+
+        @Override
+        public RetryMetrics retryMetrics()
+        {
+            return new InternalRetryMetrics();
+        }
+
         @Override
         public String toString()
         {
@@ -46,9 +46,14 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
     private final AtomicLong acquired = new AtomicLong();
     private final AtomicLong timedOutToAcquire = new AtomicLong();
 
+    private final AtomicInteger maxSize;
+    private final AtomicLong grown = new AtomicLong();
+    private final AtomicLong shrunk = new AtomicLong();
+
     private InternalHistogram acquisitionTimeHistogram;
 
-    public InternalConnectionPoolMetrics( BoltServerAddress address, ConnectionPool pool, long connAcquisitionTimeoutMs )
+    public InternalConnectionPoolMetrics( BoltServerAddress address, ConnectionPool pool, long connAcquisitionTimeoutMs,
+            int maxPoolSize )
     {
         Objects.requireNonNull( address );
         Objects.requireNonNull( pool );
@@ -56,6 +61,7 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
         this.address = address;
         this.pool = pool;
         this.acquisitionTimeHistogram = new InternalHistogram( Duration.ofMillis( connAcquisitionTimeoutMs ).toNanos() );
+        this.maxSize = new AtomicInteger( maxPoolSize );
     }
 
     @Override
@@ -112,6 +118,20 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
         this.timedOutToAcquire.incrementAndGet();
     }
 
+    @Override
+    public void afterPoolSizeChanged( int size )
+    {
+        int previousSize = maxSize.getAndSet( size );
+        if ( size > previousSize )
+        {
+            grown.incrementAndGet();
+        }
+        else if ( size < previousSize )
+        {
+            shrunk.incrementAndGet();
+        }
+    }
+
     @Override
     public String uniqueName()
     {
@@ -191,12 +211,38 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
         return this.acquisitionTimeHistogram.snapshot();
     }
 
+    @Override
+    public int maxSize()
+    {
+        return maxSize.get();
+    }
+
+    @Override
+    public long grown()
+    {
+        return grown.get();
+    }
+
+    @Override
+    public long shrunk()
+    {
+        return shrunk.get();
+    }
+
+    @Override
+    public long responseTime()
+    {
+        return pool.responseTime( address );
+    }
+
     @Override
     public String toString()
     {
         return format( "[created=%s, closed=%s, creating=%s, failedToCreate=%s, acquiring=%s, acquired=%s, " +
-                        "timedOutToAcquire=%s, inUse=%s, idle=%s, poolStatus=%s, acquisitionTimeHistogram=%s]",
+                        "timedOutToAcquire=%s, inUse=%s, idle=%s, maxSize=%s, grown=%s, shrunk=%s, poolStatus=%s, " +
+                        "responseTime=%s, acquisitionTimeHistogram=%s]",
                 created(), closed(), creating(), failedToCreate(), acquiring(), acquired(),
-                timedOutToAcquire(), inUse(), idle(), poolStatus(), acquisitionTimeHistogram() );
+                timedOutToAcquire(), inUse(), idle(), maxSize(), grown(), shrunk(), poolStatus(),
+                responseTime(), acquisitionTimeHistogram() );
     }
 }
@@ -20,11 +20,16 @@ package org.neo4j.driver.internal.metrics;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
+import org.neo4j.driver.internal.cluster.RoutingTableDiff;
 import org.neo4j.driver.internal.metrics.spi.ConnectionMetrics;
 import org.neo4j.driver.internal.metrics.spi.ConnectionPoolMetrics;
+import org.neo4j.driver.internal.metrics.spi.Histogram;
+import org.neo4j.driver.internal.metrics.spi.RetryMetrics;
+import org.neo4j.driver.internal.metrics.spi.RoutingTableMetrics;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 import org.neo4j.driver.v1.Config;
 import org.neo4j.driver.v1.exceptions.ClientException;
@@ -36,6 +41,9 @@ public class InternalMetrics extends InternalAbstractMetrics
 {
     private final Map<String,ConnectionPoolMetrics> connectionPoolMetrics;
     private final Map<String,ConnectionMetrics> connectionMetrics;
+    private final InternalHistogram hostNameResolutionTimeHistogram;
+    private final InternalRoutingTableMetrics routingTableMetrics;
+    private final InternalRetryMetrics retryMetrics;
     private final Config config;
 
     public InternalMetrics( Config config )
@@ -44,6 +52,9 @@ public class InternalMetrics extends InternalAbstractMetrics
         this.config = config;
         this.connectionPoolMetrics = new ConcurrentHashMap<>();
         this.connectionMetrics = new ConcurrentHashMap<>();
+        this.hostNameResolutionTimeHistogram = new InternalHistogram();
+        this.routingTableMetrics = new InternalRoutingTableMetrics();
+        this.retryMetrics = new InternalRetryMetrics();
     }
 
     @Override
@@ -115,6 +126,54 @@ public class InternalMetrics extends InternalAbstractMetrics
         poolMetrics( serverAddress ).afterTimedOutToAcquireOrCreate();
     }
 
+    @Override
+    public void afterPoolSizeChanged( BoltServerAddress serverAddress, int size )
+    {
+        poolMetrics( serverAddress ).afterPoolSizeChanged( size );
+    }
+
+    @Override
+    public void beforeResolving( BoltServerAddress serverAddress, ListenerEvent resolveEvent )
+    {
+        resolveEvent.start();
+    }
+
+    @Override
+    public void afterResolved( BoltServerAddress serverAddress, ListenerEvent resolveEvent )
+    {
+        hostNameResolutionTimeHistogram.recordValue( resolveEvent.elapsed() );
+    }
+
+    @Override
+    public void afterRoutingTableUpdated( RoutingTableDiff diff )
+    {
+        routingTableMetrics.afterRoutingTableUpdated( diff );
+    }
+
+    @Override
+    public void afterRetryScheduled()
+    {
+        retryMetrics.afterRetryScheduled();
+    }
+
+    @Override
+    public void afterRetryThrottled()
+    {
+        retryMetrics.afterRetryThrottled();
+    }
+
+    @Override
+    public void afterRetriesExhausted()
+    {
+        retryMetrics.afterRetriesExhausted();
+    }
+
+    @Override
+    public void addRetryBudget( DoubleSupplier retryBudgetTokens )
+    {
+        retryMetrics.setRetryBudgetTokens( retryBudgetTokens );
+    }
+
     @Override
     public ListenerEvent createListenerEvent()
     {
@@ -133,10 +192,31 @@ public class InternalMetrics extends InternalAbstractMetrics
         return unmodifiableMap( this.connectionMetrics );
     }
 
+    @Override
+    public Histogram hostNameResolutionTimeHistogram()
+    {
+        return hostNameResolutionTimeHistogram.snapshot();
+    }
+
+    @Override
+    public RoutingTableMetrics routingTableMetrics()
+    {
+        return routingTableMetrics;
+    }
+
+    @Override
+    public RetryMetrics retryMetrics()
+    {
+        return retryMetrics;
+    }
+
     @Override
     public String toString()
     {
-        return format( "PoolMetrics=%s, ConnMetrics=%s", connectionPoolMetrics, connectionMetrics );
+        return format( "PoolMetrics=%s, ConnMetrics=%s, HostNameResolutionTimeHistogram=%s, RoutingTableMetrics=%s, " +
+                       "RetryMetrics=%s",
+                connectionPoolMetrics, connectionMetrics, hostNameResolutionTimeHistogram(), routingTableMetrics,
+                retryMetrics );
     }
 
     static String serverAddressToUniqueName( BoltServerAddress serverAddress )
@@ -168,7 +248,8 @@ public class InternalMetrics extends InternalAbstractMetrics
     private void addPoolMetrics( BoltServerAddress serverAddress, ConnectionPool pool )
     {
         this.connectionPoolMetrics.put( serverAddressToUniqueName( serverAddress ),
-                new InternalConnectionPoolMetrics( serverAddress, pool, config.connectionAcquisitionTimeoutMillis() ) );
+                new InternalConnectionPoolMetrics( serverAddress, pool, config.connectionAcquisitionTimeoutMillis(),
+                        config.maxConnectionPoolSize() ) );
     }
 
     private void addConnectionMetrics( BoltServerAddress serverAddress )
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import org.neo4j.driver.internal.metrics.spi.RetryMetrics;
+
+import static java.lang.String.format;
+
+public class InternalRetryMetrics implements RetryMetrics
+{
+    private static final DoubleSupplier NO_RETRY_BUDGET = () -> -1;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong throttledRetries = new AtomicLong();
+    private final AtomicLong exhaustedRetries = new AtomicLong();
+    private volatile DoubleSupplier retryBudgetTokens = NO_RETRY_BUDGET;
+
+    void afterRetryScheduled()
+    {
+        retries.incrementAndGet();
+    }
+
+    void afterRetryThrottled()
+    {
+        throttledRetries.incrementAndGet();
+    }
+
+    void afterRetriesExhausted()
+    {
+        exhaustedRetries.incrementAndGet();
+    }
+
+    void setRetryBudgetTokens( DoubleSupplier retryBudgetTokens )
+    {
+        this.retryBudgetTokens = retryBudgetTokens;
+    }
+
+    @Override
+    public long retries()
+    {
+        return retries.get();
+    }
+
+    @Override
+    public long throttledRetries()
+    {
+        return throttledRetries.get();
+    }
+
+    @Override
+    public long exhaustedRetries()
+    {
+        return exhaustedRetries.get();
+    }
+
+    @Override
+    public double retryBudgetTokens()
+    {
+        return retryBudgetTokens.getAsDouble();
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "[retries=%s, throttledRetries=%s, exhaustedRetries=%s, retryBudgetTokens=%s]",
+                retries(), throttledRetries(), exhaustedRetries(), retryBudgetTokens() );
+    }
+}
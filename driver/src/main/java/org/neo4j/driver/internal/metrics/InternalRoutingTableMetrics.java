@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.driver.internal.cluster.RoutingTableDiff;
+import org.neo4j.driver.internal.metrics.spi.RoutingTableMetrics;
+
+import static java.lang.String.format;
+
+public class InternalRoutingTableMetrics implements RoutingTableMetrics
+{
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong addedServers = new AtomicLong();
+    private final AtomicLong removedServers = new AtomicLong();
+    private final AtomicLong roleChangedServers = new AtomicLong();
+
+    void afterRoutingTableUpdated( RoutingTableDiff diff )
+    {
+        updates.incrementAndGet();
+        if ( !diff.isEmpty() )
+        {
+            changes.incrementAndGet();
+            addedServers.addAndGet( diff.addedServers().size() );
+            removedServers.addAndGet( diff.removedServers().size() );
+            roleChangedServers.addAndGet( diff.roleChangedServers().size() );
+        }
+    }
+
+    @Override
+    public long updates()
+    {
+        return updates.get();
+    }
+
+    @Override
+    public long changes()
+    {
+        return changes.get();
+    }
+
+    @Override
+    public long addedServers()
+    {
+        return addedServers.get();
+    }
+
+    @Override
+    public long removedServers()
+    {
+        return removedServers.get();
+    }
+
+    @Override
+    public long roleChangedServers()
+    {
+        return roleChangedServers.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "[updates=%s, changes=%s, addedServers=%s, removedServers=%s, roleChangedServers=%s]",
+                updates(), changes(), addedServers(), removedServers(), roleChangedServers() );
+    }
+}
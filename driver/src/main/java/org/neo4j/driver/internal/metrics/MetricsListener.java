@@ -18,10 +18,12 @@
 package org.neo4j.driver.internal.metrics;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.NettyConnection;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
+import org.neo4j.driver.internal.cluster.RoutingTableDiff;
 import org.neo4j.driver.v1.Config;
 
 public interface MetricsListener
@@ -92,6 +94,54 @@ public interface MetricsListener
      */
     void afterConnectionReleased( BoltServerAddress serverAddress, ListenerEvent inUseEvent );
 
+    /**
+     * After an adaptively sized pool changed the maximum amount of connections it allows
+     * @param serverAddress the server the netty channels bind to
+     * @param size the new maximum amount of connections
+     */
+    void afterPoolSizeChanged( BoltServerAddress serverAddress, int size );
+
+    /**
+     * Before resolving a host name of the initial router to IP addresses
+     * @param serverAddress the address to resolve
+     * @param resolveEvent a listener event registered for this resolution
+     */
+    void beforeResolving( BoltServerAddress serverAddress, ListenerEvent resolveEvent );
+
+    /**
+     * After resolving a host name of the initial router to IP addresses regardless successfully or not
+     * @param serverAddress the address that was resolved
+     * @param resolveEvent a listener event registered for this resolution
+     */
+    void afterResolved( BoltServerAddress serverAddress, ListenerEvent resolveEvent );
+
+    /**
+     * After the routing table got updated with a cluster composition fetched from a router
+     * @param diff the difference between the previous and the new cluster composition
+     */
+    void afterRoutingTableUpdated( RoutingTableDiff diff );
+
+    /**
+     * After a failed transaction got scheduled for a retry
+     */
+    void afterRetryScheduled();
+
+    /**
+     * After a failed transaction was not retried because the retry budget was exhausted
+     */
+    void afterRetryThrottled();
+
+    /**
+     * After a failed transaction was not retried because the maximum retry time elapsed
+     */
+    void afterRetriesExhausted();
+
+    /**
+     * Register the retry budget of a driver, to expose its available tokens
+     * @param retryBudgetTokens supplier of the amount of available tokens
+     */
+    void addRetryBudget( DoubleSupplier retryBudgetTokens );
+
     ListenerEvent createListenerEvent();
 
     void addMetrics( BoltServerAddress address, ConnectionPoolImpl connectionPool );
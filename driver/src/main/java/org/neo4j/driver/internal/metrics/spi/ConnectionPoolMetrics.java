@@ -101,4 +101,32 @@ public interface ConnectionPoolMetrics
      * @return The acquisition time histogram.
      */
     Histogram acquisitionTimeHistogram();
+
+    /**
+     * The maximum amount of channels the pool currently allows.
+     * This is the configured maximum connection pool size unless the pool is sized adaptively,
+     * see {@link Config.ConfigBuilder#withAdaptiveConnectionPoolSize(int)}.
+     * @return The maximum amount of channels the pool currently allows.
+     */
+    int maxSize();
+
+    /**
+     * An increasing-only number to record how many times an adaptively sized pool has increased its maximum size.
+     * @return The amount of times the pool has grown.
+     */
+    long grown();
+
+    /**
+     * An increasing-only number to record how many times an adaptively sized pool has decreased its maximum size.
+     * @return The amount of times the pool has shrunk.
+     */
+    long shrunk();
+
+    /**
+     * The exponentially weighted moving average of the time it takes the server to respond to a query, in nanoseconds.
+     * It is only tracked when {@link Config.LoadBalancingStrategy#LEAST_RESPONSE_TIME} is used. The strategy scores
+     * the server by multiplying this value with {@link #inUse()} plus one and prefers servers with lower scores.
+     * @return The average response time in nanoseconds or zero when it is unknown.
+     */
+    long responseTime();
 }
@@ -42,4 +42,23 @@ public interface Metrics
      */
     Map<String,ConnectionMetrics> connectionMetrics();
 
+    /**
+     * The histogram of the time spent resolving host names of initial routers to IP addresses.
+     * Only resolutions that actually queried the name service are recorded, cached lookups are not.
+     * @return The host name resolution time histogram.
+     */
+    Histogram hostNameResolutionTimeHistogram();
+
+    /**
+     * Counters of routing table updates performed by the routing driver.
+     * @return The routing table metrics.
+     */
+    RoutingTableMetrics routingTableMetrics();
+
+    /**
+     * Counters of transaction retries and the state of the retry budget.
+     * @return The retry metrics.
+     */
+    RetryMetrics retryMetrics();
+
 }
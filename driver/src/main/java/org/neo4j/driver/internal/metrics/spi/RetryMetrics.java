@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.metrics.spi;
+
+public interface RetryMetrics
+{
+    /**
+     * The amount of failed transactions that got scheduled for a retry
+     * @return The amount of retries
+     */
+    long retries();
+
+    /**
+     * The amount of failed transactions that were not retried because the retry budget was exhausted
+     * @return The amount of throttled retries
+     */
+    long throttledRetries();
+
+    /**
+     * The amount of failed transactions that were not retried because the maximum retry time elapsed
+     * @return The amount of transactions that exhausted their retries
+     */
+    long exhaustedRetries();
+
+    /**
+     * The amount of tokens currently available in the retry budget, or {@code -1} when retries are not limited by a
+     * budget
+     * @return The amount of available retry tokens
+     */
+    double retryBudgetTokens();
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.metrics.spi;
+
+public interface RoutingTableMetrics
+{
+    /**
+     * The amount of routing table updates with a cluster composition fetched from a router
+     * @return The amount of routing table updates
+     */
+    long updates();
+
+    /**
+     * The amount of routing table updates that changed the cluster members or their roles
+     * @return The amount of changing routing table updates
+     */
+    long changes();
+
+    /**
+     * The amount of servers that joined the routing table
+     * @return The amount of added servers
+     */
+    long addedServers();
+
+    /**
+     * The amount of servers that left the routing table
+     * @return The amount of removed servers
+     */
+    long removedServers();
+
+    /**
+     * The amount of servers that stayed in the routing table with a different role, e.g. writer that became a reader
+     * @return The amount of role changes
+     */
+    long roleChangedServers();
+}
@@ -22,21 +22,26 @@ import io.netty.util.concurrent.EventExecutorGroup;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.util.Clock;
 import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.internal.util.Supplier;
 import org.neo4j.driver.v1.Logger;
 import org.neo4j.driver.v1.Logging;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
 import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 import org.neo4j.driver.v1.exceptions.TransientException;
 
+import static java.util.Collections.emptyMap;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
 
 public class ExponentialBackoffRetryLogic implements RetryLogic
 {
@@ -50,32 +55,56 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
     private static final long MAX_RETRY_DELAY = Long.MAX_VALUE / 2;
 
     private final long maxRetryTimeMs;
-    private final long initialRetryDelayMs;
-    private final double multiplier;
+    private final RetryBackoff defaultBackoff;
+    private final Map<Class<? extends Neo4jException>,RetryBackoff> backoffs;
     private final double jitterFactor;
+    private final RetryBudget retryBudget;
     private final EventExecutorGroup eventExecutorGroup;
     private final Clock clock;
+    private final MetricsListener metricsListener;
     private final Logger log;
 
     public ExponentialBackoffRetryLogic( RetrySettings settings, EventExecutorGroup eventExecutorGroup, Clock clock,
             Logging logging )
     {
-        this( settings.maxRetryTimeMs(), INITIAL_RETRY_DELAY_MS, RETRY_DELAY_MULTIPLIER, RETRY_DELAY_JITTER_FACTOR,
-                eventExecutorGroup, clock, logging );
+        this( settings, eventExecutorGroup, clock, DEV_NULL_METRICS, logging );
+    }
+
+    public ExponentialBackoffRetryLogic( RetrySettings settings, EventExecutorGroup eventExecutorGroup, Clock clock,
+            MetricsListener metricsListener, Logging logging )
+    {
+        this( settings.maxRetryTimeMs(), new RetryBackoff( INITIAL_RETRY_DELAY_MS, RETRY_DELAY_MULTIPLIER ),
+                settings.backoffs(), RETRY_DELAY_JITTER_FACTOR, createRetryBudget( settings ), eventExecutorGroup, clock,
+                metricsListener, logging );
     }
 
     ExponentialBackoffRetryLogic( long maxRetryTimeMs, long initialRetryDelayMs, double multiplier,
             double jitterFactor, EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging )
+    {
+        this( maxRetryTimeMs, new RetryBackoff( initialRetryDelayMs, multiplier ), emptyMap(), jitterFactor, null,
+                eventExecutorGroup, clock, DEV_NULL_METRICS, logging );
+    }
+
+    ExponentialBackoffRetryLogic( long maxRetryTimeMs, RetryBackoff defaultBackoff,
+            Map<Class<? extends Neo4jException>,RetryBackoff> backoffs, double jitterFactor, RetryBudget retryBudget,
+            EventExecutorGroup eventExecutorGroup, Clock clock, MetricsListener metricsListener, Logging logging )
     {
         this.maxRetryTimeMs = maxRetryTimeMs;
-        this.initialRetryDelayMs = initialRetryDelayMs;
-        this.multiplier = multiplier;
+        this.defaultBackoff = defaultBackoff;
+        this.backoffs = backoffs;
         this.jitterFactor = jitterFactor;
+        this.retryBudget = retryBudget;
         this.eventExecutorGroup = eventExecutorGroup;
         this.clock = clock;
+        this.metricsListener = metricsListener;
         this.log = logging.getLog( RETRY_LOGIC_LOG_NAME );
 
         verifyAfterConstruction();
+
+        if ( retryBudget != null )
+        {
+            metricsListener.addRetryBudget( retryBudget::availableTokens );
+        }
     }
 
     @Override
@@ -83,13 +112,14 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
     {
         List<Throwable> errors = null;
         long startTime = -1;
-        long nextDelayMs = initialRetryDelayMs;
+        int retries = 0;
 
         while ( true )
         {
+            T result;
             try
             {
-                return work.get();
+                result = work.get();
             }
             catch ( Throwable error )
             {
@@ -102,13 +132,17 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
                     }
 
                     long elapsedTime = currentTime - startTime;
-                    if ( elapsedTime < maxRetryTimeMs )
+                    if ( elapsedTime >= maxRetryTimeMs )
                     {
-                        long delayWithJitterMs = computeDelayWithJitter( nextDelayMs );
+                        metricsListener.afterRetriesExhausted();
+                    }
+                    else if ( tryAcquireRetry( error ) )
+                    {
+                        long delayWithJitterMs = computeDelayWithJitter( retryDelayMs( error, retries ) );
                         log.warn( "Transaction failed and will be retried in " + delayWithJitterMs + "ms", error );
 
                         sleep( delayWithJitterMs );
-                        nextDelayMs = (long) (nextDelayMs * multiplier);
+                        retries++;
                         errors = recordError( error, errors );
                         continue;
                     }
@@ -116,6 +150,8 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
                 addSuppressed( error, errors );
                 throw error;
             }
+            onSuccess();
+            return result;
         }
     }
 
@@ -137,29 +173,52 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
     private <T> void executeWorkInEventLoop( CompletableFuture<T> resultFuture, Supplier<CompletionStage<T>> work )
     {
         // this is the very first time we execute given work
-        EventExecutor eventExecutor = eventExecutorGroup.next();
-
-        eventExecutor.execute( () -> executeWork( resultFuture, work, -1, initialRetryDelayMs, null ) );
+        EventExecutor currentEventExecutor = currentEventExecutor();
+        if ( currentEventExecutor != null )
+        {
+            // caller is already in one of our event loops and is not allowed to block, execute work right away
+            // instead of handing it over to a possibly different event loop
+            executeWork( resultFuture, work, -1, 0, null );
+        }
+        else
+        {
+            EventExecutor eventExecutor = eventExecutorGroup.next();
+            eventExecutor.execute( () -> executeWork( resultFuture, work, -1, 0, null ) );
+        }
     }
 
     private <T> void retryWorkInEventLoop( CompletableFuture<T> resultFuture, Supplier<CompletionStage<T>> work,
-            Throwable error, long startTime, long delayMs, List<Throwable> errors )
+            Throwable error, long startTime, int retries, List<Throwable> errors )
     {
         // work has failed before, we need to schedule retry with the given delay
-        EventExecutor eventExecutor = eventExecutorGroup.next();
+        // failure is usually observed in the event loop of the connection that failed, retry stays in it
+        EventExecutor eventExecutor = currentEventExecutor();
+        if ( eventExecutor == null )
+        {
+            eventExecutor = eventExecutorGroup.next();
+        }
 
-        long delayWithJitterMs = computeDelayWithJitter( delayMs );
+        long delayWithJitterMs = computeDelayWithJitter( retryDelayMs( error, retries ) );
         log.warn( "Async transaction failed and is scheduled to retry in " + delayWithJitterMs + "ms", error );
 
-        eventExecutor.schedule( () ->
+        eventExecutor.schedule( () -> executeWork( resultFuture, work, startTime, retries + 1, errors ),
+                delayWithJitterMs, TimeUnit.MILLISECONDS );
+    }
+
+    private EventExecutor currentEventExecutor()
+    {
+        for ( EventExecutor eventExecutor : eventExecutorGroup )
         {
-            long newRetryDelayMs = (long) (delayMs * multiplier);
-            executeWork( resultFuture, work, startTime, newRetryDelayMs, errors );
-        }, delayWithJitterMs, TimeUnit.MILLISECONDS );
+            if ( eventExecutor.inEventLoop() )
+            {
+                return eventExecutor;
+            }
+        }
+        return null;
     }
 
     private <T> void executeWork( CompletableFuture<T> resultFuture, Supplier<CompletionStage<T>> work,
-            long startTime, long retryDelayMs, List<Throwable> errors )
+            long startTime, int retries, List<Throwable> errors )
     {
         CompletionStage<T> workStage;
         try
@@ -169,7 +228,7 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
         catch ( Throwable error )
         {
             // work failed in a sync way, attempt to schedule a retry
-            retryOnError( resultFuture, work, startTime, retryDelayMs, error, errors );
+            retryOnError( resultFuture, work, startTime, retries, error, errors );
             return;
         }
 
@@ -179,17 +238,18 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
             if ( error != null )
             {
                 // work failed in async way, attempt to schedule a retry
-                retryOnError( resultFuture, work, startTime, retryDelayMs, error, errors );
+                retryOnError( resultFuture, work, startTime, retries, error, errors );
             }
             else
             {
+                onSuccess();
                 resultFuture.complete( result );
             }
         } );
     }
 
     private <T> void retryOnError( CompletableFuture<T> resultFuture, Supplier<CompletionStage<T>> work,
-            long startTime, long retryDelayMs, Throwable error, List<Throwable> errors )
+            long startTime, int retries, Throwable error, List<Throwable> errors )
     {
         if ( canRetryOn( error ) )
         {
@@ -200,10 +260,14 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
             }
 
             long elapsedTime = currentTime - startTime;
-            if ( elapsedTime < maxRetryTimeMs )
+            if ( elapsedTime >= maxRetryTimeMs )
+            {
+                metricsListener.afterRetriesExhausted();
+            }
+            else if ( tryAcquireRetry( error ) )
             {
                 errors = recordError( error, errors );
-                retryWorkInEventLoop( resultFuture, work, error, startTime, retryDelayMs, errors );
+                retryWorkInEventLoop( resultFuture, work, error, startTime, retries, errors );
                 return;
             }
         }
@@ -212,6 +276,40 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
         resultFuture.completeExceptionally( error );
     }
 
+    private void onSuccess()
+    {
+        if ( retryBudget != null )
+        {
+            retryBudget.onSuccess();
+        }
+    }
+
+    private boolean tryAcquireRetry( Throwable error )
+    {
+        if ( retryBudget != null && !retryBudget.tryAcquireRetry() )
+        {
+            log.warn( "Transaction failed and will not be retried because the retry budget is exhausted", error );
+            metricsListener.afterRetryThrottled();
+            return false;
+        }
+        metricsListener.afterRetryScheduled();
+        return true;
+    }
+
+    private long retryDelayMs( Throwable error, int retries )
+    {
+        // the most specific configured backoff applies, e.g. one for TransientException also covers its subclasses
+        for ( Class<?> errorClass = error.getClass(); errorClass != null; errorClass = errorClass.getSuperclass() )
+        {
+            RetryBackoff backoff = backoffs.get( errorClass );
+            if ( backoff != null )
+            {
+                return backoff.delayMs( retries );
+            }
+        }
+        return defaultBackoff.delayMs( retries );
+    }
+
     private long computeDelayWithJitter( long delayMs )
     {
         if ( delayMs > MAX_RETRY_DELAY )
@@ -244,13 +342,13 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
         {
             throw new IllegalArgumentException( "Max retry time should be >= 0: " + maxRetryTimeMs );
         }
-        if ( initialRetryDelayMs < 0 )
+        if ( defaultBackoff.initialDelayMs() < 0 )
         {
-            throw new IllegalArgumentException( "Initial retry delay should >= 0: " + initialRetryDelayMs );
+            throw new IllegalArgumentException( "Initial retry delay should >= 0: " + defaultBackoff.initialDelayMs() );
         }
-        if ( multiplier < 1.0 )
+        if ( defaultBackoff.multiplier() < 1.0 )
         {
-            throw new IllegalArgumentException( "Multiplier should be >= 1.0: " + multiplier );
+            throw new IllegalArgumentException( "Multiplier should be >= 1.0: " + defaultBackoff.multiplier() );
         }
         if ( jitterFactor < 0 || jitterFactor > 1 )
         {
@@ -262,6 +360,15 @@ public class ExponentialBackoffRetryLogic implements RetryLogic
         }
     }
 
+    private static RetryBudget createRetryBudget( RetrySettings settings )
+    {
+        if ( settings.retryBudgetMaxTokens() > 0 )
+        {
+            return new RetryBudget( settings.retryBudgetMaxTokens(), settings.retryBudgetTokenRatio() );
+        }
+        return null;
+    }
+
     private static boolean isTransientError( Throwable error )
     {
         if ( error instanceof TransientException )
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.retry;
+
+/**
+ * Exponential backoff of retries: first retry is delayed by the initial delay and every next retry by the previous
+ * delay times the multiplier.
+ */
+public final class RetryBackoff
+{
+    private final long initialDelayMs;
+    private final double multiplier;
+
+    public RetryBackoff( long initialDelayMs, double multiplier )
+    {
+        this.initialDelayMs = initialDelayMs;
+        this.multiplier = multiplier;
+    }
+
+    public long initialDelayMs()
+    {
+        return initialDelayMs;
+    }
+
+    public double multiplier()
+    {
+        return multiplier;
+    }
+
+    long delayMs( int retries )
+    {
+        long delayMs = initialDelayMs;
+        for ( int i = 0; i < retries && delayMs < Long.MAX_VALUE; i++ )
+        {
+            delayMs = (long) (delayMs * multiplier);
+        }
+        return delayMs;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RetryBackoff{initialDelayMs=" + initialDelayMs + ", multiplier=" + multiplier + '}';
+    }
+}
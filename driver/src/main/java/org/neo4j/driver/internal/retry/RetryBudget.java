@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Driver-wide token bucket that throttles retries, modelled after gRPC retry throttling.
+ * <p>
+ * Bucket starts full. Every failure that is about to be retried takes a token and every successful transaction
+ * returns {@code tokenRatio} tokens. Retries are only allowed while more than half of the tokens are available. So
+ * when most transactions fail, like during a cluster-wide incident, retries stop after a short burst instead of
+ * multiplying the load, while in steady state the amount of retries is bounded by roughly {@code tokenRatio} per
+ * successful transaction.
+ */
+public class RetryBudget
+{
+    // tokens are kept in thousandths, so that fractional token ratios do not need floating point arithmetic
+    private static final long TOKEN_SCALE = 1000;
+
+    private final long maxTokens;
+    private final long tokenRatio;
+    private final long threshold;
+    private final AtomicLong tokens;
+
+    public RetryBudget( int maxTokens, double tokenRatio )
+    {
+        this.maxTokens = maxTokens * TOKEN_SCALE;
+        this.tokenRatio = (long) (tokenRatio * TOKEN_SCALE);
+        this.threshold = this.maxTokens / 2;
+        this.tokens = new AtomicLong( this.maxTokens );
+    }
+
+    public void onSuccess()
+    {
+        long current;
+        do
+        {
+            current = tokens.get();
+            if ( current == maxTokens )
+            {
+                return;
+            }
+        }
+        while ( !tokens.compareAndSet( current, Math.min( maxTokens, current + tokenRatio ) ) );
+    }
+
+    /**
+     * Take a token for a failure that is about to be retried.
+     *
+     * @return {@code true} when the retry is allowed, {@code false} when the budget is exhausted.
+     */
+    public boolean tryAcquireRetry()
+    {
+        long current;
+        long updated;
+        do
+        {
+            current = tokens.get();
+            updated = Math.max( 0, current - TOKEN_SCALE );
+        }
+        while ( !tokens.compareAndSet( current, updated ) );
+        return updated > threshold;
+    }
+
+    public double availableTokens()
+    {
+        return (double) tokens.get() / TOKEN_SCALE;
+    }
+}
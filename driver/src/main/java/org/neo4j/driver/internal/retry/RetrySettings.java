@@ -17,20 +17,80 @@
  */
 package org.neo4j.driver.internal.retry;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.driver.v1.exceptions.Neo4jException;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
 public final class RetrySettings
 {
     public static final RetrySettings DEFAULT =
             new RetrySettings( ExponentialBackoffRetryLogic.DEFAULT_MAX_RETRY_TIME_MS );
 
     private final long maxRetryTimeMs;
+    private final int retryBudgetMaxTokens;
+    private final double retryBudgetTokenRatio;
+    private final Map<Class<? extends Neo4jException>,RetryBackoff> backoffs;
 
     public RetrySettings( long maxRetryTimeMs )
+    {
+        this( maxRetryTimeMs, -1, -1, emptyMap() );
+    }
+
+    private RetrySettings( long maxRetryTimeMs, int retryBudgetMaxTokens, double retryBudgetTokenRatio,
+            Map<Class<? extends Neo4jException>,RetryBackoff> backoffs )
     {
         this.maxRetryTimeMs = maxRetryTimeMs;
+        this.retryBudgetMaxTokens = retryBudgetMaxTokens;
+        this.retryBudgetTokenRatio = retryBudgetTokenRatio;
+        this.backoffs = backoffs;
+    }
+
+    public RetrySettings withMaxRetryTimeMs( long maxRetryTimeMs )
+    {
+        return new RetrySettings( maxRetryTimeMs, retryBudgetMaxTokens, retryBudgetTokenRatio, backoffs );
+    }
+
+    public RetrySettings withRetryBudget( int maxTokens, double tokenRatio )
+    {
+        return new RetrySettings( maxRetryTimeMs, maxTokens, tokenRatio, backoffs );
+    }
+
+    public RetrySettings withBackoff( Class<? extends Neo4jException> errorClass, RetryBackoff backoff )
+    {
+        Map<Class<? extends Neo4jException>,RetryBackoff> newBackoffs = new HashMap<>( backoffs );
+        newBackoffs.put( errorClass, backoff );
+        return new RetrySettings( maxRetryTimeMs, retryBudgetMaxTokens, retryBudgetTokenRatio,
+                unmodifiableMap( newBackoffs ) );
     }
 
     public long maxRetryTimeMs()
     {
         return maxRetryTimeMs;
     }
+
+    /**
+     * @return maximum amount of tokens of the driver-wide retry budget, or {@code -1} when retries are not limited
+     * by a budget.
+     */
+    public int retryBudgetMaxTokens()
+    {
+        return retryBudgetMaxTokens;
+    }
+
+    public double retryBudgetTokenRatio()
+    {
+        return retryBudgetTokenRatio;
+    }
+
+    /**
+     * @return backoff policies for errors of specific classes, errors of other classes use the default backoff.
+     */
+    public Map<Class<? extends Neo4jException>,RetryBackoff> backoffs()
+    {
+        return backoffs;
+    }
 }
@@ -28,6 +28,15 @@ public interface Connection
 {
     boolean isOpen();
 
+    /**
+     * Check that this connection is open and its underlying network channel is still connected. Channel can be closed
+     * by the server or the network while the connection is not used, so this is a stronger check than
+     * {@link #isOpen()}.
+     *
+     * @return {@code true} when this connection is open and its channel is active, {@code false} otherwise.
+     */
+    boolean isActive();
+
     void enableAutoRead();
 
     void disableAutoRead();
@@ -32,7 +32,61 @@ public interface ConnectionPool
 
     int idleConnections( BoltServerAddress address );
 
+    /**
+     * Get the maximum number of connections that can currently be in use towards the given address. It is lower than
+     * the configured maximum pool size while the pool is sized adaptively.
+     *
+     * @param address the server address.
+     * @return the current connection limit.
+     */
+    int connectionLimit( BoltServerAddress address );
+
+    /**
+     * Record that an acquisition was sent to a different address because the pool towards the given address reached
+     * its {@link #connectionLimit(BoltServerAddress) connection limit}. Adaptively sized pool counts it as demand,
+     * like an acquisition that had to wait, so that its limit can grow even when callers never wait for it.
+     *
+     * @param address the server address.
+     */
+    void connectionLimitReached( BoltServerAddress address );
+
+    /**
+     * Get the average time it takes the server with the given address to respond to a query. Average is only
+     * maintained when pool is configured to track response times.
+     *
+     * @param address the server address.
+     * @return average response time in nanoseconds or {@code 0} when it is unknown.
+     */
+    long responseTime( BoltServerAddress address );
+
     CompletionStage<Void> close();
 
     boolean isOpen( BoltServerAddress address );
+
+    /**
+     * Check if circuit breaker towards the given address is open and acquisitions fail without connecting.
+     *
+     * @param address the server address.
+     * @return {@code true} if acquisitions towards the address are currently rejected, {@code false} otherwise.
+     */
+    boolean isCircuitOpen( BoltServerAddress address );
+
+    /**
+     * Drain connections towards the given address. Draining pool does not hand out connections, closes idle
+     * connections right away and closes in-use connections when they are released. Acquisitions towards the address
+     * fail until the drain completes or is {@link #endDrain(BoltServerAddress) ended}.
+     *
+     * @param address the server address.
+     * @return stage completed when all connections that were in use when draining started are released.
+     */
+    CompletionStage<Void> drain( BoltServerAddress address );
+
+    /**
+     * Allow acquisitions towards an address that is being drained. They get connections from a new pool, while the
+     * drained one keeps closing its in-use connections when they are released. Does nothing when the address is not
+     * being drained.
+     *
+     * @param address the server address.
+     */
+    void endDrain( BoltServerAddress address );
 }
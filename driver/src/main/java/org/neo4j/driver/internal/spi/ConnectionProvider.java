@@ -19,6 +19,7 @@ package org.neo4j.driver.internal.spi;
 
 import java.util.concurrent.CompletionStage;
 
+import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.v1.AccessMode;
 
 /**
@@ -31,5 +32,22 @@ public interface ConnectionProvider
 
     CompletionStage<Void> verifyConnectivity();
 
+    /**
+     * Stop using the given address and drain connections towards it.
+     *
+     * @param address the server address.
+     * @return stage completed when all connections that were in use when draining started are released.
+     * @see ConnectionPool#drain(BoltServerAddress)
+     */
+    CompletionStage<Void> drain( BoltServerAddress address );
+
+    /**
+     * Allow the given address to be used again before its drain completes.
+     *
+     * @param address the server address.
+     * @see ConnectionPool#endDrain(BoltServerAddress)
+     */
+    void endDrain( BoltServerAddress address );
+
     CompletionStage<Void> close();
 }
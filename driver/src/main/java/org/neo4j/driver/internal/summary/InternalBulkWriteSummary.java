@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.summary;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.v1.summary.BulkWriteSummary;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class InternalBulkWriteSummary implements BulkWriteSummary
+{
+    private final long rows;
+    private final long batches;
+    private final long transactions;
+    private final long elapsedNanos;
+    private final long totalBatchLatencyNanos;
+    private final long maxBatchLatencyNanos;
+
+    public InternalBulkWriteSummary( long rows, long batches, long transactions, long elapsedNanos,
+            long totalBatchLatencyNanos, long maxBatchLatencyNanos )
+    {
+        this.rows = rows;
+        this.batches = batches;
+        this.transactions = transactions;
+        this.elapsedNanos = elapsedNanos;
+        this.totalBatchLatencyNanos = totalBatchLatencyNanos;
+        this.maxBatchLatencyNanos = maxBatchLatencyNanos;
+    }
+
+    @Override
+    public long rows()
+    {
+        return rows;
+    }
+
+    @Override
+    public long batches()
+    {
+        return batches;
+    }
+
+    @Override
+    public long transactions()
+    {
+        return transactions;
+    }
+
+    @Override
+    public long elapsed( TimeUnit unit )
+    {
+        return unit.convert( elapsedNanos, NANOSECONDS );
+    }
+
+    @Override
+    public double rowsPerSecond()
+    {
+        if ( elapsedNanos <= 0 )
+        {
+            return 0;
+        }
+        return rows * (double) SECONDS.toNanos( 1 ) / elapsedNanos;
+    }
+
+    @Override
+    public long meanBatchLatency( TimeUnit unit )
+    {
+        if ( batches == 0 )
+        {
+            return 0;
+        }
+        return unit.convert( totalBatchLatencyNanos / batches, NANOSECONDS );
+    }
+
+    @Override
+    public long maxBatchLatency( TimeUnit unit )
+    {
+        return unit.convert( maxBatchLatencyNanos, NANOSECONDS );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "BulkWriteSummary{rows=%s, batches=%s, transactions=%s, elapsedNanos=%s, rowsPerSecond=%.1f, " +
+                       "meanBatchLatencyNanos=%s, maxBatchLatencyNanos=%s}",
+                rows, batches, transactions, elapsedNanos, rowsPerSecond(), meanBatchLatency( NANOSECONDS ),
+                maxBatchLatencyNanos );
+    }
+}
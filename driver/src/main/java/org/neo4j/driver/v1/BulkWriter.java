@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import org.neo4j.driver.v1.summary.BulkWriteSummary;
+import org.neo4j.driver.v1.util.Experimental;
+
+/**
+ * Loads many rows of parameters through a single Cypher statement template.
+ * <p>
+ * Rows are grouped into batches and every batch is executed as {@code UNWIND $rows AS row} followed by the
+ * template, so the template refers to the current row through the {@code row} variable:
+ * <pre>
+ * {@code
+ * BulkWriter writer = driver.bulkWriter( "CREATE (:Person {name: row.name, age: row.age})" );
+ * BulkWriteSummary summary = writer.write( rows );
+ * }
+ * </pre>
+ * Several batches are pipelined in one write transaction and several transactions run in parallel, each in its own
+ * session. Transactions are retried with the driver's retry logic, so the template should be idempotent when
+ * transient failures are possible. Rows are only counted as written when their transaction commits.
+ * <p>
+ * Bulk writers are immutable, {@code with*} methods return a new writer with the changed setting.
+ *
+ * @see Driver#bulkWriter(String)
+ * @since 1.7
+ */
+@Experimental
+public interface BulkWriter
+{
+    /**
+     * Return a writer that puts at most the given amount of rows in a single batch.
+     *
+     * @param batchSize the maximum amount of rows in a batch, must be greater than zero.
+     * @return a new bulk writer.
+     */
+    BulkWriter withBatchSize( int batchSize );
+
+    /**
+     * Return a writer that pipelines at most the given amount of batches in a single transaction.
+     *
+     * @param batchesPerTransaction the maximum amount of batches in a transaction, must be greater than zero.
+     * @return a new bulk writer.
+     */
+    BulkWriter withBatchesPerTransaction( int batchesPerTransaction );
+
+    /**
+     * Return a writer that executes at most the given amount of transactions in parallel.
+     *
+     * @param parallelism the maximum amount of concurrent transactions, must be greater than zero.
+     * @return a new bulk writer.
+     */
+    BulkWriter withParallelism( int parallelism );
+
+    /**
+     * Write all given rows and wait until they are committed.
+     *
+     * @param rows the rows of parameters, each row is available to the template as {@code row}. A
+     * {@link java.util.stream.Stream} can be written with {@code writer.write( stream::iterator )}.
+     * @return summary of the bulk write.
+     * @throws org.neo4j.driver.v1.exceptions.BulkWriteException when a transaction fails after retries, it carries
+     * the summary of rows committed before the failure.
+     */
+    BulkWriteSummary write( Iterable<? extends Map<String,Object>> rows );
+
+    /**
+     * Write all given rows asynchronously.
+     * <p>
+     * The given iterable is consumed lazily as batches are executed. Its iterator is only advanced by dedicated
+     * driver threads, never concurrently, so it is allowed to block but does not need to be thread-safe.
+     *
+     * @param rows the rows of parameters, each row is available to the template as {@code row}.
+     * @return a {@link CompletionStage completion stage} completed with the summary when all rows are committed.
+     * Stage is completed exceptionally with a {@link org.neo4j.driver.v1.exceptions.BulkWriteException} when a
+     * transaction fails after retries, no new batches are started then.
+     */
+    CompletionStage<BulkWriteSummary> writeAsync( Iterable<? extends Map<String,Object>> rows );
+}
@@ -18,13 +18,19 @@
 package org.neo4j.driver.v1;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.neo4j.driver.internal.async.pool.PoolSettings;
+import org.neo4j.driver.internal.cluster.RoutingContext;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.logging.JULogging;
+import org.neo4j.driver.internal.retry.RetryBackoff;
 import org.neo4j.driver.internal.retry.RetrySettings;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
 import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 import org.neo4j.driver.v1.exceptions.TransientException;
@@ -70,6 +76,9 @@ public class Config
     private final boolean logLeakedSessions;
 
     private final int maxConnectionPoolSize;
+    private final int minConnectionPoolSize;
+    private final double circuitBreakerFailureRateThreshold;
+    private final long circuitBreakerCoolDownMillis;
 
     private final long idleTimeBeforeConnectionTest;
     private final long maxConnectionLifetimeMillis;
@@ -83,10 +92,19 @@ public class Config
 
     private final int routingFailureLimit;
     private final long routingRetryDelayMillis;
+    private final double routingTableRefreshRatio;
+    private final long routingLookupHedgeDelayMillis;
+    private final int routingWarmUpConnections;
+    private final File routingTableSnapshotFile;
     private final int connectionTimeoutMillis;
     private final RetrySettings retrySettings;
 
     private final LoadBalancingStrategy loadBalancingStrategy;
+    private final String clientZone;
+    private final Map<String,String> serverZones;
+    private final boolean sharedConnectionPool;
+    private final int fetchSize;
+    private final long sessionConnectionAffinityMillis;
 
     private Config( ConfigBuilder builder)
     {
@@ -96,15 +114,27 @@ public class Config
         this.idleTimeBeforeConnectionTest = builder.idleTimeBeforeConnectionTest;
         this.maxConnectionLifetimeMillis = builder.maxConnectionLifetimeMillis;
         this.maxConnectionPoolSize = builder.maxConnectionPoolSize;
+        this.minConnectionPoolSize = builder.minConnectionPoolSize;
+        this.circuitBreakerFailureRateThreshold = builder.circuitBreakerFailureRateThreshold;
+        this.circuitBreakerCoolDownMillis = builder.circuitBreakerCoolDownMillis;
         this.connectionAcquisitionTimeoutMillis = builder.connectionAcquisitionTimeoutMillis;
 
         this.encrypted = builder.encrypted;
         this.trustStrategy = builder.trustStrategy;
         this.routingFailureLimit = builder.routingFailureLimit;
         this.routingRetryDelayMillis = builder.routingRetryDelayMillis;
+        this.routingTableRefreshRatio = builder.routingTableRefreshRatio;
+        this.routingLookupHedgeDelayMillis = builder.routingLookupHedgeDelayMillis;
+        this.routingWarmUpConnections = builder.routingWarmUpConnections;
+        this.routingTableSnapshotFile = builder.routingTableSnapshotFile;
         this.connectionTimeoutMillis = builder.connectionTimeoutMillis;
         this.retrySettings = builder.retrySettings;
         this.loadBalancingStrategy = builder.loadBalancingStrategy;
+        this.clientZone = builder.clientZone;
+        this.serverZones = builder.serverZones;
+        this.sharedConnectionPool = builder.sharedConnectionPool;
+        this.fetchSize = builder.fetchSize;
+        this.sessionConnectionAffinityMillis = builder.sessionConnectionAffinityMillis;
     }
 
     /**
@@ -184,6 +214,126 @@ public class Config
         return maxConnectionPoolSize;
     }
 
+    /**
+     * Check if connection pools adapt their size to observed acquisition wait and server response latency.
+     *
+     * @return {@code true} if adaptive connection pool sizing is enabled, {@code false} otherwise.
+     * @see ConfigBuilder#withAdaptiveConnectionPoolSize(int)
+     */
+    @Experimental
+    public boolean adaptiveConnectionPoolSize()
+    {
+        return minConnectionPoolSize != PoolSettings.NOT_CONFIGURED;
+    }
+
+    /**
+     * Lower bound for the size of adaptively sized connection pools.
+     *
+     * @return the minimum connection pool size or {@code -1} when adaptive connection pool sizing is disabled.
+     * @see ConfigBuilder#withAdaptiveConnectionPoolSize(int)
+     */
+    @Experimental
+    public int minConnectionPoolSize()
+    {
+        return minConnectionPoolSize;
+    }
+
+    /**
+     * Fraction of failed connection acquisitions that opens the circuit breaker towards a server.
+     *
+     * @return the failure rate threshold or {@code -1} when circuit breakers are disabled.
+     * @see ConfigBuilder#withCircuitBreaker(double, long, TimeUnit)
+     */
+    @Experimental
+    public double circuitBreakerFailureRateThreshold()
+    {
+        return circuitBreakerFailureRateThreshold;
+    }
+
+    /**
+     * Time an open circuit breaker rejects connection acquisitions before letting a trial acquisition through.
+     *
+     * @return the cool-down period in milliseconds or {@code -1} when circuit breakers are disabled.
+     * @see ConfigBuilder#withCircuitBreaker(double, long, TimeUnit)
+     */
+    @Experimental
+    public long circuitBreakerCoolDownMillis()
+    {
+        return circuitBreakerCoolDownMillis;
+    }
+
+    /**
+     * Fraction of the routing table time-to-live after which the routing driver refreshes the table in background.
+     *
+     * @return the refresh ratio or {@code -1} when routing table is only refreshed once it is stale.
+     * @see ConfigBuilder#withRoutingTableRefreshRatio(double)
+     */
+    @Experimental
+    public double routingTableRefreshRatio()
+    {
+        return routingTableRefreshRatio;
+    }
+
+    /**
+     * Delay after which the routing driver queries the next router while the previous one has not responded yet.
+     *
+     * @return the hedge delay in milliseconds or {@code -1} when routers are queried one after another.
+     * @see ConfigBuilder#withRoutingLookupHedgeDelay(long, TimeUnit)
+     */
+    @Experimental
+    public long routingLookupHedgeDelayMillis()
+    {
+        return routingLookupHedgeDelayMillis;
+    }
+
+    /**
+     * Amount of connections the routing driver opens towards readers and writers that join the routing table.
+     *
+     * @return the amount of connections or {@code -1} when connections are only opened on demand.
+     * @see ConfigBuilder#withRoutingWarmUpConnections(int)
+     */
+    @Experimental
+    public int routingWarmUpConnections()
+    {
+        return routingWarmUpConnections;
+    }
+
+    /**
+     * File in which the routing driver keeps a snapshot of the last known routing table.
+     *
+     * @return the snapshot file or {@code null} when routing table is not persisted.
+     * @see ConfigBuilder#withRoutingTableSnapshot(File)
+     */
+    @Experimental
+    public File routingTableSnapshotFile()
+    {
+        return routingTableSnapshotFile;
+    }
+
+    /**
+     * Amount of records fetched ahead of the consumer for every statement.
+     *
+     * @return the fetch size or {@code -1} when the driver default is used.
+     * @see ConfigBuilder#withFetchSize(int)
+     */
+    @Experimental
+    public int fetchSize()
+    {
+        return fetchSize;
+    }
+
+    /**
+     * Time a session keeps its connection after a statement or transaction completes.
+     *
+     * @return the idle time in milliseconds or {@code -1} when connections are released straight away.
+     * @see ConfigBuilder#withSessionConnectionAffinity(long, TimeUnit)
+     */
+    @Experimental
+    public long sessionConnectionAffinityMillis()
+    {
+        return sessionConnectionAffinityMillis;
+    }
+
     public long connectionAcquisitionTimeoutMillis()
     {
         return connectionAcquisitionTimeoutMillis;
@@ -225,6 +375,41 @@ public class Config
         return loadBalancingStrategy;
     }
 
+    /**
+     * Zone of the client used by the routing driver to prefer readers in the same zone.
+     *
+     * @return the client zone or {@code null} when readers are selected regardless of their zone.
+     * @see ConfigBuilder#withClientZone(String, Map)
+     */
+    @Experimental
+    public String clientZone()
+    {
+        return clientZone;
+    }
+
+    /**
+     * Zones of cluster members, keyed by their addresses.
+     *
+     * @return unmodifiable map from server address to zone, empty when zones are not configured.
+     * @see ConfigBuilder#withClientZone(String, Map)
+     */
+    @Experimental
+    public Map<String,String> serverZones()
+    {
+        return serverZones;
+    }
+
+    /**
+     * Check if drivers created with this config attach to a connection pool shared with other drivers in the same JVM.
+     *
+     * @return {@code true} if connection pool sharing is enabled, {@code false} otherwise.
+     */
+    @Experimental
+    public boolean sharedConnectionPool()
+    {
+        return sharedConnectionPool;
+    }
+
     /**
      * Return a {@link ConfigBuilder} instance
      * @return a {@link ConfigBuilder} instance
@@ -244,7 +429,8 @@ public class Config
 
     RoutingSettings routingSettings()
     {
-        return new RoutingSettings( routingFailureLimit, routingRetryDelayMillis );
+        return new RoutingSettings( routingFailureLimit, routingRetryDelayMillis, RoutingContext.EMPTY,
+                routingTableRefreshRatio, routingLookupHedgeDelayMillis, routingWarmUpConnections );
     }
 
     RetrySettings retrySettings()
@@ -260,16 +446,28 @@ public class Config
         private Logging logging = new JULogging( Level.INFO );
         private boolean logLeakedSessions;
         private int maxConnectionPoolSize = PoolSettings.DEFAULT_MAX_CONNECTION_POOL_SIZE;
+        private int minConnectionPoolSize = PoolSettings.NOT_CONFIGURED;
+        private double circuitBreakerFailureRateThreshold = PoolSettings.NOT_CONFIGURED;
+        private long circuitBreakerCoolDownMillis = PoolSettings.NOT_CONFIGURED;
         private long idleTimeBeforeConnectionTest = PoolSettings.DEFAULT_IDLE_TIME_BEFORE_CONNECTION_TEST;
         private long maxConnectionLifetimeMillis = PoolSettings.DEFAULT_MAX_CONNECTION_LIFETIME;
         private long connectionAcquisitionTimeoutMillis = PoolSettings.DEFAULT_CONNECTION_ACQUISITION_TIMEOUT;
         private boolean encrypted = true;
         private TrustStrategy trustStrategy = trustAllCertificates();
         private LoadBalancingStrategy loadBalancingStrategy = LoadBalancingStrategy.LEAST_CONNECTED;
+        private String clientZone;
+        private Map<String,String> serverZones = Collections.emptyMap();
         private int routingFailureLimit = RoutingSettings.DEFAULT.maxRoutingFailures();
         private long routingRetryDelayMillis = RoutingSettings.DEFAULT.retryTimeoutDelay();
+        private double routingTableRefreshRatio = RoutingSettings.DEFAULT.routingTableRefreshRatio();
+        private long routingLookupHedgeDelayMillis = RoutingSettings.DEFAULT.routingLookupHedgeDelay();
+        private int routingWarmUpConnections = RoutingSettings.DEFAULT.routingWarmUpConnections();
+        private File routingTableSnapshotFile;
         private int connectionTimeoutMillis = (int) TimeUnit.SECONDS.toMillis( 5 );
         private RetrySettings retrySettings = RetrySettings.DEFAULT;
+        private boolean sharedConnectionPool;
+        private int fetchSize = -1;
+        private long sessionConnectionAffinityMillis = -1;
 
         private ConfigBuilder() {}
 
@@ -301,6 +499,59 @@ public class Config
             return this;
         }
 
+        /**
+         * Make the routing driver prefer readers located in the same zone, like an availability zone or a data center,
+         * as the client.
+         * <p>
+         * Readers are selected among servers mapped to the client zone using the configured
+         * {@link #withLoadBalancingStrategy(LoadBalancingStrategy) load balancing strategy}. Other zones are used only
+         * when all same-zone readers are unavailable or have all their
+         * {@link #withMaxConnectionPoolSize(int) pool connections} in use. Writers are selected regardless of their
+         * zone. Servers missing from the given mapping are considered to be in other zones.
+         * <p>
+         * Readers are selected regardless of their zone by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param zone the zone of the client.
+         * @param serverZones zones of cluster members keyed by their advertised addresses in {@code host:port} format.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withClientZone( String zone, Map<String,String> serverZones )
+        {
+            if ( zone == null || serverZones == null )
+            {
+                throw new IllegalArgumentException( "Client zone and server zones are required" );
+            }
+            this.clientZone = zone;
+            this.serverZones = Collections.unmodifiableMap( new HashMap<>( serverZones ) );
+            return this;
+        }
+
+        /**
+         * Make the driver attach to a connection pool shared with other drivers in the same JVM.
+         * <p>
+         * All drivers created with this option share a single set of IO threads. Drivers that, in addition, use
+         * equal {@link AuthToken auth tokens} and equal connection, encryption and pool settings also share
+         * network connections. Connections are pooled per server address and auth token, so drivers with different
+         * credentials never see each other's connections. Shared resources are released when the last driver
+         * attached to them is closed.
+         * <p>
+         * This is useful for applications that create many drivers towards the same database, for example one driver
+         * per set of credentials, and want to bound the total amount of threads and sockets.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withSharedConnectionPool()
+        {
+            this.sharedConnectionPool = true;
+            return this;
+        }
+
         /**
          * Enable logging of leaked sessions.
          * <p>
@@ -482,6 +733,77 @@ public class Config
             return this;
         }
 
+        /**
+         * Make connection pools adapt their size instead of always allowing up to
+         * {@link #withMaxConnectionPoolSize(int) maximum connection pool size} connections towards every database.
+         * <p>
+         * Each pool starts with the given minimum size. It grows when connection acquisition has to wait for a free
+         * connection while server response latency stays flat, and shrinks when server response latency climbs. The
+         * size always stays between the given minimum and the configured maximum connection pool size. This is
+         * useful for clusters where members differ in capacity. Current pool sizes are available through driver
+         * metrics.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param minConnectionPoolSize the minimum connection pool size, must be greater than zero.
+         * @return this builder
+         * @see #withMaxConnectionPoolSize(int)
+         */
+        @Experimental
+        public ConfigBuilder withAdaptiveConnectionPoolSize( int minConnectionPoolSize )
+        {
+            if ( minConnectionPoolSize <= 0 )
+            {
+                throw new IllegalArgumentException(
+                        "Minimum connection pool size should be greater than zero: " + minConnectionPoolSize );
+            }
+            this.minConnectionPoolSize = minConnectionPoolSize;
+            return this;
+        }
+
+        /**
+         * Enable per-server circuit breakers in the connection pool.
+         * <p>
+         * A circuit breaker tracks outcomes of the recent connection acquisitions towards a server. When the fraction
+         * of acquisitions that failed because the server could not be reached reaches the given threshold, the breaker
+         * opens and acquisitions towards this server fail immediately with a
+         * {@link org.neo4j.driver.v1.exceptions.ServiceUnavailableException} for the given cool-down period. Routing
+         * driver does not select servers with an open breaker. After the cool-down period a single trial acquisition
+         * is let through; breaker closes if it succeeds and opens again otherwise.
+         * <p>
+         * This is useful when a cluster member accepts connections but never responds, so that queries do not wait
+         * for the {@link #withConnectionTimeout(long, TimeUnit) connection timeout} over and over again.
+         * <p>
+         * Circuit breakers are disabled by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param failureRateThreshold fraction of failed acquisitions that opens the breaker, greater than {@code 0}
+         * and not greater than {@code 1}.
+         * @param coolDown time an open breaker rejects acquisitions, must not be negative.
+         * @param unit the unit in which the cool-down is given.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withCircuitBreaker( double failureRateThreshold, long coolDown, TimeUnit unit )
+        {
+            if ( failureRateThreshold <= 0 || failureRateThreshold > 1 )
+            {
+                throw new IllegalArgumentException(
+                        "Failure rate threshold should be greater than 0 and not greater than 1: " +
+                        failureRateThreshold );
+            }
+            long coolDownMillis = unit.toMillis( coolDown );
+            if ( coolDownMillis < 0 )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The cool-down period may not be smaller than 0, but was %d %s.", coolDown, unit ) );
+            }
+            this.circuitBreakerFailureRateThreshold = failureRateThreshold;
+            this.circuitBreakerCoolDownMillis = coolDownMillis;
+            return this;
+        }
+
         /**
          * Configure maximum amount of time connection acquisition will attempt to acquire a connection from the
          * connection pool. This timeout only kicks in when all existing connections are being used and no new
@@ -643,6 +965,176 @@ public class Config
             return this;
         }
 
+        /**
+         * Refresh routing table in background after the given fraction of its time-to-live has passed.
+         * <p>
+         * By default, routing driver refreshes the routing table only when a connection is requested and the table is
+         * already stale. Such request has to wait for routing servers to respond. With background refresh the table is
+         * renewed before it expires, so requests keep using a fresh routing table and rarely wait for a refresh.
+         * <p>
+         * Background refresh is disabled by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param ratio fraction of the routing table time-to-live, greater than {@code 0} and smaller than {@code 1}.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRoutingTableRefreshRatio( double ratio )
+        {
+            if ( ratio <= 0 || ratio >= 1 )
+            {
+                throw new IllegalArgumentException(
+                        "Routing table refresh ratio should be greater than 0 and smaller than 1: " + ratio );
+            }
+            this.routingTableRefreshRatio = ratio;
+            return this;
+        }
+
+        /**
+         * Query routers in parallel when fetching a new routing table.
+         * <p>
+         * By default, routing driver queries known routers one after another and moves to the next router only when
+         * the previous one failed. Router that is down or unreachable makes the lookup wait for the
+         * {@link #withConnectionTimeout(long, TimeUnit) connection timeout}. With hedged lookups the driver queries the
+         * next router when the previous one has not responded within the given delay, uses the first routing table it
+         * receives and ignores responses that arrive later. Delay of {@code 0} queries all routers in parallel.
+         * <p>
+         * Hedged lookups are disabled by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param delay time to wait for a router before querying the next one, must not be negative.
+         * @param unit the unit in which the delay is given.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRoutingLookupHedgeDelay( long delay, TimeUnit unit )
+        {
+            long delayMillis = unit.toMillis( delay );
+            if ( delayMillis < 0 )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The hedge delay may not be smaller than 0, but was %d %s.", delay, unit ) );
+            }
+            this.routingLookupHedgeDelayMillis = delayMillis;
+            return this;
+        }
+
+        /**
+         * Open connections towards readers and writers as soon as they appear in the routing table.
+         * <p>
+         * By default, routing driver opens connections towards a server only when a session needs one, so the first
+         * queries towards a server that joined the cluster pay for the connection setup. With warm-up the driver opens
+         * the given amount of connections towards every new reader and writer and returns them to the pool, where
+         * they are ready for subsequent queries.
+         * <p>
+         * Warm-up is disabled by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param connections amount of connections to open towards every new server, must be greater than {@code 0}.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRoutingWarmUpConnections( int connections )
+        {
+            if ( connections <= 0 )
+            {
+                throw new IllegalArgumentException(
+                        "Amount of warm-up connections should be greater than 0: " + connections );
+            }
+            this.routingWarmUpConnections = connections;
+            return this;
+        }
+
+        /**
+         * Persist the routing table in the given file and use it when a new routing driver is created.
+         * <p>
+         * By default, a new routing driver has to contact the initial router before it can serve any request. With a
+         * snapshot file the driver saves the routing table whenever its servers change and, on startup, restores the
+         * saved one. Restored routing table is used right away, neither driver creation nor the first query wait for
+         * a routing table lookup. It is validated by a lookup in background, which any of the saved routers, picked in
+         * random order, can serve. This makes driver startup independent of the initial router availability. Snapshot
+         * is only used by drivers created for the same initial router. Addresses from the saved routing table that
+         * turn out to be unavailable are forgotten as usual.
+         * <p>
+         * Routing table is not persisted by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param file the file to read the routing table from and write it to, its directory must exist.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRoutingTableSnapshot( File file )
+        {
+            if ( file == null )
+            {
+                throw new IllegalArgumentException( "Routing table snapshot file is required" );
+            }
+            this.routingTableSnapshotFile = file;
+            return this;
+        }
+
+        /**
+         * Limit the amount of records fetched ahead of the consumer for every statement.
+         * <p>
+         * Records are fetched in batches of at most the given size. When the consumer has processed most of a batch,
+         * the next one is fetched. Smaller values reduce memory usage for slowly consumed results, larger values
+         * reduce pauses in the stream of records. Individual statements can override this value using
+         * {@link Statement#withFetchSize(int)}.
+         * <p>
+         * By default, driver fetches up to 1000 records ahead.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param fetchSize the amount of records to fetch ahead, must be greater than {@code 0}.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withFetchSize( int fetchSize )
+        {
+            if ( fetchSize <= 0 )
+            {
+                throw new IllegalArgumentException( "Fetch size should be greater than 0: " + fetchSize );
+            }
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
+        /**
+         * Let sessions keep their connection between consecutive statements and transactions.
+         * <p>
+         * By default, a session releases its connection back to the pool as soon as a result is consumed or a
+         * transaction is committed or rolled back, and acquires a connection again for the next statement. This
+         * costs a RESET message, a pool round trip and, for routing drivers, a load balancing decision per statement.
+         * With connection affinity the session keeps its connection for the given idle time and reuses it when the
+         * next statement with the same access mode comes in. Connection is released earlier when the session is
+         * closed or reset, or when a statement fails.
+         * <p>
+         * Connection affinity is disabled by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param idleTime the time an unused connection stays with the session, must be greater than {@code 0}.
+         * @param unit the unit in which idle time is given.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withSessionConnectionAffinity( long idleTime, TimeUnit unit )
+        {
+            long idleTimeMillis = unit.toMillis( idleTime );
+            if ( idleTimeMillis <= 0 )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The session connection affinity idle time should be greater than 0, but was %d %s.",
+                        idleTime, unit ) );
+            }
+            this.sessionConnectionAffinityMillis = idleTimeMillis;
+            return this;
+        }
+
         /**
          * Specify socket connection timeout.
          * <p>
@@ -701,7 +1193,88 @@ public class Config
                 throw new IllegalArgumentException( String.format(
                         "The max retry time may not be smaller than 0, but was %d %s.", value, unit ) );
             }
-            this.retrySettings = new RetrySettings( maxRetryTimeMs );
+            this.retrySettings = retrySettings.withMaxRetryTimeMs( maxRetryTimeMs );
+            return this;
+        }
+
+        /**
+         * Limit transaction retries of this driver with a retry budget.
+         * <p>
+         * Without a budget, every transaction executed via {@link Session#readTransaction(TransactionWork)} and
+         * {@link Session#writeTransaction(TransactionWork)} is retried independently until the
+         * {@link #withMaxTransactionRetryTime(long, TimeUnit) max retry time} elapses. During a cluster-wide incident
+         * all in-flight transactions then retry at the same time and amplify the load. The budget is a token bucket
+         * shared by all sessions of the driver: every retry takes a token, every successful transaction returns
+         * {@code tokenRatio} tokens and retries are only allowed while more than half of {@code maxTokens} are
+         * available. Retries are therefore limited to about {@code tokenRatio} per successful transaction, a failing
+         * transaction that is not allowed to retry fails with its original error.
+         * <p>
+         * Retries are not limited by a budget by default.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param maxTokens the capacity of the token bucket, must be greater than {@code 0}.
+         * @param tokenRatio the amount of tokens returned by a successful transaction, must be greater than
+         * {@code 0}, e.g. {@code 0.1} to allow one retry per ten successful transactions.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withTransactionRetryBudget( int maxTokens, double tokenRatio )
+        {
+            if ( maxTokens <= 0 )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The retry budget max tokens should be greater than 0, but was %d.", maxTokens ) );
+            }
+            if ( !(tokenRatio > 0) )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The retry budget token ratio should be greater than 0, but was %s.", tokenRatio ) );
+            }
+            this.retrySettings = retrySettings.withRetryBudget( maxTokens, tokenRatio );
+            return this;
+        }
+
+        /**
+         * Specify the backoff of transaction retries caused by errors of the given class.
+         * <p>
+         * By default, all retries use exponential backoff with initial delay of 1 second and multiplier of 2. Errors
+         * often call for different policies, for example {@link ServiceUnavailableException} usually takes a while
+         * to resolve, while a {@link TransientException} caused by a deadlock can be retried almost right away. The
+         * most specific configured class of an error is used, so a backoff for {@link TransientException} also
+         * applies to its subclasses.
+         * <p>
+         * <b>Note:</b> this is an experimental option and could be changed or removed in the next minor version.
+         *
+         * @param errorClass the class of retried errors, one of {@link ServiceUnavailableException},
+         * {@link SessionExpiredException}, {@link TransientException} or their subclasses.
+         * @param initialDelay the delay before the first retry, must not be negative.
+         * @param unit the unit in which the delay is given.
+         * @param multiplier the factor every next delay is multiplied by, must be at least {@code 1.0}.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withTransactionRetryBackoff( Class<? extends Neo4jException> errorClass,
+                long initialDelay, TimeUnit unit, double multiplier )
+        {
+            if ( !ServiceUnavailableException.class.isAssignableFrom( errorClass ) &&
+                 !SessionExpiredException.class.isAssignableFrom( errorClass ) &&
+                 !TransientException.class.isAssignableFrom( errorClass ) )
+            {
+                throw new IllegalArgumentException( "Errors of class " + errorClass.getName() + " are not retried" );
+            }
+            long initialDelayMillis = unit.toMillis( initialDelay );
+            if ( initialDelayMillis < 0 )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The initial retry delay may not be smaller than 0, but was %d %s.", initialDelay, unit ) );
+            }
+            if ( !(multiplier >= 1.0) )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The retry delay multiplier should be at least 1.0, but was %s.", multiplier ) );
+            }
+            this.retrySettings = retrySettings.withBackoff( errorClass, new RetryBackoff( initialDelayMillis, multiplier ) );
             return this;
         }
 
@@ -731,7 +1304,9 @@ public class Config
     public enum LoadBalancingStrategy
     {
         ROUND_ROBIN,
-        LEAST_CONNECTED
+        LEAST_CONNECTED,
+        LEAST_RESPONSE_TIME,
+        POWER_OF_TWO_CHOICES
     }
 
     /**
@@ -17,8 +17,12 @@
  */
 package org.neo4j.driver.v1;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 
+import org.neo4j.driver.v1.util.Experimental;
+
 /**
  * Accessor for a specific Neo4j graph database.
  * <p>
@@ -137,6 +141,56 @@ public interface Driver extends AutoCloseable
      */
     Session session( AccessMode mode, Iterable<String> bookmarks );
 
+    /**
+     * Create a {@link BulkWriter} that writes rows of parameters through the given statement template. Every
+     * batch of rows is executed as {@code UNWIND $rows AS row} followed by the template, in write transactions of
+     * new {@link AccessMode#WRITE write} sessions.
+     *
+     * @param statementTemplate the statement to execute for every row, refers to the row as {@code row}.
+     * @return a new bulk writer.
+     * @since 1.7
+     */
+    @Experimental
+    BulkWriter bulkWriter( String statementTemplate );
+
+    /**
+     * Create a {@link FanOut} that executes the given read statement once per partition of parameters in parallel,
+     * in read transactions of new {@link AccessMode#READ read} sessions.
+     *
+     * @param statementTemplate the read statement to execute for every partition.
+     * @param partitions the parameters of every partition.
+     * @return a new fan-out.
+     * @since 1.7
+     */
+    @Experimental
+    FanOut fanOut( String statementTemplate, List<? extends Map<String,Object>> partitions );
+
+    /**
+     * Drain connections towards the given server, for example before taking it down for maintenance. Driver stops
+     * handing out connections towards the server, closes its idle connections right away and closes in-use
+     * connections when they are released. Routing driver also removes the server from the routing table. New
+     * connections towards the server can not be acquired until the returned stage completes or the drain is
+     * {@link #endDrain(String) ended}, routing driver uses other servers meanwhile.
+     *
+     * @param address the server address in {@code host:port} form, port defaults to {@code 7687}. It has to match the
+     * address used by the driver, i.e. the address in the driver URI or in the routing table.
+     * @return stage completed when all connections that were in use when draining started are released.
+     * @since 1.7
+     */
+    @Experimental
+    CompletionStage<Void> drain( String address );
+
+    /**
+     * End the drain of connections towards the given server before it completes, new connections towards the server
+     * can be acquired again. Connections that were in use when draining started are still closed when released.
+     * Does nothing when the server is not being drained.
+     *
+     * @param address the server address in {@code host:port} form, as given to {@link #drain(String)}.
+     * @since 1.7
+     */
+    @Experimental
+    void endDrain( String address );
+
     /**
      * Close all the resources assigned to this driver, including open connections and IO threads.
      * <p>
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+import org.neo4j.driver.v1.util.Experimental;
+
+/**
+ * Runs a single read statement once per partition of parameters in parallel and merges the results.
+ * <p>
+ * This is useful for analytic reads that split cleanly, for example by id range:
+ * <pre>
+ * {@code
+ * List<Map<String,Object>> ranges = ...; // [{from: 0, to: 1000}, {from: 1000, to: 2000}, ...]
+ * FanOut fanOut = driver.fanOut( "MATCH (n) WHERE $from <= id(n) < $to RETURN count(n) AS count", ranges );
+ * long total = fanOut.reduce( 0L, ( sum, record ) -> sum + record.get( "count" ).asLong(), Long::sum );
+ * }
+ * </pre>
+ * Every partition is executed in its own {@link Session#readTransactionAsync(TransactionWork) read transaction}
+ * of a {@link AccessMode#READ read} session, so partitions are spread over the available readers and retried
+ * individually with the driver's retry logic. Records of a partition are only merged when its transaction
+ * succeeds, so retries never produce duplicates. At most {@link #withParallelism(int) parallelism} partitions
+ * are executed at the same time, which keeps the amount of used connections within connection pool limits.
+ * <p>
+ * Fan-outs are immutable, {@code with*} methods return a new fan-out with the changed setting.
+ *
+ * @see Driver#fanOut(String, List)
+ * @since 1.7
+ */
+@Experimental
+public interface FanOut
+{
+    /**
+     * Return a fan-out that executes at most the given amount of partitions in parallel.
+     *
+     * @param parallelism the maximum amount of concurrent partitions, must be greater than zero.
+     * @return a new fan-out.
+     */
+    FanOut withParallelism( int parallelism );
+
+    /**
+     * Execute all partitions and wait for their records.
+     *
+     * @return records of all partitions, in the order of partitions.
+     */
+    List<Record> list();
+
+    /**
+     * Execute all partitions asynchronously.
+     *
+     * @return a {@link CompletionStage completion stage} completed with records of all partitions, in the order of
+     * partitions. Stage is completed exceptionally when a partition fails after retries, no new partitions are
+     * started then.
+     */
+    CompletionStage<List<Record>> listAsync();
+
+    /**
+     * Execute all partitions, reduce records of every partition and combine the partition results. Semantics are
+     * the same as of {@link java.util.stream.Stream#reduce(Object, BiFunction, BinaryOperator)}.
+     *
+     * @param identity the identity value of the combiner, every partition starts reducing from this value.
+     * @param accumulator the function folding a record into a partial result.
+     * @param combiner the function combining partial results of two partitions.
+     * @param <T> the type of the result.
+     * @return the combined result.
+     */
+    <T> T reduce( T identity, BiFunction<T,? super Record,T> accumulator, BinaryOperator<T> combiner );
+
+    /**
+     * Asynchronous version of {@link #reduce(Object, BiFunction, BinaryOperator)}.
+     * <p>
+     * Accumulator is invoked on the default async executor of {@link java.util.concurrent.CompletableFuture}, never on
+     * a driver IO thread, and is invoked sequentially for records of the same partition.
+     *
+     * @param identity the identity value of the combiner, every partition starts reducing from this value.
+     * @param accumulator the function folding a record into a partial result.
+     * @param combiner the function combining partial results of two partitions.
+     * @param <T> the type of the result.
+     * @return a {@link CompletionStage completion stage} completed with the combined result. Stage is completed
+     * exceptionally when a partition fails after retries, no new partitions are started then.
+     */
+    <T> CompletionStage<T> reduceAsync( T identity, BiFunction<T,? super Record,T> accumulator,
+            BinaryOperator<T> combiner );
+}
@@ -21,6 +21,10 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 
+import org.neo4j.driver.v1.reactive.Publisher;
+import org.neo4j.driver.v1.reactive.Subscriber;
+import org.neo4j.driver.v1.reactive.Subscription;
+import org.neo4j.driver.v1.util.Experimental;
 import org.neo4j.driver.v1.util.Resource;
 
 /**
@@ -187,6 +191,24 @@ public interface Session extends Resource, StatementRunner
      */
     <T> CompletionStage<T> writeTransactionAsync( TransactionWork<CompletionStage<T>> work );
 
+    /**
+     * Run a statement in an auto-commit transaction and expose its records as a {@link Publisher}.
+     * <p>
+     * The returned publisher is lazy: the statement is only executed when a {@link Subscriber} subscribes.
+     * Records are delivered as the subscriber requests them through its {@link Subscription}. When the subscriber
+     * does not keep up, the driver stops reading from the network once its record buffer is full and resumes when
+     * records are requested again, so memory usage stays bounded regardless of the result size. Cancelling the
+     * subscription discards remaining records. Only a single subscriber is allowed.
+     * <p>
+     * Subscriber callbacks are invoked on driver IO threads and should not block.
+     *
+     * @param statement a Neo4j statement
+     * @return a publisher of result records.
+     * @since 1.7
+     */
+    @Experimental
+    Publisher<Record> runRx( Statement statement );
+
     /**
      * Return the bookmark received following the last completed
      * {@linkplain Transaction transaction}. If no bookmark was received
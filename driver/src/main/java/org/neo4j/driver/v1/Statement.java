@@ -22,6 +22,7 @@ import java.util.Map;
 import org.neo4j.driver.internal.value.MapValue;
 import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.util.Experimental;
 import org.neo4j.driver.v1.util.Immutable;
 
 import static java.lang.String.format;
@@ -44,6 +45,7 @@ public class Statement
 {
     private final String text;
     private final Value parameters;
+    private final int fetchSize;
 
     /**
      * Create a new statement.
@@ -51,8 +53,14 @@ public class Statement
      * @param parameters the statement parameters
      */
     public Statement( String text, Value parameters )
+    {
+        this( text, parameters, -1 );
+    }
+
+    private Statement( String text, Value parameters, int fetchSize )
     {
         this.text = text;
+        this.fetchSize = fetchSize;
         if( parameters == null )
         {
             this.parameters = Values.EmptyMap;
@@ -102,13 +110,25 @@ public class Statement
         return parameters;
     }
 
+    /**
+     * @return the amount of records the driver buffers for this statement or {@code -1} when the default of the
+     * driver applies
+     * @see #withFetchSize(int)
+     * @since 1.7
+     */
+    @Experimental
+    public int fetchSize()
+    {
+        return fetchSize;
+    }
+
     /**
      * @param newText the new statement's text
      * @return a new statement with updated text
      */
     public Statement withText( String newText )
     {
-        return new Statement( newText, parameters );
+        return new Statement( newText, parameters, fetchSize );
     }
 
     /**
@@ -117,7 +137,7 @@ public class Statement
      */
     public Statement withParameters( Value newParameters )
     {
-        return new Statement( text, newParameters );
+        return new Statement( text, newParameters, fetchSize );
     }
 
     /**
@@ -126,7 +146,28 @@ public class Statement
      */
     public Statement withParameters( Map<String, Object> newParameters )
     {
-        return new Statement( text, newParameters );
+        return new Statement( text, Values.value( newParameters ), fetchSize );
+    }
+
+    /**
+     * Create a new statement that limits the amount of records fetched ahead of the consumer.
+     * <p>
+     * Records are fetched in batches of at most the given size. When the consumer has processed most of a batch,
+     * the next one is fetched, so a slow consumer holds at most about {@code fetchSize} records in memory. This
+     * overrides {@link Config.ConfigBuilder#withFetchSize(int)} for a single statement.
+     *
+     * @param fetchSize the amount of records to fetch ahead, must be greater than {@code 0}
+     * @return a new statement with updated fetch size
+     * @since 1.7
+     */
+    @Experimental
+    public Statement withFetchSize( int fetchSize )
+    {
+        if ( fetchSize <= 0 )
+        {
+            throw new IllegalArgumentException( "Fetch size should be greater than 0: " + fetchSize );
+        }
+        return new Statement( text, parameters, fetchSize );
     }
 
     /**
@@ -179,7 +220,8 @@ public class Statement
         }
 
         Statement statement = (Statement) o;
-        return text.equals( statement.text ) && parameters.equals( statement.parameters );
+        return fetchSize == statement.fetchSize && text.equals( statement.text ) &&
+               parameters.equals( statement.parameters );
 
     }
 
@@ -188,6 +230,7 @@ public class Statement
     {
         int result = text.hashCode();
         result = 31 * result + parameters.hashCode();
+        result = 31 * result + fetchSize;
         return result;
     }
 
@@ -117,6 +117,9 @@ public interface StatementResultCursor
 
     /**
      * Asynchronously apply the given {@link Consumer action} to every record in the result, yielding a summary of it.
+     * <p>
+     * Records are requested from the network in batches and handed to the action on the default async executor of
+     * {@link java.util.concurrent.CompletableFuture}, never on an IO thread.
      *
      * @param action the function to be applied to every record in the result. Provided function should not block.
      * @return a {@link CompletionStage} completed with a summary for the whole query result. Stage can also be
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.exceptions;
+
+import org.neo4j.driver.v1.summary.BulkWriteSummary;
+import org.neo4j.driver.v1.util.Experimental;
+
+/**
+ * A <em>BulkWriteException</em> indicates that a bulk write stopped because one of its transactions failed.
+ * The original failure is available as the cause and the rows committed before it as the {@link #summary() summary}.
+ *
+ * @see org.neo4j.driver.v1.BulkWriter
+ * @since 1.7
+ */
+@Experimental
+public class BulkWriteException extends Neo4jException
+{
+    private static final long serialVersionUID = 3519843025431372806L;
+
+    private final transient BulkWriteSummary summary;
+
+    public BulkWriteException( BulkWriteSummary summary, Throwable cause )
+    {
+        super( "Bulk write failed after committing " + summary.rows() + " rows", cause );
+        this.summary = summary;
+    }
+
+    /**
+     * Access the summary of rows committed before the failure.
+     *
+     * @return summary of the partially completed bulk write.
+     */
+    public BulkWriteSummary summary()
+    {
+        return summary;
+    }
+}
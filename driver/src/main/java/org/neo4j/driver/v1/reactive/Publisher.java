@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.reactive;
+
+import org.neo4j.driver.v1.util.Experimental;
+
+/**
+ * A provider of a potentially unbounded number of elements, publishing them according to the demand received from its
+ * {@link Subscriber}.
+ * <p>
+ * This interface, together with {@link Subscriber} and {@link Subscription}, has the same methods and contract as its
+ * counterpart from the <a href="http://www.reactive-streams.org">Reactive Streams</a> specification. Driver does not
+ * depend on the specification artifact, so a publisher can be adapted to a library like Reactor or Akka Streams with
+ * a thin wrapper that forwards every signal.
+ *
+ * @param <T> the type of published elements.
+ * @since 1.7
+ */
+@Experimental
+public interface Publisher<T>
+{
+    /**
+     * Request the publisher to start streaming elements to the given subscriber. Subscriber is notified about the
+     * established subscription via {@link Subscriber#onSubscribe(Subscription)} and receives elements only after it
+     * signalled demand through {@link Subscription#request(long)}.
+     *
+     * @param subscriber the subscriber that will consume elements.
+     */
+    void subscribe( Subscriber<? super T> subscriber );
+}
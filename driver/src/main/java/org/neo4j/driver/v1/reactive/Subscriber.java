@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.reactive;
+
+import org.neo4j.driver.v1.util.Experimental;
+
+/**
+ * Receiver of elements published by a {@link Publisher}. Methods are invoked sequentially, never concurrently.
+ * They should not block because they might be invoked by a driver network thread.
+ *
+ * @param <T> the type of received elements.
+ * @see Publisher
+ * @since 1.7
+ */
+@Experimental
+public interface Subscriber<T>
+{
+    /**
+     * Invoked once before any other signal. No elements are received until demand is signalled through
+     * {@link Subscription#request(long)}.
+     *
+     * @param subscription the subscription that controls the flow of elements.
+     */
+    void onSubscribe( Subscription subscription );
+
+    /**
+     * Invoked with the next element, at most as many times as requested via {@link Subscription#request(long)}.
+     *
+     * @param element the received element.
+     */
+    void onNext( T element );
+
+    /**
+     * Terminal signal invoked when the publisher failed. No further signals are received.
+     *
+     * @param error the failure.
+     */
+    void onError( Throwable error );
+
+    /**
+     * Terminal signal invoked when all elements have been received. No further signals are received.
+     */
+    void onComplete();
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.reactive;
+
+import org.neo4j.driver.v1.util.Experimental;
+
+/**
+ * Link between a {@link Publisher} and a single {@link Subscriber}, used to signal demand and to cancel the stream.
+ *
+ * @see Publisher
+ * @since 1.7
+ */
+@Experimental
+public interface Subscription
+{
+    /**
+     * Signal demand for the given amount of additional elements. Demand is cumulative, {@link Long#MAX_VALUE} means
+     * unbounded demand.
+     *
+     * @param n the amount of requested elements, must be positive.
+     */
+    void request( long n );
+
+    /**
+     * Stop receiving elements. Elements that are not yet received are discarded.
+     */
+    void cancel();
+}
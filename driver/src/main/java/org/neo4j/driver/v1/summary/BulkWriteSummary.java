@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.summary;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.v1.BulkWriter;
+import org.neo4j.driver.v1.util.Experimental;
+import org.neo4j.driver.v1.util.Immutable;
+
+/**
+ * Throughput and latency of a completed {@link BulkWriter bulk write}.
+ * @since 1.7
+ */
+@Immutable
+@Experimental
+public interface BulkWriteSummary
+{
+    /**
+     * @return number of committed rows.
+     */
+    long rows();
+
+    /**
+     * @return number of committed batches.
+     */
+    long batches();
+
+    /**
+     * @return number of committed transactions.
+     */
+    long transactions();
+
+    /**
+     * @param unit the unit to return the elapsed time in.
+     * @return time elapsed from the start of the bulk write until the last transaction committed.
+     */
+    long elapsed( TimeUnit unit );
+
+    /**
+     * @return committed rows per second over the whole bulk write.
+     */
+    double rowsPerSecond();
+
+    /**
+     * The time between sending a batch and receiving its result summary, averaged over committed batches.
+     *
+     * @param unit the unit to return the latency in.
+     * @return mean batch latency.
+     */
+    long meanBatchLatency( TimeUnit unit );
+
+    /**
+     * @param unit the unit to return the latency in.
+     * @return the highest latency of a committed batch.
+     */
+    long maxBatchLatency( TimeUnit unit );
+}
@@ -32,6 +32,7 @@ import java.util.List;
 import org.neo4j.driver.internal.async.BootstrapFactory;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.cluster.loadbalancing.LoadBalancer;
+import org.neo4j.driver.internal.metrics.InternalAbstractMetrics;
 import org.neo4j.driver.internal.metrics.InternalMetrics;
 import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.metrics.spi.Metrics;
@@ -241,7 +242,8 @@ public class DriverFactoryTest
 
         @Override
         protected InternalDriver createRoutingDriver( SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool,
-                EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, Metrics metrics, Config config )
+                EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, InternalAbstractMetrics metrics,
+                Config config )
         {
             throw new UnsupportedOperationException( "Can't create routing driver" );
         }
@@ -267,16 +269,18 @@ public class DriverFactoryTest
 
         @Override
         protected LoadBalancer createLoadBalancer( BoltServerAddress address, ConnectionPool connectionPool,
-                EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings )
+                EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings,
+                MetricsListener metricsListener )
         {
             return null;
         }
 
         @Override
         protected SessionFactory createSessionFactory( ConnectionProvider connectionProvider,
-                RetryLogic retryLogic, Config config )
+                RetryLogic retryLogic, EventExecutorGroup eventExecutorGroup, Config config )
         {
-            SessionFactory sessionFactory = super.createSessionFactory( connectionProvider, retryLogic, config );
+            SessionFactory sessionFactory =
+                    super.createSessionFactory( connectionProvider, retryLogic, eventExecutorGroup, config );
             capturedSessionFactory = sessionFactory;
             return sessionFactory;
         }
@@ -311,7 +315,7 @@ public class DriverFactoryTest
 
         @Override
         protected SessionFactory createSessionFactory( ConnectionProvider connectionProvider, RetryLogic retryLogic,
-                Config config )
+                EventExecutorGroup eventExecutorGroup, Config config )
         {
             return sessionFactory;
         }
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.neo4j.driver.v1.BulkWriter;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResultCursor;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.TransactionWork;
+import org.neo4j.driver.v1.exceptions.BulkWriteException;
+import org.neo4j.driver.v1.exceptions.TransientException;
+import org.neo4j.driver.v1.summary.BulkWriteSummary;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+import static org.neo4j.driver.internal.util.Futures.failedFuture;
+import static org.neo4j.driver.v1.util.TestUtil.await;
+
+public class InternalBulkWriterTest
+{
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void shouldWriteRowsInPipelinedBatches()
+    {
+        Transaction tx = transactionMock();
+        Session session = sessionMock( tx );
+        BulkWriter writer = newWriter( () -> session, "CREATE ({id: row.id})" )
+                .withBatchSize( 3 )
+                .withBatchesPerTransaction( 2 )
+                .withParallelism( 1 );
+
+        BulkWriteSummary summary = writer.write( rows( 10 ) );
+
+        assertEquals( 10, summary.rows() );
+        assertEquals( 4, summary.batches() );
+        assertEquals( 2, summary.transactions() );
+        assertThat( summary.maxBatchLatency( TimeUnit.NANOSECONDS ),
+                greaterThanOrEqualTo( summary.meanBatchLatency( TimeUnit.NANOSECONDS ) ) );
+        verify( session, times( 2 ) ).writeTransactionAsync( any() );
+        verify( session ).closeAsync();
+
+        ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass( Map.class );
+        verify( tx, times( 4 ) ).runAsync( eq( "UNWIND $rows AS row CREATE ({id: row.id})" ), parameters.capture() );
+        List<Integer> batchSizes = new ArrayList<>();
+        for ( Map<String,Object> batchParameters : parameters.getAllValues() )
+        {
+            batchSizes.add( ((List<?>) batchParameters.get( "rows" )).size() );
+        }
+        assertEquals( asList( 3, 3, 3, 1 ), batchSizes );
+    }
+
+    @Test
+    public void shouldRunTransactionsInParallel()
+    {
+        List<CompletableFuture<Object>> transactions = new ArrayList<>();
+        List<Session> sessions = new ArrayList<>();
+        BulkWriter writer = newWriter( () ->
+        {
+            Session session = mock( Session.class );
+            when( session.writeTransactionAsync( any() ) ).then( invocation ->
+            {
+                CompletableFuture<Object> transaction = new CompletableFuture<>();
+                transactions.add( transaction );
+                return transaction;
+            } );
+            when( session.closeAsync() ).thenReturn( completedWithNull() );
+            sessions.add( session );
+            return session;
+        }, "CREATE ()" ).withBatchSize( 1 ).withBatchesPerTransaction( 1 ).withParallelism( 3 );
+
+        CompletionStage<BulkWriteSummary> summaryStage = writer.writeAsync( rows( 4 ) );
+
+        assertEquals( 3, sessions.size() );
+        assertEquals( 3, transactions.size() );
+        assertFalse( summaryStage.toCompletableFuture().isDone() );
+
+        transactions.get( 0 ).complete( new long[]{1} );
+        assertEquals( 4, transactions.size() );
+        for ( CompletableFuture<Object> transaction : transactions )
+        {
+            transaction.complete( new long[]{1} );
+        }
+
+        BulkWriteSummary summary = await( summaryStage );
+        assertEquals( 4, summary.rows() );
+        assertEquals( 4, summary.transactions() );
+        for ( Session session : sessions )
+        {
+            verify( session ).closeAsync();
+        }
+    }
+
+    @Test
+    public void shouldStopWritingWhenTransactionFails()
+    {
+        TransientException error = new TransientException( "Neo.TransientError.General.DatabaseUnavailable", "Unavailable" );
+        Session session = mock( Session.class );
+        when( session.writeTransactionAsync( any() ) ).thenReturn( failedFuture( error ) );
+        when( session.closeAsync() ).thenReturn( completedWithNull() );
+        BulkWriter writer = newWriter( () -> session, "CREATE ()" ).withBatchSize( 1 ).withParallelism( 1 );
+
+        try
+        {
+            writer.write( rows( 100 ) );
+            fail( "Exception expected" );
+        }
+        catch ( BulkWriteException e )
+        {
+            assertSame( error, e.getCause() );
+            assertEquals( 0, e.summary().rows() );
+        }
+        verify( session ).writeTransactionAsync( any() );
+        verify( session ).closeAsync();
+    }
+
+    @Test
+    public void shouldAttachSummaryOfCommittedRowsToFailure()
+    {
+        TransientException error = new TransientException( "Neo.TransientError.General.DatabaseUnavailable", "Unavailable" );
+        Session session = mock( Session.class );
+        when( session.writeTransactionAsync( any() ) )
+                .thenReturn( completedFuture( new long[]{1, 1} ) )
+                .thenReturn( failedFuture( error ) );
+        when( session.closeAsync() ).thenReturn( completedWithNull() );
+        BulkWriter writer = newWriter( () -> session, "CREATE ()" )
+                .withBatchSize( 5 )
+                .withBatchesPerTransaction( 2 )
+                .withParallelism( 1 );
+
+        try
+        {
+            writer.write( rows( 100 ) );
+            fail( "Exception expected" );
+        }
+        catch ( BulkWriteException e )
+        {
+            assertSame( error, e.getCause() );
+            assertEquals( 10, e.summary().rows() );
+            assertEquals( 2, e.summary().batches() );
+            assertEquals( 1, e.summary().transactions() );
+        }
+    }
+
+    @Test
+    public void shouldPullRowsOnGivenExecutor()
+    {
+        Queue<Runnable> pulls = new ArrayDeque<>();
+        CompletableFuture<Object> transaction = new CompletableFuture<>();
+        Session session = mock( Session.class );
+        when( session.writeTransactionAsync( any() ) ).thenReturn( transaction );
+        when( session.closeAsync() ).thenReturn( completedWithNull() );
+        CountingIterable rows = new CountingIterable( rows( 2 ) );
+        BulkWriter writer = new InternalBulkWriter( () -> session, "CREATE ()", pulls::add )
+                .withBatchSize( 1 )
+                .withBatchesPerTransaction( 1 )
+                .withParallelism( 1 );
+
+        CompletionStage<BulkWriteSummary> summaryStage = writer.writeAsync( rows );
+        assertEquals( 0, rows.pulled );
+
+        pulls.poll().run();
+        assertEquals( 1, rows.pulled );
+
+        // completion of the transaction, normally on an IO thread, only schedules the next pull
+        transaction.complete( new long[]{1} );
+        assertEquals( 1, rows.pulled );
+
+        pulls.poll().run();
+        assertEquals( 2, rows.pulled );
+        pulls.poll().run();
+
+        assertEquals( 2, await( summaryStage ).rows() );
+    }
+
+    @Test
+    public void shouldNotStartTransactionsForNoRows()
+    {
+        Session session = sessionMock( transactionMock() );
+        BulkWriter writer = newWriter( () -> session, "CREATE ()" );
+
+        BulkWriteSummary summary = writer.write( new ArrayList<>() );
+
+        assertEquals( 0, summary.rows() );
+        assertEquals( 0, summary.elapsed( TimeUnit.NANOSECONDS ) );
+        assertEquals( 0.0, summary.rowsPerSecond(), 0.0 );
+        verify( session, never() ).writeTransactionAsync( any() );
+    }
+
+    @Test
+    public void shouldRejectNonPositiveSettings()
+    {
+        BulkWriter writer = new InternalBulkWriter( () -> mock( Session.class ), "CREATE ()" );
+
+        assertTrue( rejects( () -> writer.withBatchSize( 0 ) ) );
+        assertTrue( rejects( () -> writer.withBatchesPerTransaction( -1 ) ) );
+        assertTrue( rejects( () -> writer.withParallelism( 0 ) ) );
+    }
+
+    private static boolean rejects( Runnable action )
+    {
+        try
+        {
+            action.run();
+            return false;
+        }
+        catch ( IllegalArgumentException e )
+        {
+            return true;
+        }
+    }
+
+    private static BulkWriter newWriter( Supplier<Session> sessionSupplier, String statementTemplate )
+    {
+        return new InternalBulkWriter( sessionSupplier, statementTemplate, Runnable::run );
+    }
+
+    private static List<Map<String,Object>> rows( int count )
+    {
+        List<Map<String,Object>> rows = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            rows.add( singletonMap( "id", i ) );
+        }
+        return rows;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Transaction transactionMock()
+    {
+        StatementResultCursor cursor = mock( StatementResultCursor.class );
+        when( cursor.consumeAsync() ).thenReturn( completedFuture( mock( ResultSummary.class ) ) );
+        Transaction tx = mock( Transaction.class );
+        when( tx.runAsync( anyString(), anyMap() ) ).thenReturn( completedFuture( cursor ) );
+        return tx;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Session sessionMock( Transaction tx )
+    {
+        Session session = mock( Session.class );
+        when( session.writeTransactionAsync( any() ) ).then( invocation ->
+                ((TransactionWork<CompletionStage<?>>) invocation.getArguments()[0]).execute( tx ) );
+        when( session.closeAsync() ).thenReturn( completedWithNull() );
+        return session;
+    }
+
+    private static class CountingIterable implements Iterable<Map<String,Object>>
+    {
+        final List<Map<String,Object>> rows;
+        int pulled;
+
+        CountingIterable( List<Map<String,Object>> rows )
+        {
+            this.rows = rows;
+        }
+
+        @Override
+        public Iterator<Map<String,Object>> iterator()
+        {
+            Iterator<Map<String,Object>> delegate = rows.iterator();
+            return new Iterator<Map<String,Object>>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return delegate.hasNext();
+                }
+
+                @Override
+                public Map<String,Object> next()
+                {
+                    pulled++;
+                    return delegate.next();
+                }
+            };
+        }
+    }
+}
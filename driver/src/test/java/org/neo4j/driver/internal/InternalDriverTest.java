@@ -70,6 +70,29 @@ public class InternalDriverTest
         assertEquals( connectivityStage, driver.verifyConnectivity() );
     }
 
+    @Test
+    public void shouldDrainGivenAddress()
+    {
+        SessionFactory sessionFactory = sessionFactoryMock();
+        CompletableFuture<Void> drainStage = new CompletableFuture<>();
+        when( sessionFactory.drain( new BoltServerAddress( "neo4j-1", 7688 ) ) ).thenReturn( drainStage );
+
+        InternalDriver driver = newDriver( sessionFactory );
+
+        assertEquals( drainStage, driver.drain( "neo4j-1:7688" ) );
+    }
+
+    @Test
+    public void shouldEndDrainOfGivenAddressWithDefaultPort()
+    {
+        SessionFactory sessionFactory = sessionFactoryMock();
+        InternalDriver driver = newDriver( sessionFactory );
+
+        driver.endDrain( "neo4j-1" );
+
+        verify( sessionFactory ).endDrain( new BoltServerAddress( "neo4j-1", 7687 ) );
+    }
+
     private static InternalDriver newDriver( SessionFactory sessionFactory )
     {
         return new InternalDriver( SecurityPlan.insecure(), sessionFactory, DEV_NULL_METRICS, DEV_NULL_LOGGING );
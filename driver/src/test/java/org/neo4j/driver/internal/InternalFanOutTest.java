@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.neo4j.driver.v1.FanOut;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResultCursor;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.TransactionWork;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.util.Consumer;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+import static org.neo4j.driver.internal.util.Futures.failedFuture;
+import static org.neo4j.driver.v1.Values.value;
+import static org.neo4j.driver.v1.util.TestUtil.await;
+
+public class InternalFanOutTest
+{
+    @Test
+    public void shouldListRecordsOfAllPartitionsInOrder()
+    {
+        FanOut fanOut = new InternalFanOut( () -> sessionMock( 1 ), "RETURN $id", partitions( 5 ) ).withParallelism( 2 );
+
+        List<Record> records = fanOut.list();
+
+        assertEquals( 5, records.size() );
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertEquals( i, records.get( i ).get( "id" ).asInt() );
+        }
+    }
+
+    @Test
+    public void shouldStartEveryRetryOfPartitionFromIdentity()
+    {
+        FanOut fanOut = new InternalFanOut( () -> sessionMock( 2 ), "RETURN $id", partitions( 4 ) );
+
+        long sum = fanOut.reduce( 0L, ( acc, record ) -> acc + record.get( "id" ).asLong(), Long::sum );
+
+        assertEquals( 0 + 1 + 2 + 3, sum );
+    }
+
+    @Test
+    public void shouldLimitAmountOfConcurrentPartitions()
+    {
+        List<CompletableFuture<Object>> transactions = new ArrayList<>();
+        List<Session> sessions = new ArrayList<>();
+        FanOut fanOut = new InternalFanOut( () ->
+        {
+            Session session = mock( Session.class );
+            when( session.readTransactionAsync( any() ) ).then( invocation ->
+            {
+                CompletableFuture<Object> transaction = new CompletableFuture<>();
+                transactions.add( transaction );
+                return transaction;
+            } );
+            when( session.closeAsync() ).thenReturn( completedWithNull() );
+            sessions.add( session );
+            return session;
+        }, "RETURN 1", partitions( 5 ) ).withParallelism( 2 );
+
+        CompletionStage<List<Record>> recordsStage = fanOut.listAsync();
+
+        assertEquals( 2, sessions.size() );
+        assertEquals( 2, transactions.size() );
+        assertFalse( recordsStage.toCompletableFuture().isDone() );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            transactions.get( i ).complete( singletonList( record( i ) ) );
+        }
+
+        assertEquals( 5, await( recordsStage ).size() );
+        assertEquals( 5, transactions.size() );
+        for ( Session session : sessions )
+        {
+            verify( session ).closeAsync();
+        }
+    }
+
+    @Test
+    public void shouldFailWhenPartitionFails()
+    {
+        SessionExpiredException error = new SessionExpiredException( "Reader is gone" );
+        Session session = mock( Session.class );
+        when( session.readTransactionAsync( any() ) ).thenReturn( failedFuture( error ) );
+        when( session.closeAsync() ).thenReturn( completedWithNull() );
+        FanOut fanOut = new InternalFanOut( () -> session, "RETURN $id", partitions( 3 ) ).withParallelism( 1 );
+
+        try
+        {
+            fanOut.list();
+            fail( "Exception expected" );
+        }
+        catch ( SessionExpiredException e )
+        {
+            assertSame( error, e );
+        }
+        verify( session ).readTransactionAsync( any() );
+        verify( session ).closeAsync();
+    }
+
+    @Test
+    public void shouldReturnEmptyResultForNoPartitions()
+    {
+        FanOut fanOut = new InternalFanOut( () -> sessionMock( 1 ), "RETURN 1", new ArrayList<>() );
+
+        assertEquals( 0, fanOut.list().size() );
+        assertEquals( "none", fanOut.reduce( "none", ( acc, record ) -> acc + record, String::concat ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldRejectNonPositiveParallelism()
+    {
+        new InternalFanOut( () -> mock( Session.class ), "RETURN 1", partitions( 1 ) ).withParallelism( 0 );
+    }
+
+    private static List<Map<String,Object>> partitions( int count )
+    {
+        List<Map<String,Object>> partitions = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            partitions.add( singletonMap( "id", i ) );
+        }
+        return partitions;
+    }
+
+    private static Record record( int id )
+    {
+        return new InternalRecord( asList( "id" ), new Value[]{value( id )} );
+    }
+
+    /**
+     * Session that returns the partition id as the only record and executes every transaction the given amount of
+     * times, like retry logic would after transient failures.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static Session sessionMock( int attempts )
+    {
+        Transaction tx = mock( Transaction.class );
+        when( tx.runAsync( anyString(), anyMap() ) ).then( invocation ->
+        {
+            Record record = record( (Integer) ((Map<String,Object>) invocation.getArguments()[1]).get( "id" ) );
+            StatementResultCursor cursor = mock( StatementResultCursor.class );
+            when( cursor.listAsync() ).thenReturn( completedFuture( singletonList( record ) ) );
+            when( cursor.forEachAsync( any() ) ).then( forEach ->
+            {
+                ((Consumer<Record>) forEach.getArguments()[0]).accept( record );
+                return completedFuture( mock( ResultSummary.class ) );
+            } );
+            return completedFuture( cursor );
+        } );
+
+        Session session = mock( Session.class );
+        when( session.readTransactionAsync( any() ) ).then( invocation ->
+        {
+            TransactionWork<CompletionStage<?>> work = (TransactionWork<CompletionStage<?>>) invocation.getArguments()[0];
+            CompletionStage<?> result = null;
+            for ( int i = 0; i < attempts; i++ )
+            {
+                result = work.execute( tx );
+            }
+            return result;
+        } );
+        when( session.closeAsync() ).thenReturn( completedWithNull() );
+        return session;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.v1.reactive.Subscriber;
+import org.neo4j.driver.v1.reactive.Subscription;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.driver.internal.util.Futures.failedFuture;
+
+public class InternalRecordPublisherTest
+{
+    @Test
+    public void shouldRunStatementOnlyWhenSubscribed()
+    {
+        InternalStatementResultCursor cursor = mock( InternalStatementResultCursor.class );
+        AtomicInteger runs = new AtomicInteger();
+        InternalRecordPublisher publisher = new InternalRecordPublisher( () ->
+        {
+            runs.incrementAndGet();
+            return completedFuture( cursor );
+        } );
+        assertEquals( 0, runs.get() );
+
+        Subscriber<Record> subscriber = subscriberMock();
+        publisher.subscribe( subscriber );
+
+        assertEquals( 1, runs.get() );
+        verify( cursor ).subscribe( subscriber );
+    }
+
+    @Test
+    public void shouldSignalRunFailureToSubscriber()
+    {
+        ServiceUnavailableException error = new ServiceUnavailableException( "Unable to connect" );
+        InternalRecordPublisher publisher = new InternalRecordPublisher( () -> failedFuture( error ) );
+
+        Subscriber<Record> subscriber = subscriberMock();
+        publisher.subscribe( subscriber );
+
+        InOrder inOrder = inOrder( subscriber );
+        inOrder.verify( subscriber ).onSubscribe( InternalRecordPublisher.CANCELLED_SUBSCRIPTION );
+        inOrder.verify( subscriber ).onError( error );
+    }
+
+    @Test
+    public void shouldRejectSecondSubscriberWithoutRunningStatementAgain()
+    {
+        AtomicInteger runs = new AtomicInteger();
+        InternalRecordPublisher publisher = new InternalRecordPublisher( () ->
+        {
+            runs.incrementAndGet();
+            return completedFuture( mock( InternalStatementResultCursor.class ) );
+        } );
+        publisher.subscribe( subscriberMock() );
+
+        RejectionRecordingSubscriber subscriber = new RejectionRecordingSubscriber();
+        publisher.subscribe( subscriber );
+
+        assertEquals( 1, runs.get() );
+        assertEquals( InternalRecordPublisher.CANCELLED_SUBSCRIPTION, subscriber.subscription );
+        assertThat( subscriber.error, instanceOf( IllegalStateException.class ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Subscriber<Record> subscriberMock()
+    {
+        return mock( Subscriber.class );
+    }
+
+    private static class RejectionRecordingSubscriber implements Subscriber<Record>
+    {
+        Subscription subscription;
+        Throwable error;
+
+        @Override
+        public void onSubscribe( Subscription subscription )
+        {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext( Record record )
+        {
+        }
+
+        @Override
+        public void onError( Throwable error )
+        {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete()
+        {
+        }
+    }
+}
@@ -37,6 +37,7 @@ import org.neo4j.driver.v1.exceptions.NoSuchRecordException;
 import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.summary.StatementType;
+import org.neo4j.driver.v1.util.Consumer;
 import org.neo4j.driver.v1.util.Function;
 import org.neo4j.driver.v1.util.Functions;
 
@@ -50,8 +51,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.driver.internal.util.Futures.completedWithNull;
@@ -204,9 +205,7 @@ public class InternalStatementResultCursorTest
         Record record1 = new InternalRecord( asList( "key1", "key2", "key3" ), values( 1, 1, 1 ) );
         Record record2 = new InternalRecord( asList( "key1", "key2", "key3" ), values( 2, 2, 2 ) );
         Record record3 = new InternalRecord( asList( "key1", "key2", "key3" ), values( 3, 3, 3 ) );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedFuture( record1 ) )
-                .thenReturn( completedFuture( record2 ) ).thenReturn( completedFuture( record3 ) )
-                .thenReturn( completedWithNull() );
+        stubForEachAsync( pullAllHandler, record1, record2, record3 );
 
         ResultSummary summary = mock( ResultSummary.class );
         when( pullAllHandler.summaryAsync() ).thenReturn( completedFuture( summary ) );
@@ -226,8 +225,7 @@ public class InternalStatementResultCursorTest
         PullAllResponseHandler pullAllHandler = mock( PullAllResponseHandler.class );
 
         Record record = new InternalRecord( asList( "key1", "key2", "key3" ), values( 1, 1, 1 ) );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedFuture( record ) )
-                .thenReturn( completedWithNull() );
+        stubForEachAsync( pullAllHandler, record );
 
         ResultSummary summary = mock( ResultSummary.class );
         when( pullAllHandler.summaryAsync() ).thenReturn( completedFuture( summary ) );
@@ -245,7 +243,7 @@ public class InternalStatementResultCursorTest
     public void shouldForEachAsyncWhenResultContainsNoRecords()
     {
         PullAllResponseHandler pullAllHandler = mock( PullAllResponseHandler.class );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedWithNull() );
+        stubForEachAsync( pullAllHandler );
 
         ResultSummary summary = mock( ResultSummary.class );
         when( pullAllHandler.summaryAsync() ).thenReturn( completedFuture( summary ) );
@@ -267,9 +265,7 @@ public class InternalStatementResultCursorTest
         Record record1 = new InternalRecord( asList( "key1", "key2" ), values( 1, 1 ) );
         Record record2 = new InternalRecord( asList( "key1", "key2" ), values( 2, 2 ) );
         Record record3 = new InternalRecord( asList( "key1", "key2" ), values( 3, 3 ) );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedFuture( record1 ) )
-                .thenReturn( completedFuture( record2 ) ).thenReturn( completedFuture( record3 ) )
-                .thenReturn( completedWithNull() );
+        stubForEachAsync( pullAllHandler, record1, record2, record3 );
 
         InternalStatementResultCursor cursor = newCursor( pullAllHandler );
 
@@ -298,7 +294,6 @@ public class InternalStatementResultCursorTest
             assertEquals( error, e );
         }
         assertEquals( 1, recordsProcessed.get() );
-        verify( pullAllHandler, times( 2 ) ).nextAsync();
     }
 
     @Test
@@ -432,6 +427,27 @@ public class InternalStatementResultCursorTest
         }
     }
 
+    @SuppressWarnings( "unchecked" )
+    private static void stubForEachAsync( PullAllResponseHandler pullAllHandler, Record... records )
+    {
+        when( pullAllHandler.forEachAsync( any( Consumer.class ) ) ).thenAnswer( invocation ->
+        {
+            Consumer<Record> action = (Consumer<Record>) invocation.getArguments()[0];
+            try
+            {
+                for ( Record record : records )
+                {
+                    action.accept( record );
+                }
+                return completedWithNull();
+            }
+            catch ( Throwable error )
+            {
+                return failedFuture( error );
+            }
+        } );
+    }
+
     private static InternalStatementResultCursor newCursor( PullAllResponseHandler pullAllHandler )
     {
         return new InternalStatementResultCursor( new RunResponseHandler( new CompletableFuture<>() ), pullAllHandler );
@@ -35,7 +35,6 @@ import org.neo4j.driver.internal.value.NullValue;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
-import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.exceptions.NoSuchRecordException;
 import org.neo4j.driver.v1.util.Pair;
@@ -406,7 +405,7 @@ public class InternalStatementResultTest
         }
         pullAllHandler.onSuccess( emptyMap() );
 
-        StatementResultCursor cursor = new InternalStatementResultCursor( runHandler, pullAllHandler );
+        InternalStatementResultCursor cursor = new InternalStatementResultCursor( runHandler, pullAllHandler );
         return new InternalStatementResult( connection, cursor );
     }
 
@@ -17,6 +17,7 @@
  */
 package org.neo4j.driver.internal;
 
+import io.netty.util.concurrent.EventExecutorGroup;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -219,6 +220,27 @@ public class NetworkSessionTest
         inOrder.verify( connection, atLeastOnce() ).release();
     }
 
+    @Test
+    public void reusesConnectionForConsecutiveStatementsWithConnectionAffinity()
+    {
+        String query = "RETURN 1";
+        setupSuccessfulPullAll( query );
+        when( connection.isOpen() ).thenReturn( true );
+        when( connection.isActive() ).thenReturn( true );
+        NetworkSession session = new NetworkSession( connectionProvider, READ, new FixedRetryLogic( 0 ),
+                DEV_NULL_LOGGING, -1, mock( EventExecutorGroup.class ), 1000 );
+
+        session.run( query );
+        session.run( query );
+
+        verify( connectionProvider ).acquireConnection( READ );
+        verify( connection, times( 2 ) ).runAndFlush( eq( query ), any(), any(), any() );
+        verify( connection, never() ).release();
+
+        await( session.closeAsync() );
+        verify( connection ).release();
+    }
+
     @SuppressWarnings( "deprecation" )
     @Test
     public void resetDoesNothingWhenNoTransactionAndNoConnection()
@@ -83,6 +83,25 @@ public class NettyConnectionTest
         assertTrue( connection.isOpen() );
     }
 
+    @Test
+    public void shouldBeActiveAfterCreated()
+    {
+        NettyConnection connection = newConnection( newChannel() );
+        assertTrue( connection.isActive() );
+    }
+
+    @Test
+    public void shouldNotBeActiveAfterChannelClosed()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        channel.close();
+
+        assertTrue( connection.isOpen() );
+        assertFalse( connection.isActive() );
+    }
+
     @Test
     public void shouldNotBeOpenAfterRelease()
     {
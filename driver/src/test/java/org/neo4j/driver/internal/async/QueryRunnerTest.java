@@ -102,7 +102,7 @@ public class QueryRunnerTest
         }
         else
         {
-            cursorStage = runInTransaction( connection, STATEMENT, mock( ExplicitTransaction.class ), false );
+            cursorStage = runInTransaction( connection, STATEMENT, mock( ExplicitTransaction.class ), -1, false );
         }
         CompletableFuture<InternalStatementResultCursor> cursorFuture = cursorStage.toCompletableFuture();
 
@@ -122,7 +122,7 @@ public class QueryRunnerTest
         }
         else
         {
-            cursorStage = runInTransaction( connection, STATEMENT, mock( ExplicitTransaction.class ), true );
+            cursorStage = runInTransaction( connection, STATEMENT, mock( ExplicitTransaction.class ), -1, true );
         }
         CompletableFuture<InternalStatementResultCursor> cursorFuture = cursorStage.toCompletableFuture();
 
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async;
+
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.v1.exceptions.ClientException;
+
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+import static org.neo4j.driver.v1.AccessMode.READ;
+import static org.neo4j.driver.v1.AccessMode.WRITE;
+
+public class StickyConnectionTest
+{
+    private static final long IDLE_TIMEOUT_MILLIS = 500;
+
+    private Connection delegate;
+    private EventExecutorGroup eventExecutorGroup;
+    private ScheduledFuture<?> idleTimeout;
+    private StickyConnection connection;
+
+    @Before
+    public void setUp()
+    {
+        delegate = mock( Connection.class );
+        when( delegate.isOpen() ).thenReturn( true );
+        when( delegate.isActive() ).thenReturn( true );
+        when( delegate.release() ).thenReturn( completedWithNull() );
+        eventExecutorGroup = mock( EventExecutorGroup.class );
+        idleTimeout = mock( ScheduledFuture.class );
+        doReturn( idleTimeout ).when( eventExecutorGroup ).schedule( any( Runnable.class ), anyLong(), any() );
+        connection = new StickyConnection( delegate, READ, eventExecutorGroup, IDLE_TIMEOUT_MILLIS );
+    }
+
+    @Test
+    public void shouldKeepReleasedConnectionForReuse()
+    {
+        connection.release();
+
+        verify( delegate, never() ).release();
+        assertTrue( connection.tryReuse( READ ) );
+    }
+
+    @Test
+    public void shouldReleaseIdleConnectionWhenIdleTimeoutExpires()
+    {
+        connection.release();
+
+        idleTimeoutTask().run();
+
+        verify( delegate ).release();
+        assertFalse( connection.tryReuse( READ ) );
+    }
+
+    @Test
+    public void shouldCancelIdleTimeoutWhenReused()
+    {
+        connection.release();
+
+        assertTrue( connection.tryReuse( READ ) );
+
+        verify( idleTimeout ).cancel( false );
+    }
+
+    @Test
+    public void shouldNotReleaseReusedConnectionWhenCancelledIdleTimeoutRuns()
+    {
+        connection.release();
+        assertTrue( connection.tryReuse( READ ) );
+
+        // timeout task might already be running when it is cancelled
+        idleTimeoutTask().run();
+
+        verify( delegate, never() ).release();
+    }
+
+    @Test
+    public void shouldCancelIdleTimeoutWhenReleasedRightAway()
+    {
+        connection.release();
+
+        connection.releaseNow();
+
+        verify( idleTimeout ).cancel( false );
+    }
+
+    @Test
+    public void shouldCancelIdleTimeoutWhenTerminated()
+    {
+        connection.release();
+
+        connection.terminateAndRelease( "Bye" );
+
+        verify( idleTimeout ).cancel( false );
+        verify( delegate ).terminateAndRelease( "Bye" );
+    }
+
+    @Test
+    public void shouldReleaseIdleConnectionWhenReusedForDifferentAccessMode()
+    {
+        connection.release();
+
+        assertFalse( connection.tryReuse( WRITE ) );
+        verify( delegate ).release();
+    }
+
+    @Test
+    public void shouldReleaseIdleConnectionWhenChannelClosedBeforeReuse()
+    {
+        connection.release();
+        // server or network closed the channel while connection was idle, its status is still open
+        when( delegate.isActive() ).thenReturn( false );
+
+        assertFalse( connection.tryReuse( READ ) );
+        verify( delegate ).release();
+        assertFalse( connection.tryReuse( READ ) );
+    }
+
+    @Test
+    public void shouldNotKeepConnectionWithClosedChannel()
+    {
+        when( delegate.isActive() ).thenReturn( false );
+
+        connection.release();
+
+        verify( delegate ).release();
+        assertFalse( connection.tryReuse( READ ) );
+    }
+
+    @Test
+    public void shouldReleaseConnectionAfterFailure()
+    {
+        ResponseHandler pullAllHandler = mock( ResponseHandler.class );
+        connection.runAndFlush( "RETURN 1", emptyMap(), mock( ResponseHandler.class ), pullAllHandler );
+        ArgumentCaptor<ResponseHandler> captor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( delegate ).runAndFlush( eq( "RETURN 1" ), eq( emptyMap() ), any(), captor.capture() );
+
+        ClientException error = new ClientException( "Hi" );
+        captor.getValue().onFailure( error );
+        verify( pullAllHandler ).onFailure( error );
+
+        connection.release();
+        verify( delegate ).release();
+        assertFalse( connection.tryReuse( READ ) );
+    }
+
+    @Test
+    public void shouldReleaseConnectionAfterReset()
+    {
+        when( delegate.reset() ).thenReturn( completedWithNull() );
+
+        connection.reset();
+        connection.release();
+
+        verify( delegate ).release();
+    }
+
+    @Test
+    public void shouldReleaseIdleConnectionRightAway()
+    {
+        connection.release();
+
+        connection.releaseNow();
+
+        verify( delegate ).release();
+        assertFalse( connection.tryReuse( READ ) );
+    }
+
+    private Runnable idleTimeoutTask()
+    {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass( Runnable.class );
+        verify( eventExecutorGroup ).schedule( captor.capture(), eq( IDLE_TIMEOUT_MILLIS ), eq( MILLISECONDS ) );
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.metrics.MetricsListener;
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.async.pool.AdaptiveConnectionLimit.ADJUSTMENT_INTERVAL_MILLIS;
+import static org.neo4j.driver.internal.logging.DevNullLogger.DEV_NULL_LOGGER;
+
+public class AdaptiveConnectionLimitTest
+{
+    private static final BoltServerAddress ADDRESS = new BoltServerAddress( "localhost", 7687 );
+    private static final EventExecutor EXECUTOR = GlobalEventExecutor.INSTANCE;
+
+    private final FakeClock clock = new FakeClock();
+    private final MetricsListener metrics = mock( MetricsListener.class );
+
+    @Test
+    public void shouldStartWithMinSize()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+
+        assertEquals( 2, limit.limit() );
+        verify( metrics ).afterPoolSizeChanged( ADDRESS, 2 );
+    }
+
+    @Test
+    public void shouldGrantPermitsUpToLimit()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+
+        assertTrue( limit.acquire( EXECUTOR, -1 ).isSuccess() );
+        assertTrue( limit.acquire( EXECUTOR, -1 ).isSuccess() );
+        assertFalse( limit.acquire( EXECUTOR, -1 ).isDone() );
+    }
+
+    @Test
+    public void shouldGrantWaitingPermitOnRelease()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 1, 10 );
+        assertTrue( limit.acquire( EXECUTOR, -1 ).isSuccess() );
+        Future<Void> waiting = limit.acquire( EXECUTOR, -1 );
+        assertFalse( waiting.isDone() );
+
+        limit.release();
+
+        assertTrue( waiting.isSuccess() );
+    }
+
+    @Test
+    public void shouldFailImmediatelyWhenLimitReachedAndTimeoutIsZero()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 1, 10 );
+        assertTrue( limit.acquire( EXECUTOR, 0 ).isSuccess() );
+
+        Future<Void> permit = limit.acquire( EXECUTOR, 0 );
+
+        assertTrue( permit.isDone() );
+        assertThat( permit.cause(), instanceOf( TimeoutException.class ) );
+    }
+
+    @Test
+    public void shouldFailWhenPermitNotAvailableWithinTimeout() throws Exception
+    {
+        AdaptiveConnectionLimit limit = newLimit( 1, 10 );
+        assertTrue( limit.acquire( EXECUTOR, 100 ).isSuccess() );
+
+        Future<Void> permit = limit.acquire( EXECUTOR, 100 );
+
+        try
+        {
+            permit.get( 10, TimeUnit.SECONDS );
+            fail( "Exception expected" );
+        }
+        catch ( ExecutionException e )
+        {
+            assertThat( e.getCause(), instanceOf( TimeoutException.class ) );
+        }
+    }
+
+    @Test
+    public void shouldCancelTimeoutWhenWaitingPermitIsGranted()
+    {
+        EventExecutor executor = mock( EventExecutor.class );
+        // promise listeners are notified on the completing thread, so the timeout is cancelled synchronously
+        when( executor.newPromise() ).then( invocation -> ImmediateEventExecutor.INSTANCE.newPromise() );
+        ScheduledFuture<?> timeoutFuture = mock( ScheduledFuture.class );
+        doReturn( timeoutFuture ).when( executor ).schedule( any( Runnable.class ), anyLong(), any( TimeUnit.class ) );
+
+        AdaptiveConnectionLimit limit = newLimit( 1, 10 );
+        assertTrue( limit.acquire( executor, 100 ).isSuccess() );
+        Future<Void> waiting = limit.acquire( executor, 100 );
+        verify( timeoutFuture, never() ).cancel( false );
+
+        limit.release();
+
+        assertTrue( waiting.isSuccess() );
+        verify( timeoutFuture ).cancel( false );
+    }
+
+    @Test
+    public void shouldGrowWhenAcquisitionsWaitAndLatencyIsFlat()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+        acquire( limit, 2 );
+        Future<Void> waiting1 = limit.acquire( EXECUTOR, -1 );
+        Future<Void> waiting2 = limit.acquire( EXECUTOR, -1 );
+
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 1000 );
+
+        assertEquals( 4, limit.limit() );
+        assertTrue( waiting1.isSuccess() );
+        assertTrue( waiting2.isSuccess() );
+        verify( metrics ).afterPoolSizeChanged( ADDRESS, 4 );
+    }
+
+    @Test
+    public void shouldGrowWhenAcquisitionsAreRedirected()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+        acquire( limit, 2 );
+        limit.acquisitionRedirected();
+
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.acquisitionRedirected();
+
+        assertEquals( 4, limit.limit() );
+        assertTrue( limit.acquire( EXECUTOR, -1 ).isSuccess() );
+    }
+
+    @Test
+    public void shouldNotChangeLimitMoreOftenThanAdjustmentInterval()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+        acquire( limit, 2 );
+        limit.acquire( EXECUTOR, -1 );
+
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS - 1 );
+        limit.responseReceived( ADDRESS, 1000 );
+
+        assertEquals( 2, limit.limit() );
+    }
+
+    @Test
+    public void shouldNotGrowAboveMaxSize()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 3 );
+        acquire( limit, 2 );
+        for ( int i = 0; i < 5; i++ )
+        {
+            limit.acquire( EXECUTOR, -1 );
+        }
+
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 1000 );
+
+        assertEquals( 3, limit.limit() );
+    }
+
+    @Test
+    public void shouldShrinkWhenLatencyClimbs()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+        acquire( limit, 2 );
+        limit.acquire( EXECUTOR, -1 );
+        limit.acquire( EXECUTOR, -1 );
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 1000 );
+        assertEquals( 4, limit.limit() );
+
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 10_000 );
+
+        assertEquals( 3, limit.limit() );
+        verify( metrics ).afterPoolSizeChanged( ADDRESS, 3 );
+    }
+
+    @Test
+    public void shouldNotShrinkBelowMinSize()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 1000 );
+
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 10_000 );
+
+        assertEquals( 2, limit.limit() );
+    }
+
+    @Test
+    public void shouldNotGrantPermitsAboveShrunkLimit()
+    {
+        AdaptiveConnectionLimit limit = newLimit( 2, 10 );
+        acquire( limit, 2 );
+        limit.acquire( EXECUTOR, -1 );
+        limit.acquire( EXECUTOR, -1 );
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 1000 );
+        clock.progress( ADJUSTMENT_INTERVAL_MILLIS );
+        limit.responseReceived( ADDRESS, 10_000 );
+        assertEquals( 3, limit.limit() );
+
+        Future<Void> waiting = limit.acquire( EXECUTOR, -1 );
+        limit.release();
+        assertFalse( waiting.isDone() );
+
+        limit.release();
+        assertTrue( waiting.isSuccess() );
+    }
+
+    private AdaptiveConnectionLimit newLimit( int minSize, int maxSize )
+    {
+        return new AdaptiveConnectionLimit( ADDRESS, minSize, maxSize, clock, metrics, DEV_NULL_LOGGER );
+    }
+
+    private static void acquire( AdaptiveConnectionLimit limit, int times )
+    {
+        for ( int i = 0; i < times; i++ )
+        {
+            assertTrue( limit.acquire( EXECUTOR, -1 ).isSuccess() );
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChannelCountsTest
+{
+    private final ChannelCounts counts = new ChannelCounts();
+
+    @Test
+    public void shouldBeEmptyInitially()
+    {
+        assertEquals( 0, counts.inUse() );
+        assertEquals( 0, counts.idle() );
+    }
+
+    @Test
+    public void shouldCountCreatedChannelsAsInUse()
+    {
+        counts.channelCreated();
+        counts.channelCreated();
+
+        assertEquals( 2, counts.inUse() );
+        assertEquals( 0, counts.idle() );
+    }
+
+    @Test
+    public void shouldMoveReleasedChannelsToIdle()
+    {
+        counts.channelCreated();
+        counts.channelCreated();
+
+        counts.channelReleased();
+
+        assertEquals( 1, counts.inUse() );
+        assertEquals( 1, counts.idle() );
+    }
+
+    @Test
+    public void shouldMoveAcquiredChannelsToInUse()
+    {
+        counts.channelCreated();
+        counts.channelReleased();
+
+        counts.channelAcquired();
+
+        assertEquals( 1, counts.inUse() );
+        assertEquals( 0, counts.idle() );
+    }
+
+    @Test
+    public void shouldForgetClosedIdleChannels()
+    {
+        counts.channelCreated();
+        counts.channelCreated();
+        counts.channelReleased();
+        counts.channelReleased();
+
+        counts.channelClosed();
+
+        assertEquals( 0, counts.inUse() );
+        assertEquals( 1, counts.idle() );
+    }
+
+    @Test
+    public void shouldCountConcurrentAcquisitionsAndReleases() throws Exception
+    {
+        int threadCount = 8;
+        int iterations = 10_000;
+        for ( int i = 0; i < threadCount; i++ )
+        {
+            counts.channelCreated();
+            counts.channelReleased();
+        }
+
+        Thread[] threads = new Thread[threadCount];
+        for ( int i = 0; i < threadCount; i++ )
+        {
+            threads[i] = new Thread( () ->
+            {
+                for ( int j = 0; j < iterations; j++ )
+                {
+                    counts.channelAcquired();
+                    counts.channelReleased();
+                }
+            } );
+            threads[i].start();
+        }
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        assertEquals( 0, counts.inUse() );
+        assertEquals( threadCount, counts.idle() );
+    }
+
+    @Test
+    public void shouldIncludeCountsInToString()
+    {
+        counts.channelCreated();
+        counts.channelCreated();
+        counts.channelReleased();
+
+        assertEquals( "ChannelCounts{inUse=1, idle=1}", counts.toString() );
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.junit.Test;
+
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.internal.async.pool.CircuitBreaker.MINIMUM_ATTEMPTS;
+import static org.neo4j.driver.internal.async.pool.CircuitBreaker.WINDOW_SIZE;
+
+public class CircuitBreakerTest
+{
+    private static final long COOL_DOWN = 1000;
+
+    private final FakeClock clock = new FakeClock();
+    private final CircuitBreaker breaker = new CircuitBreaker( 0.5, COOL_DOWN, clock );
+
+    @Test
+    public void shouldAllowAcquisitionsWhenClosed()
+    {
+        assertFalse( breaker.isOpen() );
+        assertTrue( breaker.allowAcquisition() );
+    }
+
+    @Test
+    public void shouldNotOpenBeforeMinimumAttempts()
+    {
+        fail( MINIMUM_ATTEMPTS - 1 );
+
+        assertFalse( breaker.isOpen() );
+        assertTrue( breaker.allowAcquisition() );
+    }
+
+    @Test
+    public void shouldOpenWhenFailureRateReachesThreshold()
+    {
+        succeed( MINIMUM_ATTEMPTS / 2 );
+        fail( MINIMUM_ATTEMPTS - MINIMUM_ATTEMPTS / 2 );
+
+        assertTrue( breaker.isOpen() );
+        assertFalse( breaker.allowAcquisition() );
+    }
+
+    @Test
+    public void shouldStayClosedWhenFailureRateIsBelowThreshold()
+    {
+        succeed( WINDOW_SIZE );
+        fail( WINDOW_SIZE / 2 - 1 );
+
+        assertFalse( breaker.isOpen() );
+    }
+
+    @Test
+    public void shouldForgetOutcomesOutsideOfWindow()
+    {
+        fail( MINIMUM_ATTEMPTS - 1 );
+        succeed( WINDOW_SIZE );
+        fail( WINDOW_SIZE / 2 - 1 );
+
+        assertFalse( breaker.isOpen() );
+    }
+
+    @Test
+    public void shouldLetSingleTrialThroughAfterCoolDown()
+    {
+        fail( MINIMUM_ATTEMPTS );
+        assertFalse( breaker.allowAcquisition() );
+
+        clock.progress( COOL_DOWN );
+
+        assertFalse( breaker.isOpen() );
+        assertTrue( breaker.allowAcquisition() );
+        assertFalse( breaker.allowAcquisition() );
+        // address should not be selected while its trial is in progress
+        assertTrue( breaker.isOpen() );
+    }
+
+    @Test
+    public void shouldCloseWhenTrialSucceeds()
+    {
+        fail( MINIMUM_ATTEMPTS );
+        clock.progress( COOL_DOWN );
+        assertTrue( breaker.allowAcquisition() );
+
+        breaker.succeeded();
+
+        assertTrue( breaker.allowAcquisition() );
+        assertTrue( breaker.allowAcquisition() );
+        // failures before the trial are forgotten
+        fail( MINIMUM_ATTEMPTS - 1 );
+        assertFalse( breaker.isOpen() );
+    }
+
+    @Test
+    public void shouldOpenAgainWhenTrialFails()
+    {
+        fail( MINIMUM_ATTEMPTS );
+        clock.progress( COOL_DOWN );
+        assertTrue( breaker.allowAcquisition() );
+
+        breaker.failed();
+
+        assertTrue( breaker.isOpen() );
+        assertFalse( breaker.allowAcquisition() );
+        clock.progress( COOL_DOWN );
+        assertTrue( breaker.allowAcquisition() );
+    }
+
+    @Test
+    public void shouldLetAnotherTrialThroughWhenTrialIsIgnored()
+    {
+        fail( MINIMUM_ATTEMPTS );
+        clock.progress( COOL_DOWN );
+        assertTrue( breaker.allowAcquisition() );
+
+        breaker.ignored();
+
+        assertFalse( breaker.isOpen() );
+        assertTrue( breaker.allowAcquisition() );
+    }
+
+    private void fail( int times )
+    {
+        for ( int i = 0; i < times; i++ )
+        {
+            breaker.failed();
+        }
+    }
+
+    private void succeed( int times )
+    {
+        for ( int i = 0; i < times; i++ )
+        {
+            breaker.succeeded();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.junit.Test;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.ConnectionSettings;
@@ -43,10 +44,14 @@ import org.neo4j.driver.v1.util.TestNeo4j;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -192,7 +197,7 @@ public class ConnectionPoolImplIT
     }
 
     @Test
-    public void shouldNotClosePoolsWithActiveConnectionsWhenRetaining()
+    public void shouldClosePoolsWithActiveConnectionsWhenRetaining()
     {
         NettyChannelTracker nettyChannelTracker = mock( NettyChannelTracker.class );
         TestConnectionPool pool = new TestConnectionPool( nettyChannelTracker );
@@ -206,9 +211,94 @@ public class ConnectionPoolImplIT
         when( nettyChannelTracker.inUseChannelCount( ADDRESS_3 ) ).thenReturn( 0 );
 
         pool.retainAll( singleton( ADDRESS_2 ) );
-        verify( pool.getPool( ADDRESS_1 ), never() ).close();
+        ChannelPool closedPool = pool.getPool( ADDRESS_1 );
+        verify( closedPool ).close();
         verify( pool.getPool( ADDRESS_2 ), never() ).close();
         verify( pool.getPool( ADDRESS_3 ) ).close();
+
+        // address that left the routing table is not drained, it can be used again when it comes back
+        pool.acquire( ADDRESS_1 );
+        assertNotSame( closedPool, pool.getPool( ADDRESS_1 ) );
+    }
+
+    @Test
+    public void shouldFailAcquisitionsUntilDrainCompletes()
+    {
+        NettyChannelTracker nettyChannelTracker = mock( NettyChannelTracker.class );
+        TestConnectionPool pool = new TestConnectionPool( nettyChannelTracker );
+        CompletableFuture<Void> inUseChannelsReleased = new CompletableFuture<>();
+        when( nettyChannelTracker.inUseChannelsReleased( ADDRESS_1 ) ).thenReturn( inUseChannelsReleased );
+        pool.acquire( ADDRESS_1 );
+        ChannelPool drainedPool = pool.getPool( ADDRESS_1 );
+
+        CompletableFuture<Void> drained = pool.drain( ADDRESS_1 ).toCompletableFuture();
+
+        verify( drainedPool ).close();
+        assertFalse( pool.isOpen( ADDRESS_1 ) );
+        assertFalse( drained.isDone() );
+        assertDrainedAcquisitionFails( pool, ADDRESS_1 );
+
+        inUseChannelsReleased.complete( null );
+        assertTrue( drained.isDone() );
+
+        pool.acquire( ADDRESS_1 );
+        ChannelPool newPool = pool.getPool( ADDRESS_1 );
+        assertNotSame( drainedPool, newPool );
+        verify( newPool ).acquire();
+    }
+
+    @Test
+    public void shouldKeepDrainWhenAddressIsRetained()
+    {
+        NettyChannelTracker nettyChannelTracker = mock( NettyChannelTracker.class );
+        TestConnectionPool pool = new TestConnectionPool( nettyChannelTracker );
+        when( nettyChannelTracker.inUseChannelsReleased( ADDRESS_1 ) ).thenReturn( new CompletableFuture<>() );
+        pool.acquire( ADDRESS_1 );
+
+        CompletableFuture<Void> drain = pool.drain( ADDRESS_1 ).toCompletableFuture();
+        // drained server is still a cluster member and comes back with the next routing table
+        pool.retainAll( singleton( ADDRESS_1 ) );
+
+        assertDrainedAcquisitionFails( pool, ADDRESS_1 );
+        assertSame( drain, pool.drain( ADDRESS_1 ) );
+    }
+
+    @Test
+    public void shouldCreateNewPoolWhenDrainIsEnded()
+    {
+        NettyChannelTracker nettyChannelTracker = mock( NettyChannelTracker.class );
+        TestConnectionPool pool = new TestConnectionPool( nettyChannelTracker );
+        CompletableFuture<Void> inUseChannelsReleased = new CompletableFuture<>();
+        when( nettyChannelTracker.inUseChannelsReleased( ADDRESS_1 ) ).thenReturn( inUseChannelsReleased );
+        pool.acquire( ADDRESS_1 );
+        ChannelPool drainedPool = pool.getPool( ADDRESS_1 );
+        CompletableFuture<Void> drained = pool.drain( ADDRESS_1 ).toCompletableFuture();
+
+        pool.endDrain( ADDRESS_1 );
+
+        pool.acquire( ADDRESS_1 );
+        ChannelPool newPool = pool.getPool( ADDRESS_1 );
+        assertNotSame( drainedPool, newPool );
+        verify( newPool ).acquire();
+        verify( newPool, never() ).close();
+
+        // connections of the drained pool are still awaited
+        assertFalse( drained.isDone() );
+        inUseChannelsReleased.complete( null );
+        assertTrue( drained.isDone() );
+    }
+
+    private static void assertDrainedAcquisitionFails( ConnectionPoolImpl pool, BoltServerAddress address )
+    {
+        try
+        {
+            await( pool.acquire( address ) );
+            fail( "Exception expected" );
+        }
+        catch ( ServiceUnavailableException e )
+        {
+            assertThat( e.getMessage(), containsString( "being drained" ) );
+        }
     }
 
     private ConnectionPoolImpl newPool() throws Exception
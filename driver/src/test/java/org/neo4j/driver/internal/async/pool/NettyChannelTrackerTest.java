@@ -21,11 +21,15 @@ import io.netty.channel.Channel;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.neo4j.driver.internal.BoltServerAddress;
 
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.neo4j.driver.internal.async.ChannelAttributes.setServerAddress;
 import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
@@ -173,6 +177,30 @@ public class NettyChannelTrackerTest
         assertEquals( 0, tracker.inUseChannelCount( address ) );
     }
 
+    @Test
+    public void shouldCompleteInUseChannelsReleasedWhenNoChannels()
+    {
+        assertTrue( tracker.inUseChannelsReleased( address ).toCompletableFuture().isDone() );
+    }
+
+    @Test
+    public void shouldCompleteInUseChannelsReleasedWhenLastChannelReleased()
+    {
+        Channel channel1 = newChannel();
+        Channel channel2 = newChannel();
+        tracker.channelCreated( channel1, null );
+        tracker.channelCreated( channel2, null );
+
+        CompletableFuture<Void> released = tracker.inUseChannelsReleased( address ).toCompletableFuture();
+        assertFalse( released.isDone() );
+
+        tracker.channelReleased( channel1 );
+        assertFalse( released.isDone() );
+
+        tracker.channelReleased( channel2 );
+        assertTrue( released.isDone() );
+    }
+
     private Channel newChannel()
     {
         EmbeddedChannel channel = new EmbeddedChannel();
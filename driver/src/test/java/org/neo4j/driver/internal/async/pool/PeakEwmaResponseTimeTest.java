@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.junit.Test;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.neo4j.driver.internal.async.pool.PeakEwmaResponseTime.DECAY_TIME_MILLIS;
+
+public class PeakEwmaResponseTimeTest
+{
+    private static final BoltServerAddress ADDRESS = new BoltServerAddress( "localhost", 7687 );
+
+    private final FakeClock clock = new FakeClock();
+    private final PeakEwmaResponseTime responseTime = new PeakEwmaResponseTime( clock );
+
+    @Test
+    public void shouldBeZeroWithoutResponses()
+    {
+        assertEquals( 0, responseTime.averageNanos() );
+    }
+
+    @Test
+    public void shouldJumpToPeak()
+    {
+        responseTime.responseReceived( ADDRESS, 100 );
+        responseTime.responseReceived( ADDRESS, 5_000 );
+
+        assertEquals( 5_000, responseTime.averageNanos() );
+    }
+
+    @Test
+    public void shouldMoveTowardsLowerResponseTimesWithTime()
+    {
+        responseTime.responseReceived( ADDRESS, 10_000 );
+
+        clock.progress( DECAY_TIME_MILLIS );
+        responseTime.responseReceived( ADDRESS, 1_000 );
+
+        assertThat( responseTime.averageNanos(), both( greaterThan( 1_000L ) ).and( lessThan( 10_000L ) ) );
+    }
+
+    @Test
+    public void shouldIgnoreLowerResponseTimesReceivedAtTheSameTime()
+    {
+        responseTime.responseReceived( ADDRESS, 10_000 );
+        responseTime.responseReceived( ADDRESS, 1_000 );
+
+        assertEquals( 10_000, responseTime.averageNanos() );
+    }
+
+    @Test
+    public void shouldDecayTowardsZeroWithoutResponses()
+    {
+        responseTime.responseReceived( ADDRESS, 10_000 );
+
+        clock.progress( DECAY_TIME_MILLIS );
+        long decayed = responseTime.averageNanos();
+        assertThat( decayed, both( greaterThan( 0L ) ).and( lessThan( 10_000L ) ) );
+
+        clock.progress( 100 * DECAY_TIME_MILLIS );
+        assertEquals( 0, responseTime.averageNanos() );
+    }
+}
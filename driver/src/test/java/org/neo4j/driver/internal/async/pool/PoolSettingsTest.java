@@ -68,6 +68,21 @@ public class PoolSettingsTest
         testMaxConnectionLifetimeWithIllegalValue( Integer.MIN_VALUE );
     }
 
+    @Test
+    public void adaptiveConnectionPoolSizeWhenConfigured()
+    {
+        PoolSettings settings = new PoolSettings( 5, -1, 10, 10, 2 );
+        assertTrue( settings.adaptiveConnectionPoolSizeEnabled() );
+        assertEquals( 2, settings.minConnectionPoolSize() );
+    }
+
+    @Test
+    public void adaptiveConnectionPoolSizeWhenNotConfigured()
+    {
+        PoolSettings settings = new PoolSettings( 5, -1, 10, 10 );
+        assertFalse( settings.adaptiveConnectionPoolSizeEnabled() );
+    }
+
     private static void testIdleTimeBeforeConnectionTestWithIllegalValue( int value )
     {
         PoolSettings settings = new PoolSettings( 5, -1, 10, value );
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.v1.AuthToken;
+import org.neo4j.driver.v1.AuthTokens;
+import org.neo4j.driver.v1.Config;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+import static org.neo4j.driver.v1.util.TestUtil.await;
+
+public class SharedConnectionPoolsTest
+{
+    private static final AuthToken AUTH_1 = AuthTokens.basic( "neo4j", "password" );
+    private static final AuthToken AUTH_2 = AuthTokens.basic( "reader", "secret" );
+    private static final BoltServerAddress ADDRESS = new BoltServerAddress( "localhost", 7687 );
+
+    private final List<Bootstrap> createdBootstraps = new ArrayList<>();
+    private final List<ConnectionPool> createdPools = new ArrayList<>();
+    private final SharedConnectionPools sharedPools = new SharedConnectionPools( () ->
+    {
+        Bootstrap bootstrap = new Bootstrap().group( new QuickShutdownEventLoopGroup() );
+        createdBootstraps.add( bootstrap );
+        return bootstrap;
+    } );
+
+    @After
+    public void tearDown()
+    {
+        for ( Bootstrap bootstrap : createdBootstraps )
+        {
+            bootstrap.config().group().shutdownGracefully().syncUninterruptibly();
+        }
+    }
+
+    @Test
+    public void shouldShareSamePoolForSameAuthTokenAndConfig()
+    {
+        Config config = Config.defaultConfig();
+
+        SharedConnectionPool pool1 = attach( AUTH_1, config );
+        SharedConnectionPool pool2 = attach( AuthTokens.basic( "neo4j", "password" ), config );
+
+        assertEquals( 1, createdPools.size() );
+        assertSame( pool1.bootstrap(), pool2.bootstrap() );
+        assertEquals( 2, sharedPools.attachedDriverCount() );
+    }
+
+    @Test
+    public void shouldUseDifferentPoolsButSameEventLoopGroupForDifferentAuthTokens()
+    {
+        Config config = Config.defaultConfig();
+
+        SharedConnectionPool pool1 = attach( AUTH_1, config );
+        SharedConnectionPool pool2 = attach( AUTH_2, config );
+
+        assertEquals( 2, createdPools.size() );
+        assertNotSame( createdPools.get( 0 ), createdPools.get( 1 ) );
+        assertSame( pool1.bootstrap(), pool2.bootstrap() );
+        assertEquals( 1, createdBootstraps.size() );
+    }
+
+    @Test
+    public void shouldUseDifferentPoolsForDifferentPoolSettings()
+    {
+        attach( AUTH_1, Config.build().withMaxConnectionPoolSize( 10 ).toConfig() );
+        attach( AUTH_1, Config.build().withMaxConnectionPoolSize( 20 ).toConfig() );
+
+        assertEquals( 2, createdPools.size() );
+    }
+
+    @Test
+    public void shouldClosePoolAndEventLoopGroupWhenLastDriverDetaches()
+    {
+        Config config = Config.defaultConfig();
+        SharedConnectionPool pool1 = attach( AUTH_1, config );
+        SharedConnectionPool pool2 = attach( AUTH_1, config );
+        ConnectionPool delegate = createdPools.get( 0 );
+        EventLoopGroup eventLoopGroup = pool1.bootstrap().config().group();
+
+        await( pool1.close() );
+        verify( delegate, never() ).close();
+        assertFalse( eventLoopGroup.isShuttingDown() );
+
+        await( pool2.close() );
+        verify( delegate ).close();
+        assertTrue( eventLoopGroup.isTerminated() );
+        assertEquals( 0, sharedPools.attachedDriverCount() );
+    }
+
+    @Test
+    public void shouldKeepEventLoopGroupWhileOtherPoolsUseIt()
+    {
+        Config config = Config.defaultConfig();
+        SharedConnectionPool pool1 = attach( AUTH_1, config );
+        SharedConnectionPool pool2 = attach( AUTH_2, config );
+        EventLoopGroup eventLoopGroup = pool1.bootstrap().config().group();
+
+        await( pool1.close() );
+        verify( createdPools.get( 0 ) ).close();
+        assertFalse( eventLoopGroup.isShuttingDown() );
+
+        await( pool2.close() );
+        assertTrue( eventLoopGroup.isTerminated() );
+    }
+
+    @Test
+    public void shouldAllowDetachingMultipleTimes()
+    {
+        SharedConnectionPool pool1 = attach( AUTH_1, Config.defaultConfig() );
+        SharedConnectionPool pool2 = attach( AUTH_1, Config.defaultConfig() );
+
+        await( pool1.close() );
+        await( pool1.close() );
+
+        assertEquals( 1, sharedPools.attachedDriverCount() );
+        verify( createdPools.get( 0 ), never() ).close();
+        await( pool2.close() );
+    }
+
+    @Test
+    public void shouldRetainAddressesNeededByAnyAttachedDriver()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "server-1", 7687 );
+        BoltServerAddress address2 = new BoltServerAddress( "server-2", 7687 );
+        BoltServerAddress address3 = new BoltServerAddress( "server-3", 7687 );
+
+        SharedConnectionPool pool1 = attach( AUTH_1, Config.defaultConfig() );
+        SharedConnectionPool pool2 = attach( AUTH_1, Config.defaultConfig() );
+        ConnectionPool delegate = createdPools.get( 0 );
+
+        pool1.retainAll( new HashSet<>( asList( address1, address2 ) ) );
+        // second driver did not update its routing table yet, so it still needs its initial router
+        verify( delegate ).retainAll( new HashSet<>( asList( address1, address2, ADDRESS ) ) );
+
+        pool2.retainAll( singleton( address3 ) );
+        verify( delegate ).retainAll( new HashSet<>( asList( address1, address2, address3 ) ) );
+
+        pool1.retainAll( singleton( address1 ) );
+        verify( delegate ).retainAll( new HashSet<>( asList( address1, address3 ) ) );
+    }
+
+    @Test
+    public void shouldRetainAddressOfDirectDriverWhenRoutingDriverUpdatesRoutingTable()
+    {
+        BoltServerAddress directAddress = new BoltServerAddress( "single", 7687 );
+        BoltServerAddress clusterAddress = new BoltServerAddress( "core-1", 7687 );
+
+        attach( AUTH_1, directAddress, Config.defaultConfig() );
+        SharedConnectionPool routingPool = attach( AUTH_1, ADDRESS, Config.defaultConfig() );
+        ConnectionPool delegate = createdPools.get( 0 );
+
+        routingPool.retainAll( singleton( clusterAddress ) );
+
+        verify( delegate ).retainAll( new HashSet<>( asList( directAddress, clusterAddress ) ) );
+    }
+
+    @Test
+    public void shouldReleaseAddressesOfDetachedDriver()
+    {
+        BoltServerAddress directAddress = new BoltServerAddress( "single", 7687 );
+        BoltServerAddress clusterAddress = new BoltServerAddress( "core-1", 7687 );
+
+        SharedConnectionPool directPool = attach( AUTH_1, directAddress, Config.defaultConfig() );
+        SharedConnectionPool routingPool = attach( AUTH_1, ADDRESS, Config.defaultConfig() );
+        ConnectionPool delegate = createdPools.get( 0 );
+        routingPool.retainAll( singleton( clusterAddress ) );
+
+        await( directPool.close() );
+
+        verify( delegate ).retainAll( singleton( clusterAddress ) );
+        verify( delegate, never() ).close();
+    }
+
+    private SharedConnectionPool attach( AuthToken authToken, Config config )
+    {
+        return attach( authToken, ADDRESS, config );
+    }
+
+    private SharedConnectionPool attach( AuthToken authToken, BoltServerAddress address, Config config )
+    {
+        return sharedPools.attach( authToken, address, config, () -> DEV_NULL_METRICS, ( bootstrap, metrics ) ->
+        {
+            ConnectionPool pool = mock( ConnectionPool.class );
+            when( pool.close() ).thenReturn( completedWithNull() );
+            createdPools.add( pool );
+            return pool;
+        } );
+    }
+
+    /**
+     * Event loop group that terminates without the default quiet period, pools are mocked so there is no I/O to
+     * wait for.
+     */
+    private static class QuickShutdownEventLoopGroup extends DefaultEventLoopGroup
+    {
+        QuickShutdownEventLoopGroup()
+        {
+            super( 1 );
+        }
+
+        @Override
+        public Future<?> shutdownGracefully()
+        {
+            return shutdownGracefully( 0, 0, SECONDS );
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.neo4j.driver.internal.BoltServerAddress;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class AddressSetTest
 {
@@ -141,6 +142,21 @@ public class AddressSetTest
         assertEquals( 2, addressSet.size() );
     }
 
+    @Test
+    public void shouldKeepArrayWhenUpdatedWithSameAddresses()
+    {
+        AddressSet addressSet = new AddressSet();
+        addressSet.update( addresses( "one", "two" ) );
+        BoltServerAddress[] array = addressSet.toArray();
+
+        addressSet.update( addresses( "one", "two" ) );
+        assertSame( array, addressSet.toArray() );
+
+        addressSet.update( addresses( "two", "one" ) );
+        assertArrayEquals( new BoltServerAddress[]{new BoltServerAddress( "two" ), new BoltServerAddress( "one" )},
+                addressSet.toArray() );
+    }
+
     private static Set<BoltServerAddress> addresses( String... strings )
     {
         Set<BoltServerAddress> set = new LinkedHashSet<>();
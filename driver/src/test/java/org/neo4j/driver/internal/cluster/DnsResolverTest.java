@@ -21,15 +21,25 @@ import org.junit.Test;
 
 import java.net.UnknownHostException;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.metrics.InternalMetrics;
+import org.neo4j.driver.internal.util.FakeClock;
+import org.neo4j.driver.v1.Config;
 import org.neo4j.driver.v1.Logger;
 
+import static java.util.Collections.singleton;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
+import static org.neo4j.driver.v1.util.TestUtil.await;
 
 public class DnsResolverTest
 {
@@ -38,28 +48,28 @@ public class DnsResolverTest
     @Test
     public void shouldResolveDNSToIPs()
     {
-        Set<BoltServerAddress> resolve = resolver.resolve( new BoltServerAddress( "google.com", 80 ) );
+        Set<BoltServerAddress> resolve = await( resolver.resolve( new BoltServerAddress( "google.com", 80 ) ) );
         assertThat( resolve.size(), greaterThanOrEqualTo( 1 ) );
     }
 
     @Test
     public void shouldResolveLocalhostIPDNSToIPs()
     {
-        Set<BoltServerAddress> resolve = resolver.resolve( new BoltServerAddress( "127.0.0.1", 80 ) );
+        Set<BoltServerAddress> resolve = await( resolver.resolve( new BoltServerAddress( "127.0.0.1", 80 ) ) );
         assertThat( resolve.size(), greaterThanOrEqualTo( 1 ) );
     }
 
     @Test
     public void shouldResolveLocalhostDNSToIPs()
     {
-        Set<BoltServerAddress> resolve = resolver.resolve( new BoltServerAddress( "localhost", 80 ) );
+        Set<BoltServerAddress> resolve = await( resolver.resolve( new BoltServerAddress( "localhost", 80 ) ) );
         assertThat( resolve.size(), greaterThanOrEqualTo( 1 ) );
     }
 
     @Test
     public void shouldResolveIPv6LocalhostDNSToIPs()
     {
-        Set<BoltServerAddress> resolve = resolver.resolve( new BoltServerAddress( "[::1]", 80 ) );
+        Set<BoltServerAddress> resolve = await( resolver.resolve( new BoltServerAddress( "[::1]", 80 ) ) );
         assertThat( resolve.size(), greaterThanOrEqualTo( 1 ) );
     }
 
@@ -68,8 +78,75 @@ public class DnsResolverTest
     {
         Logger logger = mock( Logger.class );
         DnsResolver resolver = new DnsResolver( logger );
-        Set<BoltServerAddress> resolve = resolver.resolve( new BoltServerAddress( "[/]", 80 ) );
+        Set<BoltServerAddress> resolve = await( resolver.resolve( new BoltServerAddress( "[/]", 80 ) ) );
         verify( logger ).error( any( String.class ), any( UnknownHostException.class ) );
         assertThat( resolve.size(), greaterThanOrEqualTo( 1 ) );
     }
+
+    @Test
+    public void shouldCacheResolvedAddressesUntilTtlExpires()
+    {
+        CountingExecutor executor = new CountingExecutor();
+        FakeClock clock = new FakeClock();
+        DnsResolver resolver = new DnsResolver( executor, clock, DEV_NULL_METRICS, mock( Logger.class ), 1_000, 100 );
+        BoltServerAddress address = new BoltServerAddress( "127.0.0.1", 7687 );
+
+        Set<BoltServerAddress> first = await( resolver.resolve( address ) );
+        clock.progress( 999 );
+        Set<BoltServerAddress> second = await( resolver.resolve( address ) );
+
+        assertEquals( singleton( address ), first );
+        assertEquals( first, second );
+        assertEquals( 1, executor.executions.get() );
+
+        clock.progress( 1 );
+        assertEquals( singleton( address ), await( resolver.resolve( address ) ) );
+        assertEquals( 2, executor.executions.get() );
+    }
+
+    @Test
+    public void shouldCacheFailedResolutionForNegativeTtl()
+    {
+        CountingExecutor executor = new CountingExecutor();
+        FakeClock clock = new FakeClock();
+        Logger logger = mock( Logger.class );
+        DnsResolver resolver = new DnsResolver( executor, clock, DEV_NULL_METRICS, logger, 1_000, 100 );
+        BoltServerAddress address = new BoltServerAddress( "[/]", 7687 );
+
+        assertEquals( singleton( address ), await( resolver.resolve( address ) ) );
+        clock.progress( 99 );
+        assertEquals( singleton( address ), await( resolver.resolve( address ) ) );
+        assertEquals( 1, executor.executions.get() );
+
+        clock.progress( 1 );
+        assertEquals( singleton( address ), await( resolver.resolve( address ) ) );
+        assertEquals( 2, executor.executions.get() );
+        verify( logger, times( 2 ) ).error( any( String.class ), any( UnknownHostException.class ) );
+    }
+
+    @Test
+    public void shouldRecordResolutionTime()
+    {
+        InternalMetrics metrics = new InternalMetrics( Config.defaultConfig() );
+        DnsResolver resolver = new DnsResolver( new CountingExecutor(), new FakeClock(), metrics, mock( Logger.class ),
+                1_000, 100 );
+
+        await( resolver.resolve( new BoltServerAddress( "127.0.0.1", 7687 ) ) );
+        await( resolver.resolve( new BoltServerAddress( "127.0.0.1", 7687 ) ) );
+        await( resolver.resolve( new BoltServerAddress( "[/]", 7687 ) ) );
+
+        assertEquals( 2, metrics.hostNameResolutionTimeHistogram().totalCount() );
+    }
+
+    private static class CountingExecutor implements Executor
+    {
+        final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public void execute( Runnable command )
+        {
+            executions.incrementAndGet();
+            command.run();
+        }
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.A;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.B;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.C;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.D;
+import static org.neo4j.driver.internal.logging.DevNullLogger.DEV_NULL_LOGGER;
+import static org.neo4j.driver.v1.util.TestUtil.asOrderedSet;
+
+public class FileRoutingTableSnapshotTest
+{
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder( new File( "target" ) );
+
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    public void shouldLoadSavedComposition() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing.properties" );
+        FileRoutingTableSnapshot snapshot = newSnapshot( file );
+
+        snapshot.save( new ClusterComposition( clock.millis() + 300, asOrderedSet( A, B ), asOrderedSet( C ),
+                asOrderedSet( A ) ) );
+        clock.progress( 100 );
+
+        ClusterComposition loaded = newSnapshot( file ).load();
+        assertEquals( new ClusterComposition( clock.millis() + 300, asOrderedSet( A, B ), asOrderedSet( C ),
+                asOrderedSet( A ) ), loaded );
+    }
+
+    @Test
+    public void shouldLoadCompositionThatNeverExpires()
+    {
+        File file = new File( testDir.getRoot(), "routing.properties" );
+        FileRoutingTableSnapshot snapshot = newSnapshot( file );
+
+        snapshot.save( new ClusterComposition( Long.MAX_VALUE, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet( C ) ) );
+
+        assertEquals( Long.MAX_VALUE, snapshot.load().expirationTimestamp() );
+    }
+
+    @Test
+    public void shouldReturnNullWhenFileDoesNotExist()
+    {
+        File file = new File( testDir.getRoot(), "missing.properties" );
+
+        assertNull( newSnapshot( file ).load() );
+    }
+
+    @Test
+    public void shouldReturnNullWhenFileIsCorrupted() throws Exception
+    {
+        File file = testDir.newFile( "routing.properties" );
+        Files.write( file.toPath(), singletonList( "readers=::not an address::" ), UTF_8 );
+
+        assertNull( newSnapshot( file ).load() );
+    }
+
+    @Test
+    public void shouldReturnNullWhenSavedCompositionHasNoRouters()
+    {
+        File file = new File( testDir.getRoot(), "routing.properties" );
+        FileRoutingTableSnapshot snapshot = newSnapshot( file );
+
+        snapshot.save( new ClusterComposition( clock.millis() + 300, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet() ) );
+
+        assertNull( snapshot.load() );
+    }
+
+    @Test
+    public void shouldNotRewriteFileWhenServersDidNotChange() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing.properties" );
+        FileRoutingTableSnapshot snapshot = newSnapshot( file );
+
+        snapshot.save( new ClusterComposition( clock.millis() + 300, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet( C ) ) );
+        Files.delete( file.toPath() );
+        snapshot.save( new ClusterComposition( clock.millis() + 500, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet( C ) ) );
+
+        assertFalse( file.exists() );
+    }
+
+    @Test
+    public void shouldNotRewriteLoadedCompositionWhenServersDidNotChange() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing.properties" );
+        newSnapshot( file ).save( new ClusterComposition( clock.millis() + 300, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet( C ) ) );
+
+        FileRoutingTableSnapshot snapshot = newSnapshot( file );
+        assertNotNull( snapshot.load() );
+        Files.delete( file.toPath() );
+        snapshot.save( new ClusterComposition( clock.millis() + 500, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet( C ) ) );
+
+        assertFalse( file.exists() );
+    }
+
+    @Test
+    public void shouldWriteFileOnDedicatedExecutor()
+    {
+        File file = new File( testDir.getRoot(), "routing.properties" );
+        List<Runnable> tasks = new ArrayList<>();
+        FileRoutingTableSnapshot snapshot = new FileRoutingTableSnapshot( file, A, tasks::add, clock,
+                DEV_NULL_LOGGER );
+
+        snapshot.save( new ClusterComposition( clock.millis() + 300, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet( C ) ) );
+        assertFalse( file.exists() );
+        assertEquals( 1, tasks.size() );
+
+        tasks.get( 0 ).run();
+        assertTrue( file.exists() );
+    }
+
+    @Test
+    public void shouldReturnNullWhenSavedForDifferentInitialRouter()
+    {
+        File file = new File( testDir.getRoot(), "routing.properties" );
+        newSnapshot( file ).save( new ClusterComposition( clock.millis() + 300, asOrderedSet( A ), asOrderedSet( B ),
+                asOrderedSet( C ) ) );
+
+        assertNull( new FileRoutingTableSnapshot( file, D, Runnable::run, clock, DEV_NULL_LOGGER ).load() );
+    }
+
+    private FileRoutingTableSnapshot newSnapshot( File file )
+    {
+        return new FileRoutingTableSnapshot( file, A, Runnable::run, clock, DEV_NULL_LOGGER );
+    }
+}
@@ -23,9 +23,12 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.pool.CircuitBreakerOpenException;
 import org.neo4j.driver.internal.cluster.ClusterCompositionResponse.Failure;
 import org.neo4j.driver.internal.cluster.ClusterCompositionResponse.Success;
 import org.neo4j.driver.internal.spi.Connection;
@@ -75,7 +78,7 @@ public class RediscoveryTest
         responsesByAddress.put( B, new Success( expectedComposition ) ); // first -> valid cluster composition
 
         ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
-        Rediscovery rediscovery = newRediscovery( A, compositionProvider, mock( HostNameResolver.class ) );
+        Rediscovery rediscovery = newRediscovery( A, compositionProvider, hostNameResolverMock( A ) );
         RoutingTable table = routingTableMock( B );
 
         ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
@@ -96,7 +99,7 @@ public class RediscoveryTest
         responsesByAddress.put( C, new Success( expectedComposition ) ); // third -> valid cluster composition
 
         ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
-        Rediscovery rediscovery = newRediscovery( A, compositionProvider, mock( HostNameResolver.class ) );
+        Rediscovery rediscovery = newRediscovery( A, compositionProvider, hostNameResolverMock( A ) );
         RoutingTable table = routingTableMock( A, B, C );
 
         ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
@@ -107,6 +110,26 @@ public class RediscoveryTest
         verify( table, never() ).forget( C );
     }
 
+    @Test
+    public void shouldNotForgetRouterRejectedByCircuitBreaker()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B ), asOrderedSet( B ), asOrderedSet( A, B ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new CircuitBreakerOpenException( "Circuit is open" ) ); // first -> skipped
+        responsesByAddress.put( B, new Success( expectedComposition ) ); // second -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newRediscovery( A, compositionProvider, hostNameResolverMock( A ) );
+        RoutingTable table = routingTableMock( A, B );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        verify( table, never() ).forget( any() );
+    }
+
     @Test
     public void shouldFailImmediatelyOnAuthError()
     {
@@ -118,7 +141,7 @@ public class RediscoveryTest
         responsesByAddress.put( B, authError ); // second router -> fatal auth error
 
         ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
-        Rediscovery rediscovery = newRediscovery( A, compositionProvider, mock( HostNameResolver.class ) );
+        Rediscovery rediscovery = newRediscovery( A, compositionProvider, hostNameResolverMock( A ) );
         RoutingTable table = routingTableMock( A, B, C );
 
         try
@@ -169,7 +192,7 @@ public class RediscoveryTest
         responsesByAddress.put( C, new Success( validComposition ) ); // second -> valid cluster composition
 
         ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
-        Rediscovery rediscovery = newRediscovery( A, compositionProvider, mock( HostNameResolver.class ) );
+        Rediscovery rediscovery = newRediscovery( A, compositionProvider, hostNameResolverMock( A ) );
         RoutingTable table = routingTableMock( B, C );
 
         try
@@ -219,7 +242,7 @@ public class RediscoveryTest
         responsesByAddress.put( C, new IOException( "Hi!" ) ); // third -> non-fatal failure
 
         ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
-        Rediscovery rediscovery = newRediscovery( A, compositionProvider, mock( HostNameResolver.class ) );
+        Rediscovery rediscovery = newRediscovery( A, compositionProvider, hostNameResolverMock( A ) );
         RoutingTable table = routingTableMock( A, B, C );
 
         try
@@ -315,9 +338,9 @@ public class RediscoveryTest
 
         ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
         HostNameResolver resolver = mock( HostNameResolver.class );
-        when( resolver.resolve( A ) ).thenReturn( asOrderedSet( A ) )
-                .thenReturn( asOrderedSet( A ) )
-                .thenReturn( asOrderedSet( E ) );
+        when( resolver.resolve( A ) ).thenReturn( completedFuture( asOrderedSet( A ) ) )
+                .thenReturn( completedFuture( asOrderedSet( A ) ) )
+                .thenReturn( completedFuture( asOrderedSet( E ) ) );
 
         ImmediateSchedulingEventExecutor eventExecutor = new ImmediateSchedulingEventExecutor();
         RoutingSettings settings = new RoutingSettings( maxRoutingFailures, retryTimeoutDelay );
@@ -365,6 +388,142 @@ public class RediscoveryTest
         assertEquals( 0, eventExecutor.scheduleDelays().size() );
     }
 
+    @Test
+    public void shouldQueryNextRouterAfterHedgeDelay()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B ), asOrderedSet( B, C ), asOrderedSet( A, B ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new CompletableFuture<>() ); // first -> never responds
+        responsesByAddress.put( B, new Success( expectedComposition ) ); // second -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, 10 );
+        RoutingTable table = routingTableMock( A, B );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        verify( table, never() ).forget( any() );
+    }
+
+    @Test
+    public void shouldNotForgetRouterWhenHedgedLookupFailsAfterAnotherOneSucceeded()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B ), asOrderedSet( B, C ), asOrderedSet( A, B ) );
+
+        CompletableFuture<ClusterCompositionResponse> slowResponse = new CompletableFuture<>();
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, slowResponse ); // first -> fails after the second one responds
+        responsesByAddress.put( B, new Success( expectedComposition ) ); // second -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, 10 );
+        RoutingTable table = routingTableMock( A, B );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+        slowResponse.completeExceptionally( new ServiceUnavailableException( "Hi!" ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        verify( table, never() ).forget( any() );
+    }
+
+    @Test
+    public void shouldNotQueryNextRouterWhenFirstRespondsWithinHedgeDelay()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B ), asOrderedSet( B, C ), asOrderedSet( A, B ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new Success( expectedComposition ) ); // first -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, TimeUnit.MINUTES.toMillis( 1 ) );
+        RoutingTable table = routingTableMock( A, B );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        verify( pool, never() ).acquire( B );
+    }
+
+    @Test
+    public void shouldQueryNextRouterWithoutHedgeDelayWhenLookupFails()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B ), asOrderedSet( B, C ), asOrderedSet( A, B ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new ServiceUnavailableException( "Hi!" ) ); // first -> non-fatal failure
+        responsesByAddress.put( B, new Success( expectedComposition ) ); // second -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, TimeUnit.MINUTES.toMillis( 1 ) );
+        RoutingTable table = routingTableMock( A, B );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        verify( table ).forget( A );
+    }
+
+    @Test
+    public void shouldQueryAllRoutersInParallelWithZeroHedgeDelay()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B, C ), asOrderedSet( B, C ), asOrderedSet( A, B, C ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new CompletableFuture<>() ); // first -> never responds
+        responsesByAddress.put( B, new CompletableFuture<>() ); // second -> never responds
+        responsesByAddress.put( C, new Success( expectedComposition ) ); // third -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, 0 );
+        RoutingTable table = routingTableMock( A, B, C );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+    }
+
+    @Test
+    public void shouldFailHedgedLookupWhenNoRoutersRespond()
+    {
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new ServiceUnavailableException( "Hi!" ) );
+        responsesByAddress.put( B, new SessionExpiredException( "Hi!" ) );
+        responsesByAddress.put( E, new IOException( "Hi!" ) );
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        RoutingSettings settings = new RoutingSettings( 1, 0, RoutingContext.EMPTY, -1, 0 );
+        Rediscovery rediscovery = new Rediscovery( E, settings, compositionProvider, hostNameResolverMock( E, E ),
+                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGER, false );
+        RoutingTable table = routingTableMock( A, B );
+
+        try
+        {
+            await( rediscovery.lookupClusterComposition( table, pool ) );
+            fail( "Exception expected" );
+        }
+        catch ( ServiceUnavailableException e )
+        {
+            assertEquals( "Could not perform discovery. No routing servers available.", e.getMessage() );
+        }
+        verify( table ).forget( A );
+        verify( table ).forget( B );
+        verify( table ).forget( E );
+    }
+
+    private Rediscovery newHedgingRediscovery( ClusterCompositionProvider compositionProvider, long hedgeDelay )
+    {
+        RoutingSettings settings = new RoutingSettings( 1, 0, RoutingContext.EMPTY, -1, hedgeDelay );
+        return new Rediscovery( A, settings, compositionProvider, mock( HostNameResolver.class ),
+                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGER, false );
+    }
+
     private Rediscovery newRediscovery( BoltServerAddress initialRouter, ClusterCompositionProvider compositionProvider,
             HostNameResolver hostNameResolver )
     {
@@ -394,6 +553,10 @@ public class RediscoveryTest
             {
                 return failedFuture( (Throwable) response );
             }
+            else if ( response instanceof CompletionStage )
+            {
+                return response;
+            }
             else
             {
                 return completedFuture( response );
@@ -405,7 +568,7 @@ public class RediscoveryTest
     private static HostNameResolver hostNameResolverMock( BoltServerAddress address, BoltServerAddress... resolved )
     {
         HostNameResolver resolver = mock( HostNameResolver.class );
-        when( resolver.resolve( address ) ).thenReturn( asOrderedSet( resolved ) );
+        when( resolver.resolve( address ) ).thenReturn( completedFuture( asOrderedSet( resolved ) ) );
         return resolver;
     }
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster;
+
+import org.junit.Test;
+
+import static java.util.Collections.emptySet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.A;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.B;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.C;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.D;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.E;
+import static org.neo4j.driver.v1.util.TestUtil.asOrderedSet;
+
+public class RoutingTableDiffTest
+{
+    @Test
+    public void shouldReportAllServersAsAddedWithoutPreviousComposition()
+    {
+        RoutingTableDiff diff = RoutingTableDiff.between( null,
+                new ClusterComposition( 42, asOrderedSet( A, B ), asOrderedSet( C ), asOrderedSet( A, D ) ) );
+
+        assertEquals( asOrderedSet( A, B, C, D ), diff.addedServers() );
+        assertEquals( emptySet(), diff.removedServers() );
+        assertEquals( emptySet(), diff.roleChangedServers() );
+    }
+
+    @Test
+    public void shouldBeEmptyForSameServersInDifferentOrder()
+    {
+        RoutingTableDiff diff = RoutingTableDiff.between(
+                new ClusterComposition( 42, asOrderedSet( A, B ), asOrderedSet( C ), asOrderedSet( A, B ) ),
+                new ClusterComposition( 4242, asOrderedSet( B, A ), asOrderedSet( C ), asOrderedSet( B, A ) ) );
+
+        assertTrue( diff.isEmpty() );
+    }
+
+    @Test
+    public void shouldReportAddedRemovedAndRoleChangedServers()
+    {
+        RoutingTableDiff diff = RoutingTableDiff.between(
+                new ClusterComposition( 42, asOrderedSet( A, B ), asOrderedSet( C ), asOrderedSet( A, D ) ),
+                new ClusterComposition( 42, asOrderedSet( A, C ), asOrderedSet( B ), asOrderedSet( A, E ) ) );
+
+        assertFalse( diff.isEmpty() );
+        assertEquals( asOrderedSet( E ), diff.addedServers() );
+        assertEquals( asOrderedSet( D ), diff.removedServers() );
+        assertEquals( asOrderedSet( C, B ), diff.roleChangedServers() );
+    }
+}
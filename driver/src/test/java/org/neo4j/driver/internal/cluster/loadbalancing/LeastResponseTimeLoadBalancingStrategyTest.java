@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+
+public class LeastResponseTimeLoadBalancingStrategyTest
+{
+    @Mock
+    private ConnectionPool connectionPool;
+    private LeastResponseTimeLoadBalancingStrategy strategy;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        initMocks( this );
+        strategy = new LeastResponseTimeLoadBalancingStrategy( connectionPool, DEV_NULL_LOGGING );
+    }
+
+    @Test
+    public void shouldHandleEmptyReadersArray()
+    {
+        assertNull( strategy.selectReader( new BoltServerAddress[0] ) );
+    }
+
+    @Test
+    public void shouldHandleEmptyWritersArray()
+    {
+        assertNull( strategy.selectWriter( new BoltServerAddress[0] ) );
+    }
+
+    @Test
+    public void shouldSelectReaderWithLowestResponseTime()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "reader", 2 );
+        BoltServerAddress address3 = new BoltServerAddress( "reader", 3 );
+
+        when( connectionPool.responseTime( address1 ) ).thenReturn( 3_000L );
+        when( connectionPool.responseTime( address2 ) ).thenReturn( 1_000L );
+        when( connectionPool.responseTime( address3 ) ).thenReturn( 2_000L );
+
+        assertEquals( address2, strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} ) );
+    }
+
+    @Test
+    public void shouldSelectWriterWithLowestResponseTime()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "writer", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "writer", 2 );
+
+        when( connectionPool.responseTime( address1 ) ).thenReturn( 1_000L );
+        when( connectionPool.responseTime( address2 ) ).thenReturn( 5_000L );
+
+        assertEquals( address1, strategy.selectWriter( new BoltServerAddress[]{address1, address2} ) );
+    }
+
+    @Test
+    public void shouldTakeActiveConnectionsIntoAccount()
+    {
+        BoltServerAddress fastBusy = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress slowIdle = new BoltServerAddress( "reader", 2 );
+
+        when( connectionPool.responseTime( fastBusy ) ).thenReturn( 1_000L );
+        when( connectionPool.inUseConnections( fastBusy ) ).thenReturn( 9 );
+        when( connectionPool.responseTime( slowIdle ) ).thenReturn( 3_000L );
+        when( connectionPool.inUseConnections( slowIdle ) ).thenReturn( 0 );
+
+        assertEquals( slowIdle, strategy.selectReader( new BoltServerAddress[]{fastBusy, slowIdle} ) );
+    }
+
+    @Test
+    public void shouldSelectLeastConnectedWhenResponseTimesAreUnknown()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "reader", 2 );
+        BoltServerAddress address3 = new BoltServerAddress( "reader", 3 );
+
+        when( connectionPool.inUseConnections( address1 ) ).thenReturn( 3 );
+        when( connectionPool.inUseConnections( address2 ) ).thenReturn( 1 );
+        when( connectionPool.inUseConnections( address3 ) ).thenReturn( 2 );
+
+        assertEquals( address2, strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} ) );
+    }
+
+    @Test
+    public void shouldReturnDifferentReaderOnEveryInvocationWhenScoresAreEqual()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "reader", 2 );
+        BoltServerAddress address3 = new BoltServerAddress( "reader", 3 );
+
+        assertEquals( address1, strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} ) );
+        assertEquals( address2, strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} ) );
+        assertEquals( address3, strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} ) );
+        assertEquals( address1, strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} ) );
+    }
+}
@@ -19,18 +19,27 @@ package org.neo4j.driver.internal.cluster.loadbalancing;
 
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.pool.CircuitBreakerOpenException;
 import org.neo4j.driver.internal.cluster.AddressSet;
 import org.neo4j.driver.internal.cluster.ClusterComposition;
 import org.neo4j.driver.internal.cluster.ClusterRoutingTable;
 import org.neo4j.driver.internal.cluster.Rediscovery;
+import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.cluster.RoutingTable;
+import org.neo4j.driver.internal.cluster.RoutingTableDiff;
+import org.neo4j.driver.internal.cluster.RoutingTableSnapshot;
+import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 import org.neo4j.driver.internal.util.FakeClock;
@@ -43,17 +52,22 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.driver.internal.BoltServerAddress.LOCAL_DEFAULT;
@@ -64,6 +78,8 @@ import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.D;
 import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.E;
 import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.F;
 import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
+import static org.neo4j.driver.internal.util.Futures.failedFuture;
 import static org.neo4j.driver.v1.AccessMode.READ;
 import static org.neo4j.driver.v1.AccessMode.WRITE;
 import static org.neo4j.driver.v1.util.TestUtil.asOrderedSet;
@@ -222,6 +238,74 @@ public class LoadBalancerTest
         assertTrue( seenAddresses.containsAll( asList( A, B, C ) ) );
     }
 
+    @Test
+    public void shouldNotSelectAddressWithOpenCircuit()
+    {
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        when( connectionPool.isCircuitOpen( B ) ).thenReturn( true );
+
+        RoutingTable routingTable = mock( RoutingTable.class );
+        AddressSet readerAddresses = mock( AddressSet.class );
+        when( readerAddresses.toArray() ).thenReturn( new BoltServerAddress[]{A, B, C} );
+        when( routingTable.readers() ).thenReturn( readerAddresses );
+
+        Rediscovery rediscovery = mock( Rediscovery.class );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+
+        Set<BoltServerAddress> seenAddresses = new HashSet<>();
+        for ( int i = 0; i < 10; i++ )
+        {
+            Connection connection = await( loadBalancer.acquireConnection( READ ) );
+            seenAddresses.add( connection.serverAddress() );
+        }
+
+        assertEquals( 2, seenAddresses.size() );
+        assertTrue( seenAddresses.containsAll( asList( A, C ) ) );
+        verify( connectionPool, never() ).acquire( B );
+        verify( routingTable, never() ).forget( B );
+    }
+
+    @Test
+    public void shouldNotForgetAddressRejectedByCircuitBreaker()
+    {
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        doReturn( failedFuture( new CircuitBreakerOpenException( "Circuit breaker of " + A + " is open" ) ) )
+                .when( connectionPool ).acquire( A );
+
+        RoutingTable routingTable = mock( RoutingTable.class );
+        AddressSet readerAddresses = mock( AddressSet.class );
+        when( readerAddresses.toArray() ).thenReturn( new BoltServerAddress[]{A} )
+                .thenReturn( new BoltServerAddress[]{A, B} );
+        when( routingTable.readers() ).thenReturn( readerAddresses );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, mock( Rediscovery.class ),
+                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+
+        Connection connection = await( loadBalancer.acquireConnection( READ ) );
+
+        assertEquals( B, connection.serverAddress() );
+        verify( routingTable, never() ).forget( A );
+    }
+
+    @Test
+    public void shouldForgetAndDrainAddress()
+    {
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        CompletableFuture<Void> drainFuture = new CompletableFuture<>();
+        when( connectionPool.drain( A ) ).thenReturn( drainFuture );
+        RoutingTable routingTable = mock( RoutingTable.class );
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, mock( Rediscovery.class ),
+                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+
+        CompletionStage<Void> drained = loadBalancer.drain( A );
+
+        assertEquals( drainFuture, drained );
+        verify( routingTable ).forget( A );
+        verify( connectionPool ).drain( A );
+    }
+
     @Test
     public void shouldTryMultipleServersAfterRediscovery()
     {
@@ -269,6 +353,199 @@ public class LoadBalancerTest
         assertArrayEquals( new BoltServerAddress[]{D, F}, routingTable.routers().toArray() );
     }
 
+    @Test
+    public void shouldShareOngoingRefreshBetweenAcquisitions()
+    {
+        RoutingTable routingTable = new ClusterRoutingTable( new FakeClock() );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        CompletableFuture<ClusterComposition> compositionFuture = new CompletableFuture<>();
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( compositionFuture );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+
+        CompletionStage<Connection> connection1 = loadBalancer.acquireConnection( READ );
+        CompletionStage<Connection> connection2 = loadBalancer.acquireConnection( READ );
+        compositionFuture.complete(
+                new ClusterComposition( 42, asOrderedSet( A ), asOrderedSet( B ), asOrderedSet( A ) ) );
+
+        assertNotNull( await( connection1 ) );
+        assertNotNull( await( connection2 ) );
+        verify( rediscovery, times( 1 ) ).lookupClusterComposition( any(), any() );
+    }
+
+    @Test
+    public void shouldRefreshRoutingTableInBackground()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( completedFuture(
+                new ClusterComposition( clock.millis() + 200, asOrderedSet( A ), asOrderedSet( B ),
+                        asOrderedSet( A ) ) ) );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, 0.5 );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( rediscovery, timeout( 5_000 ).times( 2 ) ).lookupClusterComposition( any(), any() );
+
+        loadBalancer.close();
+    }
+
+    @Test
+    public void shouldUseFreshRoutingTableDuringBackgroundRefresh()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 200, asOrderedSet( A ),
+                        asOrderedSet( B ), asOrderedSet( A ) ) ) )
+                .thenReturn( new CompletableFuture<>() );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, 0.5 );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        // background refresh never completes
+        verify( rediscovery, timeout( 5_000 ).times( 2 ) ).lookupClusterComposition( any(), any() );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( rediscovery, times( 2 ) ).lookupClusterComposition( any(), any() );
+    }
+
+    @Test
+    public void shouldUseRoutingTableSnapshotWhileRefreshingInBackground()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        RoutingTableSnapshot snapshot = mock( RoutingTableSnapshot.class );
+        when( snapshot.load() ).thenReturn( new ClusterComposition( clock.millis() + 1_000, asOrderedSet( A ),
+                asOrderedSet( B ), asOrderedSet( A ) ) );
+
+        Rediscovery rediscovery = newRediscoveryMock();
+        // background refresh never completes
+        when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( new CompletableFuture<>() );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, RoutingSettings.NOT_CONFIGURED, snapshot );
+        loadBalancer.restoreRoutingTable();
+
+        Connection connection = await( loadBalancer.acquireConnection( READ ) );
+        assertEquals( A, connection.serverAddress() );
+        verify( rediscovery ).lookupClusterComposition( routingTable, connectionPool );
+    }
+
+    @Test
+    public void shouldNotWaitForLookupToVerifyConnectivityWhenRoutingTableIsRestored()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        RoutingTableSnapshot snapshot = mock( RoutingTableSnapshot.class );
+        when( snapshot.load() ).thenReturn( new ClusterComposition( clock.millis() + 1_000, asOrderedSet( A ),
+                asOrderedSet( B ), asOrderedSet( A ) ) );
+
+        Rediscovery rediscovery = newRediscoveryMock();
+        RuntimeException error = new RuntimeException( "Unreachable" );
+        when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( failedFuture( error ) );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, RoutingSettings.NOT_CONFIGURED, snapshot );
+        loadBalancer.restoreRoutingTable();
+        assertFalse( routingTable.isStaleFor( READ ) );
+
+        // only the background refresh started on restore contacts a router, its failure does not fail verification
+        await( loadBalancer.verifyConnectivity() );
+        verify( rediscovery ).lookupClusterComposition( routingTable, connectionPool );
+    }
+
+    @Test
+    public void shouldRestoreAllSavedRoutersInRandomOrder()
+    {
+        FakeClock clock = new FakeClock();
+        Set<BoltServerAddress> routers = asOrderedSet( A, B, C, D, E );
+        RoutingTableSnapshot snapshot = mock( RoutingTableSnapshot.class );
+        when( snapshot.load() ).thenReturn( new ClusterComposition( clock.millis() + 1_000, routers,
+                asOrderedSet( B ), routers ) );
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( new CompletableFuture<>() );
+
+        Set<List<BoltServerAddress>> routerOrders = new HashSet<>();
+        for ( int i = 0; i < 50; i++ )
+        {
+            RoutingTable routingTable = new ClusterRoutingTable( clock );
+            LoadBalancer loadBalancer = new LoadBalancer( newConnectionPoolMock(), routingTable, rediscovery,
+                    GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, RoutingSettings.NOT_CONFIGURED, snapshot );
+            loadBalancer.restoreRoutingTable();
+
+            List<BoltServerAddress> restoredRouters = asList( routingTable.routers().toArray() );
+            assertEquals( routers, new HashSet<>( restoredRouters ) );
+            routerOrders.add( restoredRouters );
+        }
+        // 120 possible orders, drivers restoring the same snapshot should not all start with the same router
+        assertThat( routerOrders.size(), greaterThan( 1 ) );
+    }
+
+    @Test
+    public void shouldSaveFetchedRoutingTableToSnapshot()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        RoutingTableSnapshot snapshot = mock( RoutingTableSnapshot.class );
+
+        ClusterComposition composition = new ClusterComposition( clock.millis() + 1_000, asOrderedSet( A ),
+                asOrderedSet( B ), asOrderedSet( A ) );
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( completedFuture( composition ) );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, RoutingSettings.NOT_CONFIGURED, snapshot );
+        loadBalancer.restoreRoutingTable();
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( snapshot ).save( composition );
+    }
+
+    @Test
+    public void shouldNotWaitForRefreshTriggeredByWritesOnReads()
+    {
+        RoutingTable routingTable = new ClusterRoutingTable( new FakeClock() );
+        routingTable.update( new ClusterComposition( 42, asOrderedSet( C ), asOrderedSet( A ), asOrderedSet( B ) ) );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        CompletableFuture<ClusterComposition> compositionFuture = new CompletableFuture<>();
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( compositionFuture );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+
+        // leader is gone and new one is not yet elected
+        loadBalancer.onWriteFailure( A );
+        CompletionStage<Connection> writeConnection = loadBalancer.acquireConnection( WRITE );
+        assertFalse( writeConnection.toCompletableFuture().isDone() );
+
+        Connection readConnection = await( loadBalancer.acquireConnection( READ ) );
+        assertEquals( C, readConnection.serverAddress() );
+
+        compositionFuture.complete(
+                new ClusterComposition( 42, asOrderedSet( C ), asOrderedSet( B ), asOrderedSet( B ) ) );
+        assertEquals( B, await( writeConnection ).serverAddress() );
+        verify( rediscovery, times( 1 ) ).lookupClusterComposition( any(), any() );
+    }
+
     @Test
     public void shouldRetainAllFetchedAddressesInConnectionPoolAfterFetchingOfRoutingTable()
     {
@@ -291,6 +568,100 @@ public class LoadBalancerTest
         verify( connectionPool ).retainAll( new HashSet<>( asList( A, B, C ) ) );
     }
 
+    @Test
+    public void shouldRetainPoolsAfterEveryRoutingTableUpdate()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 100, asOrderedSet( A, B ),
+                        asOrderedSet( C ), asOrderedSet( A ) ) ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 300, asOrderedSet( B, A ),
+                        asOrderedSet( C ), asOrderedSet( A ) ) ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 500, asOrderedSet( A ),
+                        asOrderedSet( C ), asOrderedSet( A ) ) ) );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, RoutingSettings.NOT_CONFIGURED );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( connectionPool ).retainAll( new HashSet<>( asList( A, B, C ) ) );
+
+        // composition with the same servers still closes pools opened towards other addresses since the last update
+        clock.progress( 200 );
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( connectionPool, times( 2 ) ).retainAll( new HashSet<>( asList( A, B, C ) ) );
+
+        // composition without reader B
+        clock.progress( 200 );
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( connectionPool ).retainAll( new HashSet<>( asList( A, C ) ) );
+    }
+
+    @Test
+    public void shouldWarmUpAddedReadersAndWriters()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 100, asOrderedSet( A ),
+                        asOrderedSet( B ), asOrderedSet( A ) ) ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 300, asOrderedSet( A, C ),
+                        asOrderedSet( B ), asOrderedSet( A, D ) ) ) );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, RoutingSettings.NOT_CONFIGURED,
+                RoutingTableSnapshot.NONE, 2, DEV_NULL_METRICS );
+
+        await( loadBalancer.acquireConnection( WRITE ) );
+        // two warm-up connections and one acquired by the caller
+        verify( connectionPool, times( 3 ) ).acquire( B );
+        verify( connectionPool, times( 2 ) ).acquire( A );
+
+        clock.progress( 200 );
+        await( loadBalancer.acquireConnection( WRITE ) );
+        verify( connectionPool, times( 2 ) ).acquire( C );
+        // router D only serves routing procedure calls
+        verify( connectionPool, never() ).acquire( D );
+        verify( connectionPool, times( 2 ) ).acquire( A );
+    }
+
+    @Test
+    public void shouldRecordRoutingTableChanges()
+    {
+        FakeClock clock = new FakeClock();
+        RoutingTable routingTable = new ClusterRoutingTable( clock );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        MetricsListener metricsListener = mock( MetricsListener.class );
+
+        Rediscovery rediscovery = newRediscoveryMock();
+        when( rediscovery.lookupClusterComposition( any(), any() ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 100, asOrderedSet( A ),
+                        asOrderedSet( B ), asOrderedSet( A ) ) ) )
+                .thenReturn( completedFuture( new ClusterComposition( clock.millis() + 300, asOrderedSet( B ),
+                        asOrderedSet( A ), asOrderedSet( A ) ) ) );
+
+        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE, clock, DEV_NULL_LOGGING, RoutingSettings.NOT_CONFIGURED,
+                RoutingTableSnapshot.NONE, RoutingSettings.NOT_CONFIGURED, metricsListener );
+
+        await( loadBalancer.acquireConnection( READ ) );
+        clock.progress( 200 );
+        await( loadBalancer.acquireConnection( READ ) );
+
+        ArgumentCaptor<RoutingTableDiff> diffs = ArgumentCaptor.forClass( RoutingTableDiff.class );
+        verify( metricsListener, times( 2 ) ).afterRoutingTableUpdated( diffs.capture() );
+        assertEquals( asOrderedSet( A, B ), diffs.getAllValues().get( 0 ).addedServers() );
+        assertEquals( asOrderedSet( A, B ), diffs.getAllValues().get( 1 ).roleChangedServers() );
+        assertTrue( diffs.getAllValues().get( 1 ).addedServers().isEmpty() );
+    }
+
     private void testRediscoveryWhenStale( AccessMode mode )
     {
         ConnectionPool connectionPool = mock( ConnectionPool.class );
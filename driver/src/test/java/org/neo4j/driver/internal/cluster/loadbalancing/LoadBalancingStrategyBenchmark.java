@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+
+/**
+ * Compares selection throughput and load spread of load balancing strategies. Every thread selects readers and keeps
+ * a bounded amount of connections in use, releasing the oldest one when the bound is reached. No database is needed.
+ * <p>
+ * It is not a test and is not executed by the build, run its {@link #main(String[])} method manually, e.g. from the
+ * IDE, when changing a strategy.
+ */
+public class LoadBalancingStrategyBenchmark
+{
+    private static final int READERS = 12;
+    private static final int THREADS = 8;
+    private static final int CONNECTIONS_IN_USE_PER_THREAD = 8;
+    private static final long WARM_UP_MILLIS = 1_000;
+    private static final long DURATION_MILLIS = 5_000;
+
+    public static void main( String[] args ) throws Exception
+    {
+        run( "LEAST_CONNECTED", pool -> new LeastConnectedLoadBalancingStrategy( pool, DEV_NULL_LOGGING ) );
+        run( "POWER_OF_TWO_CHOICES", pool -> new PowerOfTwoChoicesLoadBalancingStrategy( pool, DEV_NULL_LOGGING ) );
+        run( "ROUND_ROBIN", pool -> new RoundRobinLoadBalancingStrategy( DEV_NULL_LOGGING ) );
+    }
+
+    private static void run( String name, Function<ConnectionPool,LoadBalancingStrategy> strategyFactory )
+            throws Exception
+    {
+        // warm up to let the JIT compile selection code, results are ignored
+        measure( strategyFactory, WARM_UP_MILLIS );
+        long[] selections = measure( strategyFactory, DURATION_MILLIS );
+
+        long total = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for ( long count : selections )
+        {
+            total += count;
+            min = Math.min( min, count );
+            max = Math.max( max, count );
+        }
+        double mean = (double) total / READERS;
+
+        System.out.println( String.format( "%s: %,d selections/s, least selected reader %.2f and most selected " +
+                                           "reader %.2f of mean", name, total * 1000 / DURATION_MILLIS,
+                min / mean, max / mean ) );
+    }
+
+    private static long[] measure( Function<ConnectionPool,LoadBalancingStrategy> strategyFactory,
+            long durationMillis ) throws Exception
+    {
+        BoltServerAddress[] readers = new BoltServerAddress[READERS];
+        for ( int i = 0; i < READERS; i++ )
+        {
+            readers[i] = new BoltServerAddress( "reader", i );
+        }
+        InUseCountingPool pool = new InUseCountingPool();
+        LoadBalancingStrategy strategy = strategyFactory.apply( pool );
+
+        ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        try
+        {
+            CountDownLatch startLatch = new CountDownLatch( 1 );
+            AtomicBoolean stop = new AtomicBoolean();
+            List<Future<long[]>> results = new ArrayList<>();
+            for ( int i = 0; i < THREADS; i++ )
+            {
+                results.add( executor.submit( () -> select( strategy, pool, readers, startLatch, stop ) ) );
+            }
+
+            startLatch.countDown();
+            Thread.sleep( durationMillis );
+            stop.set( true );
+
+            long[] selections = new long[READERS];
+            for ( Future<long[]> result : results )
+            {
+                long[] threadSelections = result.get( 1, TimeUnit.MINUTES );
+                for ( int i = 0; i < READERS; i++ )
+                {
+                    selections[i] += threadSelections[i];
+                }
+            }
+            return selections;
+        }
+        finally
+        {
+            executor.shutdownNow();
+            executor.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    private static long[] select( LoadBalancingStrategy strategy, InUseCountingPool pool, BoltServerAddress[] readers,
+            CountDownLatch startLatch, AtomicBoolean stop ) throws InterruptedException
+    {
+        long[] selections = new long[READERS];
+        Deque<BoltServerAddress> inUse = new ArrayDeque<>();
+        startLatch.await();
+        while ( !stop.get() )
+        {
+            BoltServerAddress address = strategy.selectReader( readers );
+            pool.acquired( address );
+            inUse.addLast( address );
+            selections[address.port()]++;
+
+            if ( inUse.size() > CONNECTIONS_IN_USE_PER_THREAD )
+            {
+                pool.released( inUse.removeFirst() );
+            }
+        }
+        return selections;
+    }
+
+    private static class InUseCountingPool implements ConnectionPool
+    {
+        final ConcurrentMap<BoltServerAddress,AtomicInteger> inUse = new ConcurrentHashMap<>();
+
+        void acquired( BoltServerAddress address )
+        {
+            inUse.computeIfAbsent( address, ignore -> new AtomicInteger() ).incrementAndGet();
+        }
+
+        void released( BoltServerAddress address )
+        {
+            inUse.get( address ).decrementAndGet();
+        }
+
+        @Override
+        public int inUseConnections( BoltServerAddress address )
+        {
+            AtomicInteger count = inUse.get( address );
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public int idleConnections( BoltServerAddress address )
+        {
+            return 0;
+        }
+
+        @Override
+        public int connectionLimit( BoltServerAddress address )
+        {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void connectionLimitReached( BoltServerAddress address )
+        {
+        }
+
+        @Override
+        public long responseTime( BoltServerAddress address )
+        {
+            return 0;
+        }
+
+        @Override
+        public CompletionStage<Connection> acquire( BoltServerAddress address )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void retainAll( Set<BoltServerAddress> addressesToRetain )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletionStage<Void> close()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen( BoltServerAddress address )
+        {
+            return true;
+        }
+
+        @Override
+        public boolean isCircuitOpen( BoltServerAddress address )
+        {
+            return false;
+        }
+
+        @Override
+        public CompletionStage<Void> drain( BoltServerAddress address )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void endDrain( BoltServerAddress address )
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
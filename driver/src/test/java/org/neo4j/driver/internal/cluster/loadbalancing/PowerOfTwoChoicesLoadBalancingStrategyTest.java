@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+
+public class PowerOfTwoChoicesLoadBalancingStrategyTest
+{
+    @Mock
+    private ConnectionPool connectionPool;
+    private PowerOfTwoChoicesLoadBalancingStrategy strategy;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        initMocks( this );
+        strategy = new PowerOfTwoChoicesLoadBalancingStrategy( connectionPool, DEV_NULL_LOGGING );
+    }
+
+    @Test
+    public void shouldHandleEmptyReadersArray()
+    {
+        assertNull( strategy.selectReader( new BoltServerAddress[0] ) );
+    }
+
+    @Test
+    public void shouldHandleEmptyWritersArray()
+    {
+        assertNull( strategy.selectWriter( new BoltServerAddress[0] ) );
+    }
+
+    @Test
+    public void shouldHandleSingleReader()
+    {
+        BoltServerAddress address = new BoltServerAddress( "reader", 9999 );
+        when( connectionPool.inUseConnections( address ) ).thenReturn( 42 );
+
+        assertEquals( address, strategy.selectReader( new BoltServerAddress[]{address} ) );
+    }
+
+    @Test
+    public void shouldHandleSingleWriter()
+    {
+        BoltServerAddress address = new BoltServerAddress( "writer", 9999 );
+
+        assertEquals( address, strategy.selectWriter( new BoltServerAddress[]{address} ) );
+    }
+
+    @Test
+    public void shouldSelectLessConnectedOfTwoReaders()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "reader", 2 );
+
+        when( connectionPool.inUseConnections( address1 ) ).thenReturn( 5 );
+        when( connectionPool.inUseConnections( address2 ) ).thenReturn( 2 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( address2, strategy.selectReader( new BoltServerAddress[]{address1, address2} ) );
+        }
+    }
+
+    @Test
+    public void shouldNeverSelectMostConnectedReader()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "reader", 2 );
+        BoltServerAddress address3 = new BoltServerAddress( "reader", 3 );
+
+        when( connectionPool.inUseConnections( address1 ) ).thenReturn( 1 );
+        when( connectionPool.inUseConnections( address2 ) ).thenReturn( 2 );
+        when( connectionPool.inUseConnections( address3 ) ).thenReturn( 10 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            BoltServerAddress selected = strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} );
+            assertNotEquals( address3, selected );
+        }
+    }
+
+    @Test
+    public void shouldSelectLessConnectedOfTwoRandomlyChosenReaders()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "reader", 2 );
+        BoltServerAddress address3 = new BoltServerAddress( "reader", 3 );
+        BoltServerAddress address4 = new BoltServerAddress( "reader", 4 );
+
+        when( connectionPool.inUseConnections( address1 ) ).thenReturn( 1 );
+        when( connectionPool.inUseConnections( address2 ) ).thenReturn( 5 );
+        when( connectionPool.inUseConnections( address3 ) ).thenReturn( 3 );
+        when( connectionPool.inUseConnections( address4 ) ).thenReturn( 0 );
+
+        // least connected address4 is not one of the two choices
+        PowerOfTwoChoicesLoadBalancingStrategy strategy = newStrategy( 2, 0 );
+
+        assertEquals( address1,
+                strategy.selectReader( new BoltServerAddress[]{address1, address2, address3, address4} ) );
+    }
+
+    @Test
+    public void shouldChooseTwoDistinctWriters()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "writer", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "writer", 2 );
+        BoltServerAddress address3 = new BoltServerAddress( "writer", 3 );
+
+        when( connectionPool.inUseConnections( address1 ) ).thenReturn( 0 );
+        when( connectionPool.inUseConnections( address2 ) ).thenReturn( 5 );
+        when( connectionPool.inUseConnections( address3 ) ).thenReturn( 1 );
+
+        // second index skips the first one, so it chooses address3 instead of address2 again
+        PowerOfTwoChoicesLoadBalancingStrategy strategy = newStrategy( 1, 1 );
+
+        assertEquals( address3, strategy.selectWriter( new BoltServerAddress[]{address1, address2, address3} ) );
+    }
+
+    @Test
+    public void shouldSelectFirstChoiceWhenLoadIsEqual()
+    {
+        BoltServerAddress address1 = new BoltServerAddress( "reader", 1 );
+        BoltServerAddress address2 = new BoltServerAddress( "reader", 2 );
+        BoltServerAddress address3 = new BoltServerAddress( "reader", 3 );
+
+        PowerOfTwoChoicesLoadBalancingStrategy strategy = newStrategy( 2, 0 );
+
+        assertEquals( address3, strategy.selectReader( new BoltServerAddress[]{address1, address2, address3} ) );
+    }
+
+    @Test
+    public void shouldSelectAllReadersWhenLoadIsEqual()
+    {
+        BoltServerAddress[] addresses = {new BoltServerAddress( "reader", 1 ), new BoltServerAddress( "reader", 2 ),
+                new BoltServerAddress( "reader", 3 )};
+
+        Set<BoltServerAddress> selected = new HashSet<>();
+        for ( int first = 0; first < addresses.length; first++ )
+        {
+            for ( int second = 0; second < addresses.length - 1; second++ )
+            {
+                selected.add( newStrategy( first, second ).selectReader( addresses ) );
+            }
+        }
+
+        assertThat( selected, containsInAnyOrder( addresses ) );
+    }
+
+    private PowerOfTwoChoicesLoadBalancingStrategy newStrategy( int... randomIndexes )
+    {
+        Iterator<Integer> indexes = IntStream.of( randomIndexes ).iterator();
+        return new PowerOfTwoChoicesLoadBalancingStrategy( connectionPool, bound ->
+        {
+            int index = indexes.next();
+            assertThat( index, lessThan( bound ) );
+            return index;
+        }, DEV_NULL_LOGGING );
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.pool.AdaptiveConnectionLimit;
+import org.neo4j.driver.internal.metrics.MetricsListener;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.neo4j.driver.internal.logging.DevNullLogger.DEV_NULL_LOGGER;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+
+public class ZoneAwareLoadBalancingStrategyTest
+{
+    private static final BoltServerAddress LOCAL_1 = new BoltServerAddress( "local-1", 7687 );
+    private static final BoltServerAddress LOCAL_2 = new BoltServerAddress( "local-2", 7687 );
+    private static final BoltServerAddress REMOTE = new BoltServerAddress( "remote", 7687 );
+    private static final BoltServerAddress UNKNOWN = new BoltServerAddress( "unknown", 7687 );
+
+    @Mock
+    private ConnectionPool connectionPool;
+    @Mock
+    private LoadBalancingStrategy delegate;
+    private ZoneAwareLoadBalancingStrategy strategy;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        initMocks( this );
+        Map<String,String> serverZones = new HashMap<>();
+        serverZones.put( "local-1:7687", "eu-west-1a" );
+        serverZones.put( "local-2", "eu-west-1a" );
+        serverZones.put( "remote:7687", "eu-west-1b" );
+        when( connectionPool.connectionLimit( any( BoltServerAddress.class ) ) ).thenReturn( 10 );
+        strategy = new ZoneAwareLoadBalancingStrategy( delegate, "eu-west-1a", serverZones, connectionPool,
+                DEV_NULL_LOGGING );
+    }
+
+    @Test
+    public void shouldSelectAmongLocalReaders()
+    {
+        when( delegate.selectReader( new BoltServerAddress[]{LOCAL_1, LOCAL_2} ) ).thenReturn( LOCAL_2 );
+
+        assertSame( LOCAL_2, strategy.selectReader( new BoltServerAddress[]{REMOTE, LOCAL_1, UNKNOWN, LOCAL_2} ) );
+    }
+
+    @Test
+    public void shouldSkipSaturatedLocalReaders()
+    {
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 10 );
+
+        strategy.selectReader( new BoltServerAddress[]{REMOTE, LOCAL_1, LOCAL_2} );
+
+        assertArrayEquals( new BoltServerAddress[]{LOCAL_2}, capturedReaders() );
+        verify( connectionPool, never() ).connectionLimitReached( any() );
+    }
+
+    @Test
+    public void shouldSkipLocalReadersSaturatedByAdaptiveConnectionLimit()
+    {
+        when( connectionPool.connectionLimit( LOCAL_2 ) ).thenReturn( 4 );
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 4 );
+        when( connectionPool.inUseConnections( LOCAL_2 ) ).thenReturn( 4 );
+
+        strategy.selectReader( new BoltServerAddress[]{REMOTE, LOCAL_1, LOCAL_2} );
+
+        assertArrayEquals( new BoltServerAddress[]{LOCAL_1}, capturedReaders() );
+    }
+
+    @Test
+    public void shouldSpillToOtherZonesWhenAllLocalReadersAreSaturated()
+    {
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 10 );
+        when( connectionPool.inUseConnections( LOCAL_2 ) ).thenReturn( 11 );
+        BoltServerAddress[] readers = {REMOTE, LOCAL_1, LOCAL_2};
+
+        strategy.selectReader( readers );
+
+        assertSame( readers, capturedReaders() );
+        verify( connectionPool ).connectionLimitReached( LOCAL_1 );
+        verify( connectionPool ).connectionLimitReached( LOCAL_2 );
+        verify( connectionPool, never() ).connectionLimitReached( REMOTE );
+    }
+
+    @Test
+    public void shouldGrowAdaptiveConnectionLimitOfSaturatedLocalReader()
+    {
+        FakeClock clock = new FakeClock();
+        AdaptiveConnectionLimit limit = new AdaptiveConnectionLimit( LOCAL_1, 1, 10, clock,
+                mock( MetricsListener.class ), DEV_NULL_LOGGER );
+        when( connectionPool.connectionLimit( LOCAL_1 ) ).then( invocation -> limit.limit() );
+        doAnswer( invocation ->
+        {
+            limit.acquisitionRedirected();
+            return null;
+        } ).when( connectionPool ).connectionLimitReached( LOCAL_1 );
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 1 );
+        when( connectionPool.inUseConnections( LOCAL_2 ) ).thenReturn( 10 );
+        BoltServerAddress[] readers = {REMOTE, LOCAL_1, LOCAL_2};
+
+        // local pools are at their limits and work spills to other zones
+        strategy.selectReader( readers );
+        clock.progress( 1_000 );
+        strategy.selectReader( readers );
+
+        // redirected demand made the adaptive limit grow, local reader has capacity again
+        assertEquals( 2, limit.limit() );
+        strategy.selectReader( readers );
+        ArgumentCaptor<BoltServerAddress[]> captor = ArgumentCaptor.forClass( BoltServerAddress[].class );
+        verify( delegate, times( 3 ) ).selectReader( captor.capture() );
+        assertArrayEquals( new BoltServerAddress[]{LOCAL_1}, captor.getValue() );
+    }
+
+    @Test
+    public void shouldSpillToOtherZonesWhenNoLocalReadersAreKnown()
+    {
+        // failing local readers are forgotten or skipped by the load balancer before selection
+        BoltServerAddress[] readers = {REMOTE, UNKNOWN};
+
+        strategy.selectReader( readers );
+
+        assertSame( readers, capturedReaders() );
+    }
+
+    @Test
+    public void shouldSelectWritersRegardlessOfZone()
+    {
+        BoltServerAddress[] writers = {REMOTE};
+        when( delegate.selectWriter( writers ) ).thenReturn( REMOTE );
+
+        assertSame( REMOTE, strategy.selectWriter( writers ) );
+    }
+
+    private BoltServerAddress[] capturedReaders()
+    {
+        ArgumentCaptor<BoltServerAddress[]> captor = ArgumentCaptor.forClass( BoltServerAddress[].class );
+        verify( delegate ).selectReader( captor.capture() );
+        return captor.getValue();
+    }
+}
@@ -21,9 +21,16 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.InternalRecord;
@@ -34,6 +41,8 @@ import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.reactive.Subscriber;
+import org.neo4j.driver.v1.reactive.Subscription;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.summary.StatementType;
 import org.neo4j.driver.v1.util.Functions;
@@ -43,14 +52,20 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.driver.v1.Values.value;
@@ -1155,6 +1170,412 @@ public class PullAllResponseHandlerTest
         assertEquals( StatementType.READ_WRITE, summary2.statementType() );
     }
 
+    @Test
+    public void shouldDeliverRecordsToSubscriberOnlyWhenRequested()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        handler.onRecord( values( 3 ) );
+        assertEquals( 0, subscriber.records.size() );
+
+        subscriber.subscription.request( 2 );
+        assertEquals( 2, subscriber.records.size() );
+        assertEquals( value( 1 ), subscriber.records.get( 0 ).get( "key" ) );
+        assertEquals( value( 2 ), subscriber.records.get( 1 ).get( "key" ) );
+
+        handler.onSuccess( emptyMap() );
+        assertFalse( subscriber.completed );
+
+        subscriber.subscription.request( 1 );
+        assertEquals( 3, subscriber.records.size() );
+        assertTrue( subscriber.completed );
+        assertNull( subscriber.error );
+    }
+
+    @Test
+    public void shouldDeliverRecordsToSubscriberAsTheyArrive()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+        subscriber.subscription.request( Long.MAX_VALUE );
+
+        handler.onRecord( values( 1 ) );
+        assertEquals( 1, subscriber.records.size() );
+        handler.onRecord( values( 2 ) );
+        assertEquals( 2, subscriber.records.size() );
+
+        handler.onSuccess( emptyMap() );
+        assertTrue( subscriber.completed );
+    }
+
+    @Test
+    public void shouldCompleteSubscriberOfFinishedEmptyResultWithoutDemand()
+    {
+        PullAllResponseHandler handler = newHandler();
+        handler.onSuccess( emptyMap() );
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+
+        assertTrue( subscriber.completed );
+        assertEquals( 0, subscriber.records.size() );
+    }
+
+    @Test
+    public void shouldSignalFailureToSubscriberAfterBufferedRecords()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+
+        handler.onRecord( values( 1 ) );
+        RuntimeException error = new RuntimeException( "Hi" );
+        handler.onFailure( error );
+        assertNull( subscriber.error );
+
+        subscriber.subscription.request( 10 );
+        assertEquals( 1, subscriber.records.size() );
+        assertEquals( error, subscriber.error );
+        assertFalse( subscriber.completed );
+
+        // failure was already reported to the subscriber
+        assertNull( await( handler.failureAsync() ) );
+    }
+
+    @Test
+    public void shouldDiscardRecordsWhenSubscriptionCancelled()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ), connection );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+
+        handler.onRecord( values( 1 ) );
+        subscriber.subscription.request( 1 );
+        verify( connection ).enableAutoRead();
+        subscriber.subscription.cancel();
+        // remaining stream should be read and discarded
+        verify( connection, times( 2 ) ).enableAutoRead();
+
+        handler.onRecord( values( 2 ) );
+        subscriber.subscription.request( 1 );
+        handler.onSuccess( emptyMap() );
+
+        assertEquals( 1, subscriber.records.size() );
+        assertFalse( subscriber.completed );
+        assertNull( subscriber.error );
+    }
+
+    @Test
+    public void shouldSignalErrorToSubscriberWhenRequestIsNotPositive()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+
+        subscriber.subscription.request( 0 );
+
+        assertThat( subscriber.error, instanceOf( IllegalArgumentException.class ) );
+    }
+
+    @Test
+    public void shouldCancelAndSignalErrorWhenSubscriberThrows()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        RuntimeException onNextError = new RuntimeException( "Hi" );
+        RecordingSubscriber subscriber = new RecordingSubscriber()
+        {
+            @Override
+            public void onNext( Record record )
+            {
+                super.onNext( record );
+                throw onNextError;
+            }
+        };
+        handler.subscribe( subscriber );
+        subscriber.subscription.request( 10 );
+
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        handler.onSuccess( emptyMap() );
+
+        assertEquals( 1, subscriber.records.size() );
+        assertEquals( onNextError, subscriber.error );
+        assertFalse( subscriber.completed );
+    }
+
+    @Test
+    public void shouldRejectSecondSubscriber()
+    {
+        PullAllResponseHandler handler = newHandler();
+        handler.subscribe( new RecordingSubscriber() );
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+
+        assertNotNull( subscriber.subscription );
+        assertThat( subscriber.error, instanceOf( IllegalStateException.class ) );
+    }
+
+    @Test
+    public void shouldDisableAutoReadWhenSubscriberDoesNotRequestRecords()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ), connection );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        handler.subscribe( subscriber );
+
+        for ( int i = 0; i < PullAllResponseHandler.RECORD_BUFFER_HIGH_WATERMARK + 1; i++ )
+        {
+            handler.onRecord( values( i ) );
+        }
+        verify( connection ).disableAutoRead();
+        verify( connection, never() ).enableAutoRead();
+
+        subscriber.subscription.request( PullAllResponseHandler.RECORD_BUFFER_HIGH_WATERMARK );
+        verify( connection, atLeastOnce() ).enableAutoRead();
+    }
+
+    @Test
+    public void shouldPushBufferedAndIncomingRecordsToForEachAction()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+
+        List<Record> records = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> forEachFuture = handler.forEachAsync( records::add ).toCompletableFuture();
+
+        handler.onRecord( values( 3 ) );
+        assertFalse( forEachFuture.isDone() );
+
+        handler.onSuccess( emptyMap() );
+        assertNull( await( forEachFuture ) );
+        assertEquals( 3, records.size() );
+        assertEquals( value( 1 ), records.get( 0 ).get( "key" ) );
+        assertEquals( value( 2 ), records.get( 1 ).get( "key" ) );
+        assertEquals( value( 3 ), records.get( 2 ).get( "key" ) );
+    }
+
+    @Test
+    public void shouldNotInvokeForEachActionOnThreadThatReceivesRecords() throws Exception
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        CountDownLatch actionUnblocked = new CountDownLatch( 1 );
+        Set<Thread> actionThreads = new CopyOnWriteArraySet<>();
+        CompletableFuture<Void> forEachFuture = handler.forEachAsync( record ->
+        {
+            actionThreads.add( Thread.currentThread() );
+            try
+            {
+                actionUnblocked.await( 10, TimeUnit.SECONDS );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        } ).toCompletableFuture();
+
+        // blocked action neither stalls the receiving thread nor holds the handler lock
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        handler.onSuccess( emptyMap() );
+        assertFalse( forEachFuture.isDone() );
+        assertNotNull( handler.summaryAsync() );
+
+        actionUnblocked.countDown();
+        assertNull( await( forEachFuture ) );
+        assertThat( actionThreads, not( hasItem( Thread.currentThread() ) ) );
+    }
+
+    @Test
+    public void shouldFailForEachWhenQueryFails()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        List<Record> records = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> forEachFuture = handler.forEachAsync( records::add ).toCompletableFuture();
+
+        handler.onRecord( values( 1 ) );
+        RuntimeException error = new RuntimeException( "Hi" );
+        handler.onFailure( error );
+
+        try
+        {
+            await( forEachFuture );
+            fail( "Exception expected" );
+        }
+        catch ( RuntimeException e )
+        {
+            assertEquals( error, e );
+        }
+        assertEquals( 1, records.size() );
+    }
+
+    @Test
+    public void shouldDiscardRemainingRecordsWhenForEachActionFails()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        RuntimeException error = new RuntimeException( "Hi" );
+        CompletableFuture<Void> forEachFuture = handler.forEachAsync( record ->
+        {
+            throw error;
+        } ).toCompletableFuture();
+
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        handler.onSuccess( emptyMap() );
+
+        try
+        {
+            await( forEachFuture );
+            fail( "Exception expected" );
+        }
+        catch ( RuntimeException e )
+        {
+            assertEquals( error, e );
+        }
+        assertNoRecordsCanBeFetched( handler );
+    }
+
+    @Test
+    public void shouldNotBufferRecordsForForEachAction()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ), connection );
+        AtomicInteger recordsSeen = new AtomicInteger();
+        CompletableFuture<Void> forEachFuture =
+                handler.forEachAsync( record -> recordsSeen.incrementAndGet() ).toCompletableFuture();
+
+        for ( int i = 0; i < PullAllResponseHandler.RECORD_BUFFER_HIGH_WATERMARK + 1; i++ )
+        {
+            handler.onRecord( values( i ) );
+        }
+        handler.onSuccess( emptyMap() );
+
+        assertNull( await( forEachFuture ) );
+        assertEquals( PullAllResponseHandler.RECORD_BUFFER_HIGH_WATERMARK + 1, recordsSeen.get() );
+        verify( connection, never() ).disableAutoRead();
+    }
+
+    @Test
+    public void shouldReturnBufferedRecordsFromBlockingCalls()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        handler.onSuccess( emptyMap() );
+
+        assertEquals( value( 1 ), handler.peekBlocking( () -> {} ).get( "key" ) );
+        assertEquals( value( 1 ), handler.nextBlocking( () -> {} ).get( "key" ) );
+        assertEquals( value( 2 ), handler.nextBlocking( () -> {} ).get( "key" ) );
+        assertNull( handler.peekBlocking( () -> {} ) );
+        assertNull( handler.nextBlocking( () -> {} ) );
+    }
+
+    @Test
+    public void shouldThrowFailureFromBlockingNext()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        handler.onRecord( values( 1 ) );
+        RuntimeException error = new RuntimeException( "Hi" );
+        handler.onFailure( error );
+
+        assertEquals( value( 1 ), handler.nextBlocking( () -> {} ).get( "key" ) );
+        try
+        {
+            handler.nextBlocking( () -> {} );
+            fail( "Exception expected" );
+        }
+        catch ( RuntimeException e )
+        {
+            assertEquals( error, e );
+        }
+        assertNull( await( handler.failureAsync() ) );
+    }
+
+    @Test
+    public void shouldWakeUpBlockedReaderWhenRecordArrives() throws Exception
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        CompletableFuture<Record> recordFuture = new CompletableFuture<>();
+        Thread reader = new Thread( () -> recordFuture.complete( handler.nextBlocking( () -> {} ) ) );
+        reader.start();
+        awaitWaiting( reader );
+
+        handler.onRecord( values( 42 ) );
+
+        assertEquals( value( 42 ), await( recordFuture ).get( "key" ) );
+        reader.join();
+    }
+
+    @Test
+    public void shouldRunInterruptHandlerAndKeepWaitingWhenBlockedReaderInterrupted() throws Exception
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        AtomicInteger interruptHandlerRuns = new AtomicInteger();
+        CompletableFuture<Boolean> interruptedFuture = new CompletableFuture<>();
+        Thread reader = new Thread( () ->
+        {
+            try
+            {
+                handler.nextBlocking( interruptHandlerRuns::incrementAndGet );
+            }
+            catch ( Throwable ignore )
+            {
+            }
+            interruptedFuture.complete( Thread.currentThread().isInterrupted() );
+        } );
+        reader.start();
+        awaitWaiting( reader );
+
+        reader.interrupt();
+        while ( interruptHandlerRuns.get() == 0 )
+        {
+            Thread.sleep( 10 );
+        }
+        awaitWaiting( reader );
+        assertEquals( 1, interruptHandlerRuns.get() );
+
+        handler.onFailure( new ServiceUnavailableException( "Connection terminated" ) );
+
+        assertTrue( await( interruptedFuture ) );
+        reader.join();
+    }
+
+    @Test
+    public void shouldFetchRecordsInBatchesOfFetchSize()
+    {
+        Connection connection = connectionMock();
+        RunResponseHandler runResponseHandler = new RunResponseHandler( new CompletableFuture<>() );
+        runResponseHandler.onSuccess( singletonMap( "fields", value( singletonList( "key" ) ) ) );
+        PullAllResponseHandler handler =
+                new TestPullAllResponseHandler( new Statement( "RETURN 1" ), runResponseHandler, connection, 10 );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            handler.onRecord( values( i ) );
+        }
+        verify( connection, never() ).disableAutoRead();
+
+        handler.onRecord( values( 10 ) );
+        verify( connection ).disableAutoRead();
+
+        // buffer of 11 records is drained until 2 records are left, below low watermark of 3
+        for ( int i = 0; i < 8; i++ )
+        {
+            await( handler.nextAsync() );
+        }
+        verify( connection, never() ).enableAutoRead();
+
+        await( handler.nextAsync() );
+        verify( connection ).enableAutoRead();
+    }
+
     private static PullAllResponseHandler newHandler()
     {
         return newHandler( new Statement( "RETURN 1" ) );
@@ -1203,6 +1624,14 @@ public class PullAllResponseHandlerTest
         assertEquals( emptyList(), await( handler.listAsync( Functions.identity() ) ) );
     }
 
+    private static void awaitWaiting( Thread thread ) throws InterruptedException
+    {
+        while ( thread.getState() != Thread.State.WAITING )
+        {
+            Thread.sleep( 10 );
+        }
+    }
+
     private static class TestPullAllResponseHandler extends PullAllResponseHandler
     {
         TestPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection )
@@ -1210,6 +1639,12 @@ public class PullAllResponseHandlerTest
             super( statement, runResponseHandler, connection );
         }
 
+        TestPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection,
+                int fetchSize )
+        {
+            super( statement, runResponseHandler, connection, fetchSize );
+        }
+
         @Override
         protected void afterSuccess()
         {
@@ -1220,4 +1655,36 @@ public class PullAllResponseHandlerTest
         {
         }
     }
+
+    private static class RecordingSubscriber implements Subscriber<Record>
+    {
+        final List<Record> records = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe( Subscription subscription )
+        {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext( Record record )
+        {
+            records.add( record );
+        }
+
+        @Override
+        public void onError( Throwable error )
+        {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete()
+        {
+            completed = true;
+        }
+    }
 }
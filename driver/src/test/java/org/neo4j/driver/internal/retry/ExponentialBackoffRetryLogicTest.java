@@ -17,13 +17,19 @@
  */
 package org.neo4j.driver.internal.retry;
 
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.util.Clock;
 import org.neo4j.driver.internal.util.ImmediateSchedulingEventExecutor;
 import org.neo4j.driver.internal.util.Supplier;
@@ -34,13 +40,18 @@ import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 import org.neo4j.driver.v1.exceptions.TransientException;
 
 import static java.lang.Long.MAX_VALUE;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
@@ -54,6 +65,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
 import static org.neo4j.driver.internal.util.Futures.failedFuture;
 import static org.neo4j.driver.v1.util.TestUtil.await;
 
@@ -900,6 +912,162 @@ public class ExponentialBackoffRetryLogicTest
         );
     }
 
+    @Test
+    public void executesFirstAttemptInlineWhenCalledFromEventLoop()
+    {
+        DefaultEventLoopGroup eventLoopGroup = new DefaultEventLoopGroup( 2 );
+        try
+        {
+            ExponentialBackoffRetryLogic retryLogic = new ExponentialBackoffRetryLogic( SECONDS.toMillis( 10 ), 1, 1, 0,
+                    eventLoopGroup, Clock.SYSTEM, DEV_NULL_LOGGING );
+            EventLoop eventLoop = eventLoopGroup.next();
+
+            CompletableFuture<Boolean> executedInline = new CompletableFuture<>();
+            eventLoop.execute( () ->
+            {
+                AtomicBoolean executed = new AtomicBoolean();
+                retryLogic.retryAsync( () ->
+                {
+                    executed.set( eventLoop.inEventLoop() );
+                    return completedFuture( null );
+                } );
+                executedInline.complete( executed.get() );
+            } );
+
+            assertTrue( await( executedInline ) );
+        }
+        finally
+        {
+            eventLoopGroup.shutdownGracefully( 0, 0, SECONDS ).syncUninterruptibly();
+        }
+    }
+
+    @Test
+    public void retriesInEventLoopThatObservedFailure()
+    {
+        DefaultEventLoopGroup eventLoopGroup = new DefaultEventLoopGroup( 4 );
+        try
+        {
+            ExponentialBackoffRetryLogic retryLogic = new ExponentialBackoffRetryLogic( SECONDS.toMillis( 10 ), 1, 1, 0,
+                    eventLoopGroup, Clock.SYSTEM, DEV_NULL_LOGGING );
+            EventLoop connectionEventLoop = eventLoopGroup.next();
+
+            AtomicInteger attempts = new AtomicInteger();
+            CompletionStage<Boolean> result = retryLogic.retryAsync( () ->
+            {
+                if ( attempts.getAndIncrement() == 0 )
+                {
+                    // first attempt fails in the event loop of its connection
+                    CompletableFuture<Boolean> failure = new CompletableFuture<>();
+                    connectionEventLoop.execute( () -> failure.completeExceptionally( sessionExpired() ) );
+                    return failure;
+                }
+                return completedFuture( connectionEventLoop.inEventLoop() );
+            } );
+
+            assertTrue( await( result ) );
+            assertEquals( 2, attempts.get() );
+        }
+        finally
+        {
+            eventLoopGroup.shutdownGracefully( 0, 0, SECONDS ).syncUninterruptibly();
+        }
+    }
+
+    @Test
+    public void usesBackoffConfiguredForErrorClass() throws Exception
+    {
+        Clock clock = mock( Clock.class );
+        ExponentialBackoffRetryLogic logic = new ExponentialBackoffRetryLogic( MAX_VALUE, new RetryBackoff( 100, 2 ),
+                singletonMap( TransientException.class, new RetryBackoff( 5, 1 ) ), 0, null, eventExecutor, clock,
+                DEV_NULL_METRICS, DEV_NULL_LOGGING );
+
+        Supplier<Void> workMock = newWorkMock();
+        when( workMock.get() ).thenThrow( transientException() ).thenThrow( transientException() )
+                .thenThrow( sessionExpired() ).thenReturn( null );
+
+        logic.retry( workMock );
+
+        assertEquals( asList( 5L, 5L, 400L ), sleepValues( clock, 3 ) );
+    }
+
+    @Test
+    public void stopsRetryingWhenRetryBudgetIsExhausted()
+    {
+        MetricsListener metrics = mock( MetricsListener.class );
+        ExponentialBackoffRetryLogic logic = new ExponentialBackoffRetryLogic( MAX_VALUE, new RetryBackoff( 0, 1 ),
+                emptyMap(), 0, new RetryBudget( 4, 1 ), eventExecutor, mock( Clock.class ), metrics,
+                DEV_NULL_LOGGING );
+
+        Supplier<Void> workMock = newWorkMock();
+        ServiceUnavailableException error = serviceUnavailable();
+        when( workMock.get() ).thenThrow( error );
+
+        try
+        {
+            logic.retry( workMock );
+            fail( "Exception expected" );
+        }
+        catch ( ServiceUnavailableException e )
+        {
+            assertEquals( error, e );
+        }
+
+        verify( workMock, times( 2 ) ).get();
+        verify( metrics ).addRetryBudget( any() );
+        verify( metrics ).afterRetryScheduled();
+        verify( metrics ).afterRetryThrottled();
+    }
+
+    @Test
+    public void stopsRetryingAsyncWhenRetryBudgetIsExhausted()
+    {
+        RetryBudget budget = new RetryBudget( 4, 1 );
+        ExponentialBackoffRetryLogic logic = new ExponentialBackoffRetryLogic( MAX_VALUE, new RetryBackoff( 0, 1 ),
+                emptyMap(), 0, budget, eventExecutor, Clock.SYSTEM, DEV_NULL_METRICS, DEV_NULL_LOGGING );
+
+        Supplier<CompletionStage<Object>> workMock = newWorkMock();
+        SessionExpiredException error = sessionExpired();
+        when( workMock.get() ).thenReturn( failedFuture( error ) );
+
+        try
+        {
+            await( logic.retryAsync( workMock ) );
+            fail( "Exception expected" );
+        }
+        catch ( SessionExpiredException e )
+        {
+            assertEquals( error, e );
+        }
+
+        verify( workMock, times( 2 ) ).get();
+        assertEquals( 1, eventExecutor.scheduleDelays().size() );
+        assertEquals( 2.0, budget.availableTokens(), 0.0 );
+    }
+
+    @Test
+    public void reportsExhaustedRetries()
+    {
+        MetricsListener metrics = mock( MetricsListener.class );
+        ExponentialBackoffRetryLogic logic = new ExponentialBackoffRetryLogic( 0, new RetryBackoff( 0, 1 ),
+                emptyMap(), 0, null, eventExecutor, mock( Clock.class ), metrics, DEV_NULL_LOGGING );
+
+        Supplier<Void> workMock = newWorkMock();
+        when( workMock.get() ).thenThrow( transientException() );
+
+        try
+        {
+            logic.retry( workMock );
+            fail( "Exception expected" );
+        }
+        catch ( TransientException ignore )
+        {
+        }
+
+        verify( metrics ).afterRetriesExhausted();
+        verify( metrics, never() ).afterRetryScheduled();
+    }
+
     private static void retry( ExponentialBackoffRetryLogic retryLogic, final int times )
     {
         retryLogic.retry( new Supplier<Void>()
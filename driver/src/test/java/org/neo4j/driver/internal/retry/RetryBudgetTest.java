@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2018 Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.retry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RetryBudgetTest
+{
+    @Test
+    public void shouldAllowRetriesWhileMoreThanHalfOfTokensAreAvailable()
+    {
+        RetryBudget budget = new RetryBudget( 4, 1 );
+
+        assertTrue( budget.tryAcquireRetry() );
+        assertEquals( 3.0, budget.availableTokens(), 0.0 );
+        assertFalse( budget.tryAcquireRetry() );
+        assertFalse( budget.tryAcquireRetry() );
+        assertFalse( budget.tryAcquireRetry() );
+        assertFalse( budget.tryAcquireRetry() );
+        assertEquals( 0.0, budget.availableTokens(), 0.0 );
+    }
+
+    @Test
+    public void shouldRestoreTokensOnSuccess()
+    {
+        RetryBudget budget = new RetryBudget( 10, 0.5 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            budget.tryAcquireRetry();
+        }
+        assertEquals( 0.0, budget.availableTokens(), 0.0 );
+
+        for ( int i = 0; i < 13; i++ )
+        {
+            budget.onSuccess();
+        }
+
+        assertEquals( 6.5, budget.availableTokens(), 0.0 );
+        assertTrue( budget.tryAcquireRetry() );
+        assertFalse( budget.tryAcquireRetry() );
+    }
+
+    @Test
+    public void shouldNotExceedMaxTokens()
+    {
+        RetryBudget budget = new RetryBudget( 5, 0.3 );
+
+        budget.tryAcquireRetry();
+        for ( int i = 0; i < 100; i++ )
+        {
+            budget.onSuccess();
+        }
+
+        assertEquals( 5.0, budget.availableTokens(), 0.0 );
+    }
+}
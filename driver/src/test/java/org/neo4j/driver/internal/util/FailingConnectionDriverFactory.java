@@ -81,12 +81,30 @@ public class FailingConnectionDriverFactory extends DriverFactory
             return delegate.inUseConnections( address );
         }
 
+        @Override
+        public int connectionLimit( BoltServerAddress address )
+        {
+            return delegate.connectionLimit( address );
+        }
+
+        @Override
+        public void connectionLimitReached( BoltServerAddress address )
+        {
+            delegate.connectionLimitReached( address );
+        }
+
         @Override
         public int idleConnections( BoltServerAddress address )
         {
             return delegate.idleConnections( address );
         }
 
+        @Override
+        public long responseTime( BoltServerAddress address )
+        {
+            return delegate.responseTime( address );
+        }
+
         @Override
         public CompletionStage<Void> close()
         {
@@ -98,6 +116,24 @@ public class FailingConnectionDriverFactory extends DriverFactory
         {
             return delegate.isOpen( address );
         }
+
+        @Override
+        public boolean isCircuitOpen( BoltServerAddress address )
+        {
+            return delegate.isCircuitOpen( address );
+        }
+
+        @Override
+        public CompletionStage<Void> drain( BoltServerAddress address )
+        {
+            return delegate.drain( address );
+        }
+
+        @Override
+        public void endDrain( BoltServerAddress address )
+        {
+            delegate.endDrain( address );
+        }
     }
 
     private static class FailingConnection implements Connection
@@ -117,6 +153,12 @@ public class FailingConnectionDriverFactory extends DriverFactory
             return delegate.isOpen();
         }
 
+        @Override
+        public boolean isActive()
+        {
+            return delegate.isActive();
+        }
+
         @Override
         public void enableAutoRead()
         {
@@ -26,6 +26,7 @@ import io.netty.util.concurrent.Promise;
 import io.netty.util.concurrent.ScheduledFuture;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -147,7 +148,7 @@ public class ImmediateSchedulingEventExecutor implements EventExecutor
     @Override
     public Iterator<EventExecutor> iterator()
     {
-        return delegate.iterator();
+        return Collections.<EventExecutor>singleton( this ).iterator();
     }
 
     @Override
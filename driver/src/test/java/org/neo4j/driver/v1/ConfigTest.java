@@ -22,9 +22,13 @@ import org.junit.Test;
 import java.io.File;
 import java.util.concurrent.TimeUnit;
 
+import org.neo4j.driver.internal.retry.RetrySettings;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.TransientException;
 import org.neo4j.driver.v1.util.FileTools;
 
 import static java.lang.System.getProperty;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -296,6 +300,221 @@ public class ConfigTest
         assertEquals( 0, config.connectionAcquisitionTimeoutMillis() );
     }
 
+    @Test
+    public void shouldNotShareConnectionPoolByDefault()
+    {
+        assertFalse( Config.defaultConfig().sharedConnectionPool() );
+    }
+
+    @Test
+    public void shouldAllowSharedConnectionPool()
+    {
+        Config config = Config.build().withSharedConnectionPool().toConfig();
+
+        assertTrue( config.sharedConnectionPool() );
+    }
+
+    @Test
+    public void shouldNotSizeConnectionPoolAdaptivelyByDefault()
+    {
+        Config config = Config.defaultConfig();
+
+        assertFalse( config.adaptiveConnectionPoolSize() );
+        assertEquals( -1, config.minConnectionPoolSize() );
+    }
+
+    @Test
+    public void shouldAllowAdaptiveConnectionPoolSize()
+    {
+        Config config = Config.build().withAdaptiveConnectionPoolSize( 5 ).toConfig();
+
+        assertTrue( config.adaptiveConnectionPoolSize() );
+        assertEquals( 5, config.minConnectionPoolSize() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowZeroMinConnectionPoolSize()
+    {
+        Config.build().withAdaptiveConnectionPoolSize( 0 );
+    }
+
+    @Test
+    public void shouldDisableCircuitBreakerByDefault()
+    {
+        Config config = Config.defaultConfig();
+
+        assertEquals( -1, config.circuitBreakerFailureRateThreshold(), 0 );
+        assertEquals( -1, config.circuitBreakerCoolDownMillis() );
+    }
+
+    @Test
+    public void shouldAllowCircuitBreaker()
+    {
+        Config config = Config.build().withCircuitBreaker( 0.5, 10, TimeUnit.SECONDS ).toConfig();
+
+        assertEquals( 0.5, config.circuitBreakerFailureRateThreshold(), 0 );
+        assertEquals( 10_000, config.circuitBreakerCoolDownMillis() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowCircuitBreakerFailureRateAboveOne()
+    {
+        Config.build().withCircuitBreaker( 1.5, 10, TimeUnit.SECONDS );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowNegativeCircuitBreakerCoolDown()
+    {
+        Config.build().withCircuitBreaker( 0.5, -1, TimeUnit.SECONDS );
+    }
+
+    @Test
+    public void shouldDisableRoutingTableRefreshByDefault()
+    {
+        Config config = Config.defaultConfig();
+
+        assertEquals( -1, config.routingTableRefreshRatio(), 0 );
+        assertFalse( config.routingSettings().routingTableRefreshEnabled() );
+    }
+
+    @Test
+    public void shouldAllowRoutingTableRefresh()
+    {
+        Config config = Config.build().withRoutingTableRefreshRatio( 0.8 ).toConfig();
+
+        assertEquals( 0.8, config.routingTableRefreshRatio(), 0 );
+        assertEquals( 0.8, config.routingSettings().routingTableRefreshRatio(), 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowRoutingTableRefreshRatioOfOne()
+    {
+        Config.build().withRoutingTableRefreshRatio( 1 );
+    }
+
+    @Test
+    public void shouldAllowHedgedRoutingLookups()
+    {
+        Config config = Config.build().withRoutingLookupHedgeDelay( 50, TimeUnit.MILLISECONDS ).toConfig();
+
+        assertEquals( 50, config.routingLookupHedgeDelayMillis() );
+        assertTrue( config.routingSettings().routingLookupHedgingEnabled() );
+        assertFalse( Config.defaultConfig().routingSettings().routingLookupHedgingEnabled() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowNegativeRoutingLookupHedgeDelay()
+    {
+        Config.build().withRoutingLookupHedgeDelay( -1, TimeUnit.SECONDS );
+    }
+
+    @Test
+    public void shouldAllowRoutingWarmUpConnections()
+    {
+        Config config = Config.build().withRoutingWarmUpConnections( 3 ).toConfig();
+
+        assertEquals( 3, config.routingWarmUpConnections() );
+        assertTrue( config.routingSettings().routingWarmUpEnabled() );
+        assertFalse( Config.defaultConfig().routingSettings().routingWarmUpEnabled() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowZeroRoutingWarmUpConnections()
+    {
+        Config.build().withRoutingWarmUpConnections( 0 );
+    }
+
+    @Test
+    public void shouldAllowRoutingTableSnapshot()
+    {
+        File file = new File( "routing.properties" );
+
+        assertEquals( file, Config.build().withRoutingTableSnapshot( file ).toConfig().routingTableSnapshotFile() );
+        assertEquals( null, Config.defaultConfig().routingTableSnapshotFile() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowNullRoutingTableSnapshot()
+    {
+        Config.build().withRoutingTableSnapshot( null );
+    }
+
+    @Test
+    public void shouldAllowClientZone()
+    {
+        Config config = Config.build().withClientZone( "eu-west-1a", singletonMap( "server:7687", "eu-west-1b" ) )
+                .toConfig();
+
+        assertEquals( "eu-west-1a", config.clientZone() );
+        assertEquals( singletonMap( "server:7687", "eu-west-1b" ), config.serverZones() );
+        assertEquals( null, Config.defaultConfig().clientZone() );
+        assertTrue( Config.defaultConfig().serverZones().isEmpty() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowNullClientZone()
+    {
+        Config.build().withClientZone( null, singletonMap( "server:7687", "eu-west-1b" ) );
+    }
+
+    @Test
+    public void shouldAllowFetchSize()
+    {
+        assertEquals( 100, Config.build().withFetchSize( 100 ).toConfig().fetchSize() );
+        assertEquals( -1, Config.defaultConfig().fetchSize() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowNegativeFetchSize()
+    {
+        Config.build().withFetchSize( -5 );
+    }
+
+    @Test
+    public void shouldAllowSessionConnectionAffinity()
+    {
+        Config config = Config.build().withSessionConnectionAffinity( 2, TimeUnit.SECONDS ).toConfig();
+
+        assertEquals( 2000, config.sessionConnectionAffinityMillis() );
+        assertEquals( -1, Config.defaultConfig().sessionConnectionAffinityMillis() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowZeroSessionConnectionAffinity()
+    {
+        Config.build().withSessionConnectionAffinity( 0, TimeUnit.SECONDS );
+    }
+
+    @Test
+    public void shouldAllowTransactionRetryBudgetAndBackoff()
+    {
+        Config config = Config.build()
+                .withTransactionRetryBudget( 10, 0.1 )
+                .withTransactionRetryBackoff( TransientException.class, 10, TimeUnit.MILLISECONDS, 1.5 )
+                .withMaxTransactionRetryTime( 5, TimeUnit.SECONDS )
+                .toConfig();
+
+        RetrySettings settings = config.retrySettings();
+        assertEquals( 5000, settings.maxRetryTimeMs() );
+        assertEquals( 10, settings.retryBudgetMaxTokens() );
+        assertEquals( 0.1, settings.retryBudgetTokenRatio(), 0.0 );
+        assertEquals( 10, settings.backoffs().get( TransientException.class ).initialDelayMs() );
+        assertEquals( 1.5, settings.backoffs().get( TransientException.class ).multiplier(), 0.0 );
+        assertEquals( -1, Config.defaultConfig().retrySettings().retryBudgetMaxTokens() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowZeroRetryBudgetTokenRatio()
+    {
+        Config.build().withTransactionRetryBudget( 10, 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowRetryBackoffForErrorsThatAreNotRetried()
+    {
+        Config.build().withTransactionRetryBackoff( ClientException.class, 1, TimeUnit.SECONDS, 2 );
+    }
+
     public static void deleteDefaultKnownCertFileIfExists()
     {
         if( DEFAULT_KNOWN_HOSTS.exists() )
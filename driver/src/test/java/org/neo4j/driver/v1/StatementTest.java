@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.neo4j.driver.v1.Values.parameters;
 
@@ -111,4 +112,24 @@ public class StatementTest
         assertThat( statement.text(), equalTo( text ) );
         assertThat( statement.parameters(), equalTo( parameters( "a", 0, "c", 3 ) ) );
     }
+
+    @Test
+    public void shouldKeepFetchSizeWhenStatementIsUpdated()
+    {
+        // when
+        Statement statement = new Statement( "MATCH (n) RETURN n" ).withFetchSize( 42 )
+                .withText( "MATCH (n) RETURN n.name" )
+                .withParameters( parameters( "a", 1 ) );
+
+        // then
+        assertThat( statement.fetchSize(), equalTo( 42 ) );
+        assertThat( new Statement( "RETURN 1" ).fetchSize(), equalTo( -1 ) );
+        assertThat( statement, not( equalTo( statement.withFetchSize( 7 ) ) ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowZeroFetchSize()
+    {
+        new Statement( "RETURN 1" ).withFetchSize( 0 );
+    }
 }
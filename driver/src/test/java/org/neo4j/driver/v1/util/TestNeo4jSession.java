@@ -30,6 +30,7 @@ import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.Transaction;
 import org.neo4j.driver.v1.TransactionWork;
 import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.reactive.Publisher;
 import org.neo4j.driver.v1.types.TypeSystem;
 
 /**
@@ -203,6 +204,12 @@ public class TestNeo4jSession extends TestNeo4j implements Session
         return realSession.runAsync( statement );
     }
 
+    @Override
+    public Publisher<Record> runRx( org.neo4j.driver.v1.Statement statement )
+    {
+        return realSession.runRx( statement );
+    }
+
     @Override
     public TypeSystem typeSystem()
     {